@@ -34,6 +34,7 @@ import org.sat4j.minisat.SolverFactory;
 import org.sat4j.reader.InstanceReader;
 import org.sat4j.reader.Reader;
 import org.sat4j.specs.ISolver;
+import org.sat4j.tools.PreprocessingDecorator;
 
 /**
  * Very simple launcher, to be used during the SAT competition or the SAT race
@@ -87,6 +88,13 @@ public class BasicLauncher<T extends ISolver> extends AbstractLauncher {
                 && System.getProperty("all") == null) {
             asolver.setDBSimplificationAllowed(true);
         }
+        if (System.getProperty("preprocessing") != null
+                && System.getProperty("all") == null
+                && System.getProperty("prime") == null
+                && System.getProperty("minone") == null
+                && System.getProperty("UNSATPROOF") == null) {
+            asolver = new PreprocessingDecorator<ISolver>(asolver);
+        }
         getLogWriter().println(asolver.toString(COMMENT_PREFIX));
         return asolver;
     }
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A map from non zero integers (typically literals) to integers, using open
+ * addressing with linear probing on primitive arrays. It avoids the boxing of
+ * the keys and values of a {@link java.util.HashMap} when indexing large
+ * vectors of literals.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public final class IntIntHashMap implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * the value returned when a key is not in the map.
+     */
+    public static final int NO_VALUE = -1;
+
+    private static final int FREE = 0;
+
+    private int[] keys;
+
+    private int[] values;
+
+    private int size;
+
+    private int mask;
+
+    public IntIntHashMap() {
+        this(16);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = 4;
+        while (capacity < 2 * expectedSize) {
+            capacity <<= 1;
+        }
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ h >>> 16) & this.mask;
+    }
+
+    /**
+     * 
+     * @param key
+     *            a non zero integer
+     * @return the value associated to that key, {@link #NO_VALUE} if there is
+     *         none.
+     */
+    public int get(int key) {
+        assert key != FREE;
+        for (int i = slot(key);; i = i + 1 & this.mask) {
+            if (this.keys[i] == key) {
+                return this.values[i];
+            }
+            if (this.keys[i] == FREE) {
+                return NO_VALUE;
+            }
+        }
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != NO_VALUE;
+    }
+
+    /**
+     * associates a value to a key, replacing the previous one if any.
+     * 
+     * @param key
+     *            a non zero integer
+     * @param value
+     *            any value but {@link #NO_VALUE}
+     */
+    public void put(int key, int value) {
+        assert key != FREE;
+        assert value != NO_VALUE;
+        int i = slot(key);
+        while (this.keys[i] != FREE) {
+            if (this.keys[i] == key) {
+                this.values[i] = value;
+                return;
+            }
+            i = i + 1 & this.mask;
+        }
+        this.keys[i] = key;
+        this.values[i] = value;
+        if (++this.size > this.keys.length >> 1) {
+            rehash(this.keys.length << 1);
+        }
+    }
+
+    /**
+     * removes a key from the map.
+     * 
+     * @param key
+     *            a non zero integer
+     * @return the value that was associated to the key, {@link #NO_VALUE} if
+     *         there was none.
+     */
+    public int remove(int key) {
+        assert key != FREE;
+        int i = slot(key);
+        while (this.keys[i] != key) {
+            if (this.keys[i] == FREE) {
+                return NO_VALUE;
+            }
+            i = i + 1 & this.mask;
+        }
+        int value = this.values[i];
+        // shift back the following keys of the cluster
+        int j = i;
+        while (true) {
+            j = j + 1 & this.mask;
+            if (this.keys[j] == FREE) {
+                break;
+            }
+            int k = slot(this.keys[j]);
+            if (i <= j ? i < k && k <= j : i < k || k <= j) {
+                // the key is already between its slot and j
+                continue;
+            }
+            this.keys[i] = this.keys[j];
+            this.values[i] = this.values[j];
+            i = j;
+        }
+        this.keys[i] = FREE;
+        this.size--;
+        return value;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        if (this.size > 0) {
+            Arrays.fill(this.keys, FREE);
+            this.size = 0;
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
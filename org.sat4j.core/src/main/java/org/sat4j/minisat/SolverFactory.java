@@ -30,9 +30,12 @@
 package org.sat4j.minisat;
 
 import org.sat4j.core.ASolverFactory;
+import org.sat4j.minisat.constraints.MixedDataStructureDanielArena;
 import org.sat4j.minisat.constraints.MixedDataStructureDanielHT;
+import org.sat4j.minisat.constraints.MixedDataStructureDanielImplications;
 import org.sat4j.minisat.constraints.MixedDataStructureDanielWL;
 import org.sat4j.minisat.constraints.MixedDataStructureDanielWLConciseBinary;
+import org.sat4j.minisat.constraints.MixedDataStructureDanielWLWithBlockers;
 import org.sat4j.minisat.constraints.MixedDataStructureSingleWL;
 import org.sat4j.minisat.core.DataStructureFactory;
 import org.sat4j.minisat.core.ICDCL;
@@ -386,6 +389,18 @@ public final class SolverFactory extends ASolverFactory<ISolver> {
         return solver;
     }
 
+    /**
+     * 
+     * @return the default solver with a three tiers (core, tier2, local) LCDS
+     *         based on LBD
+     * @since 2.3.6
+     */
+    public static ISolver newTiersLCDS() {
+        Solver<?> solver = (Solver<?>) newGlucose21();
+        solver.setLearnedConstraintsDeletionStrategy(solver.tier_based);
+        return solver;
+    }
+
     /**
      * Default solver of the SolverFactory. This solver is meant to be used on
      * challenging SAT benchmarks.
@@ -478,6 +493,70 @@ public final class SolverFactory extends ASolverFactory<ISolver> {
         return solver;
     }
 
+    /**
+     * The default solver using watch lists with blocking literals.
+     * 
+     * @return a solver skipping satisfied clauses thanks to blockers during
+     *         unit propagation.
+     * @since 2.3.6
+     */
+    public static Solver<DataStructureFactory> newBlockers() {
+        Solver<DataStructureFactory> solver = newMiniLearningHeap(
+                new MixedDataStructureDanielWLWithBlockers());
+        solver.setSimplifier(solver.EXPENSIVE_SIMPLIFICATION);
+        solver.setOrder(new VarOrderHeap(new RSATPhaseSelectionStrategy()));
+        solver.setRestartStrategy(new Glucose21Restarts());
+        solver.setLearnedConstraintsDeletionStrategy(solver.lbd_based);
+        return solver;
+    }
+
+    /**
+     * The default solver storing its clauses in a single array of int.
+     * 
+     * @return a solver whose clauses do not need one array object each.
+     * @since 2.3.6
+     */
+    public static Solver<DataStructureFactory> newArena() {
+        Solver<DataStructureFactory> solver = newMiniLearningHeap(
+                new MixedDataStructureDanielArena());
+        solver.setSimplifier(solver.EXPENSIVE_SIMPLIFICATION);
+        solver.setOrder(new VarOrderHeap(new RSATPhaseSelectionStrategy()));
+        solver.setRestartStrategy(new Glucose21Restarts());
+        solver.setLearnedConstraintsDeletionStrategy(solver.lbd_based);
+        return solver;
+    }
+
+    /**
+     * The default solver storing the original binary clauses as lists of
+     * implied literals.
+     * 
+     * @return a solver propagating the binary clauses without visiting a
+     *         constraint object for each of them.
+     * @since 2.3.6
+     */
+    public static Solver<DataStructureFactory> newImplications() {
+        Solver<DataStructureFactory> solver = newMiniLearningHeap(
+                new MixedDataStructureDanielImplications());
+        solver.setSimplifier(solver.EXPENSIVE_SIMPLIFICATION);
+        solver.setOrder(new VarOrderHeap(new RSATPhaseSelectionStrategy()));
+        solver.setRestartStrategy(new Glucose21Restarts());
+        solver.setLearnedConstraintsDeletionStrategy(solver.lbd_based);
+        return solver;
+    }
+
+    /**
+     * The default solver with inprocessing at restarts.
+     * 
+     * @return a solver probing failed literals and vivifying its learned
+     *         clauses at restarts.
+     * @since 2.3.6
+     */
+    public static Solver<DataStructureFactory> newInprocessing() {
+        Solver<DataStructureFactory> solver = (Solver<DataStructureFactory>) newGlucose21();
+        solver.setInprocessing(true);
+        return solver;
+    }
+
     public static Solver<DataStructureFactory> newNoSimplification() {
         Solver<DataStructureFactory> solver = (Solver<DataStructureFactory>) newGlucose21();
         solver.setSimplifier(Solver.NO_SIMPLIFICATION);
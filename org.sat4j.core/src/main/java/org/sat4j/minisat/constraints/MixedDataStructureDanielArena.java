@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.constraints;
+
+import org.sat4j.minisat.constraints.cnf.ArenaClause;
+import org.sat4j.minisat.constraints.cnf.ClauseArena;
+import org.sat4j.minisat.constraints.cnf.Clauses;
+import org.sat4j.minisat.constraints.cnf.LearntBinaryClause;
+import org.sat4j.minisat.constraints.cnf.LitsWithArena;
+import org.sat4j.minisat.constraints.cnf.OriginalBinaryClause;
+import org.sat4j.minisat.constraints.cnf.UnitClause;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Same data structure as {@link MixedDataStructureDanielWL} except that the
+ * clauses of size greater than two are stored contiguously in a single
+ * {@link ClauseArena} instead of one array per clause, and watched by offset
+ * in the watch lists of the arena.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public class MixedDataStructureDanielArena extends MixedDataStructureDanielWL {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ClauseArena arena = ((LitsWithArena) getVocabulary())
+            .getArena();
+
+    @Override
+    public Constr createClause(IVecInt literals) throws ContradictionException {
+        IVecInt v = Clauses.sanityCheck(literals, getVocabulary(), this.solver);
+        if (v == null) {
+            // tautological clause
+            return null;
+        }
+        if (v.size() == 1) {
+            return new UnitClause(v.last());
+        }
+        if (v.size() == 2) {
+            return OriginalBinaryClause.brandNewClause(this.solver,
+                    getVocabulary(), v);
+        }
+        return ArenaClause.brandNewClause(this.arena, v);
+    }
+
+    @Override
+    public Constr createUnregisteredClause(IVecInt literals) {
+        if (literals.size() == 1) {
+            return new UnitClause(literals.last());
+        }
+        if (literals.size() == 2) {
+            return new LearntBinaryClause(literals, getVocabulary());
+        }
+        return ArenaClause.learntClause(this.arena, literals);
+    }
+
+    @Override
+    protected ILits createLits() {
+        return new LitsWithArena();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.arena.clear();
+    }
+
+    /**
+     * @return the arena storing the literals of the clauses.
+     */
+    public ClauseArena getArena() {
+        return this.arena;
+    }
+}
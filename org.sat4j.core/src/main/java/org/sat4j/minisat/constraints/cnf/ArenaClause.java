@@ -0,0 +1,380 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.constraints.cnf;
+
+import static org.sat4j.core.LiteralsUtils.var;
+
+import java.io.Serializable;
+
+import org.sat4j.core.LiteralsUtils;
+import org.sat4j.minisat.core.BatchRemovable;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.MandatoryLiteralListener;
+import org.sat4j.specs.Propagatable;
+import org.sat4j.specs.UnitPropagationListener;
+import org.sat4j.specs.VarMapper;
+
+/**
+ * Handle of a watched literals clause stored in a {@link ClauseArena}.
+ * 
+ * The first two literals of the clause are watched, as in {@link WLClause},
+ * but the watch lists are the ones of the arena: they contain the offset of
+ * the clause, not the handle, and the arena propagates the clause itself.
+ * The handle is the reason of the literals propagated by the clause.
+ * 
+ * A learned clause keeps its literals and its activity in the handle until
+ * it is registered, since it may be used as a reason without ever being
+ * added to the clause database. A clause removed from the solver must no
+ * longer be used: once the arena is compacted it is detached and looks
+ * empty.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public final class ArenaClause implements Propagatable, Constr,
+        BatchRemovable, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int DETACHED = -1;
+
+    private final ClauseArena arena;
+
+    /**
+     * offset of the header of the clause in the arena.
+     */
+    int offset = DETACHED;
+
+    /**
+     * literals of a clause not registered yet.
+     */
+    private int[] pending;
+
+    /**
+     * activity of a clause not registered yet.
+     */
+    private double pendingActivity;
+
+    private ArenaClause(ClauseArena arena, IVecInt ps) {
+        this.arena = arena;
+        this.pending = new int[ps.size()];
+        ps.moveTo(this.pending);
+    }
+
+    /**
+     * Creates a new original clause and adds it to the solver.
+     * 
+     * @param arena
+     *            the arena storing the literals
+     * @param literals
+     *            A VecInt that WILL BE EMPTY after calling that method.
+     * @return the created clause
+     */
+    public static ArenaClause brandNewClause(ClauseArena arena,
+            IVecInt literals) {
+        ArenaClause c = new ArenaClause(arena, literals);
+        c.store(false, 0);
+        c.watchFirstLiterals();
+        return c;
+    }
+
+    /**
+     * Creates a new learned clause, not added yet to the solver.
+     * 
+     * @param arena
+     *            the arena storing the literals
+     * @param literals
+     *            A VecInt that WILL BE EMPTY after calling that method.
+     * @return the created clause
+     */
+    public static ArenaClause learntClause(ClauseArena arena, IVecInt literals) {
+        return new ArenaClause(arena, literals);
+    }
+
+    private void store(boolean learnt, int lbd) {
+        this.offset = this.arena.allocate(this, this.pending, learnt, lbd,
+                this.pendingActivity);
+        this.pending = null;
+    }
+
+    private void watchFirstLiterals() {
+        final int[] mylits = this.arena.data;
+        final int first = this.offset + ClauseArena.HEADER_SIZE;
+        this.arena.watch(mylits[first] ^ 1, this.offset, mylits[first + 1]);
+        this.arena.watch(mylits[first + 1] ^ 1, this.offset, mylits[first]);
+    }
+
+    private int[] lits() {
+        return this.pending == null ? this.arena.data : this.pending;
+    }
+
+    private int first() {
+        return this.pending == null ? this.offset + ClauseArena.HEADER_SIZE
+                : 0;
+    }
+
+    public void register() {
+        if (this.pending == null || this.pending.length == 0) {
+            return;
+        }
+        assert this.pending.length > 1;
+        final int[] mylits = this.pending;
+        // watch the literal assigned at the highest level
+        int maxi = 1;
+        int maxlevel = this.arena.voc.getLevel(mylits[1]);
+        for (int i = 2; i < mylits.length; i++) {
+            int level = this.arena.voc.getLevel(mylits[i]);
+            if (level > maxlevel) {
+                maxi = i;
+                maxlevel = level;
+            }
+        }
+        int l = mylits[1];
+        mylits[1] = mylits[maxi];
+        mylits[maxi] = l;
+        store(true, this.arena.lbd(mylits));
+        watchFirstLiterals();
+    }
+
+    public void remove(UnitPropagationListener upl) {
+        // the watchers are removed lazily by the arena
+        removedFromWatches();
+    }
+
+    public void removedFromWatches() {
+        if (this.pending == null && this.offset != DETACHED) {
+            this.arena.free(this.offset);
+        }
+    }
+
+    /**
+     * Arena clauses are propagated by
+     * {@link ClauseArena#propagate(int, UnitPropagationListener)}, they never
+     * appear in the watch lists of the vocabulary.
+     */
+    public boolean propagate(UnitPropagationListener s, int p) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Arena clauses are handled by
+     * {@link ClauseArena#propagatePI(int, MandatoryLiteralListener)}, they
+     * never appear in the watch lists of the vocabulary.
+     */
+    public boolean propagatePI(MandatoryLiteralListener s, int p) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void calcReason(int p, IVecInt outReason) {
+        final int[] mylits = lits();
+        final int first = first();
+        final int end = first + size();
+        for (int i = p == ILits.UNDEFINED ? first : first + 1; i < end; i++) {
+            assert this.arena.voc.isFalsified(mylits[i]);
+            outReason.push(mylits[i] ^ 1);
+        }
+    }
+
+    public void calcReasonOnTheFly(int p, IVecInt trail, IVecInt outReason) {
+        calcReason(p, outReason);
+    }
+
+    public boolean simplify() {
+        return isSatisfied();
+    }
+
+    public boolean isSatisfied() {
+        final int[] mylits = lits();
+        final int first = first();
+        final int end = first + size();
+        for (int i = first; i < end; i++) {
+            if (this.arena.voc.isSatisfied(mylits[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean locked() {
+        return size() > 0 && this.arena.voc.getReason(get(0)) == this;
+    }
+
+    public boolean learnt() {
+        return this.pending != null
+                || this.offset != DETACHED
+                && (this.arena.data[this.offset + ClauseArena.FLAGS] & ClauseArena.LEARNT) != 0;
+    }
+
+    public void setLearnt() {
+        // learned clauses are flagged when they are stored in the arena
+    }
+
+    public double getActivity() {
+        if (this.pending != null) {
+            return this.pendingActivity;
+        }
+        if (this.offset == DETACHED) {
+            return 0.0;
+        }
+        return Float.intBitsToFloat(this.arena.data[this.offset
+                + ClauseArena.ACTIVITY]);
+    }
+
+    public void setActivity(double d) {
+        if (this.pending != null) {
+            this.pendingActivity = d;
+        } else if (this.offset != DETACHED) {
+            this.arena.data[this.offset + ClauseArena.ACTIVITY] = Float
+                    .floatToRawIntBits((float) d);
+        }
+    }
+
+    public void incActivity(double claInc) {
+        if (learnt()) {
+            setActivity(getActivity() + claInc);
+        }
+    }
+
+    public void forwardActivity(double claInc) {
+        if (!learnt()) {
+            setActivity(getActivity() + claInc);
+        }
+    }
+
+    public void rescaleBy(double d) {
+        setActivity(getActivity() * d);
+    }
+
+    /**
+     * @return the number of decision levels of the literals of the clause
+     *         when it was learned, 0 for an original clause.
+     */
+    public int getLBD() {
+        if (this.pending != null || this.offset == DETACHED) {
+            return 0;
+        }
+        return this.arena.data[this.offset + ClauseArena.LBD];
+    }
+
+    public int size() {
+        if (this.pending != null) {
+            return this.pending.length;
+        }
+        if (this.offset == DETACHED) {
+            return 0;
+        }
+        return this.arena.data[this.offset + ClauseArena.SIZE];
+    }
+
+    /**
+     * Retourne le ieme literal de la clause. Attention, cet ordre change durant
+     * la recherche.
+     * 
+     * @param i
+     *            the index of the literal
+     * @return the literal
+     */
+    public int get(int i) {
+        return lits()[first() + i];
+    }
+
+    public int[] getLits() {
+        int[] tmp = new int[size()];
+        System.arraycopy(lits(), first(), tmp, 0, tmp.length);
+        return tmp;
+    }
+
+    public void assertConstraint(UnitPropagationListener s) {
+        boolean ret = s.enqueue(get(0), this);
+        assert ret;
+    }
+
+    public void assertConstraintIfNeeded(UnitPropagationListener s) {
+        if (this.arena.voc.isFalsified(get(1))) {
+            boolean ret = s.enqueue(get(0), this);
+            assert ret;
+        }
+    }
+
+    public boolean canBePropagatedMultipleTimes() {
+        return false;
+    }
+
+    public Constr toConstraint() {
+        return this;
+    }
+
+    public boolean canBeSatisfiedByCountingLiterals() {
+        return true;
+    }
+
+    public int requiredNumberOfSatisfiedLiterals() {
+        return 1;
+    }
+
+    public int getAssertionLevel(IVecInt trail, int decisionLevel) {
+        for (int i = trail.size() - 1; i >= 0; i--) {
+            if (var(trail.get(i)) == var(get(0))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stb = new StringBuilder();
+        for (int i = 0; i < size(); i++) {
+            stb.append(Lits.toString(get(i)));
+            stb.append("["); //$NON-NLS-1$
+            stb.append(this.arena.voc.valueToString(get(i)));
+            stb.append("]"); //$NON-NLS-1$
+            stb.append(" "); //$NON-NLS-1$
+        }
+        return stb.toString();
+    }
+
+    public String toString(VarMapper mapper) {
+        if (mapper == null) {
+            return toString();
+        }
+        StringBuilder stb = new StringBuilder();
+        for (int i = 0; i < size(); i++) {
+            stb.append(mapper.map(LiteralsUtils.toDimacs(get(i))));
+            stb.append("["); //$NON-NLS-1$
+            stb.append(this.arena.voc.valueToString(get(i)));
+            stb.append("]"); //$NON-NLS-1$
+            stb.append(" "); //$NON-NLS-1$
+        }
+        return stb.toString();
+    }
+}
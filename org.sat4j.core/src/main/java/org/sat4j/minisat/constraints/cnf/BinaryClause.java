@@ -35,6 +35,7 @@ import static org.sat4j.core.LiteralsUtils.var;
 import java.io.Serializable;
 
 import org.sat4j.core.LiteralsUtils;
+import org.sat4j.minisat.core.BatchRemovable;
 import org.sat4j.minisat.core.ILits;
 import org.sat4j.specs.Constr;
 import org.sat4j.specs.IVecInt;
@@ -50,7 +51,7 @@ import org.sat4j.specs.VarMapper;
  * @since 2.1
  */
 public abstract class BinaryClause
-        implements Propagatable, Constr, Serializable {
+        implements Propagatable, Constr, BatchRemovable, Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -102,6 +103,13 @@ public abstract class BinaryClause
         this.voc.watches(neg(this.tail)).remove(this);
     }
 
+    /**
+     * @since 2.3.6
+     */
+    public void removedFromWatches() {
+        // nothing else to release
+    }
+
     /*
      * (non-Javadoc)
      * 
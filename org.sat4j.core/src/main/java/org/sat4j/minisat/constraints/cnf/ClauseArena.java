@@ -0,0 +1,551 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.constraints.cnf;
+
+import java.io.Serializable;
+
+import org.sat4j.core.Vec;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.MandatoryLiteralListener;
+import org.sat4j.specs.UnitPropagationListener;
+
+/**
+ * A growable array of int storing the clauses contiguously, together with
+ * the watch lists of those clauses.
+ * 
+ * Each clause is stored at a given offset as a header (its size, some flags,
+ * the index of its handle, its LBD and its activity) followed by its
+ * literals. The watch lists only contain offsets in the arena and blocker
+ * literals, so that unit propagation visits the clauses without any pointer
+ * chasing. The {@link ArenaClause} handles are only used when a clause
+ * becomes a reason or a conflict, or by the rest of the solver.
+ * 
+ * Removed clauses are flagged in the arena, and dropped lazily from the watch
+ * lists. Their space is reclaimed by {@link #compact()}, called by the solver
+ * after a reduction of the learned clauses database.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public final class ClauseArena implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Index of the size of the clause in its header.
+     */
+    static final int SIZE = 0;
+
+    /**
+     * Index of the flags of the clause in its header.
+     */
+    static final int FLAGS = 1;
+
+    /**
+     * Index in the header of the position of the handle of the clause in
+     * {@link #clauses}.
+     */
+    static final int HANDLE = 2;
+
+    /**
+     * Index of the LBD of the clause in its header.
+     */
+    static final int LBD = 3;
+
+    /**
+     * Index of the activity of the clause in its header, stored as the bits
+     * of a float.
+     */
+    static final int ACTIVITY = 4;
+
+    static final int HEADER_SIZE = 5;
+
+    static final int LEARNT = 1;
+
+    static final int DELETED = 2;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int[] NO_WATCHES = new int[0];
+
+    int[] data;
+
+    private int top;
+
+    private int wasted;
+
+    private int compactions;
+
+    /**
+     * The clauses stored in the arena, sorted by increasing offset.
+     */
+    private final IVec<ArenaClause> clauses = new Vec<ArenaClause>();
+
+    /**
+     * The watch lists: for each literal p, the offsets of the clauses to
+     * visit when p is satisfied, each one followed by a blocker literal.
+     */
+    private int[][] watches = new int[0][];
+
+    private int[] nbWatches = new int[0];
+
+    /**
+     * The new offsets of the clauses during a compaction.
+     */
+    private int[] forward = new int[0];
+
+    private int[] levelStamps = new int[0];
+
+    private int levelStamp;
+
+    final ILits voc;
+
+    public ClauseArena(ILits voc) {
+        this.voc = voc;
+        this.data = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Store a clause in the arena.
+     * 
+     * @param clause
+     *            the clause owning the literals
+     * @param lits
+     *            the literals of the clause
+     * @param learnt
+     *            true iff the clause is a learned clause
+     * @param lbd
+     *            the LBD of the clause
+     * @param activity
+     *            the activity of the clause
+     * @return the offset of the header of the clause in the arena
+     */
+    int allocate(ArenaClause clause, int[] lits, boolean learnt, int lbd,
+            double activity) {
+        int needed = HEADER_SIZE + lits.length;
+        ensureCapacity(this.top + needed);
+        int offset = this.top;
+        this.data[offset + SIZE] = lits.length;
+        this.data[offset + FLAGS] = learnt ? LEARNT : 0;
+        this.data[offset + HANDLE] = this.clauses.size();
+        this.data[offset + LBD] = lbd;
+        this.data[offset + ACTIVITY] = Float.floatToRawIntBits((float) activity);
+        System.arraycopy(lits, 0, this.data, offset + HEADER_SIZE,
+                lits.length);
+        this.top += needed;
+        this.clauses.push(clause);
+        return offset;
+    }
+
+    /**
+     * Mark the space used by a clause as reusable. The clause is no longer
+     * propagated, and its watchers are removed by the next compaction.
+     * 
+     * @param offset
+     *            the offset of the clause in the arena
+     */
+    void free(int offset) {
+        if ((this.data[offset + FLAGS] & DELETED) != 0) {
+            return;
+        }
+        this.data[offset + FLAGS] |= DELETED;
+        this.wasted += HEADER_SIZE + this.data[offset + SIZE];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.data.length) {
+            int newCapacity = Math.max(capacity, this.data.length * 2);
+            int[] tmp = new int[newCapacity];
+            System.arraycopy(this.data, 0, tmp, 0, this.top);
+            this.data = tmp;
+        }
+    }
+
+    /**
+     * Computes the number of decision levels of some literals. The
+     * unassigned literals, such as the asserting literal of a clause just
+     * learned, count for one more level.
+     * 
+     * @param lits
+     *            some literals
+     * @return the LBD of the literals
+     */
+    int lbd(int[] lits) {
+        int nbLevels = this.voc.nVars() + 1;
+        if (this.levelStamps.length < nbLevels) {
+            this.levelStamps = new int[nbLevels];
+            this.levelStamp = 0;
+        }
+        this.levelStamp++;
+        int lbd = 0;
+        boolean unassigned = false;
+        int level;
+        for (int lit : lits) {
+            level = this.voc.getLevel(lit);
+            if (level < 0) {
+                unassigned = true;
+            } else if (this.levelStamps[level] != this.levelStamp) {
+                this.levelStamps[level] = this.levelStamp;
+                lbd++;
+            }
+        }
+        return unassigned ? lbd + 1 : lbd;
+    }
+
+    /**
+     * Watch a clause.
+     * 
+     * @param lit
+     *            the literal whose satisfaction requires to visit the clause
+     * @param offset
+     *            the offset of the clause in the arena
+     * @param blocker
+     *            a literal of the clause, whose satisfaction means that the
+     *            clause does not need to be visited
+     */
+    void watch(int lit, int offset, int blocker) {
+        if (lit >= this.watches.length) {
+            growWatches(lit);
+        }
+        int[] ws = this.watches[lit];
+        int size = this.nbWatches[lit];
+        if (size == ws.length) {
+            int[] nws = new int[Math.max(8, size << 1)];
+            System.arraycopy(ws, 0, nws, 0, size);
+            this.watches[lit] = ws = nws;
+        }
+        ws[size] = offset;
+        ws[size + 1] = blocker;
+        this.nbWatches[lit] = size + 2;
+    }
+
+    private void growWatches(int lit) {
+        int length = Math.max(lit + 1, this.watches.length << 1);
+        int[][] nwatches = new int[length][];
+        int[] nnbWatches = new int[length];
+        System.arraycopy(this.watches, 0, nwatches, 0, this.watches.length);
+        System.arraycopy(this.nbWatches, 0, nnbWatches, 0,
+                this.nbWatches.length);
+        for (int i = this.watches.length; i < length; i++) {
+            nwatches[i] = NO_WATCHES;
+        }
+        this.watches = nwatches;
+        this.nbWatches = nnbWatches;
+    }
+
+    /**
+     * @param lit
+     *            a literal
+     * @return the number of clauses visited when lit is satisfied, including
+     *         the removed clauses not compacted yet.
+     */
+    public int nbWatches(int lit) {
+        return lit < this.nbWatches.length ? this.nbWatches[lit] >> 1 : 0;
+    }
+
+    /**
+     * Forget the watchers of a literal.
+     * 
+     * @param lit
+     *            a literal
+     */
+    void clearWatches(int lit) {
+        if (lit < this.nbWatches.length) {
+            this.nbWatches[lit] = 0;
+        }
+    }
+
+    private ArenaClause handle(int offset) {
+        return this.clauses.get(this.data[offset + HANDLE]);
+    }
+
+    /**
+     * Propagates the clauses watched by a literal, as
+     * {@link WLClause#propagate(UnitPropagationListener, int)} would do for
+     * each of them.
+     * 
+     * @param p
+     *            a literal just satisfied
+     * @param s
+     *            the listener notified of the implied literals
+     * @return null if no conflict is found, else the conflicting clause.
+     */
+    public Constr propagate(int p, UnitPropagationListener s) {
+        if (p >= this.nbWatches.length) {
+            return null;
+        }
+        final int size = this.nbWatches[p];
+        final int[] ws = this.watches[p];
+        final int[] mylits = this.data;
+        final ILits lvoc = this.voc;
+        final int falsified = p ^ 1;
+        int i = 0, j = 0;
+        int offset, blocker, first, end, other, lit, k;
+        while (i < size) {
+            offset = ws[i++];
+            blocker = ws[i++];
+            // no need to visit a clause satisfied by its blocker
+            if (lvoc.isSatisfied(blocker)) {
+                ws[j++] = offset;
+                ws[j++] = blocker;
+                continue;
+            }
+            if ((mylits[offset + FLAGS] & DELETED) != 0) {
+                // removed clause: forget the watcher
+                continue;
+            }
+            first = offset + HEADER_SIZE;
+            end = first + mylits[offset + SIZE];
+            // mylits[first+1] must contain the falsified literal
+            if (mylits[first] == falsified) {
+                mylits[first] = mylits[first + 1];
+                mylits[first + 1] = falsified;
+            }
+            other = mylits[first];
+            if (other != blocker && lvoc.isSatisfied(other)) {
+                ws[j++] = offset;
+                ws[j++] = other;
+                continue;
+            }
+            // look for new literal to watch
+            for (k = first + 2; k < end; k++) {
+                lit = mylits[k];
+                if (!lvoc.isFalsified(lit)) {
+                    mylits[first + 1] = lit;
+                    mylits[k] = falsified;
+                    watch(lit ^ 1, offset, other);
+                    break;
+                }
+            }
+            if (k < end) {
+                continue;
+            }
+            // the clause is now either unit or null
+            ws[j++] = offset;
+            ws[j++] = other;
+            if (!s.enqueue(other, handle(offset))) {
+                // conflict: keep the remaining watchers
+                while (i < size) {
+                    ws[j++] = ws[i++];
+                }
+                this.nbWatches[p] = j;
+                return handle(offset);
+            }
+        }
+        this.nbWatches[p] = j;
+        return null;
+    }
+
+    /**
+     * Looks for the mandatory literals of the clauses watched by a literal,
+     * as {@link WLClause#propagatePI(MandatoryLiteralListener, int)} would do
+     * for each of them.
+     * 
+     * @param p
+     *            a literal just satisfied
+     * @param l
+     *            the listener notified of the mandatory literals
+     */
+    public void propagatePI(int p, MandatoryLiteralListener l) {
+        if (p >= this.nbWatches.length) {
+            return;
+        }
+        final int size = this.nbWatches[p];
+        final int[] ws = this.watches[p];
+        final int[] mylits = this.data;
+        final int falsified = p ^ 1;
+        int i = 0, j = 0;
+        int offset, blocker, first, end, k;
+        while (i < size) {
+            offset = ws[i++];
+            blocker = ws[i++];
+            if ((mylits[offset + FLAGS] & DELETED) != 0) {
+                continue;
+            }
+            if ((mylits[offset + FLAGS] & LEARNT) != 0) {
+                ws[j++] = offset;
+                ws[j++] = blocker;
+                continue;
+            }
+            first = offset + HEADER_SIZE;
+            end = first + mylits[offset + SIZE];
+            if (mylits[first] == falsified) {
+                mylits[first] = mylits[first + 1];
+                mylits[first + 1] = falsified;
+            }
+            // look for a new satisfied literal to watch
+            for (k = first + 2; k < end; k++) {
+                if (this.voc.isSatisfied(mylits[k])) {
+                    mylits[first + 1] = mylits[k];
+                    mylits[k] = falsified;
+                    watch(mylits[first + 1] ^ 1, offset, mylits[first]);
+                    break;
+                }
+            }
+            if (k < end) {
+                continue;
+            }
+            // the clause is now unit: first literal is mandatory
+            ws[j++] = offset;
+            ws[j++] = blocker;
+            l.isMandatory(mylits[first]);
+        }
+        this.nbWatches[p] = j;
+    }
+
+    /**
+     * Move the live clauses towards the beginning of the arena, removing the
+     * holes left by removed clauses. The watchers and the handles of the live
+     * clauses are updated accordingly while the removed ones are detached
+     * from the arena.
+     * 
+     * Must not be called during unit propagation.
+     */
+    public void compact() {
+        final int n = this.clauses.size();
+        if (this.forward.length < n) {
+            this.forward = new int[n];
+        }
+        final int[] mylits = this.data;
+        int dest = 0;
+        int offset;
+        for (int i = 0; i < n; i++) {
+            offset = this.clauses.get(i).offset;
+            if ((mylits[offset + FLAGS] & DELETED) != 0) {
+                this.forward[i] = ArenaClause.DETACHED;
+            } else {
+                this.forward[i] = dest;
+                dest += HEADER_SIZE + mylits[offset + SIZE];
+            }
+        }
+        int[] ws;
+        int j, newOffset;
+        for (int p = 0; p < this.watches.length; p++) {
+            ws = this.watches[p];
+            j = 0;
+            for (int i = 0; i < this.nbWatches[p]; i += 2) {
+                newOffset = this.forward[mylits[ws[i] + HANDLE]];
+                if (newOffset != ArenaClause.DETACHED) {
+                    ws[j++] = newOffset;
+                    ws[j++] = ws[i + 1];
+                }
+            }
+            this.nbWatches[p] = j;
+        }
+        ArenaClause clause;
+        j = 0;
+        for (int i = 0; i < n; i++) {
+            clause = this.clauses.get(i);
+            newOffset = this.forward[i];
+            if (newOffset == ArenaClause.DETACHED) {
+                clause.offset = ArenaClause.DETACHED;
+                continue;
+            }
+            if (clause.offset != newOffset) {
+                System.arraycopy(mylits, clause.offset, mylits, newOffset,
+                        HEADER_SIZE + mylits[clause.offset + SIZE]);
+                clause.offset = newOffset;
+            }
+            mylits[newOffset + HANDLE] = j;
+            this.clauses.set(j++, clause);
+        }
+        this.clauses.shrinkTo(j);
+        this.top = dest;
+        this.wasted = 0;
+        this.compactions++;
+    }
+
+    /**
+     * Compacts the arena if more than a fifth of it is wasted by removed
+     * clauses, as MiniSat does.
+     * 
+     * @return true iff the arena has been compacted.
+     */
+    public boolean compactIfNeeded() {
+        if (this.wasted * 5 > this.top) {
+            compact();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Detach all the clauses from the arena.
+     */
+    public void clear() {
+        for (int i = 0; i < this.clauses.size(); i++) {
+            this.clauses.get(i).offset = ArenaClause.DETACHED;
+        }
+        this.clauses.clear();
+        for (int p = 0; p < this.nbWatches.length; p++) {
+            this.nbWatches[p] = 0;
+        }
+        this.top = 0;
+        this.wasted = 0;
+    }
+
+    /**
+     * @return the number of ints currently used in the arena, including the
+     *         space of removed clauses not compacted yet.
+     */
+    public int size() {
+        return this.top;
+    }
+
+    /**
+     * @return the number of ints used by removed clauses not compacted yet.
+     */
+    public int wasted() {
+        return this.wasted;
+    }
+
+    /**
+     * @return the number of ints available in the arena before growing it.
+     */
+    public int capacity() {
+        return this.data.length;
+    }
+
+    /**
+     * @return the number of clauses currently stored in the arena.
+     */
+    public int nClauses() {
+        return this.clauses.size();
+    }
+
+    /**
+     * @return the number of compactions performed so far.
+     */
+    public int getCompactions() {
+        return this.compactions;
+    }
+}
@@ -35,6 +35,7 @@ import static org.sat4j.core.LiteralsUtils.var;
 import java.io.Serializable;
 
 import org.sat4j.core.LiteralsUtils;
+import org.sat4j.minisat.core.BatchRemovable;
 import org.sat4j.minisat.core.ILits;
 import org.sat4j.specs.Constr;
 import org.sat4j.specs.IVecInt;
@@ -56,7 +57,8 @@ import org.sat4j.specs.VarMapper;
  * @see UnitClause
  * @since 2.1
  */
-public abstract class HTClause implements Propagatable, Constr, Serializable {
+public abstract class HTClause implements Propagatable, Constr,
+        BatchRemovable, Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -122,6 +124,13 @@ public abstract class HTClause implements Propagatable, Constr, Serializable {
         this.voc.watches(neg(this.tail)).remove(this);
     }
 
+    /**
+     * @since 2.3.6
+     */
+    public void removedFromWatches() {
+        // nothing else to release
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -152,12 +161,12 @@ public abstract class HTClause implements Propagatable, Constr, Serializable {
             }
             assert temphead <= mylits.length;
             if (temphead == mylits.length) {
-                this.voc.watch(p, this);
+                this.voc.watch(p, this, this.tail);
                 return s.enqueue(this.tail, this);
             }
             this.head = mylits[temphead];
             mylits[temphead] = neg(p);
-            this.voc.watch(neg(this.head), this);
+            this.voc.watch(neg(this.head), this, this.tail);
             return true;
         }
         assert this.tail == neg(p);
@@ -169,12 +178,12 @@ public abstract class HTClause implements Propagatable, Constr, Serializable {
         }
         assert -1 <= temptail;
         if (-1 == temptail) {
-            this.voc.watch(p, this);
+            this.voc.watch(p, this, this.head);
             return s.enqueue(this.head, this);
         }
         this.tail = mylits[temptail];
         mylits[temptail] = neg(p);
-        this.voc.watch(neg(this.tail), this);
+        this.voc.watch(neg(this.tail), this, this.head);
         return true;
     }
 
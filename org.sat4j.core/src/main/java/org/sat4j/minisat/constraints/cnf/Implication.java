@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.constraints.cnf;
+
+import static org.sat4j.core.LiteralsUtils.neg;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.core.ILits;
+
+/**
+ * Binary clause view used as a reason or a conflict by
+ * {@link LitsWithImplications}. The same object is reused for all the binary
+ * clauses propagating a given literal, so its literals change during the
+ * search.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+final class Implication extends BinaryClause {
+
+    private static final long serialVersionUID = 1L;
+
+    Implication(ILits voc) {
+        super(new VecInt(new int[] { ILits.UNDEFINED, ILits.UNDEFINED }),
+                voc);
+    }
+
+    /**
+     * Makes that object represent the clause -p v q, q being the propagated
+     * (or falsified) literal.
+     */
+    void set(int p, int q) {
+        this.head = q;
+        this.tail = neg(p);
+    }
+
+    @Override
+    public void register() {
+        throw new UnsupportedOperationException();
+    }
+
+    public void setLearnt() {
+        throw new UnsupportedOperationException();
+    }
+
+    public boolean learnt() {
+        return false;
+    }
+
+    public void forwardActivity(double claInc) {
+        // do nothing
+    }
+
+    public void incActivity(double claInc) {
+        // do nothing
+    }
+
+    public void setActivity(double claInc) {
+        // do nothing
+    }
+}
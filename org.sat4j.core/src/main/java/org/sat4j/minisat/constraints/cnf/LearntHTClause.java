@@ -74,8 +74,8 @@ public class LearntHTClause extends HTClause {
             }
         }
         // attach both head and tail literals.
-        this.voc.watch(neg(this.head), this);
-        this.voc.watch(neg(this.tail), this);
+        this.voc.watch(neg(this.head), this, this.tail);
+        this.voc.watch(neg(this.tail), this, this.head);
 
     }
 
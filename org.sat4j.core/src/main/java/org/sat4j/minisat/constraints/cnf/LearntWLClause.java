@@ -67,8 +67,8 @@ public final class LearntWLClause extends WLClause {
         this.lits[1] = this.lits[maxi];
         this.lits[maxi] = l;
         // add really the clause inside the solver
-        this.voc.watch(this.lits[0] ^ 1, this);
-        this.voc.watch(this.lits[1] ^ 1, this);
+        this.voc.watch(this.lits[0] ^ 1, this, this.lits[1]);
+        this.voc.watch(this.lits[1] ^ 1, this, this.lits[0]);
 
     }
 
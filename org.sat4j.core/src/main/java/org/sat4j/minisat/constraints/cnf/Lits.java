@@ -44,7 +44,7 @@ import org.sat4j.specs.Propagatable;
  * @author leberre
  * 
  */
-public final class Lits implements Serializable, ILits {
+public class Lits implements Serializable, ILits {
 
     private static final int DEFAULT_INIT_SIZE = 128;
 
@@ -120,8 +120,8 @@ public final class Lits implements Serializable, ILits {
         if (!this.pool[var]) {
             this.realnVars++;
             this.pool[var] = true;
-            this.watches[var << 1] = new Vec<Propagatable>();
-            this.watches[var << 1 | 1] = new Vec<Propagatable>();
+            this.watches[var << 1] = createWatches();
+            this.watches[var << 1 | 1] = createWatches();
             this.undos[var] = new Vec<Undoable>();
             this.level[var] = -1;
             this.falsified[var << 1] = false; // because truthValue[var] is
@@ -250,6 +250,20 @@ public final class Lits implements Serializable, ILits {
         this.watches[lit].push(c);
     }
 
+    public void watch(int lit, Propagatable c, int blocker) {
+        this.watches[lit].push(c);
+    }
+
+    /**
+     * Create the watch list of a literal.
+     * 
+     * @return an empty list of watchers.
+     * @since 2.3.6
+     */
+    protected IVec<Propagatable> createWatches() {
+        return new Vec<Propagatable>();
+    }
+
     public IVec<Propagatable> watches(int lit) {
         return this.watches[lit];
     }
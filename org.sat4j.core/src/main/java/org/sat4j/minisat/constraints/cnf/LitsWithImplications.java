@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.constraints.cnf;
+
+import java.util.Arrays;
+
+import org.sat4j.specs.Constr;
+
+/**
+ * Vocabulary storing the original binary clauses as lists of implied
+ * literals: for each literal p, the literals q such that the clause -p v q
+ * belongs to the formula. The solver propagates those lists in a tight loop
+ * before visiting the watch lists.
+ * 
+ * The reason of a literal propagated that way is not the clause itself but a
+ * view of it, created once per literal and reused each time that literal is
+ * propagated by a binary clause.
+ * 
+ * @author leberre
+ * @see ImplicationClause
+ * @since 2.3.6
+ */
+public final class LitsWithImplications extends Lits {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int[] NO_IMPLICATIONS = new int[0];
+
+    // no initializers: the arrays are created by init(), which is called
+    // from the constructor of the super class.
+    private int[][] implied;
+
+    private int[] nbImplied;
+
+    private Implication[] reasons;
+
+    private Implication conflict;
+
+    @Override
+    public void init(int nvar) {
+        super.init(nvar);
+        int nlits = 2 * (capacity() + 1);
+        if (this.implied != null && this.implied.length >= nlits) {
+            return;
+        }
+        int[][] nimplied = new int[nlits][];
+        int[] nnbImplied = new int[nlits];
+        Implication[] nreasons = new Implication[nlits];
+        if (this.implied == null) {
+            Arrays.fill(nimplied, NO_IMPLICATIONS);
+        } else {
+            int length = this.implied.length;
+            System.arraycopy(this.implied, 0, nimplied, 0, length);
+            Arrays.fill(nimplied, length, nlits, NO_IMPLICATIONS);
+            System.arraycopy(this.nbImplied, 0, nnbImplied, 0, length);
+            System.arraycopy(this.reasons, 0, nreasons, 0, length);
+        }
+        this.implied = nimplied;
+        this.nbImplied = nnbImplied;
+        this.reasons = nreasons;
+    }
+
+    @Override
+    public void reset(int lit) {
+        super.reset(lit);
+        this.nbImplied[lit] = 0;
+        this.nbImplied[lit ^ 1] = 0;
+    }
+
+    /**
+     * Records that q must be satisfied when p is satisfied.
+     * 
+     * @param p
+     *            a literal
+     * @param q
+     *            a literal implied by p
+     */
+    public void addImplication(int p, int q) {
+        int[] lits = this.implied[p];
+        int size = this.nbImplied[p];
+        if (size == lits.length) {
+            int[] nlits = new int[Math.max(4, size << 1)];
+            System.arraycopy(lits, 0, nlits, 0, size);
+            this.implied[p] = lits = nlits;
+        }
+        lits[size] = q;
+        this.nbImplied[p] = size + 1;
+    }
+
+    /**
+     * Forgets an implication recorded by {@link #addImplication(int, int)}.
+     * 
+     * @param p
+     *            a literal
+     * @param q
+     *            a literal implied by p
+     */
+    public void removeImplication(int p, int q) {
+        int[] lits = this.implied[p];
+        int last = this.nbImplied[p] - 1;
+        for (int i = last; i >= 0; i--) {
+            if (lits[i] == q) {
+                lits[i] = lits[last];
+                this.nbImplied[p] = last;
+                return;
+            }
+        }
+    }
+
+    /**
+     * The literals implied by a literal. Only the first
+     * {@link #nbImplied(int)} entries are meaningful.
+     * 
+     * @param p
+     *            a literal
+     * @return the literals implied by p.
+     */
+    public int[] implied(int p) {
+        return this.implied[p];
+    }
+
+    /**
+     * @param p
+     *            a literal
+     * @return the number of literals implied by p.
+     */
+    public int nbImplied(int p) {
+        return this.nbImplied[p];
+    }
+
+    /**
+     * The reason of a literal propagated by a binary clause.
+     * 
+     * @param p
+     *            a satisfied literal
+     * @param q
+     *            the literal implied by p
+     * @return the clause -p v q, valid as long as q is assigned.
+     */
+    public Constr reason(int p, int q) {
+        Implication reason = this.reasons[q];
+        if (reason == null) {
+            reason = this.reasons[q] = new Implication(this);
+        }
+        reason.set(p, q);
+        return reason;
+    }
+
+    /**
+     * The conflicting binary clause when a falsified literal is implied.
+     * 
+     * @param p
+     *            a satisfied literal
+     * @param q
+     *            a falsified literal implied by p
+     * @return the clause -p v q, valid until the next conflict.
+     */
+    public Constr conflict(int p, int q) {
+        if (this.conflict == null) {
+            this.conflict = new Implication(this);
+        }
+        this.conflict.set(p, q);
+        return this.conflict;
+    }
+}
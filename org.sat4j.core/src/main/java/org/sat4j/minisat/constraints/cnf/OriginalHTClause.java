@@ -56,8 +56,8 @@ public class OriginalHTClause extends HTClause {
      * @see org.sat4j.minisat.constraints.cnf.WLClause#register()
      */
     public void register() {
-        this.voc.watch(neg(this.head), this);
-        this.voc.watch(neg(this.tail), this);
+        this.voc.watch(neg(this.head), this, this.tail);
+        this.voc.watch(neg(this.tail), this, this.head);
     }
 
     public boolean learnt() {
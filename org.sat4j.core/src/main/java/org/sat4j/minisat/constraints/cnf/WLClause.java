@@ -34,6 +34,7 @@ import static org.sat4j.core.LiteralsUtils.var;
 import java.io.Serializable;
 
 import org.sat4j.core.LiteralsUtils;
+import org.sat4j.minisat.core.BatchRemovable;
 import org.sat4j.minisat.core.ILits;
 import org.sat4j.specs.Constr;
 import org.sat4j.specs.IVecInt;
@@ -46,7 +47,8 @@ import org.sat4j.specs.VarMapper;
  * 
  * @author leberre
  */
-public abstract class WLClause implements Propagatable, Constr, Serializable {
+public abstract class WLClause implements Propagatable, Constr,
+        BatchRemovable, Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -99,6 +101,13 @@ public abstract class WLClause implements Propagatable, Constr, Serializable {
         // la clause peut etre effacee
     }
 
+    /**
+     * @since 2.3.6
+     */
+    public void removedFromWatches() {
+        // nothing else to release
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -122,7 +131,7 @@ public abstract class WLClause implements Propagatable, Constr, Serializable {
         }
         // assert mylits[1] == (p ^ 1);
         if (this.voc.isSatisfied(mylits[0])) {
-            this.voc.watch(p, this);
+            this.voc.watch(p, this, mylits[0]);
             return true;
         }
         int previous = p ^ 1, tmp;
@@ -135,7 +144,7 @@ public abstract class WLClause implements Propagatable, Constr, Serializable {
             } else {
                 mylits[1] = mylits[i];
                 mylits[i] = previous;
-                this.voc.watch(mylits[1] ^ 1, this);
+                this.voc.watch(mylits[1] ^ 1, this, mylits[0]);
                 return true;
             }
         }
@@ -144,7 +153,7 @@ public abstract class WLClause implements Propagatable, Constr, Serializable {
         // move back the literals to their initial position
         System.arraycopy(mylits, 2, mylits, 1, mylits.length - 2);
         mylits[mylits.length - 1] = previous;
-        this.voc.watch(p, this);
+        this.voc.watch(p, this, mylits[0]);
         // propagates first watched literal
         return s.enqueue(mylits[0], this);
     }
@@ -0,0 +1,382 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.constraints.cnf;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.Propagatable;
+
+/**
+ * Watch list storing for each watcher a blocking literal, i.e. a literal of the
+ * constraint whose satisfaction means that there is no need to visit the
+ * constraint during unit propagation.
+ * 
+ * The watchers and their blockers are kept in two parallel arrays, so that the
+ * solver can check the blocker without dereferencing the watcher. Watchers
+ * added without blocker (using the regular {@link #push(Propagatable)} method)
+ * get {@link ILits#UNDEFINED} as blocker and are always visited.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public final class WatchesWithBlockers implements IVec<Propagatable> {
+
+    private static final long serialVersionUID = 1L;
+
+    private Propagatable[] watchers;
+
+    private int[] blockers;
+
+    private int nbelem;
+
+    public WatchesWithBlockers() {
+        this(5);
+    }
+
+    public WatchesWithBlockers(int size) {
+        this.watchers = new Propagatable[size];
+        this.blockers = new int[size];
+    }
+
+    public int size() {
+        return this.nbelem;
+    }
+
+    public void shrink(int nofelems) {
+        shrinkTo(this.nbelem - nofelems);
+    }
+
+    public void shrinkTo(int newsize) {
+        Arrays.fill(this.watchers, newsize, this.nbelem, null);
+        this.nbelem = newsize;
+    }
+
+    public void pop() {
+        this.watchers[--this.nbelem] = null;
+    }
+
+    public void growTo(int newsize, Propagatable pad) {
+        ensure(newsize);
+        for (int i = this.nbelem; i < newsize; i++) {
+            this.watchers[i] = pad;
+            this.blockers[i] = ILits.UNDEFINED;
+        }
+        this.nbelem = newsize;
+    }
+
+    public void ensure(int nsize) {
+        if (nsize >= this.watchers.length) {
+            int capacity = Math.max(nsize, this.nbelem * 2);
+            Propagatable[] nwatchers = new Propagatable[capacity];
+            System.arraycopy(this.watchers, 0, nwatchers, 0, this.nbelem);
+            this.watchers = nwatchers;
+            int[] nblockers = new int[capacity];
+            System.arraycopy(this.blockers, 0, nblockers, 0, this.nbelem);
+            this.blockers = nblockers;
+        }
+    }
+
+    public IVec<Propagatable> push(Propagatable elem) {
+        return push(elem, ILits.UNDEFINED);
+    }
+
+    /**
+     * Add a new watcher with its blocking literal.
+     * 
+     * @param elem
+     *            a watcher
+     * @param blocker
+     *            a literal of the constraint in internal representation, or
+     *            {@link ILits#UNDEFINED}.
+     * @return this
+     */
+    public IVec<Propagatable> push(Propagatable elem, int blocker) {
+        ensure(this.nbelem + 1);
+        this.watchers[this.nbelem] = elem;
+        this.blockers[this.nbelem++] = blocker;
+        return this;
+    }
+
+    public void unsafePush(Propagatable elem) {
+        unsafePush(elem, ILits.UNDEFINED);
+    }
+
+    public void unsafePush(Propagatable elem, int blocker) {
+        this.watchers[this.nbelem] = elem;
+        this.blockers[this.nbelem++] = blocker;
+    }
+
+    public void insertFirst(Propagatable elem) {
+        if (this.nbelem > 0) {
+            push(this.watchers[0], this.blockers[0]);
+            this.watchers[0] = elem;
+            this.blockers[0] = ILits.UNDEFINED;
+            return;
+        }
+        push(elem);
+    }
+
+    public void insertFirstWithShifting(Propagatable elem) {
+        ensure(this.nbelem + 1);
+        System.arraycopy(this.watchers, 0, this.watchers, 1, this.nbelem);
+        System.arraycopy(this.blockers, 0, this.blockers, 1, this.nbelem);
+        this.watchers[0] = elem;
+        this.blockers[0] = ILits.UNDEFINED;
+        this.nbelem++;
+    }
+
+    public void clear() {
+        Arrays.fill(this.watchers, 0, this.nbelem, null);
+        this.nbelem = 0;
+    }
+
+    public Propagatable last() {
+        return this.watchers[this.nbelem - 1];
+    }
+
+    public Propagatable get(int i) {
+        return this.watchers[i];
+    }
+
+    /**
+     * Retrieve the blocking literal of a watcher.
+     * 
+     * @param i
+     *            the index of the watcher
+     * @return a literal in internal representation, or {@link ILits#UNDEFINED}
+     *         if that watcher has no blocker.
+     */
+    public int getBlocker(int i) {
+        return this.blockers[i];
+    }
+
+    /**
+     * Change the blocking literal of a watcher.
+     * 
+     * @param i
+     *            the index of the watcher
+     * @param blocker
+     *            a literal of the constraint in internal representation, or
+     *            {@link ILits#UNDEFINED}.
+     */
+    public void setBlocker(int i, int blocker) {
+        this.blockers[i] = blocker;
+    }
+
+    public void set(int i, Propagatable o) {
+        this.watchers[i] = o;
+        this.blockers[i] = ILits.UNDEFINED;
+    }
+
+    public void remove(Propagatable elem) {
+        int j = 0;
+        for (; this.watchers[j] != elem; j++) {
+            if (j == this.nbelem) {
+                throw new NoSuchElementException();
+            }
+        }
+        removeAt(j);
+    }
+
+    public void removeFromLast(Propagatable elem) {
+        int j = this.nbelem - 1;
+        for (; this.watchers[j] != elem; j--) {
+            if (j == -1) {
+                throw new NoSuchElementException();
+            }
+        }
+        removeAt(j);
+    }
+
+    private void removeAt(int j) {
+        System.arraycopy(this.watchers, j + 1, this.watchers, j,
+                this.nbelem - j - 1);
+        System.arraycopy(this.blockers, j + 1, this.blockers, j,
+                this.nbelem - j - 1);
+        this.watchers[--this.nbelem] = null;
+    }
+
+    public Propagatable delete(int i) {
+        Propagatable ith = this.watchers[i];
+        this.watchers[i] = this.watchers[--this.nbelem];
+        this.blockers[i] = this.blockers[this.nbelem];
+        this.watchers[this.nbelem] = null;
+        return ith;
+    }
+
+    /**
+     * Copy the watchers to another vector. The blockers are kept only if the
+     * destination is a {@link WatchesWithBlockers}.
+     */
+    public void copyTo(IVec<Propagatable> copy) {
+        if (copy instanceof WatchesWithBlockers) {
+            WatchesWithBlockers ncopy = (WatchesWithBlockers) copy;
+            int nsize = this.nbelem + ncopy.nbelem;
+            ncopy.ensure(nsize);
+            System.arraycopy(this.watchers, 0, ncopy.watchers, ncopy.nbelem,
+                    this.nbelem);
+            System.arraycopy(this.blockers, 0, ncopy.blockers, ncopy.nbelem,
+                    this.nbelem);
+            ncopy.nbelem = nsize;
+        } else {
+            copy.ensure(copy.size() + this.nbelem);
+            for (int i = 0; i < this.nbelem; i++) {
+                copy.unsafePush(this.watchers[i]);
+            }
+        }
+    }
+
+    public <E> void copyTo(E[] dest) {
+        System.arraycopy(this.watchers, 0, dest, 0, this.nbelem);
+    }
+
+    public Propagatable[] toArray() {
+        return this.watchers;
+    }
+
+    public void moveTo(IVec<Propagatable> dest) {
+        copyTo(dest);
+        clear();
+    }
+
+    public void moveTo(int dest, int source) {
+        if (dest != source) {
+            this.watchers[dest] = this.watchers[source];
+            this.blockers[dest] = this.blockers[source];
+            this.watchers[source] = null;
+        }
+    }
+
+    /**
+     * Sort the watchers, each one keeping its blocker.
+     */
+    public void sort(final Comparator<Propagatable> comparator) {
+        Integer[] order = new Integer[this.nbelem];
+        for (int i = 0; i < this.nbelem; i++) {
+            order[i] = i;
+        }
+        final Propagatable[] lwatchers = this.watchers;
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer i, Integer j) {
+                return comparator.compare(lwatchers[i], lwatchers[j]);
+            }
+        });
+        Propagatable[] nwatchers = new Propagatable[this.watchers.length];
+        int[] nblockers = new int[this.blockers.length];
+        for (int i = 0; i < this.nbelem; i++) {
+            nwatchers[i] = this.watchers[order[i]];
+            nblockers[i] = this.blockers[order[i]];
+        }
+        this.watchers = nwatchers;
+        this.blockers = nblockers;
+    }
+
+    /**
+     * Sort the watchers and keep only the first one of the watchers equal
+     * according to the comparator, with its blocker.
+     */
+    public void sortUnique(Comparator<Propagatable> comparator) {
+        if (this.nbelem == 0) {
+            return;
+        }
+        sort(comparator);
+        int i = 1;
+        Propagatable last = this.watchers[0];
+        for (int j = 1; j < this.nbelem; j++) {
+            if (comparator.compare(last, this.watchers[j]) < 0) {
+                last = this.watchers[i] = this.watchers[j];
+                this.blockers[i++] = this.blockers[j];
+            }
+        }
+        shrinkTo(i);
+    }
+
+    public boolean isEmpty() {
+        return this.nbelem == 0;
+    }
+
+    public Iterator<Propagatable> iterator() {
+        return new Iterator<Propagatable>() {
+            private int i = 0;
+
+            public boolean hasNext() {
+                return this.i < WatchesWithBlockers.this.nbelem;
+            }
+
+            public Propagatable next() {
+                if (this.i == WatchesWithBlockers.this.nbelem) {
+                    throw new NoSuchElementException();
+                }
+                return WatchesWithBlockers.this.watchers[this.i++];
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    public boolean contains(Propagatable element) {
+        return indexOf(element) >= 0;
+    }
+
+    public int indexOf(Propagatable element) {
+        for (int i = 0; i < this.nbelem; i++) {
+            if (this.watchers[i].equals(element)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public IVec<Propagatable> clone() {
+        WatchesWithBlockers cloned = new WatchesWithBlockers(this.nbelem + 1);
+        copyTo(cloned);
+        return cloned;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stb = new StringBuilder();
+        for (int i = 0; i < this.nbelem; i++) {
+            if (i > 0) {
+                stb.append(","); //$NON-NLS-1$
+            }
+            stb.append(this.watchers[i]);
+        }
+        return stb.toString();
+    }
+}
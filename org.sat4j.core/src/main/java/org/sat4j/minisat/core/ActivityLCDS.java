@@ -51,7 +51,7 @@ final class ActivityLCDS implements LearnedConstraintsDeletionStrategy {
             if (c.locked() || c.size() == 2) {
                 solver.learnts.set(j++, solver.learnts.get(i));
             } else {
-                c.remove(solver);
+                solver.deferRemoval(c);
                 solver.slistener.delete(c);
             }
         }
@@ -86,6 +86,10 @@ final class ActivityLCDS implements LearnedConstraintsDeletionStrategy {
 
     }
 
+    public void onClauseImport(Constr constr, int lbd) {
+        // do nothing
+    }
+
     public void onConflictAnalysis(Constr reason) {
         if (reason.learnt()) {
             solver.claBumpActivity(reason);
@@ -56,7 +56,7 @@ final class AgeLCDS implements LearnedConstraintsDeletionStrategy {
             if (c.locked() || c.size() == 2) {
                 solver.learnts.set(j++, solver.learnts.get(i));
             } else {
-                c.remove(solver);
+                solver.deferRemoval(c);
                 solver.slistener.delete(c);
             }
         }
@@ -91,6 +91,10 @@ final class AgeLCDS implements LearnedConstraintsDeletionStrategy {
 
     }
 
+    public void onClauseImport(Constr constr, int lbd) {
+        // do nothing
+    }
+
     public void onConflictAnalysis(Constr reason) {
         // do nothing
     }
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.core;
+
+/**
+ * Constraints which are only referenced by the watch lists of the solver,
+ * so that many of them can be removed at once.
+ * 
+ * Instead of calling {@link org.sat4j.specs.Constr#remove(org.sat4j.specs.UnitPropagationListener)}
+ * on each of them, which scans the watch lists of each constraint, the
+ * solver removes all the deleted constraints from all the watch lists in a
+ * single sweep, then notifies each of them.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public interface BatchRemovable {
+
+    /**
+     * Called once the constraint has been removed from all the watch lists,
+     * to release any other resource held by the constraint.
+     */
+    void removedFromWatches();
+}
@@ -59,7 +59,7 @@ class GlucoseLCDS<D extends DataStructureFactory> implements
             if (c.locked() || c.getActivity() <= 2.0) {
                 learnedConstrs.set(j++, solver.learnts.get(i));
             } else {
-                c.remove(solver);
+                solver.deferRemoval(c);
                 solver.slistener.delete(c);
             }
         }
@@ -99,6 +99,10 @@ class GlucoseLCDS<D extends DataStructureFactory> implements
         constr.incActivity(nblevel);
     }
 
+    public void onClauseImport(Constr constr, int lbd) {
+        constr.incActivity(lbd);
+    }
+
     protected int computeLBD(Constr constr) {
         int nblevel = 1;
         this.flag++;
@@ -246,6 +246,22 @@ public interface ILits {
      */
     void watch(int lit, Propagatable c);
 
+    /**
+     * Record a new constraint to watch when a literal is satisfied, together
+     * with a blocking literal: as long as the blocker is satisfied, the
+     * constraint is satisfied and does not need to be visited. Vocabularies
+     * not taking advantage of blockers simply ignore it.
+     * 
+     * @param lit
+     *            a literal in internal representation.
+     * @param c
+     *            a constraint that contains the negation of that literal.
+     * @param blocker
+     *            another literal of c, in internal representation.
+     * @since 2.3.6
+     */
+    void watch(int lit, Propagatable c, int blocker);
+
     /**
      * @param lit
      *            a literal in internal representation.
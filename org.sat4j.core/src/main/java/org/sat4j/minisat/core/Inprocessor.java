@@ -0,0 +1,455 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.core;
+
+import static org.sat4j.core.LiteralsUtils.neg;
+import static org.sat4j.core.LiteralsUtils.negLit;
+import static org.sat4j.core.LiteralsUtils.posLit;
+import static org.sat4j.core.LiteralsUtils.toDimacs;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Inprocessing run at decision level 0 when the solver restarts: failed
+ * literal probing, vivification of the learned clauses and substitution of
+ * equivalent literals (found as strongly connected components of the binary
+ * implication graph) in the learned clauses.
+ * 
+ * A round is run when enough conflicts occurred since the previous one, with
+ * a budget of propagations proportional to the propagations of the search
+ * since the previous round. The original constraints are never modified,
+ * since they may be removed by the user or not be clauses.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+final class Inprocessor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Conflicts between the first two rounds, the delay grows arithmetically.
+     */
+    private static final long ROUND_INTERVAL = 2000;
+
+    /**
+     * Share of the search propagations given to a round.
+     */
+    private static final int EFFORT_DIVISOR = 10;
+
+    private static final long MIN_EFFORT = 20000;
+
+    private final Solver<? extends DataStructureFactory> solver;
+
+    private int rounds;
+
+    private long nextRound = ROUND_INTERVAL;
+
+    private long conflictsAtLastRound;
+
+    private long propagationsAfterLastRound;
+
+    private int probeCursor = 1;
+
+    private Set<Constr> vivified = newIdentitySet();
+
+    Inprocessor(Solver<? extends DataStructureFactory> solver) {
+        this.solver = solver;
+    }
+
+    private static Set<Constr> newIdentitySet() {
+        return Collections
+                .newSetFromMap(new IdentityHashMap<Constr, Boolean>());
+    }
+
+    private static boolean isClause(Constr constr) {
+        return constr.canBeSatisfiedByCountingLiterals()
+                && constr.requiredNumberOfSatisfiedLiterals() == 1;
+    }
+
+    /**
+     * Runs an inprocessing round if it is time to. Must be called at decision
+     * level 0, once all the literals are propagated.
+     * 
+     * @return false iff the problem is found unsatisfiable.
+     */
+    boolean inprocess() {
+        SolverStats stats = this.solver.stats;
+        if (stats.getConflicts() < this.conflictsAtLastRound) {
+            // the statistics have been reset
+            this.rounds = 0;
+            this.conflictsAtLastRound = 0;
+            this.nextRound = ROUND_INTERVAL;
+            this.propagationsAfterLastRound = 0;
+        }
+        if (stats.getConflicts() < this.nextRound) {
+            return true;
+        }
+        this.rounds++;
+        this.conflictsAtLastRound = stats.getConflicts();
+        this.nextRound = stats.getConflicts() + ROUND_INTERVAL
+                * (this.rounds + 1);
+        stats.incInprocessings();
+        long before = stats.getPropagations();
+        long budget = Math.max(MIN_EFFORT,
+                (before - this.propagationsAfterLastRound) / EFFORT_DIVISOR);
+        boolean result = probeFailedLiterals(before + budget / 2)
+                && vivifyLearnedClauses(before + budget)
+                && substituteEquivalentLiterals();
+        this.solver.cancelUntil(0);
+        this.solver.purgeDeferredRemovals();
+        this.propagationsAfterLastRound = stats.getPropagations();
+        stats.incInprocessingPropagations(this.propagationsAfterLastRound
+                - before);
+        return result;
+    }
+
+    /**
+     * Adds a literal implied by the constraints at decision level 0.
+     * 
+     * @return false iff the problem is found unsatisfiable.
+     */
+    private boolean learnUnit(int p) {
+        this.solver.slistener.learnUnit(toDimacs(p));
+        return this.solver.enqueue(p)
+                && this.solver.propagateQuietly() == null;
+    }
+
+    /**
+     * Looks for literals whose propagation leads to a conflict, in a round
+     * robin manner over the variables.
+     */
+    private boolean probeFailedLiterals(long limit) {
+        ILits voc = this.solver.voc;
+        int nVars = voc.nVars();
+        for (int k = 0; k < nVars && this.solver.undertimeout
+                && this.solver.stats.getPropagations() < limit; k++) {
+            int var = this.probeCursor;
+            this.probeCursor = this.probeCursor % nVars + 1;
+            if (!voc.belongsToPool(var)) {
+                continue;
+            }
+            for (int p : new int[] { posLit(var), negLit(var) }) {
+                // nothing to propagate when no constraint watches p
+                if (!voc.isUnassigned(p) || voc.watches(p).isEmpty()
+                        && (this.solver.implications == null
+                                || this.solver.implications
+                                        .nbImplied(p) == 0)
+                        && (this.solver.arena == null
+                                || this.solver.arena.nbWatches(p) == 0)) {
+                    continue;
+                }
+                this.solver.assume(p);
+                Constr confl = this.solver.propagateQuietly();
+                this.solver.cancelUntil(0);
+                if (confl != null) {
+                    this.solver.stats.incFailedLiterals();
+                    if (!learnUnit(neg(p))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shortens the learned clauses by propagating the negation of their
+     * literals one at a time, most recent clauses first. Each clause is only
+     * vivified once.
+     */
+    private boolean vivifyLearnedClauses(long limit) {
+        IVec<Constr> learnts = this.solver.learnts;
+        Set<Constr> stillThere = newIdentitySet();
+        for (int i = 0; i < learnts.size(); i++) {
+            if (this.vivified.contains(learnts.get(i))) {
+                stillThere.add(learnts.get(i));
+            }
+        }
+        this.vivified = stillThere;
+        ILits voc = this.solver.voc;
+        for (int i = learnts.size() - 1; i >= 0 && this.solver.undertimeout
+                && this.solver.stats.getPropagations() < limit; i--) {
+            Constr c = learnts.get(i);
+            if (c.size() <= 2 || !isClause(c) || c.locked()
+                    || !this.vivified.add(c)) {
+                continue;
+            }
+            // the watched literals of c move during propagation
+            int[] literals = new int[c.size()];
+            for (int j = 0; j < literals.length; j++) {
+                literals[j] = c.get(j);
+            }
+            IVecInt kept = new VecInt(literals.length);
+            boolean satisfied = false;
+            for (int p : literals) {
+                if (voc.isSatisfied(p)) {
+                    if (voc.getLevel(p) == 0) {
+                        satisfied = true;
+                    } else {
+                        // implied by the negation of the previous literals
+                        kept.push(p);
+                    }
+                    break;
+                }
+                if (voc.isFalsified(p)) {
+                    continue;
+                }
+                kept.push(p);
+                this.solver.assume(neg(p));
+                if (this.solver.propagateQuietly() != null) {
+                    break;
+                }
+            }
+            this.solver.cancelUntil(0);
+            if (satisfied || kept.size() == c.size()) {
+                continue;
+            }
+            this.solver.stats.incVivifiedClauses();
+            this.solver.stats.incVivifiedLiterals(c.size() - kept.size());
+            if (!replace(i, kept)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the ith learned clause by a shorter one.
+     * 
+     * @return false iff the problem is found unsatisfiable.
+     */
+    private boolean replace(int i, IVecInt literals) {
+        IVec<Constr> learnts = this.solver.learnts;
+        Constr old = learnts.get(i);
+        if (literals.isEmpty()) {
+            return false;
+        }
+        int unit = literals.size() == 1 ? literals.get(0) : ILits.UNDEFINED;
+        if (unit != ILits.UNDEFINED) {
+            learnts.delete(i);
+        } else {
+            // the literals are moved into the new clause
+            Constr c = this.solver.dsfactory.createUnregisteredClause(literals);
+            c.setLearnt();
+            c.register();
+            c.setActivity(old.getActivity());
+            this.solver.slistener.learn(c);
+            learnts.set(i, c);
+            this.vivified.add(c);
+        }
+        this.solver.deferRemoval(old);
+        this.solver.slistener.delete(old);
+        return unit == ILits.UNDEFINED || learnUnit(unit);
+    }
+
+    /**
+     * Computes the strongly connected components of the binary implication
+     * graph, and replaces in the learned clauses each literal by the smallest
+     * literal of its component. Only the clauses that become shorter (or
+     * tautologies) are replaced.
+     */
+    private boolean substituteEquivalentLiterals() {
+        int[] representative = equivalentLiterals();
+        if (representative == null) {
+            return true;
+        }
+        IVec<Constr> learnts = this.solver.learnts;
+        ILits voc = this.solver.voc;
+        for (int i = learnts.size() - 1; i >= 0
+                && this.solver.undertimeout; i--) {
+            Constr c = learnts.get(i);
+            if (c.size() <= 2 || !isClause(c) || c.locked()) {
+                continue;
+            }
+            IVecInt literals = new VecInt(c.size());
+            boolean tautology = false;
+            for (int j = 0; j < c.size() && !tautology; j++) {
+                int p = representative[c.get(j)];
+                if (literals.contains(neg(p))) {
+                    tautology = true;
+                } else if (!literals.contains(p)) {
+                    literals.push(p);
+                }
+            }
+            if (tautology) {
+                learnts.delete(i);
+                this.solver.deferRemoval(c);
+                this.solver.slistener.delete(c);
+            } else if (literals.size() < c.size()) {
+                boolean unassigned = true;
+                for (int j = 0; j < literals.size(); j++) {
+                    unassigned &= voc.isUnassigned(literals.get(j));
+                }
+                if (unassigned && !replace(i, literals)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the binary clauses of constrs with unassigned literals to
+     * binaries, counting the implications from each literal in degree.
+     */
+    private void collectBinaryClauses(IVec<Constr> constrs,
+            IVec<Constr> binaries, int[] degree) {
+        ILits voc = this.solver.voc;
+        for (int i = 0; i < constrs.size(); i++) {
+            Constr c = constrs.get(i);
+            if (c.size() == 2 && isClause(c) && voc.isUnassigned(c.get(0))
+                    && voc.isUnassigned(c.get(1))) {
+                binaries.push(c);
+                // a v b gives -a -> b and -b -> a
+                degree[neg(c.get(0))]++;
+                degree[neg(c.get(1))]++;
+            }
+        }
+    }
+
+    /**
+     * Tarjan's algorithm on the binary implication graph of the unassigned
+     * literals.
+     * 
+     * @return the representative of each literal, or null if there is no
+     *         equivalent literals (or if a literal is equivalent to its
+     *         negation, a case left to the search).
+     */
+    private int[] equivalentLiterals() {
+        ILits voc = this.solver.voc;
+        int nbLits = 2 * (voc.nVars() + 1);
+        int[] degree = new int[nbLits + 1];
+        IVec<Constr> binaries = new Vec<Constr>();
+        collectBinaryClauses(this.solver.constrs, binaries, degree);
+        collectBinaryClauses(this.solver.learnts, binaries, degree);
+        if (binaries.isEmpty()) {
+            return null;
+        }
+        int[] start = new int[nbLits + 1];
+        for (int p = 0; p < nbLits; p++) {
+            start[p + 1] = start[p] + degree[p];
+        }
+        int[] edges = new int[start[nbLits]];
+        int[] fill = new int[nbLits];
+        System.arraycopy(start, 0, fill, 0, nbLits);
+        for (int i = 0; i < binaries.size(); i++) {
+            Constr c = binaries.get(i);
+            edges[fill[neg(c.get(0))]++] = c.get(1);
+            edges[fill[neg(c.get(1))]++] = c.get(0);
+        }
+        int[] index = new int[nbLits];
+        int[] low = new int[nbLits];
+        boolean[] onStack = new boolean[nbLits];
+        int[] stack = new int[nbLits];
+        int[] callStack = new int[nbLits];
+        int[] nextEdge = new int[nbLits];
+        int[] representative = new int[nbLits];
+        for (int p = 0; p < nbLits; p++) {
+            representative[p] = p;
+        }
+        int counter = 0;
+        int sp = 0;
+        int nbEquivalences = 0;
+        for (int root = 2; root < nbLits; root++) {
+            if (index[root] != 0 || start[root] == start[root + 1]) {
+                continue;
+            }
+            int csp = 0;
+            callStack[csp++] = root;
+            index[root] = low[root] = ++counter;
+            nextEdge[root] = start[root];
+            stack[sp++] = root;
+            onStack[root] = true;
+            while (csp > 0) {
+                int p = callStack[csp - 1];
+                if (nextEdge[p] < start[p + 1]) {
+                    int q = edges[nextEdge[p]++];
+                    if (index[q] == 0) {
+                        index[q] = low[q] = ++counter;
+                        nextEdge[q] = start[q];
+                        stack[sp++] = q;
+                        onStack[q] = true;
+                        callStack[csp++] = q;
+                    } else if (onStack[q]) {
+                        low[p] = Math.min(low[p], index[q]);
+                    }
+                    continue;
+                }
+                csp--;
+                if (csp > 0) {
+                    int parent = callStack[csp - 1];
+                    low[parent] = Math.min(low[parent], low[p]);
+                }
+                if (low[p] == index[p]) {
+                    int smallest = p;
+                    int from = sp;
+                    do {
+                        from--;
+                        smallest = Math.min(smallest, stack[from]);
+                    } while (stack[from] != p);
+                    for (int k = from; k < sp; k++) {
+                        int q = stack[k];
+                        onStack[q] = false;
+                        if (onStack[neg(q)] && index[neg(q)] >= index[p]) {
+                            // q equivalent to its negation
+                            return null;
+                        }
+                        representative[q] = smallest;
+                        if (q != smallest) {
+                            nbEquivalences++;
+                        }
+                    }
+                    sp = from;
+                }
+            }
+        }
+        if (nbEquivalences == 0) {
+            return null;
+        }
+        // both polarities are counted
+        this.solver.stats.incEquivalentLiterals(nbEquivalences / 2);
+        return representative;
+    }
+
+    @Override
+    public String toString() {
+        return "Inprocessing at restarts: failed literals, vivification and equivalent literals substitution in learned clauses";
+    }
+}
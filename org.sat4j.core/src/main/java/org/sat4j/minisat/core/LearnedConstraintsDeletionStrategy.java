@@ -78,4 +78,17 @@ public interface LearnedConstraintsDeletionStrategy extends Serializable {
      * @param from
      */
     void onPropagation(Constr from);
+
+    /**
+     * Hook method called when a clause learned by another solver has just
+     * been imported. The literals of that clause are not assigned, so its LBD
+     * cannot be computed from the decision levels.
+     * 
+     * @param constr
+     *            the imported clause
+     * @param lbd
+     *            the LBD of the clause in the solver that learned it
+     * @since 2.3.6
+     */
+    void onClauseImport(Constr constr, int lbd);
 }
\ No newline at end of file
@@ -51,5 +51,14 @@ public enum LearnedConstraintsEvaluationType {
      * LBD updated also when the unit propagation is performed on the unit
      * clauses.
      */
-    LBD2;
+    LBD2,
+
+    /**
+     * The clauses are kept in three tiers according to their LBD, updated
+     * during conflict analysis. Only the clauses of the local tier are
+     * sorted and removed.
+     * 
+     * @since 2.3.6
+     */
+    TIERS;
 }
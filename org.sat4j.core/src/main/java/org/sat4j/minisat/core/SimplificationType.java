@@ -36,5 +36,13 @@ package org.sat4j.minisat.core;
  * @since 2.3.2
  */
 public enum SimplificationType {
-    NO_SIMPLIFICATION, SIMPLE_SIMPLIFICATION, EXPENSIVE_SIMPLIFICATION;
+    NO_SIMPLIFICATION, SIMPLE_SIMPLIFICATION, EXPENSIVE_SIMPLIFICATION,
+    /**
+     * @since 2.3.6
+     */
+    BINARY_IMPLICATION_SIMPLIFICATION,
+    /**
+     * @since 2.3.6
+     */
+    ALL_UIP_SHRINKING;
 }
@@ -54,7 +54,7 @@ final class SizeLCDS implements LearnedConstraintsDeletionStrategy {
             if (c.locked() || c.size() == 2) {
                 learnedConstrs.set(j++, solver.learnts.get(i));
             } else {
-                c.remove(solver);
+                solver.deferRemoval(c);
                 solver.slistener.delete(c);
             }
         }
@@ -86,6 +86,10 @@ final class SizeLCDS implements LearnedConstraintsDeletionStrategy {
 
     }
 
+    public void onClauseImport(Constr constr, int lbd) {
+        // do nothing
+    }
+
     public void onConflictAnalysis(Constr reason) {
         if (reason.learnt()) {
             solver.claBumpActivity(reason);
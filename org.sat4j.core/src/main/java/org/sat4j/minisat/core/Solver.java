@@ -37,16 +37,17 @@ import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,6 +55,11 @@ import org.sat4j.core.ConstrGroup;
 import org.sat4j.core.LiteralsUtils;
 import org.sat4j.core.Vec;
 import org.sat4j.core.VecInt;
+import org.sat4j.minisat.constraints.cnf.LitsWithBlockers;
+import org.sat4j.minisat.constraints.cnf.ClauseArena;
+import org.sat4j.minisat.constraints.cnf.LitsWithArena;
+import org.sat4j.minisat.constraints.cnf.LitsWithImplications;
+import org.sat4j.minisat.constraints.cnf.WatchesWithBlockers;
 import org.sat4j.minisat.constraints.xor.Xor;
 import org.sat4j.specs.Constr;
 import org.sat4j.specs.ContradictionException;
@@ -65,6 +71,7 @@ import org.sat4j.specs.IVec;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.IteratorInt;
 import org.sat4j.specs.Lbool;
+import org.sat4j.specs.LearnedClauseProvider;
 import org.sat4j.specs.Propagatable;
 import org.sat4j.specs.SearchListener;
 import org.sat4j.specs.TimeoutException;
@@ -143,6 +150,12 @@ public class Solver<D extends DataStructureFactory>
 
     protected volatile boolean undertimeout;
 
+    /**
+     * Set when the timeout is expired by another thread, so that the expiry is
+     * not lost when it happens while the search is being set up.
+     */
+    private volatile boolean expired;
+
     private long timeout = Integer.MAX_VALUE;
 
     private boolean timeBasedTimeout = true;
@@ -172,6 +185,18 @@ public class Solver<D extends DataStructureFactory>
 
     private UnitClauseProvider unitClauseProvider = UnitClauseProvider.VOID;
 
+    private LearnedClauseProvider learnedClauseProvider = LearnedClauseProvider.VOID;
+
+    private final IVecInt exportedLiterals = new VecInt();
+
+    private final IVec<IVecInt> importedClauses = new Vec<IVecInt>();
+
+    private final IVecInt importedLbds = new VecInt();
+
+    private int[] levelFlags = new int[0];
+
+    private int levelFlag = 0;
+
     /**
      * Translates an IvecInt containing Dimacs formatted variables into and
      * IVecInt containing internal formatted variables.
@@ -244,6 +269,12 @@ public class Solver<D extends DataStructureFactory>
         this.dsfactory.setUnitPropagationListener(this);
         this.dsfactory.setLearner(this);
         this.voc = dsf.getVocabulary();
+        this.useBlockers = this.voc instanceof LitsWithBlockers;
+        this.implications = this.voc instanceof LitsWithImplications
+                ? (LitsWithImplications) this.voc
+                : null;
+        this.arena = this.voc instanceof LitsWithArena ? ((LitsWithArena) this.voc)
+                .getArena() : null;
         this.order.setLits(this.voc);
     }
 
@@ -360,12 +391,10 @@ public class Solver<D extends DataStructureFactory>
     }
 
     public void expireTimeout() {
+        this.expired = true;
         this.undertimeout = false;
         if (this.timeBasedTimeout) {
-            if (this.timer != null) {
-                this.timer.cancel();
-                this.timer = null;
-            }
+            cancelTimeoutTask();
         } else {
             if (this.conflictCount != null) {
                 this.conflictCount = null;
@@ -508,13 +537,14 @@ public class Solver<D extends DataStructureFactory>
             for (int i = 0; i < cs[type].size(); i++) {
                 if (cs[type].get(i).simplify()) {
                     // enleve les contraintes satisfaites de la base
-                    cs[type].get(i).remove(this);
+                    deferRemoval(cs[type].get(i));
                 } else {
                     cs[type].moveTo(j++, i);
                 }
             }
             cs[type].shrinkTo(j);
         }
+        purgeDeferredRemovals();
         return true;
     }
 
@@ -572,10 +602,44 @@ public class Solver<D extends DataStructureFactory>
 
     private boolean[] mseen = new boolean[0];
 
+    /**
+     * variables marked in mseen since the last call to clearSeen(), so that
+     * resetting mseen only costs the number of variables involved in the
+     * previous conflict analysis, not the number of variables of the problem.
+     */
+    private final IVecInt mseenVars = new VecInt();
+
     private final IVecInt mpreason = new VecInt();
 
     private final IVecInt moutLearnt = new VecInt();
 
+    /**
+     * Mark a variable as seen during conflict analysis.
+     * 
+     * @param x
+     *            a variable not yet marked as seen.
+     */
+    private void markSeen(int x) {
+        assert !this.mseen[x];
+        this.mseen[x] = true;
+        this.mseenVars.push(x);
+    }
+
+    /**
+     * Unmark the variables marked as seen by the previous analysis.
+     * 
+     * Only the variables touched since the last call are reset, so the cost
+     * of that method does not depend on the number of variables.
+     */
+    private void clearSeen() {
+        final boolean[] seen = this.mseen;
+        final IVecInt seenVars = this.mseenVars;
+        for (int i = 0; i < seenVars.size(); i++) {
+            seen[seenVars.unsafeGet(i)] = false;
+        }
+        seenVars.clear();
+    }
+
     /**
      * @throws TimeoutException
      *             if the timeout is reached during conflict analysis.
@@ -589,9 +653,7 @@ public class Solver<D extends DataStructureFactory>
 
         outLearnt.clear();
         assert outLearnt.size() == 0;
-        for (int i = 0; i < seen.length; i++) {
-            seen[i] = false;
-        }
+        clearSeen();
 
         int counter = 0;
         int p = ILits.UNDEFINED;
@@ -612,7 +674,7 @@ public class Solver<D extends DataStructureFactory>
                     int q = preason.get(j);
                     this.order.updateVar(q);
                     if (!seen[q >> 1]) {
-                        seen[q >> 1] = true;
+                        markSeen(q >> 1);
                         if (this.voc.getLevel(q) == decisionLevel()) {
                             counter++;
                             this.order.updateVarAtDecisionLevel(q);
@@ -683,12 +745,10 @@ public class Solver<D extends DataStructureFactory>
         }
 
         assert outLearnt.size() == 0;
-        for (int i = 0; i < seen.length; i++) {
-            seen[i] = false;
-        }
+        clearSeen();
 
         if (confl == null) {
-            seen[conflictingLiteral >> 1] = true;
+            markSeen(conflictingLiteral >> 1);
         }
 
         int p = ILits.UNDEFINED;
@@ -715,7 +775,7 @@ public class Solver<D extends DataStructureFactory>
             for (int j = 0; j < preason.size(); j++) {
                 int q = preason.get(j);
                 if (!seen[q >> 1]) {
-                    seen[q >> 1] = true;
+                    markSeen(q >> 1);
                     if (this.voc.getReason(q) == null
                             && this.voc.getLevel(q) > 0) {
                         assert assumps.contains(toDimacs(q));
@@ -804,6 +864,50 @@ public class Solver<D extends DataStructureFactory>
         }
     };
 
+    /**
+     * MiniSAT recursive simplification followed by the removal of the
+     * literals of the clause which are the negation of literals implied by
+     * the asserting literal through a binary clause, as in Glucose.
+     * 
+     * @since 2.3.6
+     */
+    public final ISimplifier BINARY_IMPLICATION_SIMPLIFICATION = new ISimplifier() {
+
+        private static final long serialVersionUID = 1L;
+
+        public void simplify(IVecInt conflictToReduce) {
+            expensiveSimplification(conflictToReduce);
+            binaryImplicationSimplification(conflictToReduce);
+        }
+
+        @Override
+        public String toString() {
+            return "Expensive reason simplification then binary implications based simplification"; //$NON-NLS-1$
+        }
+    };
+
+    /**
+     * Replaces the literals of the clause assigned at the same decision level
+     * by the unique implication point of that level when possible (all-UIP
+     * shrinking), then applies the MiniSAT recursive simplification.
+     * 
+     * @since 2.3.6
+     */
+    public final ISimplifier ALL_UIP_SHRINKING = new ISimplifier() {
+
+        private static final long serialVersionUID = 1L;
+
+        public void simplify(IVecInt conflictToReduce) {
+            allUIPShrinking(conflictToReduce);
+            expensiveSimplification(conflictToReduce);
+        }
+
+        @Override
+        public String toString() {
+            return "All-UIP shrinking then expensive reason simplification"; //$NON-NLS-1$
+        }
+    };
+
     private ISimplifier simplifier = NO_SIMPLIFICATION;
 
     /*
@@ -946,7 +1050,7 @@ public class Solver<D extends DataStructureFactory>
                         lanalyzetoclear.shrink(lanalyzetoclear.size() - top);
                         return false;
                     }
-                    seen[l >> 1] = true;
+                    markSeen(l >> 1);
                     lanalyzestack.push(l);
                     lanalyzetoclear.push(l);
                 }
@@ -1000,7 +1104,7 @@ public class Solver<D extends DataStructureFactory>
                                 .shrink(this.analyzetoclear.size() - top);
                         return false;
                     }
-                    seen[l >> 1] = true;
+                    markSeen(l >> 1);
                     this.analyzestack.push(l);
                     this.analyzetoclear.push(l);
                 }
@@ -1012,6 +1116,195 @@ public class Solver<D extends DataStructureFactory>
 
     // END Minisat 1.14 cut and paste
 
+    /**
+     * Clauses longer than that are not simplified using binary implications,
+     * to bound the cost of the simplification.
+     */
+    private static final int BINARY_SIMPLIFICATION_MAX_SIZE = 30;
+
+    /**
+     * literals of the clause being simplified are stamped with litStamp.
+     */
+    private int[] litStamps = new int[0];
+
+    private int litStamp;
+
+    /**
+     * variables met during all-UIP shrinking are stamped with varStamp.
+     */
+    private int[] varStamps = new int[0];
+
+    private int varStamp;
+
+    private final IVecInt shrinkReason = new VecInt();
+
+    private void stampLiterals(IVecInt literals) {
+        int nlits = 2 * this.voc.nVars() + 2;
+        if (this.litStamps.length < nlits) {
+            this.litStamps = new int[nlits];
+            this.varStamps = new int[nlits / 2];
+            this.litStamp = 0;
+            this.varStamp = 0;
+        }
+        if (++this.litStamp == Integer.MAX_VALUE) {
+            Arrays.fill(this.litStamps, 0);
+            this.litStamp = 1;
+        }
+        for (int i = 0; i < literals.size(); i++) {
+            this.litStamps[literals.get(i)] = this.litStamp;
+        }
+    }
+
+    private int unstamp(int q) {
+        // q is implied by the asserting literal: its negation, if it belongs
+        // to the clause, can be removed by resolution with that binary clause
+        if (this.litStamps[q ^ 1] == this.litStamp) {
+            this.litStamps[q ^ 1] = 0;
+            return 1;
+        }
+        return 0;
+    }
+
+    // Taken from Glucose binResMinimize
+    private void binaryImplicationSimplification(IVecInt conflictToReduce) {
+        if (conflictToReduce.size() <= 2
+                || conflictToReduce.size() > BINARY_SIMPLIFICATION_MAX_SIZE) {
+            return;
+        }
+        stampLiterals(conflictToReduce);
+        final int a = conflictToReduce.get(0);
+        int removed = 0;
+        if (this.implications != null) {
+            int[] implied = this.implications.implied(a ^ 1);
+            for (int i = this.implications.nbImplied(a ^ 1) - 1; i >= 0; i--) {
+                removed += unstamp(implied[i]);
+            }
+        }
+        IVec<Propagatable> lwatched = this.voc.watches(a ^ 1);
+        Constr c;
+        for (int i = 0; i < lwatched.size(); i++) {
+            c = lwatched.get(i).toConstraint();
+            if (c.canBePropagatedMultipleTimes() || c.size() != 2
+                    || !c.canBeSatisfiedByCountingLiterals()
+                    || c.requiredNumberOfSatisfiedLiterals() != 1) {
+                continue;
+            }
+            if (c.get(0) == a) {
+                removed += unstamp(c.get(1));
+            } else if (c.get(1) == a) {
+                removed += unstamp(c.get(0));
+            }
+        }
+        if (removed == 0) {
+            return;
+        }
+        int i, j;
+        for (i = j = 1; i < conflictToReduce.size(); i++) {
+            if (this.litStamps[conflictToReduce.get(i)] == this.litStamp) {
+                conflictToReduce.moveTo(j++, i);
+            }
+        }
+        conflictToReduce.shrink(i - j);
+        this.stats.incBinaryreducedliterals(i - j);
+    }
+
+    // Following Fleury and Biere, Efficient All-UIP Learned Clause
+    // Minimization, SAT 2021
+    private void allUIPShrinking(IVecInt conflictToReduce) {
+        final int size = conflictToReduce.size();
+        if (size <= 2) {
+            return;
+        }
+        stampLiterals(conflictToReduce);
+        // sort the literals by decreasing level to get the blocks
+        long[] keys = new long[size - 1];
+        for (int i = 1; i < size; i++) {
+            int p = conflictToReduce.get(i);
+            keys[i - 1] = (long) -this.voc.getLevel(p) << 32 | p;
+        }
+        Arrays.sort(keys);
+        conflictToReduce.shrinkTo(1);
+        int begin = 0;
+        while (begin < keys.length) {
+            int level = -(int) (keys[begin] >> 32);
+            int end = begin + 1;
+            while (end < keys.length && -(int) (keys[end] >> 32) == level) {
+                end++;
+            }
+            int uip = ILits.UNDEFINED;
+            if (end - begin > 1 && level > 0) {
+                uip = shrinkBlock(level, keys, begin, end);
+            }
+            if (uip == ILits.UNDEFINED) {
+                for (int i = begin; i < end; i++) {
+                    conflictToReduce.push((int) keys[i]);
+                }
+            } else {
+                conflictToReduce.push(uip ^ 1);
+                if (!this.mseen[uip >> 1]) {
+                    markSeen(uip >> 1);
+                }
+            }
+            begin = end;
+        }
+        this.stats.incShrunkliterals(size - conflictToReduce.size());
+    }
+
+    /**
+     * Looks for a literal of the trail at the given level implying all the
+     * literals of the block using only reasons whose other literals belong
+     * to the clause or to decision level 0.
+     * 
+     * @return the unique implication point of the block, or
+     *         {@link ILits#UNDEFINED} if there is none.
+     */
+    private int shrinkBlock(int level, long[] keys, int begin, int end) {
+        if (++this.varStamp == Integer.MAX_VALUE) {
+            Arrays.fill(this.varStamps, 0);
+            this.varStamp = 1;
+        }
+        final int stamp = this.varStamp;
+        final int[] stamps = this.varStamps;
+        for (int i = begin; i < end; i++) {
+            stamps[(int) keys[i] >> 1] = stamp;
+        }
+        int open = end - begin;
+        final int first = this.trailLim.get(level - 1);
+        final IVecInt lreason = this.shrinkReason;
+        int p, q, qlevel;
+        for (int i = this.trailLim.get(level) - 1; i >= first; i--) {
+            p = this.trail.get(i);
+            if (stamps[p >> 1] != stamp) {
+                continue;
+            }
+            if (open == 1) {
+                return p;
+            }
+            Constr reason = this.voc.getReason(p);
+            if (reason == null) {
+                return ILits.UNDEFINED;
+            }
+            lreason.clear();
+            reason.calcReason(p, lreason);
+            for (int j = 0; j < lreason.size(); j++) {
+                q = lreason.get(j);
+                if (stamps[q >> 1] == stamp) {
+                    continue;
+                }
+                qlevel = this.voc.getLevel(q);
+                if (qlevel == level) {
+                    stamps[q >> 1] = stamp;
+                    open++;
+                } else if (qlevel != 0
+                        && this.litStamps[q ^ 1] != this.litStamp) {
+                    return ILits.UNDEFINED;
+                }
+            }
+            open--;
+        }
+        return ILits.UNDEFINED;
+    }
+
     /**
      * 
      */
@@ -1068,6 +1361,26 @@ public class Solver<D extends DataStructureFactory>
 
     final IVec<Propagatable> watched = new Vec<Propagatable>();
 
+    final WatchesWithBlockers watchedWithBlockers = new WatchesWithBlockers();
+
+    /**
+     * true iff the watch lists of the vocabulary store a blocking literal for
+     * each watcher.
+     */
+    private boolean useBlockers;
+
+    /**
+     * the vocabulary if it stores the original binary clauses as lists of
+     * implied literals, else null.
+     */
+    LitsWithImplications implications;
+
+    /**
+     * the arena storing and watching the clauses if the vocabulary owns one,
+     * else null.
+     */
+    ClauseArena arena;
+
     /**
      * @return null if not conflict is found, else a conflicting constraint.
      */
@@ -1091,25 +1404,53 @@ public class Solver<D extends DataStructureFactory>
         return null;
     }
 
+    /**
+     * Unit propagation for the reasoning done outside the search (e.g.
+     * inprocessing): the heuristics and the search listener are not notified
+     * of the propagated literals, so the saved phases are left untouched.
+     * 
+     * @return null if not conflict is found, else a conflicting constraint.
+     */
+    final Constr propagateQuietly() {
+        while (this.qhead < this.trail.size()) {
+            this.stats.incPropagations();
+            Constr confl = reduceClausesContainingTheNegationOf(
+                    this.trail.get(this.qhead++));
+            if (confl != null) {
+                return confl;
+            }
+        }
+        return null;
+    }
+
     private Constr reduceClausesContainingTheNegationOf(int p) {
         // p is the literal to propagate
         // Moved original MiniSAT code to dsfactory to avoid
         // watches manipulation in counter Based clauses for instance.
         assert p > 1;
+        if (this.implications != null) {
+            Constr confl = propagateImplicationsOf(p);
+            if (confl != null) {
+                this.qhead = this.trail.size();
+                return confl;
+            }
+        }
+        if (this.arena != null) {
+            Constr confl = this.arena.propagate(p, this);
+            if (confl != null) {
+                this.qhead = this.trail.size();
+                return confl;
+            }
+        }
+        if (this.useBlockers) {
+            return reduceClausesContainingTheNegationOfWithBlockers(p);
+        }
         IVec<Propagatable> lwatched = this.watched;
         lwatched.clear();
         this.voc.watches(p).moveTo(lwatched);
         final int size = lwatched.size();
         for (int i = 0; i < size; i++) {
             this.stats.incInspects();
-            // try shortcut
-            // shortcut = shortcuts.get(i);
-            // if (shortcut != ILits.UNDEFINED && voc.isSatisfied(shortcut))
-            // {
-            // voc.watch(p, watched.get(i), shortcut);
-            // stats.shortcuts++;
-            // continue;
-            // }
             if (!lwatched.get(i).propagate(this, p)) {
                 // Constraint is conflicting: copy remaining watches to
                 // watches[p]
@@ -1125,6 +1466,76 @@ public class Solver<D extends DataStructureFactory>
         return null;
     }
 
+    /**
+     * Propagates the binary clauses containing the negation of p, stored as
+     * lists of literals implied by p. Equivalent to
+     * {@link #enqueue(int, Constr)} for each implied literal, without any
+     * virtual call nor allocation.
+     * 
+     * @param p
+     *            the literal to propagate
+     * @return null if no conflict is found, else the conflicting binary
+     *         clause.
+     */
+    private Constr propagateImplicationsOf(int p) {
+        final LitsWithImplications lvoc = this.implications;
+        final int size = lvoc.nbImplied(p);
+        if (size == 0) {
+            return null;
+        }
+        final int[] implied = lvoc.implied(p);
+        final int level = decisionLevel();
+        int q;
+        Constr reason;
+        for (int i = 0; i < size; i++) {
+            q = implied[i];
+            if (lvoc.isSatisfied(q)) {
+                continue;
+            }
+            if (lvoc.isFalsified(q)) {
+                return lvoc.conflict(p, q);
+            }
+            reason = lvoc.reason(p, q);
+            this.slistener.enqueueing(toDimacs(q), reason);
+            lvoc.satisfies(q);
+            lvoc.setLevel(q, level);
+            lvoc.setReason(q, reason);
+            this.trail.push(q);
+        }
+        return null;
+    }
+
+    private Constr reduceClausesContainingTheNegationOfWithBlockers(int p) {
+        final ILits lvoc = this.voc;
+        final WatchesWithBlockers lwatched = this.watchedWithBlockers;
+        lwatched.clear();
+        lvoc.watches(p).moveTo(lwatched);
+        final int size = lwatched.size();
+        int blocker;
+        for (int i = 0; i < size; i++) {
+            this.stats.incInspects();
+            // try shortcut: no need to visit a constraint satisfied by its
+            // blocker
+            blocker = lwatched.getBlocker(i);
+            if (blocker != ILits.UNDEFINED && lvoc.isSatisfied(blocker)) {
+                lvoc.watch(p, lwatched.get(i), blocker);
+                this.stats.incShortcuts();
+                continue;
+            }
+            if (!lwatched.get(i).propagate(this, p)) {
+                // Constraint is conflicting: copy remaining watches to
+                // watches[p]
+                // and return constraint
+                for (int j = i + 1; j < size; j++) {
+                    lvoc.watch(p, lwatched.get(j), lwatched.getBlocker(j));
+                }
+                this.qhead = this.trail.size(); // propQ.clear();
+                return lwatched.get(i).toConstraint();
+            }
+        }
+        return null;
+    }
+
     void record(Constr constr) {
         constr.assertConstraint(this);
         int p = toDimacs(constr.get(0));
@@ -1134,9 +1545,94 @@ public class Solver<D extends DataStructureFactory>
             this.slistener.learnUnit(p);
         } else {
             this.learner.learns(constr);
+            if (this.learnedClauseProvider != LearnedClauseProvider.VOID) {
+                exportLearnedClause(constr);
+            }
         }
     }
 
+    /**
+     * Publish a learned clause to the learned clause provider, with its LBD.
+     * Learned pseudo boolean or cardinality constraints are not shared.
+     * 
+     * @param constr
+     *            a newly learned constraint, already asserted.
+     */
+    private void exportLearnedClause(Constr constr) {
+        if (!constr.canBeSatisfiedByCountingLiterals()
+                || constr.requiredNumberOfSatisfiedLiterals() != 1) {
+            return;
+        }
+        if (this.levelFlags.length <= decisionLevel()) {
+            this.levelFlags = new int[decisionLevel() + 1];
+        }
+        this.levelFlag++;
+        int lbd = 0;
+        int level;
+        this.exportedLiterals.clear();
+        for (int i = 0; i < constr.size(); i++) {
+            this.exportedLiterals.push(toDimacs(constr.get(i)));
+            level = this.voc.getLevel(constr.get(i));
+            if (level >= 0 && this.levelFlags[level] != this.levelFlag) {
+                this.levelFlags[level] = this.levelFlag;
+                lbd++;
+            }
+        }
+        if (this.learnedClauseProvider
+                .exportLearnedClause(this.exportedLiterals, lbd)) {
+            this.stats.incExportedClauses();
+        }
+    }
+
+    /**
+     * Add as learned constraints the clauses provided by the learned clause
+     * provider. Must be called at decision level 0, so that the clauses can be
+     * simplified by the literals fixed at that level. The deletion strategy
+     * receives the LBD computed by the exporting solver, so that imported
+     * clauses can be deleted like the local ones.
+     */
+    private void importLearnedClauses() {
+        assert decisionLevel() == 0;
+        this.importedClauses.clear();
+        this.importedLbds.clear();
+        this.learnedClauseProvider.provideLearnedClauses(this.importedClauses,
+                this.importedLbds);
+        IVecInt clause;
+        int p;
+        boolean satisfied;
+        for (int i = 0; i < this.importedClauses.size(); i++) {
+            clause = this.importedClauses.get(i);
+            IVecInt literals = new VecInt(clause.size());
+            satisfied = false;
+            for (int j = 0; j < clause.size(); j++) {
+                p = LiteralsUtils.toInternal(clause.get(j));
+                if (this.voc.isSatisfied(p)) {
+                    satisfied = true;
+                    break;
+                }
+                if (this.voc.isUnassigned(p) && !literals.contains(p)) {
+                    literals.push(p);
+                }
+            }
+            if (satisfied || literals.isEmpty()) {
+                // an empty clause means a conflict at decision level 0: let
+                // the search find it by itself.
+                continue;
+            }
+            this.stats.incImportedClauses();
+            if (literals.size() == 1) {
+                enqueue(literals.get(0));
+            } else {
+                Constr c = this.dsfactory.createUnregisteredClause(literals);
+                this.learnedConstraintsDeletionStrategy.onClauseImport(c,
+                        this.importedLbds.get(i));
+                learn(c);
+            }
+        }
+        this.importedClauses.clear();
+        this.importedLbds.clear();
+    }
+
     /**
      * @return false ssi conflit imm?diat.
      */
@@ -1303,7 +1799,11 @@ public class Solver<D extends DataStructureFactory>
                 this.stats.incConflicts();
                 this.slistener.conflictFound(confl, decisionLevel(),
                         this.trail.size());
-                this.conflictCount.newConflict();
+                // expireTimeout() may discard the timers from another thread
+                ConflictTimerContainer timers = this.conflictCount;
+                if (timers != null) {
+                    timers.newConflict();
+                }
 
                 if (decisionLevel() == this.rootLevel) {
                     if (this.lastConflictMeansUnsat) {
@@ -1487,8 +1987,9 @@ public class Solver<D extends DataStructureFactory>
     public void clearLearntClauses() {
         for (Iterator<Constr> iterator = this.learnts.iterator(); iterator
                 .hasNext();) {
-            iterator.next().remove(this);
+            deferRemoval(iterator.next());
         }
+        purgeDeferredRemovals();
         this.learnts.clear();
         this.learnedLiterals.clear();
     }
@@ -1497,6 +1998,74 @@ public class Solver<D extends DataStructureFactory>
         this.stats.incReduceddb();
         this.slistener.cleaning();
         this.learnedConstraintsDeletionStrategy.reduce(this.learnts);
+        purgeDeferredRemovals();
+        if (this.arena != null) {
+            this.arena.compactIfNeeded();
+        }
+    }
+
+    /**
+     * Constraints removed from the solver but still present in the watch
+     * lists.
+     */
+    private final IVec<Constr> deferredRemovals = new Vec<Constr>();
+
+    /**
+     * Remove a constraint from the solver. Constraints only referenced by
+     * the watch lists are removed from them later, all at once, by
+     * {@link #purgeDeferredRemovals()}. The other ones are removed
+     * immediately.
+     * 
+     * @param c
+     *            a constraint to remove
+     * @since 2.3.6
+     */
+    void deferRemoval(Constr c) {
+        if (c instanceof BatchRemovable) {
+            this.deferredRemovals.push(c);
+        } else {
+            c.remove(this);
+        }
+    }
+
+    /**
+     * Remove the constraints given to {@link #deferRemoval(Constr)} from all
+     * the watch lists in a single sweep.
+     * 
+     * @since 2.3.6
+     */
+    void purgeDeferredRemovals() {
+        if (this.deferredRemovals.isEmpty()) {
+            return;
+        }
+        Set<Constr> removed = Collections
+                .newSetFromMap(new IdentityHashMap<Constr, Boolean>(
+                        2 * this.deferredRemovals.size()));
+        for (int i = 0; i < this.deferredRemovals.size(); i++) {
+            removed.add(this.deferredRemovals.get(i));
+        }
+        IVec<Propagatable> watched;
+        int j;
+        for (int var = 1; var <= this.voc.nVars(); var++) {
+            if (!this.voc.belongsToPool(var)) {
+                continue;
+            }
+            for (int p = var << 1; p <= (var << 1 | 1); p++) {
+                watched = this.voc.watches(p);
+                j = 0;
+                for (int i = 0; i < watched.size(); i++) {
+                    if (!removed.contains(watched.get(i).toConstraint())) {
+                        watched.moveTo(j++, i);
+                    }
+                }
+                watched.shrinkTo(j);
+            }
+        }
+        for (int i = 0; i < this.deferredRemovals.size(); i++) {
+            ((BatchRemovable) this.deferredRemovals.get(i))
+                    .removedFromWatches();
+        }
+        this.deferredRemovals.clear();
     }
 
     protected void sortOnActivity() {
@@ -1538,7 +2107,66 @@ public class Solver<D extends DataStructureFactory>
 
     private ConflictTimerContainer conflictCount;
 
-    private transient Timer timer;
+    private transient TimeoutScheduler timeoutScheduler;
+
+    private transient ScheduledFuture<?> timer;
+
+    private transient StopSearch stopSearch;
+
+    /**
+     * Task stopping the search when the time based timeout is reached.
+     */
+    private final class StopSearch implements Runnable {
+        public void run() {
+            synchronized (Solver.this) {
+                // ignore tasks cancelled too late
+                if (Solver.this.stopSearch == this) {
+                    Solver.this.undertimeout = false;
+                    Solver.this.stopSearch = null;
+                    Solver.this.timer = null;
+                }
+            }
+        }
+    }
+
+    private synchronized void scheduleTimeoutTask() {
+        cancelTimeoutTask();
+        this.undertimeout = true;
+        this.stopSearch = new StopSearch();
+        this.timer = getTimeoutScheduler().schedule(this.stopSearch,
+                this.timeout);
+    }
+
+    private synchronized void cancelTimeoutTask() {
+        if (this.timer != null) {
+            this.timer.cancel(false);
+            this.timer = null;
+        }
+        this.stopSearch = null;
+    }
+
+    /**
+     * Set the scheduler in charge of the time based timeouts of the solver.
+     * 
+     * @param scheduler
+     *            a scheduler, possibly shared with other solvers.
+     * @since 2.3.6
+     */
+    public void setTimeoutScheduler(TimeoutScheduler scheduler) {
+        this.timeoutScheduler = scheduler;
+    }
+
+    /**
+     * @return the scheduler in charge of the time based timeouts of the
+     *         solver, by default the one shared by all the solvers.
+     * @since 2.3.6
+     */
+    public TimeoutScheduler getTimeoutScheduler() {
+        if (this.timeoutScheduler == null) {
+            this.timeoutScheduler = TimeoutScheduler.getDefault();
+        }
+        return this.timeoutScheduler;
+    }
 
     public boolean isSatisfiable(IVecInt assumps) throws TimeoutException {
         return isSatisfiable(assumps, false);
@@ -1569,7 +2197,7 @@ public class Solver<D extends DataStructureFactory>
                         Solver.this.learnts.set(j++,
                                 Solver.this.learnts.get(i));
                     } else {
-                        c.remove(Solver.this);
+                        deferRemoval(c);
                         k++;
                     }
                 }
@@ -1595,6 +2223,10 @@ public class Solver<D extends DataStructureFactory>
 
             }
 
+            public void onClauseImport(Constr constr, int lbd) {
+                // do nothing
+            }
+
             @Override
             public String toString() {
                 return "Fixed size (" + maxsize
@@ -1650,6 +2282,12 @@ public class Solver<D extends DataStructureFactory>
     public final LearnedConstraintsDeletionStrategy size_based = new SizeLCDS(
             this, this.lbdTimer);
 
+    /**
+     * @since 2.3.6
+     */
+    public final LearnedConstraintsDeletionStrategy tier_based = new ThreeTiersLCDS<D>(
+            this, this.lbdTimer);
+
     protected LearnedConstraintsDeletionStrategy learnedConstraintsDeletionStrategy = this.lbd_based;
 
     /*
@@ -1675,7 +2313,10 @@ public class Solver<D extends DataStructureFactory>
     public boolean isSatisfiable(IVecInt assumps, boolean global)
             throws TimeoutException {
         Lbool status = Lbool.UNDEFINED;
-        boolean alreadylaunched = this.conflictCount != null;
+        this.expired = false;
+        // expireTimeout() may discard the timers from another thread
+        ConflictTimerContainer timers = this.conflictCount;
+        boolean alreadylaunched = timers != null;
         final int howmany = this.voc.nVars();
         if (this.mseen.length <= howmany) {
             this.mseen = new boolean[howmany + 1];
@@ -1765,31 +2406,16 @@ public class Solver<D extends DataStructureFactory>
         this.learner.init();
 
         if (!alreadylaunched) {
-            this.conflictCount = new ConflictTimerContainer();
-            this.conflictCount.add(this.restarter);
-            this.conflictCount
-                    .add(this.learnedConstraintsDeletionStrategy.getTimer());
+            timers = new ConflictTimerContainer();
+            timers.add(this.restarter);
+            timers.add(this.learnedConstraintsDeletionStrategy.getTimer());
+            this.conflictCount = timers;
         }
         boolean firstTimeGlobal = false;
         if (this.timeBasedTimeout) {
             if (!global || this.timer == null) {
                 firstTimeGlobal = true;
-                this.undertimeout = true;
-                TimerTask stopMe = new TimerTask() {
-                    @Override
-                    public void run() {
-                        Solver.this.undertimeout = false;
-                        synchronized (Solver.this) {
-                            if (Solver.this.timer != null) {
-                                Solver.this.timer.cancel();
-                                Solver.this.timer = null;
-                            }
-                        }
-                    }
-                };
-                this.timer = new Timer(true);
-                this.timer.schedule(stopMe, this.timeout);
-
+                scheduleTimeoutTask();
             }
         } else {
             if (!global || !alreadylaunched) {
@@ -1804,9 +2430,13 @@ public class Solver<D extends DataStructureFactory>
                         getSolver().expireTimeout();
                     }
                 };
-                this.conflictCount.add(conflictTimeout);
+                timers.add(conflictTimeout);
             }
         }
+        if (this.expired) {
+            // the timeout expired while the timers were set up
+            this.undertimeout = false;
+        }
         if (!global || firstTimeGlobal) {
             this.restarter.init(this.params, this.stats);
             this.timebegin = System.currentTimeMillis();
@@ -1816,27 +2446,38 @@ public class Solver<D extends DataStructureFactory>
         // when using a heuristics limited to a subset of variables
         this.lastConflictMeansUnsat = true;
         // Solve
+        int nbRestarts = 0;
         while (status == Lbool.UNDEFINED && this.undertimeout
                 && this.lastConflictMeansUnsat) {
             int before = this.trail.size();
             unitClauseProvider.provideUnitClauses(this);
             this.stats.incImportedUnits(this.trail.size() - before);
+            if (this.learnedClauseProvider != LearnedClauseProvider.VOID
+                    && decisionLevel() == 0) {
+                importLearnedClauses();
+            }
+            if (decisionLevel() == 0 && !reasonAtRootLevel(nbRestarts)) {
+                this.unsatExplanationInTermsOfAssumptions = new VecInt();
+                status = Lbool.FALSE;
+                break;
+            }
             status = search(assumps);
             if (status == Lbool.UNDEFINED) {
                 this.restarter.onRestart();
                 this.slistener.restarting();
+                nbRestarts++;
+                if (this.inprocessor != null && decisionLevel() == 0
+                        && !this.inprocessor.inprocess()) {
+                    this.unsatExplanationInTermsOfAssumptions = new VecInt();
+                    status = Lbool.FALSE;
+                }
             }
         }
 
         cancelUntil(0);
         cancelLearntLiterals(learnedLiteralsLimit);
         if (!global && this.timeBasedTimeout) {
-            synchronized (this) {
-                if (this.timer != null) {
-                    this.timer.cancel();
-                    this.timer = null;
-                }
-            }
+            cancelTimeoutTask();
         }
         this.slistener.end(status);
         if (!this.undertimeout) {
@@ -1854,6 +2495,47 @@ public class Solver<D extends DataStructureFactory>
         return model != null;
     }
 
+    /**
+     * Hook for a reasoning on the whole constraint database at decision level
+     * 0, called before the search starts and at each restart when there are
+     * no assumptions. The facts derived by that reasoning are added using
+     * {@link #enqueue(int)}; they are kept as the units learned during the
+     * search.
+     * 
+     * @param nbRestarts
+     *            the number of restarts since the beginning of the current
+     *            call to isSatisfiable()
+     * @return false iff the problem is found unsatisfiable
+     * @since 2.3.6
+     */
+    protected boolean reasonAtRootLevel(int nbRestarts) {
+        return true;
+    }
+
+    private Inprocessor inprocessor;
+
+    /**
+     * Enables inprocessing at restarts: failed literal probing, vivification
+     * of the learned clauses and equivalent literals substitution in the
+     * learned clauses, within a budget of propagations. Its effort and effects
+     * are reported in the solver statistics.
+     * 
+     * @param value
+     *            true to enable inprocessing.
+     * @since 2.3.6
+     */
+    public void setInprocessing(boolean value) {
+        this.inprocessor = value ? new Inprocessor(this) : null;
+    }
+
+    /**
+     * @return true iff inprocessing is enabled.
+     * @since 2.3.6
+     */
+    public boolean isInprocessing() {
+        return this.inprocessor != null;
+    }
+
     public void printInfos(PrintWriter out) {
         printInfos(out, prefix);
     }
@@ -1931,10 +2613,7 @@ public class Solver<D extends DataStructureFactory>
     }
 
     public void reset() {
-        if (this.timer != null) {
-            this.timer.cancel();
-            this.timer = null;
-        }
+        cancelTimeoutTask();
         this.trail.clear();
         this.trailLim.clear();
         this.qhead = 0;
@@ -2066,6 +2745,11 @@ public class Solver<D extends DataStructureFactory>
                     "Heuristics kept accross calls (keep the solver \"hot\")\n");
             stb.append(prefix);
         }
+        if (this.inprocessor != null) {
+            stb.append(this.inprocessor);
+            stb.append("\n");
+            stb.append(prefix);
+        }
         stb.append("Listener: ");
         stb.append(slistener);
         stb.append("\n");
@@ -2364,6 +3048,10 @@ public class Solver<D extends DataStructureFactory>
             this.learnedConstraintsDeletionStrategy = new Glucose2LCDS<D>(this,
                     timer);
             break;
+        case TIERS:
+            this.learnedConstraintsDeletionStrategy = new ThreeTiersLCDS<D>(
+                    this, timer);
+            break;
         }
         if (this.conflictCount != null) {
             this.learnedConstraintsDeletionStrategy.init();
@@ -2390,6 +3078,10 @@ public class Solver<D extends DataStructureFactory>
             this.learnedConstraintsDeletionStrategy = new Glucose2LCDS<D>(this,
                     aTimer);
             break;
+        case TIERS:
+            this.learnedConstraintsDeletionStrategy = new ThreeTiersLCDS<D>(
+                    this, aTimer);
+            break;
         }
         if (this.conflictCount != null) {
             this.learnedConstraintsDeletionStrategy.init();
@@ -2494,4 +3186,8 @@ public class Solver<D extends DataStructureFactory>
     public void setUnitClauseProvider(UnitClauseProvider ucp) {
         this.unitClauseProvider = ucp;
     }
+
+    public void setLearnedClauseProvider(LearnedClauseProvider lcp) {
+        this.learnedClauseProvider = lcp;
+    }
 }
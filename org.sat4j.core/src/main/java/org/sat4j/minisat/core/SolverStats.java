@@ -68,6 +68,10 @@ public class SolverStats implements Serializable {
 
     private long reducedliterals;
 
+    private long binaryreducedliterals;
+
+    private long shrunkliterals;
+
     private long changedreason;
 
     private int reduceddb;
@@ -78,6 +82,22 @@ public class SolverStats implements Serializable {
 
     private int importedUnits;
 
+    private long exportedClauses;
+
+    private long importedClauses;
+
+    private int inprocessings;
+
+    private long inprocessingPropagations;
+
+    private long vivifiedClauses;
+
+    private long vivifiedLiterals;
+
+    private long failedLiterals;
+
+    private long equivalentLiterals;
+
     public void reset() {
         this.starts = 0;
         this.decisions = 0;
@@ -92,10 +112,20 @@ public class SolverStats implements Serializable {
         this.learnedternaryclauses = 0;
         this.rootSimplifications = 0;
         this.reducedliterals = 0;
+        this.binaryreducedliterals = 0;
+        this.shrunkliterals = 0;
         this.changedreason = 0;
         this.reduceddb = 0;
         this.updateLBD = 0;
         this.importedUnits = 0;
+        this.exportedClauses = 0;
+        this.importedClauses = 0;
+        this.inprocessings = 0;
+        this.inprocessingPropagations = 0;
+        this.vivifiedClauses = 0;
+        this.vivifiedLiterals = 0;
+        this.failedLiterals = 0;
+        this.equivalentLiterals = 0;
     }
 
     public void printStat(PrintWriter out, String prefix) {
@@ -116,12 +146,30 @@ public class SolverStats implements Serializable {
                 prefix + "root simplifications\t: " + this.rootSimplifications);
         out.println(prefix + "removed literals (reason simplification)\t: "
                 + this.reducedliterals);
+        out.println(prefix + "removed literals (binary implications)\t: "
+                + this.binaryreducedliterals);
+        out.println(prefix + "removed literals (all-UIP shrinking)\t: "
+                + this.shrunkliterals);
         out.println(prefix + "reason swapping (by a shorter reason)\t: "
                 + this.changedreason);
         out.println(prefix + "Calls to reduceDB\t: " + this.reduceddb);
         out.println(prefix + "Number of update (reduction) of LBD\t: "
                 + this.updateLBD);
         out.println(prefix + "Imported unit clauses\t: " + this.importedUnits);
+        out.println(prefix + "Exported learned clauses\t: "
+                + this.exportedClauses);
+        out.println(prefix + "Imported learned clauses\t: "
+                + this.importedClauses);
+        out.println(prefix + "Inprocessing rounds\t: " + this.inprocessings);
+        out.println(prefix + "Inprocessing propagations\t: "
+                + this.inprocessingPropagations);
+        out.println(prefix + "Vivified learned clauses\t: "
+                + this.vivifiedClauses);
+        out.println(prefix + "removed literals (vivification)\t: "
+                + this.vivifiedLiterals);
+        out.println(prefix + "Failed literals\t: " + this.failedLiterals);
+        out.println(prefix + "Equivalent literals\t: "
+                + this.equivalentLiterals);
     }
 
     public Map<String, Number> toMap() {
@@ -243,6 +291,34 @@ public class SolverStats implements Serializable {
         this.reducedliterals += increment;
     }
 
+    /**
+     * @since 2.3.6
+     */
+    public long getBinaryreducedliterals() {
+        return binaryreducedliterals;
+    }
+
+    /**
+     * @since 2.3.6
+     */
+    public void incBinaryreducedliterals(int increment) {
+        this.binaryreducedliterals += increment;
+    }
+
+    /**
+     * @since 2.3.6
+     */
+    public long getShrunkliterals() {
+        return shrunkliterals;
+    }
+
+    /**
+     * @since 2.3.6
+     */
+    public void incShrunkliterals(int increment) {
+        this.shrunkliterals += increment;
+    }
+
     public long getChangedreason() {
         return changedreason;
     }
@@ -282,4 +358,68 @@ public class SolverStats implements Serializable {
     public void incImportedUnits(int increment) {
         this.importedUnits += increment;
     }
+
+    public long getExportedClauses() {
+        return exportedClauses;
+    }
+
+    public void incExportedClauses() {
+        this.exportedClauses++;
+    }
+
+    public long getImportedClauses() {
+        return importedClauses;
+    }
+
+    public void incImportedClauses() {
+        this.importedClauses++;
+    }
+
+    public int getInprocessings() {
+        return inprocessings;
+    }
+
+    public void incInprocessings() {
+        this.inprocessings++;
+    }
+
+    public long getInprocessingPropagations() {
+        return inprocessingPropagations;
+    }
+
+    public void incInprocessingPropagations(long increment) {
+        this.inprocessingPropagations += increment;
+    }
+
+    public long getVivifiedClauses() {
+        return vivifiedClauses;
+    }
+
+    public void incVivifiedClauses() {
+        this.vivifiedClauses++;
+    }
+
+    public long getVivifiedLiterals() {
+        return vivifiedLiterals;
+    }
+
+    public void incVivifiedLiterals(int increment) {
+        this.vivifiedLiterals += increment;
+    }
+
+    public long getFailedLiterals() {
+        return failedLiterals;
+    }
+
+    public void incFailedLiterals() {
+        this.failedLiterals++;
+    }
+
+    public long getEquivalentLiterals() {
+        return equivalentLiterals;
+    }
+
+    public void incEquivalentLiterals(int increment) {
+        this.equivalentLiterals += increment;
+    }
 }
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.core;
+
+import java.util.Comparator;
+
+import org.sat4j.core.Vec;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.IVec;
+
+/**
+ * Learned constraints deletion strategy splitting the learned clauses into
+ * three tiers according to their LBD, as in MapleLCMDist or CaDiCaL:
+ * <ul>
+ * <li>core clauses (LBD at most {@value #CORE_LBD}) are never removed;</li>
+ * <li>tier2 clauses (LBD at most {@value #TIER2_LBD}) are kept as long as they
+ * are used in conflict analysis between two reductions, else they are moved
+ * to the local tier;</li>
+ * <li>local clauses are sorted, the ones not used since the previous
+ * reduction first, then by decreasing LBD, and the worst half of them are
+ * removed.</li>
+ * </ul>
+ * 
+ * The LBD of a clause is updated each time it is used in conflict analysis,
+ * which may move it to a better tier. As for the other LBD based strategies,
+ * the LBD is the integer part of the activity of the clause, so that
+ * <code>(int) getActivity()</code> still gives the LBD. The fractional part
+ * records whether the clause has been used since the previous reduction and
+ * whether it has been moved to the local tier.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+final class ThreeTiersLCDS<D extends DataStructureFactory> implements
+        LearnedConstraintsDeletionStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int CORE_LBD = 2;
+
+    static final int TIER2_LBD = 6;
+
+    private static final double USED = 0.5;
+
+    private static final double LOCAL = 0.25;
+
+    private final Solver<D> solver;
+
+    private final ConflictTimer timer;
+
+    private int[] flags = new int[0];
+
+    private int flag = 0;
+
+    private final IVec<Constr> candidates = new Vec<Constr>();
+
+    private static final Comparator<Constr> WORST_FIRST = new Comparator<Constr>() {
+        public int compare(Constr c1, Constr c2) {
+            boolean used1 = isUsed(c1);
+            if (used1 != isUsed(c2)) {
+                return used1 ? 1 : -1;
+            }
+            int delta = lbd(c2) - lbd(c1);
+            if (delta != 0) {
+                return delta;
+            }
+            return c2.size() - c1.size();
+        }
+    };
+
+    ThreeTiersLCDS(Solver<D> solver, ConflictTimer timer) {
+        this.solver = solver;
+        this.timer = timer;
+    }
+
+    static int lbd(Constr c) {
+        return (int) c.getActivity();
+    }
+
+    static boolean isUsed(Constr c) {
+        return c.getActivity() - lbd(c) >= USED;
+    }
+
+    static boolean isLocal(Constr c) {
+        double flags = c.getActivity() - lbd(c);
+        return flags >= USED ? flags - USED >= LOCAL : flags >= LOCAL;
+    }
+
+    private static void setFlags(Constr c, int lbd, boolean used,
+            boolean local) {
+        c.setActivity(lbd + (used ? USED : 0) + (local ? LOCAL : 0));
+    }
+
+    public void reduce(IVec<Constr> learnedConstrs) {
+        IVec<Constr> local = this.candidates;
+        local.clear();
+        int core = 0, tier2 = 0;
+        int i, j;
+        for (i = j = 0; i < learnedConstrs.size(); i++) {
+            Constr c = learnedConstrs.get(i);
+            int lbd = lbd(c);
+            if (lbd <= CORE_LBD) {
+                core++;
+                learnedConstrs.set(j++, c);
+            } else if (lbd <= TIER2_LBD && !isLocal(c)) {
+                if (isUsed(c)) {
+                    setFlags(c, lbd, false, false);
+                    tier2++;
+                } else {
+                    // moved to the local tier, where it gets a chance to be
+                    // used before the next reduction
+                    setFlags(c, lbd, true, true);
+                }
+                learnedConstrs.set(j++, c);
+            } else if (c.locked()) {
+                setFlags(c, lbd, false, true);
+                learnedConstrs.set(j++, c);
+            } else {
+                local.push(c);
+            }
+        }
+        learnedConstrs.shrinkTo(j);
+        local.sort(WORST_FIRST);
+        int removed = 0;
+        for (i = 0; i < local.size(); i++) {
+            Constr c = local.get(i);
+            if (i < local.size() / 2) {
+                this.solver.deferRemoval(c);
+                this.solver.slistener.delete(c);
+                removed++;
+            } else {
+                setFlags(c, lbd(c), false, true);
+                learnedConstrs.push(c);
+            }
+        }
+        local.clear();
+        if (this.solver.isVerbose()) {
+            this.solver.out.log(this.solver.getLogPrefix() + "cleaning " //$NON-NLS-1$
+                    + removed + " clauses out of " //$NON-NLS-1$
+                    + (learnedConstrs.size() + removed) + " (core " + core //$NON-NLS-1$
+                    + ", tier2 " + tier2 + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    public ConflictTimer getTimer() {
+        return this.timer;
+    }
+
+    @Override
+    public String toString() {
+        return "Three tiers (core LBD<=" + CORE_LBD + ", tier2 LBD<=" //$NON-NLS-1$ //$NON-NLS-2$
+                + TIER2_LBD
+                + ", local) learned constraints deletion strategy with timer " //$NON-NLS-1$
+                + this.timer;
+    }
+
+    public void init() {
+        final int howmany = this.solver.voc.nVars();
+        if (this.flags.length <= howmany) {
+            this.flags = new int[howmany + 1];
+        }
+        this.flag = 0;
+        this.timer.reset();
+    }
+
+    /**
+     * Computes the LBD of a constraint whose literals are all assigned but
+     * the ones undone during conflict analysis, which were assigned at the
+     * current decision level.
+     */
+    private int computeLBD(Constr constr) {
+        int nblevel = 0;
+        this.flag++;
+        int level;
+        for (int i = 0; i < constr.size(); i++) {
+            level = this.solver.voc.getLevel(constr.get(i));
+            if (level < 0) {
+                level = this.solver.decisionLevel();
+            }
+            if (this.flags[level] != this.flag) {
+                this.flags[level] = this.flag;
+                nblevel++;
+            }
+        }
+        return nblevel;
+    }
+
+    public void onClauseLearning(Constr constr) {
+        setFlags(constr, computeLBD(constr), false, false);
+    }
+
+    public void onClauseImport(Constr constr, int lbd) {
+        setFlags(constr, lbd, false, false);
+    }
+
+    public void onConflictAnalysis(Constr reason) {
+        if (!reason.learnt()) {
+            return;
+        }
+        int lbd = lbd(reason);
+        boolean local = isLocal(reason);
+        if (lbd > CORE_LBD) {
+            int nblevel = computeLBD(reason);
+            if (nblevel < lbd) {
+                this.solver.stats.incUpdateLBD();
+                lbd = nblevel;
+                // promoted to tier2 or core
+                local = local && lbd > TIER2_LBD;
+            }
+        }
+        setFlags(reason, lbd, true, local);
+    }
+
+    public void onPropagation(Constr from) {
+        // LBD only updated during conflict analysis
+    }
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.core;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single daemon thread in charge of stopping the solvers when their time
+ * based timeout is reached.
+ * 
+ * Scheduling a timeout only queues a task, so incremental solvers issuing
+ * many short calls do not pay for the creation of a new thread on each call.
+ * The same scheduler can be shared by many solvers: by default, all the
+ * solvers use the one returned by {@link #getDefault()}.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public final class TimeoutScheduler {
+
+    private static final TimeoutScheduler DEFAULT = new TimeoutScheduler(
+            "Sat4j timeout scheduler");
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Creates a new scheduler, with its own thread.
+     * 
+     * @param name
+     *            the name of the thread of the scheduler.
+     */
+    public TimeoutScheduler(final String name) {
+        this.executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @return the scheduler shared by default by all the solvers.
+     */
+    public static TimeoutScheduler getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Run a task once a given delay is elapsed.
+     * 
+     * @param task
+     *            the task to run, typically to stop a solver.
+     * @param delayMs
+     *            the delay in milliseconds.
+     * @return a handle to cancel the task.
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        return this.executor.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the number of tasks waiting for their delay to be elapsed.
+     */
+    public int getPendingTasks() {
+        return this.executor.getQueue().size();
+    }
+
+    /**
+     * Stops the thread of the scheduler. Pending tasks are discarded.
+     */
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+}
@@ -36,6 +36,7 @@ import static org.sat4j.core.LiteralsUtils.var;
 import java.util.Comparator;
 
 import org.sat4j.core.VecInt;
+import org.sat4j.minisat.constraints.cnf.WatchesWithBlockers;
 import org.sat4j.specs.Constr;
 import org.sat4j.specs.IVec;
 import org.sat4j.specs.IVecInt;
@@ -140,9 +141,23 @@ public class WatcherBasedPrimeImplicantStrategy
     Constr reduceClausesContainingTheNegationOfPI(
             Solver<? extends DataStructureFactory> solver, int p) {
         assert p > 1;
+        if (solver.implications != null) {
+            int[] implied = solver.implications.implied(p);
+            for (int i = solver.implications.nbImplied(p) - 1; i >= 0; i--) {
+                isMandatory(implied[i]);
+            }
+        }
+        if (solver.arena != null) {
+            solver.arena.propagatePI(p, this);
+        }
+        IVec<Propagatable> watches = solver.voc.watches(p);
+        if (watches instanceof WatchesWithBlockers) {
+            reduceWithBlockers(solver, p, (WatchesWithBlockers) watches);
+            return null;
+        }
         IVec<Propagatable> lwatched = solver.watched;
         lwatched.clear();
-        solver.voc.watches(p).moveTo(lwatched);
+        watches.moveTo(lwatched);
         final int size = lwatched.size();
         for (int i = 0; i < size; i++) {
             solver.stats.incInspects();
@@ -151,6 +166,28 @@ public class WatcherBasedPrimeImplicantStrategy
         return null;
     }
 
+    /**
+     * Visits the watchers of p, giving back their blocker to the watchers
+     * watching p again.
+     */
+    private void reduceWithBlockers(
+            Solver<? extends DataStructureFactory> solver, int p,
+            WatchesWithBlockers watches) {
+        WatchesWithBlockers lwatched = solver.watchedWithBlockers;
+        lwatched.clear();
+        watches.moveTo(lwatched);
+        final int size = lwatched.size();
+        for (int i = 0; i < size; i++) {
+            solver.stats.incInspects();
+            Propagatable watcher = lwatched.get(i);
+            watcher.propagatePI(this, p);
+            int last = watches.size() - 1;
+            if (last >= 0 && watches.get(last) == watcher) {
+                watches.setBlocker(last, lwatched.getBlocker(i));
+            }
+        }
+    }
+
     public int[] getPrimeImplicantAsArrayWithHoles() {
         if (prime == null) {
             throw new UnsupportedOperationException(
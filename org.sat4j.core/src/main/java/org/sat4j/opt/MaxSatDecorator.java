@@ -36,6 +36,7 @@ import org.sat4j.specs.IConstr;
 import org.sat4j.specs.ISolver;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
+import org.sat4j.tools.encoding.Totalizer;
 
 /**
  * Computes a solution that satisfies the maximum of clauses.
@@ -92,6 +93,8 @@ public final class MaxSatDecorator extends AbstractSelectorVariablesDecorator {
         this.lits.clear();
         super.reset();
         this.prevConstr = null;
+        this.totalizer = null;
+        this.boundLiteral = 0;
     }
 
     public boolean hasNoObjectiveFunction() {
@@ -113,10 +116,53 @@ public final class MaxSatDecorator extends AbstractSelectorVariablesDecorator {
 
     private IConstr prevConstr;
 
+    private boolean useTotalizer;
+
+    private Totalizer totalizer;
+
+    /**
+     * the negation of the totalizer output bounding the number of violated
+     * clauses, 0 if there is no bound.
+     */
+    private int boundLiteral;
+
+    /**
+     * Bound the number of violated clauses using an incremental totalizer
+     * instead of a new cardinality constraint for each better solution. The
+     * totalizer is built once, and tightening the bound only changes the
+     * output of the totalizer that is assumed when looking for a better
+     * solution.
+     * 
+     * @param useTotalizer
+     *            true to use a totalizer, false (the default) to use
+     *            cardinality constraints.
+     * @since 2.3.6
+     */
+    public void setUseTotalizer(boolean useTotalizer) {
+        this.useTotalizer = useTotalizer;
+    }
+
+    public boolean isUseTotalizer() {
+        return this.useTotalizer;
+    }
+
     /**
      * @since 2.1
      */
     public void discardCurrentSolution() throws ContradictionException {
+        if (this.useTotalizer) {
+            if (this.counter == 0) {
+                setSolutionOptimal(true);
+                throw new ContradictionException("No better solution");
+            }
+            if (this.totalizer == null) {
+                // the clauses of the encoding must not get a selector
+                this.totalizer = new Totalizer(decorated(), this.lits,
+                        this.counter);
+            }
+            this.boundLiteral = -this.totalizer.getOutput(this.counter);
+            return;
+        }
         if (this.prevConstr != null) {
             super.removeSubsumedConstr(this.prevConstr);
         }
@@ -132,7 +178,15 @@ public final class MaxSatDecorator extends AbstractSelectorVariablesDecorator {
     public boolean admitABetterSolution(IVecInt assumps)
             throws TimeoutException {
 
-        boolean result = super.admitABetterSolution(assumps);
+        boolean result;
+        if (this.boundLiteral == 0) {
+            result = super.admitABetterSolution(assumps);
+        } else {
+            IVecInt boundedAssumps = new VecInt(assumps.size() + 1);
+            assumps.copyTo(boundedAssumps);
+            boundedAssumps.push(this.boundLiteral);
+            result = super.admitABetterSolution(boundedAssumps);
+        }
         if (!result && this.prevConstr != null) {
             super.removeConstr(this.prevConstr);
             this.prevConstr = null;
@@ -154,8 +208,21 @@ public final class MaxSatDecorator extends AbstractSelectorVariablesDecorator {
     @Override
     void calculateObjectiveValue() {
         this.counter = 0;
-        for (int q : getPrevfullmodel()) {
-            if (q > nVars()) {
+        // the variables of the totalizer are internal variables too
+        int[] fullmodel = getPrevfullmodel();
+        int maxVar = 0;
+        for (int q : fullmodel) {
+            maxVar = Math.max(maxVar, q);
+        }
+        boolean[] satisfied = new boolean[maxVar + 1];
+        for (int q : fullmodel) {
+            if (q > 0) {
+                satisfied[q] = true;
+            }
+        }
+        for (int i = 0; i < this.lits.size(); i++) {
+            int p = this.lits.get(i);
+            if (p <= maxVar && satisfied[p]) {
                 this.counter++;
             }
         }
@@ -37,6 +37,7 @@ import org.sat4j.specs.ISolver;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
 import org.sat4j.tools.SolverDecorator;
+import org.sat4j.tools.encoding.Totalizer;
 
 /**
  * Computes a solution with the smallest number of satisfied literals.
@@ -72,7 +73,15 @@ public final class MinOneDecorator extends SolverDecorator<ISolver> implements
     public boolean admitABetterSolution(IVecInt assumps)
             throws TimeoutException {
         this.isSolutionOptimal = false;
-        boolean result = isSatisfiable(assumps, true);
+        boolean result;
+        if (this.boundLiteral == 0) {
+            result = isSatisfiable(assumps, true);
+        } else {
+            IVecInt boundedAssumps = new VecInt(assumps.size() + 1);
+            assumps.copyTo(boundedAssumps);
+            boundedAssumps.push(this.boundLiteral);
+            result = isSatisfiable(boundedAssumps, true);
+        }
         if (result) {
             this.prevmodel = super.model();
             this.prevmodelWithInternalVariables = super
@@ -112,6 +121,33 @@ public final class MinOneDecorator extends SolverDecorator<ISolver> implements
 
     private IConstr previousConstr;
 
+    private boolean useTotalizer;
+
+    private Totalizer totalizer;
+
+    /**
+     * the negation of the totalizer output bounding the number of satisfied
+     * literals, 0 if there is no bound.
+     */
+    private int boundLiteral;
+
+    /**
+     * Bound the number of satisfied literals using an incremental totalizer
+     * instead of a new cardinality constraint for each better solution.
+     * 
+     * @param useTotalizer
+     *            true to use a totalizer, false (the default) to use
+     *            cardinality constraints.
+     * @since 2.3.6
+     */
+    public void setUseTotalizer(boolean useTotalizer) {
+        this.useTotalizer = useTotalizer;
+    }
+
+    public boolean isUseTotalizer() {
+        return this.useTotalizer;
+    }
+
     /**
      * @since 2.1
      */
@@ -121,6 +157,18 @@ public final class MinOneDecorator extends SolverDecorator<ISolver> implements
                 this.literals.push(i);
             }
         }
+        if (this.useTotalizer) {
+            if (this.counter == 0) {
+                this.isSolutionOptimal = true;
+                throw new ContradictionException("No better solution");
+            }
+            if (this.totalizer == null) {
+                this.totalizer = new Totalizer(decorated(), this.literals,
+                        this.counter);
+            }
+            this.boundLiteral = -this.totalizer.getOutput(this.counter);
+            return;
+        }
         if (this.previousConstr != null) {
             super.removeConstr(this.previousConstr);
         }
@@ -142,6 +190,8 @@ public final class MinOneDecorator extends SolverDecorator<ISolver> implements
     public void reset() {
         this.literals.clear();
         this.previousConstr = null;
+        this.totalizer = null;
+        this.boundLiteral = 0;
         super.reset();
     }
 
@@ -54,6 +54,10 @@ public class InstanceReader extends Reader {
 
     private LecteurDimacs dimacs;
 
+    private MappedDimacsReader mapped;
+
+    private ParallelDimacsReader parallel;
+
     private Reader reader = null;
 
     private final ISolver solver;
@@ -84,6 +88,20 @@ public class InstanceReader extends Reader {
         return this.ezdimacs;
     }
 
+    private Reader getMappedSATReader() {
+        if (this.mapped == null) {
+            this.mapped = new MappedDimacsReader(this.solver);
+        }
+        return this.mapped;
+    }
+
+    private Reader getParallelSATReader() {
+        if (this.parallel == null) {
+            this.parallel = new ParallelDimacsReader(this.solver);
+        }
+        return this.parallel;
+    }
+
     private Reader getAIGReader() {
         if (this.aig == null) {
             this.aig = new AIGReader(this.solver);
@@ -131,6 +149,12 @@ public class InstanceReader extends Reader {
         if ("EZCNF".equals(prefix)) {
             return getEZSATReader();
         }
+        if ("MMAP".equals(prefix)) {
+            return getMappedSATReader();
+        }
+        if ("PARALLEL".equals(prefix)) {
+            return getParallelSATReader();
+        }
         if (fname.endsWith(".aag")) {
             return getAAGReader();
         }
@@ -0,0 +1,349 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IProblem;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Dimacs reader for very large uncompressed CNF files. The file is memory
+ * mapped (in segments when it is larger than 1GB) and the literals are parsed
+ * directly from the mapped bytes, without any intermediate copy or stream.
+ * 
+ * Compressed files, urls and streams are delegated to {@link LecteurDimacs}.
+ * 
+ * That reader can be selected in {@link InstanceReader} by prefixing the name
+ * of the file by MMAP: (e.g. MMAP:huge.cnf).
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public class MappedDimacsReader extends Reader {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    private static final int EOF = -1;
+
+    private final ISolver solver;
+
+    private final int segmentSize;
+
+    private LecteurDimacs streamReader;
+
+    private Map<Integer, String> mapping;
+
+    private FileChannel channel;
+
+    private long fileSize;
+
+    private long segmentStart;
+
+    private MappedByteBuffer buffer;
+
+    private int pos;
+
+    private int limit;
+
+    public MappedDimacsReader(ISolver solver) {
+        this(solver, DEFAULT_SEGMENT_SIZE);
+    }
+
+    MappedDimacsReader(ISolver solver, int segmentSize) {
+        this.solver = solver;
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public IProblem parseInstance(final String filename)
+            throws ParseFormatException, IOException, ContradictionException {
+        if (filename.startsWith("http://") || filename.endsWith(".gz")
+                || filename.endsWith(".bz2") || filename.endsWith(".lzma")) {
+            return super.parseInstance(filename);
+        }
+        this.streamReader = null;
+        this.mapping = null;
+        RandomAccessFile file = new RandomAccessFile(filename, "r");
+        try {
+            this.channel = file.getChannel();
+            this.fileSize = this.channel.size();
+            this.segmentStart = 0;
+            this.buffer = null;
+            this.pos = 0;
+            this.limit = 0;
+            return parse();
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof ContradictionException) {
+                throw (ContradictionException) e.getCause();
+            }
+            throw e;
+        } finally {
+            this.buffer = null;
+            this.channel = null;
+            file.close();
+        }
+    }
+
+    @Override
+    public IProblem parseInstance(final InputStream in)
+            throws ParseFormatException, ContradictionException, IOException {
+        this.streamReader = new LecteurDimacs(this.solver);
+        this.streamReader.setUseMapping(isUsingMapping());
+        return this.streamReader.parseInstance(in);
+    }
+
+    /**
+     * Map the next segment of the file.
+     * 
+     * @return false iff the end of the file is reached.
+     */
+    private boolean nextSegment() throws IOException {
+        this.segmentStart += this.limit;
+        if (this.segmentStart >= this.fileSize) {
+            return false;
+        }
+        this.limit = (int) Math.min(this.segmentSize, this.fileSize
+                - this.segmentStart);
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY,
+                this.segmentStart, this.limit);
+        this.pos = 0;
+        return true;
+    }
+
+    private int next() throws IOException {
+        if (this.pos == this.limit && !nextSegment()) {
+            return EOF;
+        }
+        return this.buffer.get(this.pos++);
+    }
+
+    private int skipSpaces() throws IOException {
+        int car;
+        do {
+            car = next();
+        } while (car != EOF && car <= ' ');
+        return car;
+    }
+
+    private IProblem parse() throws IOException, ParseFormatException,
+            ContradictionException {
+        this.solver.reset();
+        int car = skipSpaces();
+        int nbVars = -1;
+        int nbClauses = -1;
+        while (car == 'c' || car == 'p') {
+            if (car == 'p') {
+                car = skipSpaces();
+                if (car != 'c' || next() != 'n' || next() != 'f') {
+                    throw new ParseFormatException(
+                            "Expecting file in cnf format.");
+                }
+                car = skipSpaces();
+                nbVars = 0;
+                while (car >= '0' && car <= '9') {
+                    nbVars = 10 * nbVars + car - '0';
+                    car = next();
+                }
+                car = skipSpaces();
+                nbClauses = 0;
+                while (car >= '0' && car <= '9') {
+                    nbClauses = 10 * nbClauses + car - '0';
+                    car = next();
+                }
+                if (car != '\n' && car != EOF) {
+                    car = skipLine();
+                }
+            } else {
+                car = commentLine();
+            }
+            if (car != EOF) {
+                car = skipSpaces();
+            }
+        }
+        if (nbVars < 0) {
+            throw new ParseFormatException(
+                    "DIMACS error: wrong max number of variables");
+        }
+        this.solver.newVar(nbVars);
+        this.solver.setExpectedNumberOfClauses(nbClauses);
+        if (nbClauses > 0 && car == EOF) {
+            throw new ParseFormatException(
+                    "DIMACS error: the clauses are missing");
+        }
+        addClauses(car, nbClauses);
+        return this.solver;
+    }
+
+    private void addClauses(int first, int nbClauses) throws IOException,
+            ParseFormatException, ContradictionException {
+        final IVecInt literals = new VecInt();
+        int car = first;
+        int val;
+        boolean neg;
+        int realNbClauses = 0;
+        while (car != EOF) {
+            if (car == 'c') {
+                car = commentLine();
+                car = skipSpaces();
+                continue;
+            }
+            if (car == '%' && realNbClauses == nbClauses) {
+                // the rest of the file is ignored (SATLIB format)
+                return;
+            }
+            neg = false;
+            if (car == '-') {
+                neg = true;
+                car = next();
+            } else if (car == '+') {
+                car = next();
+            }
+            if (car < '0' || car > '9') {
+                throw new ParseFormatException("Unknown character "
+                        + (char) car);
+            }
+            val = 0;
+            while (car >= '0' && car <= '9') {
+                val = val * 10 + car - '0';
+                car = next();
+            }
+            if (val == 0) {
+                this.solver.addClause(literals);
+                literals.clear();
+                realNbClauses++;
+            } else {
+                literals.push(neg ? -val : val);
+            }
+            if (car != EOF) {
+                car = skipSpaces();
+            }
+        }
+        if (!literals.isEmpty()) {
+            this.solver.addClause(literals);
+        }
+    }
+
+    private int skipLine() throws IOException {
+        int car;
+        do {
+            car = next();
+        } while (car != '\n' && car != EOF);
+        return car;
+    }
+
+    private int commentLine() throws IOException {
+        if (!isUsingMapping()) {
+            return skipLine();
+        }
+        StringBuilder stb = new StringBuilder();
+        int car = next();
+        while (car != '\n' && car != EOF) {
+            stb.append((char) car);
+            car = next();
+        }
+        String[] values = stb.toString().trim().split("=");
+        if (values.length == 2) {
+            try {
+                Integer var = Integer.valueOf(values[0].trim());
+                if (this.mapping == null) {
+                    this.mapping = new HashMap<Integer, String>();
+                }
+                this.mapping.put(var, values[1].trim());
+            } catch (NumberFormatException e) {
+                // not a mapping
+            }
+        }
+        return car;
+    }
+
+    @Override
+    @Deprecated
+    public String decode(int[] model) {
+        StringBuilder stb = new StringBuilder();
+        for (int element : model) {
+            stb.append(element);
+            stb.append(" ");
+        }
+        stb.append("0");
+        return stb.toString();
+    }
+
+    @Override
+    public void decode(int[] model, PrintWriter out) {
+        if (this.streamReader != null) {
+            this.streamReader.decode(model, out);
+            return;
+        }
+        if (isUsingMapping() && hasAMapping()) {
+            String mapped;
+            for (int element : model) {
+                if (element > 0) {
+                    mapped = this.mapping.get(element);
+                    out.print(mapped == null ? String.valueOf(element)
+                            : mapped);
+                    out.print(" ");
+                }
+            }
+        } else {
+            for (int element : model) {
+                out.print(element);
+                out.print(" ");
+            }
+        }
+        out.print("0");
+    }
+
+    @Override
+    public boolean hasAMapping() {
+        if (this.streamReader != null) {
+            return this.streamReader.hasAMapping();
+        }
+        return this.mapping != null;
+    }
+
+    @Override
+    public Map<Integer, String> getMapping() {
+        if (this.streamReader != null) {
+            return this.streamReader.getMapping();
+        }
+        return this.mapping;
+    }
+}
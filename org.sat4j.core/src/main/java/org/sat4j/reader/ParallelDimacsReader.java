@@ -0,0 +1,461 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IProblem;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Dimacs reader tokenizing large uncompressed CNF files in parallel.
+ * 
+ * After the header, the file is cut into chunks of about the same size, each
+ * ending at the end of a line. Worker threads map their chunk and turn it into
+ * a block of ints, each clause being terminated by a 0 as in the file. The
+ * calling thread is the only one to feed the solver: it takes the blocks in
+ * the order of the file and adds a clause each time it meets a 0, so a clause
+ * written on several lines may well start in one block and end in the next
+ * one. Only a few blocks are tokenized in advance, so the memory used by the
+ * reader does not depend on the size of the file.
+ * 
+ * The name mapping found in the comments is not parallelized: when
+ * {@link #isUsingMapping()} is set, the file is read by a
+ * {@link MappedDimacsReader}, as are compressed files, urls and streams by a
+ * {@link LecteurDimacs}.
+ * 
+ * That reader can be selected in {@link InstanceReader} by prefixing the name
+ * of the file by PARALLEL: (e.g. PARALLEL:huge.cnf).
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public class ParallelDimacsReader extends Reader {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 23;
+
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    private static final int BLOCKS_PER_THREAD = 2;
+
+    private final ISolver solver;
+
+    private final int nbThreads;
+
+    private final int chunkSize;
+
+    private Reader sequentialReader;
+
+    public ParallelDimacsReader(ISolver solver) {
+        this(solver, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelDimacsReader(ISolver solver, int nbThreads) {
+        this(solver, nbThreads, DEFAULT_CHUNK_SIZE);
+    }
+
+    ParallelDimacsReader(ISolver solver, int nbThreads, int chunkSize) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException(
+                    "At least one thread is needed, got " + nbThreads);
+        }
+        this.solver = solver;
+        this.nbThreads = nbThreads;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public IProblem parseInstance(final String filename)
+            throws ParseFormatException, IOException, ContradictionException {
+        if (filename.startsWith("http://") || filename.endsWith(".gz")
+                || filename.endsWith(".bz2") || filename.endsWith(".lzma")) {
+            return super.parseInstance(filename);
+        }
+        if (isUsingMapping()) {
+            MappedDimacsReader reader = new MappedDimacsReader(this.solver);
+            reader.setUseMapping(true);
+            this.sequentialReader = reader;
+            return reader.parseInstance(filename);
+        }
+        this.sequentialReader = null;
+        RandomAccessFile file = new RandomAccessFile(filename, "r");
+        try {
+            return parse(file.getChannel());
+        } finally {
+            file.close();
+        }
+    }
+
+    @Override
+    public IProblem parseInstance(final InputStream in)
+            throws ParseFormatException, ContradictionException, IOException {
+        LecteurDimacs reader = new LecteurDimacs(this.solver);
+        reader.setUseMapping(isUsingMapping());
+        this.sequentialReader = reader;
+        return reader.parseInstance(in);
+    }
+
+    private IProblem parse(FileChannel channel) throws IOException,
+            ParseFormatException, ContradictionException {
+        this.solver.reset();
+        HeaderReader header = new HeaderReader(channel);
+        long start = header.read();
+        this.solver.newVar(header.nbVars);
+        this.solver.setExpectedNumberOfClauses(header.nbClauses);
+        long fileSize = channel.size();
+        if (header.nbClauses > 0 && start == fileSize) {
+            throw new ParseFormatException(
+                    "DIMACS error: the clauses are missing");
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(
+                this.nbThreads, new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "Dimacs tokenizer "
+                                + this.count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        Queue<Future<Block>> pending = new ArrayDeque<Future<Block>>();
+        try {
+            IVecInt literals = new VecInt();
+            int realNbClauses = 0;
+            while (start < fileSize || !pending.isEmpty()) {
+                while (start < fileSize
+                        && pending.size() < BLOCKS_PER_THREAD * this.nbThreads) {
+                    long end = header.nextLine(start + this.chunkSize);
+                    pending.add(workers.submit(new Tokenizer(channel, start,
+                            end)));
+                    start = end;
+                }
+                Block block = waitFor(pending.poll());
+                for (int i = 0; i < block.size; i++) {
+                    int p = block.literals[i];
+                    if (p == 0) {
+                        this.solver.addClause(literals);
+                        literals.clear();
+                        realNbClauses++;
+                    } else {
+                        literals.push(p);
+                    }
+                }
+                if (block.lastBlock) {
+                    if (realNbClauses != header.nbClauses
+                            || !literals.isEmpty()) {
+                        throw new ParseFormatException(
+                                "Unknown character %");
+                    }
+                    // the rest of the file is ignored (SATLIB format)
+                    return this.solver;
+                }
+            }
+            if (!literals.isEmpty()) {
+                this.solver.addClause(literals);
+            }
+        } finally {
+            for (Future<Block> future : pending) {
+                future.cancel(true);
+            }
+            workers.shutdownNow();
+        }
+        return this.solver;
+    }
+
+    private static Block waitFor(Future<Block> future) throws IOException,
+            ParseFormatException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading the clauses");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ParseFormatException) {
+                throw (ParseFormatException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * The literals of a chunk of the file, each clause being terminated by 0.
+     * The last clause may not be terminated when it continues in the next
+     * chunk. The last block is the one ending with the % marker of the SATLIB
+     * format.
+     */
+    private static final class Block {
+        private final int[] literals;
+        private final int size;
+        private final boolean lastBlock;
+
+        Block(int[] literals, int size, boolean lastBlock) {
+            this.literals = literals;
+            this.size = size;
+            this.lastBlock = lastBlock;
+        }
+    }
+
+    private static final class Tokenizer implements Callable<Block> {
+
+        private final FileChannel channel;
+
+        private final long start;
+
+        private final long end;
+
+        Tokenizer(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        public Block call() throws IOException, ParseFormatException {
+            ByteBuffer buffer = this.channel.map(FileChannel.MapMode.READ_ONLY,
+                    this.start, this.end - this.start);
+            int limit = buffer.limit();
+            int[] literals = new int[limit / 5 + 16];
+            int size = 0;
+            int i = 0;
+            int car;
+            while (i < limit) {
+                car = buffer.get(i);
+                if (car <= ' ') {
+                    i++;
+                    continue;
+                }
+                if (car == 'c') {
+                    while (i < limit && buffer.get(i) != '\n') {
+                        i++;
+                    }
+                    continue;
+                }
+                if (car == '%') {
+                    return new Block(literals, size, true);
+                }
+                boolean neg = car == '-';
+                if (neg || car == '+') {
+                    i++;
+                    car = i < limit ? buffer.get(i) : ' ';
+                }
+                if (car < '0' || car > '9') {
+                    throw new ParseFormatException("Unknown character "
+                            + (char) car);
+                }
+                int val = 0;
+                while (car >= '0' && car <= '9') {
+                    val = val * 10 + car - '0';
+                    i++;
+                    car = i < limit ? buffer.get(i) : ' ';
+                }
+                if (size == literals.length) {
+                    literals = Arrays.copyOf(literals, 2 * size);
+                }
+                literals[size++] = neg ? -val : val;
+            }
+            return new Block(literals, size, false);
+        }
+    }
+
+    /**
+     * Reads the comments and the problem line at the beginning of the file,
+     * and the bytes around the chunk boundaries.
+     */
+    private static final class HeaderReader {
+
+        private final FileChannel channel;
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private long position;
+
+        private int nbVars = -1;
+
+        private int nbClauses = -1;
+
+        HeaderReader(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void moveTo(long newPosition) {
+            this.position = newPosition;
+            this.buffer.clear().flip();
+        }
+
+        private int next() throws IOException {
+            if (!this.buffer.hasRemaining()) {
+                this.buffer.clear();
+                int read = this.channel.read(this.buffer, this.position);
+                this.buffer.flip();
+                if (read <= 0) {
+                    return -1;
+                }
+            }
+            this.position++;
+            return this.buffer.get();
+        }
+
+        /**
+         * The position of the first line starting at or after a given
+         * position.
+         * 
+         * @return a position, or the size of the file.
+         */
+        long nextLine(long from) throws IOException {
+            long size = this.channel.size();
+            if (from >= size) {
+                return size;
+            }
+            moveTo(from - 1);
+            int car;
+            do {
+                car = next();
+            } while (car != '\n' && car != -1);
+            return car == -1 ? size : this.position;
+        }
+
+        private int skipSpaces(int first) throws IOException {
+            int car = first;
+            while (car != -1 && car <= ' ' && car != '\n') {
+                car = next();
+            }
+            return car;
+        }
+
+        /**
+         * Reads the header.
+         * 
+         * @return the position of the first line of clauses.
+         */
+        long read() throws IOException, ParseFormatException {
+            moveTo(0);
+            long lineStart = 0;
+            int car = skipSpaces(next());
+            while (car == 'c' || car == 'p' || car == '\n') {
+                if (car == 'p') {
+                    car = skipSpaces(next());
+                    if (car != 'c' || next() != 'n' || next() != 'f') {
+                        throw new ParseFormatException(
+                                "Expecting file in cnf format.");
+                    }
+                    car = skipSpaces(next());
+                    this.nbVars = 0;
+                    while (car >= '0' && car <= '9') {
+                        this.nbVars = 10 * this.nbVars + car - '0';
+                        car = next();
+                    }
+                    car = skipSpaces(car);
+                    this.nbClauses = 0;
+                    while (car >= '0' && car <= '9') {
+                        this.nbClauses = 10 * this.nbClauses + car - '0';
+                        car = next();
+                    }
+                }
+                while (car != '\n' && car != -1) {
+                    car = next();
+                }
+                if (car == -1) {
+                    lineStart = this.channel.size();
+                    break;
+                }
+                lineStart = this.position;
+                car = skipSpaces(next());
+            }
+            if (this.nbVars < 0) {
+                throw new ParseFormatException(
+                        "DIMACS error: wrong max number of variables");
+            }
+            return lineStart;
+        }
+    }
+
+    @Override
+    @Deprecated
+    public String decode(int[] model) {
+        StringBuilder stb = new StringBuilder();
+        for (int element : model) {
+            stb.append(element);
+            stb.append(" ");
+        }
+        stb.append("0");
+        return stb.toString();
+    }
+
+    @Override
+    public void decode(int[] model, PrintWriter out) {
+        if (this.sequentialReader != null) {
+            this.sequentialReader.decode(model, out);
+            return;
+        }
+        for (int element : model) {
+            out.print(element);
+            out.print(" ");
+        }
+        out.print("0");
+    }
+
+    @Override
+    public boolean hasAMapping() {
+        return this.sequentialReader != null
+                && this.sequentialReader.hasAMapping();
+    }
+
+    @Override
+    public Map<Integer, String> getMapping() {
+        return this.sequentialReader == null ? null : this.sequentialReader
+                .getMapping();
+    }
+}
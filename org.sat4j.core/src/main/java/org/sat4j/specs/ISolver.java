@@ -431,6 +431,16 @@ public interface ISolver extends IProblem, Serializable {
      */
     void setUnitClauseProvider(UnitClauseProvider ucp);
 
+    /**
+     * Allow the solver to share the clauses it learns and to import clauses
+     * learned elsewhere before each restart.
+     * 
+     * @param lcp
+     *            an object able to exchange learned clauses.
+     * @since 2.3.6
+     */
+    void setLearnedClauseProvider(LearnedClauseProvider lcp);
+
     /**
      * Get the current SearchListener.
      * 
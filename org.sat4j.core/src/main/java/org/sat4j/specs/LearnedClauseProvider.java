@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.specs;
+
+/**
+ * Interface for engines able to exchange learned clauses between several
+ * solvers working on the same problem.
+ * 
+ * It plays the same role as {@link UnitClauseProvider} for non unit clauses:
+ * the solver publishes the clauses it learns and asks for the clauses learned
+ * by the other solvers before each restart, when it is back to decision level
+ * 0.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ * 
+ */
+public interface LearnedClauseProvider {
+
+    LearnedClauseProvider VOID = new LearnedClauseProvider() {
+
+        public boolean exportLearnedClause(IVecInt clause, int lbd) {
+            return false;
+        }
+
+        public void provideLearnedClauses(IVec<IVecInt> clauses,
+                IVecInt lbds) {
+            // do nothing
+        }
+    };
+
+    /**
+     * Publish a newly learned clause.
+     * 
+     * @param clause
+     *            the literals of the clause, in Dimacs format. The vector is
+     *            reused by the solver, so it must be copied if needed.
+     * @param lbd
+     *            the number of distinct decision levels in the clause.
+     * @return true iff the clause has been accepted for sharing.
+     */
+    boolean exportLearnedClause(IVecInt clause, int lbd);
+
+    /**
+     * Retrieve the clauses published by the other solvers since the last
+     * call.
+     * 
+     * @param clauses
+     *            a container for the clauses, in Dimacs format.
+     * @param lbds
+     *            a container for the LBD of each clause, as given when the
+     *            clause was exported.
+     */
+    void provideLearnedClauses(IVec<IVecInt> clauses, IVecInt lbds);
+}
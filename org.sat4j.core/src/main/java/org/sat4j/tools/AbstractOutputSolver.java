@@ -40,6 +40,7 @@ import org.sat4j.specs.ISolver;
 import org.sat4j.specs.ISolverService;
 import org.sat4j.specs.IVec;
 import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.LearnedClauseProvider;
 import org.sat4j.specs.SearchListener;
 import org.sat4j.specs.TimeoutException;
 import org.sat4j.specs.UnitClauseProvider;
@@ -269,6 +270,10 @@ public abstract class AbstractOutputSolver implements ISolver {
         throw new UnsupportedOperationException();
     }
 
+    public void setLearnedClauseProvider(LearnedClauseProvider lcp) {
+        throw new UnsupportedOperationException();
+    }
+
     public IConstr addConstr(Constr constr) {
         throw new UnsupportedOperationException();
     }
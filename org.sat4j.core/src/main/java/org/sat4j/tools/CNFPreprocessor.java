@@ -0,0 +1,692 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import static org.sat4j.core.LiteralsUtils.neg;
+import static org.sat4j.core.LiteralsUtils.negLit;
+import static org.sat4j.core.LiteralsUtils.posLit;
+import static org.sat4j.core.LiteralsUtils.toDimacs;
+import static org.sat4j.core.LiteralsUtils.toInternal;
+import static org.sat4j.core.LiteralsUtils.var;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Occurrence list based CNF simplification in the spirit of SatELite (N. Een
+ * and A. Biere, Effective Preprocessing in SAT through Variable and Clause
+ * Elimination, SAT 2005): unit propagation, backward subsumption,
+ * self-subsuming resolution and bounded variable elimination.
+ * 
+ * A variable is eliminated when the non tautological resolvents of its
+ * clauses are not more numerous than those clauses. The clauses removed by
+ * each elimination are kept, in elimination order, to extend the models of the
+ * simplified formula or to put the variable back. Frozen variables are never
+ * eliminated.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+final class CNFPreprocessor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Resolvents longer than this prevent the elimination of a variable.
+     */
+    private static final int RESOLVENT_LENGTH_LIMIT = 20;
+
+    /**
+     * Clauses whose smallest occurrence lists are larger than this are not
+     * used for backward subsumption.
+     */
+    private static final int SUBSUMPTION_OCCURRENCE_LIMIT = 1000;
+
+    /**
+     * Default bound on the clauses and literals visited by subsumption, and
+     * on the literals visited by resolution.
+     */
+    static final long DEFAULT_MAX_STEPS = 50000000L;
+
+    private static final int NONE = -1;
+
+    private static final int SUBSUMED = 0;
+
+    private static final byte TRUE = 1;
+
+    private static final byte FALSE = -1;
+
+    private static final class Clause implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        int[] lits;
+
+        long signature;
+
+        boolean deleted;
+
+        boolean queued;
+
+        Clause(int[] lits) {
+            this.lits = lits;
+            computeSignature();
+        }
+
+        void computeSignature() {
+            this.signature = 0L;
+            for (int p : this.lits) {
+                this.signature |= 1L << (var(p) & 63);
+            }
+        }
+    }
+
+    /**
+     * A variable eliminated by resolution, with the clauses (in Dimacs format)
+     * it appeared in at the time of its elimination.
+     */
+    static final class Elimination implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        final int var;
+
+        final int[][] clauses;
+
+        boolean restored;
+
+        Elimination(int var, int[][] clauses) {
+            this.var = var;
+            this.clauses = clauses;
+        }
+
+        /**
+         * Sets the value of the eliminated variable such that its clauses are
+         * satisfied, given the values of the other variables.
+         * 
+         * @param model
+         *            the value of each variable, indexed by variable.
+         */
+        void extend(boolean[] model) {
+            model[this.var] = false;
+            for (int[] clause : this.clauses) {
+                boolean positive = false;
+                boolean satisfied = false;
+                for (int x : clause) {
+                    if (x == this.var) {
+                        positive = true;
+                    } else if (x != -this.var && model[Math.abs(x)] == x > 0) {
+                        satisfied = true;
+                        break;
+                    }
+                }
+                if (positive && !satisfied) {
+                    model[this.var] = true;
+                    return;
+                }
+            }
+        }
+    }
+
+    private final IVec<Clause> clauses = new Vec<Clause>();
+
+    private final IVecInt units = new VecInt();
+
+    private int propagatedUnits;
+
+    private final IVec<Clause> subsumptionQueue = new Vec<Clause>();
+
+    private final IVec<Clause> matches = new Vec<Clause>();
+
+    private final IVecInt touchedVars = new VecInt();
+
+    private final IVec<Elimination> eliminations = new Vec<Elimination>();
+
+    private int maxVar;
+
+    private byte[] values = new byte[1];
+
+    private boolean[] frozen = new boolean[1];
+
+    private boolean[] eliminated = new boolean[1];
+
+    private boolean[] touched = new boolean[1];
+
+    private final IVec<IVec<Clause>> occurrences = newOccurrences(2);
+
+    private int[] nbOccurrences = new int[2];
+
+    private int[] marks = new int[2];
+
+    private int stamp;
+
+    private boolean contradiction;
+
+    private long subsumptionSteps;
+
+    private long eliminationSteps;
+
+    private long maxSteps = DEFAULT_MAX_STEPS;
+
+    private int nbOriginalClauses;
+
+    private int nbClauses;
+
+    private int nbSubsumed;
+
+    private int nbStrengthened;
+
+    private int nbResolvents;
+
+    private static IVec<IVec<Clause>> newOccurrences(int size) {
+        IVec<IVec<Clause>> occurrences = new Vec<IVec<Clause>>(size);
+        occurrences.growTo(size, null);
+        return occurrences;
+    }
+
+    private void ensureVar(int var) {
+        if (var <= this.maxVar) {
+            return;
+        }
+        this.maxVar = var;
+        if (var < this.values.length) {
+            return;
+        }
+        int size = Math.max(var + 1, 2 * this.values.length);
+        this.values = Arrays.copyOf(this.values, size);
+        this.frozen = Arrays.copyOf(this.frozen, size);
+        this.eliminated = Arrays.copyOf(this.eliminated, size);
+        this.touched = Arrays.copyOf(this.touched, size);
+        this.occurrences.growTo(2 * size, null);
+        this.nbOccurrences = Arrays.copyOf(this.nbOccurrences, 2 * size);
+        this.marks = Arrays.copyOf(this.marks, 2 * size);
+    }
+
+    private IVec<Clause> occurrences(int p) {
+        IVec<Clause> occs = this.occurrences.get(p);
+        if (occs == null) {
+            occs = new Vec<Clause>();
+            this.occurrences.set(p, occs);
+            return occs;
+        }
+        if (occs.size() == this.nbOccurrences[p]) {
+            return occs;
+        }
+        int j = 0;
+        for (int i = 0; i < occs.size(); i++) {
+            Clause c = occs.get(i);
+            if (!c.deleted) {
+                occs.set(j++, c);
+            }
+        }
+        occs.shrinkTo(j);
+        return occs;
+    }
+
+    private Clause[] snapshot(int p) {
+        IVec<Clause> occs = occurrences(p);
+        Clause[] copy = new Clause[occs.size()];
+        occs.copyTo(copy);
+        return copy;
+    }
+
+    private byte value(int p) {
+        byte v = this.values[var(p)];
+        return (p & 1) == 0 ? v : (byte) -v;
+    }
+
+    private void touch(int var) {
+        if (!this.touched[var]) {
+            this.touched[var] = true;
+            this.touchedVars.push(var);
+        }
+    }
+
+    private void queue(Clause c) {
+        if (!c.queued) {
+            c.queued = true;
+            this.subsumptionQueue.push(c);
+        }
+    }
+
+    /**
+     * Prevents a variable from being eliminated.
+     * 
+     * @param var
+     *            a Dimacs variable.
+     */
+    void freeze(int var) {
+        ensureVar(var);
+        this.frozen[var] = true;
+    }
+
+    void setMaxSteps(long maxSteps) {
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Adds a clause to the formula.
+     * 
+     * @param literals
+     *            a clause in Dimacs format.
+     * @return false iff the formula is found unsatisfiable.
+     */
+    boolean addClause(IVecInt literals) {
+        if (this.contradiction) {
+            return false;
+        }
+        this.nbOriginalClauses++;
+        for (int i = 0; i < literals.size(); i++) {
+            ensureVar(Math.abs(literals.get(i)));
+        }
+        this.stamp++;
+        IVecInt lits = new VecInt(literals.size());
+        for (int i = 0; i < literals.size(); i++) {
+            int p = toInternal(literals.get(i));
+            if (value(p) == TRUE || this.marks[neg(p)] == this.stamp) {
+                return true;
+            }
+            if (value(p) == 0 && this.marks[p] != this.stamp) {
+                this.marks[p] = this.stamp;
+                lits.push(p);
+            }
+        }
+        int[] array = new int[lits.size()];
+        lits.copyTo(array);
+        return addInternal(array) && propagate();
+    }
+
+    private boolean addInternal(int[] lits) {
+        int k = 0;
+        for (int p : lits) {
+            byte value = value(p);
+            if (value == TRUE) {
+                return true;
+            }
+            if (value == 0) {
+                lits[k++] = p;
+            }
+        }
+        if (k == 0) {
+            this.contradiction = true;
+            return false;
+        }
+        if (k == 1) {
+            return assign(lits[0]);
+        }
+        Clause c = new Clause(k == lits.length ? lits : Arrays.copyOf(lits, k));
+        this.clauses.push(c);
+        this.nbClauses++;
+        for (int p : c.lits) {
+            occurrences(p).push(c);
+            this.nbOccurrences[p]++;
+            touch(var(p));
+        }
+        queue(c);
+        return true;
+    }
+
+    private boolean assign(int p) {
+        byte value = value(p);
+        if (value == FALSE) {
+            this.contradiction = true;
+            return false;
+        }
+        if (value == 0) {
+            this.values[var(p)] = (p & 1) == 0 ? TRUE : FALSE;
+            this.units.push(p);
+        }
+        return true;
+    }
+
+    private void remove(Clause c) {
+        c.deleted = true;
+        this.nbClauses--;
+        for (int p : c.lits) {
+            this.nbOccurrences[p]--;
+            touch(var(p));
+        }
+    }
+
+    /**
+     * Removes a literal from a clause.
+     * 
+     * @return false iff the formula is found unsatisfiable.
+     */
+    private boolean strengthen(Clause c, int p) {
+        int[] lits = new int[c.lits.length - 1];
+        int k = 0;
+        for (int q : c.lits) {
+            if (q != p) {
+                lits[k++] = q;
+            }
+        }
+        c.lits = lits;
+        c.computeSignature();
+        this.nbOccurrences[p]--;
+        this.nbStrengthened++;
+        touch(var(p));
+        if (lits.length == 1) {
+            remove(c);
+            return assign(lits[0]);
+        }
+        queue(c);
+        return true;
+    }
+
+    private boolean propagate() {
+        while (this.propagatedUnits < this.units.size()) {
+            int p = this.units.get(this.propagatedUnits++);
+            for (Clause c : snapshot(p)) {
+                remove(c);
+            }
+            this.occurrences.get(p).clear();
+            for (Clause c : snapshot(neg(p))) {
+                if (!c.deleted && !strengthen(c, neg(p))) {
+                    return false;
+                }
+            }
+            this.occurrences.get(neg(p)).clear();
+        }
+        return !this.contradiction;
+    }
+
+    /**
+     * Checks if c subsumes d, or if d can be strengthened by self-subsuming
+     * resolution with c.
+     * 
+     * @return {@link #SUBSUMED}, {@link #NONE} or the literal of d to remove.
+     */
+    private int subsumes(Clause c, Clause d) {
+        this.subsumptionSteps += c.lits.length + d.lits.length;
+        this.stamp++;
+        for (int p : d.lits) {
+            this.marks[p] = this.stamp;
+        }
+        int result = SUBSUMED;
+        for (int p : c.lits) {
+            if (this.marks[p] != this.stamp) {
+                if (result == SUBSUMED && this.marks[neg(p)] == this.stamp) {
+                    result = neg(p);
+                } else {
+                    return NONE;
+                }
+            }
+        }
+        return result;
+    }
+
+    private int occurrencesOfVar(int p) {
+        return this.nbOccurrences[p] + this.nbOccurrences[neg(p)];
+    }
+
+    private boolean backwardSubsumption() {
+        while (!this.subsumptionQueue.isEmpty()) {
+            Clause c = this.subsumptionQueue.last();
+            this.subsumptionQueue.pop();
+            c.queued = false;
+            if (c.deleted || this.subsumptionSteps > this.maxSteps) {
+                continue;
+            }
+            int best = c.lits[0];
+            for (int p : c.lits) {
+                if (occurrencesOfVar(p) < occurrencesOfVar(best)) {
+                    best = p;
+                }
+            }
+            if (occurrencesOfVar(best) > SUBSUMPTION_OCCURRENCE_LIMIT) {
+                continue;
+            }
+            this.matches.clear();
+            for (int q : new int[] { best, neg(best) }) {
+                IVec<Clause> occs = occurrences(q);
+                this.subsumptionSteps += occs.size();
+                for (int i = 0; i < occs.size(); i++) {
+                    Clause d = occs.get(i);
+                    if (d != c && d.lits.length >= c.lits.length
+                            && (c.signature & ~d.signature) == 0L
+                            && subsumes(c, d) != NONE) {
+                        this.matches.push(d);
+                    }
+                }
+            }
+            for (int i = 0; i < this.matches.size() && !c.deleted; i++) {
+                Clause d = this.matches.get(i);
+                int p = d.deleted ? NONE : subsumes(c, d);
+                if (p == SUBSUMED) {
+                    remove(d);
+                    this.nbSubsumed++;
+                } else if (p != NONE) {
+                    IVec<Clause> occs = this.occurrences.get(p);
+                    occs.delete(occs.indexOf(d));
+                    if (!strengthen(d, p) || !propagate()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the resolvent of c and d on var.
+     * 
+     * @return the resolvent, or null if it is a tautology.
+     */
+    private int[] resolve(Clause c, Clause d, int var) {
+        this.eliminationSteps += c.lits.length + d.lits.length;
+        this.stamp++;
+        int[] resolvent = new int[c.lits.length + d.lits.length - 2];
+        int k = 0;
+        for (int p : c.lits) {
+            if (var(p) != var) {
+                this.marks[p] = this.stamp;
+                resolvent[k++] = p;
+            }
+        }
+        for (int p : d.lits) {
+            if (var(p) != var) {
+                if (this.marks[neg(p)] == this.stamp) {
+                    return null;
+                }
+                if (this.marks[p] != this.stamp) {
+                    resolvent[k++] = p;
+                }
+            }
+        }
+        return k == resolvent.length ? resolvent : Arrays.copyOf(resolvent, k);
+    }
+
+    private static int[] toDimacsClause(Clause c) {
+        int[] clause = new int[c.lits.length];
+        for (int i = 0; i < clause.length; i++) {
+            clause[i] = toDimacs(c.lits[i]);
+        }
+        return clause;
+    }
+
+    /**
+     * Eliminates var by resolution if that does not increase the number of
+     * clauses.
+     * 
+     * @return false iff the formula is found unsatisfiable.
+     */
+    private boolean tryToEliminate(int var) {
+        Clause[] pos = snapshot(posLit(var));
+        Clause[] neg = snapshot(negLit(var));
+        int limit = pos.length + neg.length;
+        if (limit == 0) {
+            return true;
+        }
+        IVec<int[]> resolvents = new Vec<int[]>();
+        for (Clause c : pos) {
+            for (Clause d : neg) {
+                int[] resolvent = resolve(c, d, var);
+                if (resolvent != null) {
+                    if (resolvent.length > RESOLVENT_LENGTH_LIMIT
+                            || resolvents.size() == limit) {
+                        return true;
+                    }
+                    resolvents.push(resolvent);
+                }
+            }
+        }
+        int[][] removed = new int[limit][];
+        int k = 0;
+        for (Clause c : pos) {
+            removed[k++] = toDimacsClause(c);
+            remove(c);
+        }
+        for (Clause c : neg) {
+            removed[k++] = toDimacsClause(c);
+            remove(c);
+        }
+        this.occurrences.get(posLit(var)).clear();
+        this.occurrences.get(negLit(var)).clear();
+        this.eliminated[var] = true;
+        this.eliminations.push(new Elimination(var, removed));
+        for (int i = 0; i < resolvents.size(); i++) {
+            this.nbResolvents++;
+            if (!addInternal(resolvents.get(i))) {
+                return false;
+            }
+        }
+        return propagate();
+    }
+
+    private boolean canBeEliminated(int var) {
+        return !this.frozen[var] && !this.eliminated[var]
+                && this.values[var] == 0;
+    }
+
+    /**
+     * Simplifies the formula.
+     * 
+     * @return false iff the formula is found unsatisfiable.
+     */
+    boolean simplify() {
+        if (this.contradiction || !propagate() || !backwardSubsumption()) {
+            return false;
+        }
+        while (!this.touchedVars.isEmpty()
+                && this.eliminationSteps <= this.maxSteps) {
+            long[] candidates = new long[this.touchedVars.size()];
+            for (int i = 0; i < candidates.length; i++) {
+                int var = this.touchedVars.get(i);
+                this.touched[var] = false;
+                long cost = (long) this.nbOccurrences[posLit(var)]
+                        * this.nbOccurrences[negLit(var)];
+                candidates[i] = Math.min(cost, Integer.MAX_VALUE) << 32 | var;
+            }
+            this.touchedVars.clear();
+            Arrays.sort(candidates);
+            for (long candidate : candidates) {
+                int var = (int) candidate;
+                if (this.eliminationSteps > this.maxSteps) {
+                    break;
+                }
+                if (canBeEliminated(var)
+                        && (!tryToEliminate(var) || !backwardSubsumption())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    int getMaxVar() {
+        return this.maxVar;
+    }
+
+    /**
+     * @return the literals fixed by the preprocessor, in Dimacs format.
+     */
+    IVecInt getUnits() {
+        IVecInt dimacs = new VecInt(this.units.size());
+        for (int i = 0; i < this.units.size(); i++) {
+            dimacs.push(toDimacs(this.units.get(i)));
+        }
+        return dimacs;
+    }
+
+    /**
+     * @return the clauses of the simplified formula, in Dimacs format.
+     */
+    IVec<IVecInt> getClauses() {
+        IVec<IVecInt> dimacs = new Vec<IVecInt>(this.nbClauses);
+        for (int i = 0; i < this.clauses.size(); i++) {
+            Clause c = this.clauses.get(i);
+            if (!c.deleted) {
+                dimacs.push(new VecInt(toDimacsClause(c)));
+            }
+        }
+        return dimacs;
+    }
+
+    /**
+     * @return the eliminated variables, in elimination order.
+     */
+    IVec<Elimination> getEliminations() {
+        return this.eliminations;
+    }
+
+    int getNumberOfOriginalClauses() {
+        return this.nbOriginalClauses;
+    }
+
+    int getNumberOfClauses() {
+        return this.nbClauses;
+    }
+
+    int getNumberOfSubsumedClauses() {
+        return this.nbSubsumed;
+    }
+
+    int getNumberOfStrengthenedClauses() {
+        return this.nbStrengthened;
+    }
+
+    int getNumberOfResolvents() {
+        return this.nbResolvents;
+    }
+
+    long getSubsumptionSteps() {
+        return this.subsumptionSteps;
+    }
+
+    long getEliminationSteps() {
+        return this.eliminationSteps;
+    }
+}
@@ -0,0 +1,617 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sat4j.core.ASolverFactory;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.core.ICDCL;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.minisat.core.TimeoutScheduler;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.ISolverService;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * A divide and conquer parallel solver (cube and conquer).
+ * 
+ * The search space is split into cubes, i.e. conjunctions of literals used as
+ * assumptions. Each cube is solved by one of the solvers, on a fork/join pool
+ * with one thread per solver. The splitting literals are the most active
+ * variables according to the VSIDS heuristics of the solvers.
+ * 
+ * A cube that cannot be solved within a given number of conflicts is split
+ * into two new cubes. When a cube is proved unsatisfiable, the subset of the
+ * cube responsible for the conflict is used to prune the pending cubes. The
+ * problem is satisfiable as soon as one cube is satisfiable, and
+ * unsatisfiable once all the cubes have been refuted.
+ * 
+ * Each solver keeps its own copy of the problem, as in {@link ManyCore}, and
+ * keeps its learned clauses from one cube to the other. The variables used
+ * to split the cubes are chosen from a snapshot of the heuristics of the last
+ * solver which reached its conflict budget, taken by the thread running that
+ * solver.
+ * 
+ * @author leberre
+ * 
+ * @param <S>
+ *            the type of the solver (ISolver of IPBSolver)
+ * @since 2.3.6
+ */
+public class CubeAndConquer<S extends ISolver> extends ManyCore<S> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_CONFLICT_BUDGET = 2000;
+
+    private static final int DONE = -1;
+
+    private int conflictBudget = DEFAULT_CONFLICT_BUDGET;
+
+    private int initialCubesPerSolver = 4;
+
+    private long timeoutMs = -1;
+
+    private long conflictTimeout = -1;
+
+    private final AtomicLong conflicts = new AtomicLong();
+
+    private long deadline;
+
+    private transient ForkJoinPool pool;
+
+    private transient BlockingQueue<Integer> idleSolvers;
+
+    private final List<int[]> cores = new CopyOnWriteArrayList<int[]>();
+
+    private final Set<Integer> explanation = new HashSet<Integer>();
+
+    private IVecInt assumptions;
+
+    private volatile boolean found;
+
+    private volatile boolean refuted;
+
+    private volatile boolean interrupted;
+
+    /**
+     * Activity of the variables in the last solver stopped by its conflict
+     * budget, negative for the variables fixed at decision level 0.
+     */
+    private volatile double[] scores = new double[0];
+
+    private final Set<Integer> fixedVariables = Collections
+            .newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+
+    private final AtomicInteger winner = new AtomicInteger(-1);
+
+    private final Object callLock = new Object();
+
+    private final AtomicInteger solvedCubes = new AtomicInteger();
+
+    private final AtomicInteger splitCubes = new AtomicInteger();
+
+    private final AtomicInteger prunedCubes = new AtomicInteger();
+
+    public CubeAndConquer(ASolverFactory<S> factory, String solverName,
+            int nbThreads) {
+        super(factory, names(solverName, nbThreads));
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public CubeAndConquer(S... solverObjects) {
+        super(solverObjects);
+    }
+
+    private static String[] names(String solverName, int nbThreads) {
+        String[] names = new String[nbThreads];
+        Arrays.fill(names, solverName);
+        return names;
+    }
+
+    /**
+     * Set the number of conflicts allowed to solve a cube before splitting it.
+     * 
+     * @param conflictBudget
+     *            a number of conflicts.
+     */
+    public void setConflictBudget(int conflictBudget) {
+        this.conflictBudget = conflictBudget;
+    }
+
+    public int getConflictBudget() {
+        return this.conflictBudget;
+    }
+
+    /**
+     * Set the number of cubes created for each solver before the solvers are
+     * launched.
+     * 
+     * @param initialCubesPerSolver
+     *            a positive number.
+     */
+    public void setInitialCubesPerSolver(int initialCubesPerSolver) {
+        this.initialCubesPerSolver = initialCubesPerSolver;
+    }
+
+    public int getInitialCubesPerSolver() {
+        return this.initialCubesPerSolver;
+    }
+
+    @Override
+    public void setTimeout(int t) {
+        this.timeoutMs = t * 1000L;
+        this.conflictTimeout = -1;
+    }
+
+    @Override
+    public void setTimeoutMs(long t) {
+        this.timeoutMs = t;
+        this.conflictTimeout = -1;
+    }
+
+    @Override
+    public int getTimeout() {
+        if (this.conflictTimeout > 0) {
+            return (int) this.conflictTimeout;
+        }
+        return (int) (this.timeoutMs / 1000);
+    }
+
+    @Override
+    public long getTimeoutMs() {
+        if (this.conflictTimeout > 0) {
+            throw new UnsupportedOperationException(
+                    "The timeout is given in number of conflicts!");
+        }
+        return this.timeoutMs;
+    }
+
+    /**
+     * The conflicts are counted over all the cubes and all the solvers, the
+     * conflict budget of each cube being unchanged.
+     */
+    @Override
+    public void setTimeoutOnConflicts(int count) {
+        this.conflictTimeout = count;
+        this.timeoutMs = -1;
+    }
+
+    @Override
+    public void expireTimeout() {
+        this.interrupted = true;
+        super.expireTimeout();
+    }
+
+    /**
+     * Stop a solver starting a cube once the search is over, since it may have
+     * missed the expiry of the timeout.
+     */
+    @Override
+    public void init(ISolverService solverService) {
+        if (isStopped()) {
+            solverService.stop();
+        }
+    }
+
+    @Override
+    public void conflictFound(IConstr confl, int dlevel, int trailLevel) {
+        if (this.conflictTimeout > 0
+                && this.conflicts.incrementAndGet() == this.conflictTimeout) {
+            expireTimeout();
+        }
+    }
+
+    @Override
+    public void learnUnit(int p) {
+        super.learnUnit(p);
+        this.fixedVariables.add(Math.abs(p));
+    }
+
+    @Override
+    protected void clearSharedClauses() {
+        super.clearSharedClauses();
+        this.fixedVariables.clear();
+    }
+
+    /**
+     * 
+     * @return the number of cubes solved during the last call.
+     */
+    public int getSolvedCubes() {
+        return this.solvedCubes.get();
+    }
+
+    /**
+     * 
+     * @return the number of cubes split during the last call.
+     */
+    public int getSplitCubes() {
+        return this.splitCubes.get();
+    }
+
+    /**
+     * 
+     * @return the number of cubes discarded during the last call thanks to the
+     *         conflicts found on other cubes.
+     */
+    public int getPrunedCubes() {
+        return this.prunedCubes.get();
+    }
+
+    @Override
+    public boolean isSatisfiable(IVecInt assumps) throws TimeoutException {
+        return isSatisfiable(assumps, false);
+    }
+
+    /**
+     * Note that the calls are not serialized on the solver itself, since the
+     * solvers notify it as a search listener while solving the cubes.
+     */
+    @Override
+    public boolean isSatisfiable(IVecInt assumps, boolean globalTimeout)
+            throws TimeoutException {
+        synchronized (this.callLock) {
+            return solveCubes(assumps);
+        }
+    }
+
+    private boolean solveCubes(IVecInt assumps) throws TimeoutException {
+        this.assumptions = assumps;
+        this.found = false;
+        this.refuted = false;
+        this.interrupted = false;
+        this.cores.clear();
+        this.explanation.clear();
+        this.solvedCubes.set(0);
+        this.splitCubes.set(0);
+        this.prunedCubes.set(0);
+        this.conflicts.set(0);
+        this.scores = new double[0];
+        this.winner.set(-1);
+        this.idleSolvers = new LinkedBlockingQueue<Integer>();
+        for (int i = 0; i < this.numberOfSolvers; i++) {
+            this.idleSolvers.add(i);
+        }
+        ScheduledFuture<?> timer = null;
+        if (this.timeoutMs > 0) {
+            this.deadline = System.currentTimeMillis() + this.timeoutMs;
+            timer = TimeoutScheduler.getDefault().schedule(new Runnable() {
+                public void run() {
+                    expireTimeout();
+                }
+            }, this.timeoutMs);
+        }
+        try {
+            getPool().invoke(new CubeTask(new int[0], initialDepth()));
+        } finally {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+        if (this.found) {
+            return true;
+        }
+        if (this.refuted || !this.interrupted) {
+            return false;
+        }
+        throw new TimeoutException("Cube and conquer interrupted");
+    }
+
+    private int initialDepth() {
+        int depth = 0;
+        while (1 << depth < this.numberOfSolvers * this.initialCubesPerSolver) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private synchronized ForkJoinPool getPool() {
+        if (this.pool == null) {
+            this.pool = new ForkJoinPool(this.numberOfSolvers);
+        }
+        return this.pool;
+    }
+
+    @Override
+    public IVecInt unsatExplanation() {
+        synchronized (this.explanation) {
+            IVecInt result = new VecInt(this.explanation.size());
+            for (Integer p : this.explanation) {
+                result.push(p);
+            }
+            return result;
+        }
+    }
+
+    private boolean isStopped() {
+        return this.found || this.refuted || this.interrupted;
+    }
+
+    private boolean isPruned(int[] cube) {
+        Set<Integer> literals = new HashSet<Integer>();
+        for (int p : cube) {
+            literals.add(p);
+        }
+        for (int[] core : this.cores) {
+            boolean included = true;
+            for (int p : core) {
+                if (!literals.contains(p)) {
+                    included = false;
+                    break;
+                }
+            }
+            if (included) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Record the reason why a cube is unsatisfiable.
+     * 
+     * @param cube
+     *            the refuted cube
+     * @param core
+     *            a subset of the assumptions explaining the conflict, or null
+     *            if unknown.
+     */
+    private void refute(int[] cube, IVecInt core) {
+        this.solvedCubes.incrementAndGet();
+        Set<Integer> cubeLiterals = new HashSet<Integer>();
+        for (int p : cube) {
+            cubeLiterals.add(p);
+        }
+        IVecInt cubePart = new VecInt();
+        synchronized (this.explanation) {
+            if (core == null) {
+                for (int p : cube) {
+                    cubePart.push(p);
+                }
+                for (int i = 0; i < this.assumptions.size(); i++) {
+                    this.explanation.add(this.assumptions.get(i));
+                }
+            } else {
+                for (int i = 0; i < core.size(); i++) {
+                    if (cubeLiterals.contains(core.get(i))) {
+                        cubePart.push(core.get(i));
+                    } else {
+                        this.explanation.add(core.get(i));
+                    }
+                }
+            }
+        }
+        if (cubePart.isEmpty()) {
+            // the conflict does not depend on the cube
+            this.refuted = true;
+        } else if (cubePart.size() < cube.length) {
+            int[] prunedSet = new int[cubePart.size()];
+            cubePart.copyTo(prunedSet);
+            this.cores.add(prunedSet);
+        }
+    }
+
+    /**
+     * Copy the activity of the variables of a solver. Must be called by the
+     * thread running that solver, once it has returned.
+     * 
+     * @return the activity of each variable, negative for the variables fixed
+     *         at decision level 0.
+     */
+    private double[] snapshotScores(ISolver solver) {
+        int nVars = solver.nVars();
+        double[] snapshot = new double[nVars + 1];
+        ISolver engine = solver.getSolvingEngine();
+        if (engine instanceof ICDCL) {
+            double[] activity = ((ICDCL<?>) engine).getOrder()
+                    .getVariableHeuristics();
+            System.arraycopy(activity, 0, snapshot, 0,
+                    Math.min(activity.length, snapshot.length));
+        }
+        ILits voc = engine instanceof Solver ? ((Solver<?>) engine)
+                .getVocabulary() : null;
+        for (int var = 1; var <= nVars; var++) {
+            if (this.fixedVariables.contains(var) || voc != null
+                    && !voc.isUnassigned(var << 1)) {
+                snapshot[var] = -1.0;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Find the most active variable according to the scores of a solver which
+     * is not fixed and does not appear yet in the cube or in the assumptions.
+     * 
+     * @return a variable, or 0 if there is no such variable.
+     */
+    private int splittingVariable(double[] activity, int[] cube) {
+        Set<Integer> used = new HashSet<Integer>();
+        for (int p : cube) {
+            used.add(Math.abs(p));
+        }
+        for (int i = 0; i < this.assumptions.size(); i++) {
+            used.add(Math.abs(this.assumptions.get(i)));
+        }
+        int best = 0;
+        double bestActivity = -1.0;
+        for (int var = 1; var < activity.length; var++) {
+            if (activity[var] > bestActivity && !used.contains(var)) {
+                bestActivity = activity[var];
+                best = var;
+            }
+        }
+        return best;
+    }
+
+    private static int[] extend(int[] cube, int p) {
+        int[] extended = Arrays.copyOf(cube, cube.length + 1);
+        extended[cube.length] = p;
+        return extended;
+    }
+
+    /**
+     * Solve a cube with the first idle solver.
+     * 
+     * @param bounded
+     *            true to stop the solver after the conflict budget, false to
+     *            let it run for the remaining time.
+     * @return the variable on which the cube must be split, 0 if there is no
+     *         variable left to split on, or DONE if the cube has been solved
+     *         or the search is stopped.
+     */
+    private int solve(int[] cube, boolean bounded) throws InterruptedException {
+        int index = this.idleSolvers.take();
+        S solver = this.solvers.get(index);
+        try {
+            if (isStopped()) {
+                return DONE;
+            }
+            if (isPruned(cube)) {
+                this.prunedCubes.incrementAndGet();
+                return DONE;
+            }
+            IVecInt assumps = new VecInt(this.assumptions.size() + cube.length);
+            this.assumptions.copyTo(assumps);
+            for (int p : cube) {
+                assumps.push(p);
+            }
+            if (bounded) {
+                solver.setTimeoutOnConflicts(this.conflictBudget);
+            } else if (this.timeoutMs > 0) {
+                long remaining = this.deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    this.interrupted = true;
+                    return DONE;
+                }
+                solver.setTimeoutMs(remaining);
+            } else {
+                solver.setTimeoutOnConflicts(Integer.MAX_VALUE);
+            }
+            try {
+                if (solver.isSatisfiable(assumps)) {
+                    if (this.winner.compareAndSet(-1, index)) {
+                        this.winnerId = index;
+                        this.found = true;
+                    }
+                    this.solvedCubes.incrementAndGet();
+                } else {
+                    refute(cube, solver.unsatExplanation());
+                }
+                return DONE;
+            } catch (TimeoutException e) {
+                if (!bounded) {
+                    this.interrupted = true;
+                }
+                if (isStopped()) {
+                    return DONE;
+                }
+                double[] snapshot = snapshotScores(solver);
+                this.scores = snapshot;
+                return splittingVariable(snapshot, cube);
+            }
+        } finally {
+            this.idleSolvers.add(index);
+        }
+    }
+
+    private class CubeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] cube;
+
+        private final int pendingSplits;
+
+        CubeTask(int[] cube, int pendingSplits) {
+            this.cube = cube;
+            this.pendingSplits = pendingSplits;
+        }
+
+        @Override
+        protected void compute() {
+            if (isStopped()) {
+                return;
+            }
+            if (isPruned(this.cube)) {
+                prunedCubes.incrementAndGet();
+                return;
+            }
+            int var;
+            try {
+                if (this.pendingSplits > 0 && this.cube.length > 0) {
+                    var = splittingVariable(scores, this.cube);
+                } else {
+                    // the first cube is tried before being split, to give
+                    // meaningful values to the heuristics
+                    var = solve(this.cube, true);
+                }
+                if (var == 0) {
+                    // nothing left to split on
+                    var = solve(this.cube, false);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+                return;
+            }
+            if (var == DONE) {
+                return;
+            }
+            assert var > 0;
+            splitCubes.incrementAndGet();
+            int depth = Math.max(0, this.pendingSplits - 1);
+            List<CubeTask> children = new ArrayList<CubeTask>(2);
+            children.add(new CubeTask(extend(this.cube, var), depth));
+            children.add(new CubeTask(extend(this.cube, -var), depth));
+            invokeAll(children);
+        }
+    }
+}
@@ -40,6 +40,7 @@ import org.sat4j.specs.ISolver;
 import org.sat4j.specs.ISolverService;
 import org.sat4j.specs.IVec;
 import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.LearnedClauseProvider;
 import org.sat4j.specs.SearchListener;
 import org.sat4j.specs.TimeoutException;
 import org.sat4j.specs.UnitClauseProvider;
@@ -297,6 +298,10 @@ public abstract class EmptySolver implements ISolver {
         throw new UnsupportedOperationException("Not implemented yet!");
     }
 
+    public void setLearnedClauseProvider(LearnedClauseProvider lcp) {
+        throw new UnsupportedOperationException("Not implemented yet!");
+    }
+
     public <S extends ISolverService> SearchListener<S> getSearchListener() {
         throw new UnsupportedOperationException("Not implemented yet!");
     }
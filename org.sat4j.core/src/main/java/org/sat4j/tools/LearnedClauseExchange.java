@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.LearnedClauseProvider;
+
+/**
+ * A lock free exchange of learned clauses between the solvers of a portfolio.
+ * 
+ * Only the short clauses (at most maxSize literals) or the clauses with a low
+ * LBD (at most maxLbd distinct decision levels) are shared. The clauses are
+ * published in a ring buffer: each solver gets its own
+ * {@link LearnedClauseProvider} end point, with a read cursor in that buffer.
+ * A slow reader simply misses the clauses that have been overwritten in the
+ * meantime.
+ * 
+ * Duplicates are filtered using a fixed size table of clause fingerprints.
+ * That filter is lossy: a clause may be shared twice if its fingerprint has
+ * been evicted, which is harmless.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ * 
+ */
+public class LearnedClauseExchange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_MAX_SIZE = 8;
+
+    public static final int DEFAULT_MAX_LBD = 2;
+
+    private static final int BUFFER_SIZE = 1 << 14;
+
+    private static final int FILTER_SIZE = 1 << 16;
+
+    private final int maxSize;
+
+    private final int maxLbd;
+
+    private final AtomicReferenceArray<SharedClause> buffer = new AtomicReferenceArray<SharedClause>(
+            BUFFER_SIZE);
+
+    private final AtomicLongArray fingerprints = new AtomicLongArray(
+            FILTER_SIZE);
+
+    private final AtomicLong published = new AtomicLong();
+
+    private final AtomicLong duplicates = new AtomicLong();
+
+    private final AtomicInteger endPoints = new AtomicInteger();
+
+    private volatile long floor = 0;
+
+    public LearnedClauseExchange() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_MAX_LBD);
+    }
+
+    /**
+     * 
+     * @param maxSize
+     *            clauses with at most that number of literals are shared.
+     * @param maxLbd
+     *            clauses with at most that number of distinct decision levels
+     *            are shared.
+     */
+    public LearnedClauseExchange(int maxSize, int maxLbd) {
+        this.maxSize = maxSize;
+        this.maxLbd = maxLbd;
+    }
+
+    /**
+     * Create a new end point for a solver of the portfolio. The end point does
+     * not import back the clauses it has exported itself.
+     * 
+     * @return a provider to give to a solver.
+     */
+    public LearnedClauseProvider newEndPoint() {
+        return new EndPoint(this.endPoints.getAndIncrement(),
+                this.published.get());
+    }
+
+    /**
+     * Forget all the clauses shared so far, e.g. when a constraint is removed
+     * from the problem. Must not be called while the solvers are running.
+     */
+    public void clear() {
+        this.floor = this.published.get();
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            this.buffer.set(i, null);
+        }
+        for (int i = 0; i < FILTER_SIZE; i++) {
+            this.fingerprints.set(i, 0L);
+        }
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public int getMaxLbd() {
+        return this.maxLbd;
+    }
+
+    /**
+     * 
+     * @return the number of clauses published since the creation of the
+     *         exchange.
+     */
+    public long getPublishedClauses() {
+        return this.published.get();
+    }
+
+    /**
+     * 
+     * @return the number of clauses rejected because they were already
+     *         published.
+     */
+    public long getRejectedDuplicates() {
+        return this.duplicates.get();
+    }
+
+    boolean accepts(IVecInt clause, int lbd) {
+        return clause.size() > 1
+                && (clause.size() <= this.maxSize || lbd <= this.maxLbd);
+    }
+
+    boolean publish(int origin, IVecInt clause, int lbd) {
+        int[] literals = new int[clause.size()];
+        clause.copyTo(literals);
+        Arrays.sort(literals);
+        long fingerprint = fingerprint(literals);
+        int slot = (int) (fingerprint ^ (fingerprint >>> 32))
+                & (FILTER_SIZE - 1);
+        if (this.fingerprints.getAndSet(slot, fingerprint) == fingerprint) {
+            this.duplicates.incrementAndGet();
+            return false;
+        }
+        long seq = this.published.getAndIncrement();
+        this.buffer.set((int) (seq & (BUFFER_SIZE - 1)),
+                new SharedClause(seq, origin, literals, lbd));
+        return true;
+    }
+
+    private static long fingerprint(int[] literals) {
+        long h = 0xcbf29ce484222325L;
+        for (int literal : literals) {
+            h ^= literal;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        // 0 denotes an empty slot in the filter
+        return h == 0 ? 1 : h;
+    }
+
+    private static final class SharedClause {
+        private final long seq;
+        private final int origin;
+        private final int[] literals;
+        private final int lbd;
+
+        SharedClause(long seq, int origin, int[] literals, int lbd) {
+            this.seq = seq;
+            this.origin = origin;
+            this.literals = literals;
+            this.lbd = lbd;
+        }
+    }
+
+    private final class EndPoint implements LearnedClauseProvider,
+            Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        private long cursor;
+
+        EndPoint(int id, long cursor) {
+            this.id = id;
+            this.cursor = cursor;
+        }
+
+        public boolean exportLearnedClause(IVecInt clause, int lbd) {
+            return accepts(clause, lbd) && publish(this.id, clause, lbd);
+        }
+
+        public void provideLearnedClauses(IVec<IVecInt> clauses,
+                IVecInt lbds) {
+            long end = published.get();
+            long start = Math.max(floor, end - BUFFER_SIZE);
+            if (this.cursor < start) {
+                this.cursor = start;
+            }
+            SharedClause shared;
+            while (this.cursor < end) {
+                shared = buffer.get((int) (this.cursor & (BUFFER_SIZE - 1)));
+                if (shared == null || shared.seq < this.cursor) {
+                    // not written yet: will be read next time
+                    break;
+                }
+                if (shared.seq == this.cursor && shared.origin != this.id) {
+                    clauses.push(new VecInt(shared.literals.clone()));
+                    lbds.push(shared.lbd);
+                }
+                this.cursor++;
+            }
+        }
+    }
+}
@@ -34,6 +34,11 @@ import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.sat4j.core.ASolverFactory;
@@ -49,6 +54,7 @@ import org.sat4j.specs.ISolver;
 import org.sat4j.specs.ISolverService;
 import org.sat4j.specs.IVec;
 import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.LearnedClauseProvider;
 import org.sat4j.specs.SearchListener;
 import org.sat4j.specs.SearchListenerAdapter;
 import org.sat4j.specs.TimeoutException;
@@ -59,8 +65,14 @@ import org.sat4j.specs.UnitPropagationListener;
  * A class allowing to run several solvers in parallel.
  * 
  * Note that each solver will have its own copy of the CNF, so it is not a
- * memory efficient implementation. There is no sharing of information yet
- * between the solvers.
+ * memory efficient implementation. The solvers may share the unit clauses they
+ * learn, and the short or low LBD learned clauses once
+ * {@link #setLearnedClauseSharing(int, int)} has been called.
+ * 
+ * The solvers are run by a pool of worker threads kept alive between two
+ * calls to isSatisfiable, which is convenient for incremental use. As soon
+ * as one solver answers, the other ones are asked to stop and the caller is
+ * woken up once all of them are done.
  * 
  * @author leberre
  * 
@@ -71,9 +83,10 @@ public class ManyCore<S extends ISolver>
         extends SearchListenerAdapter<ISolverService>
         implements ISolver, OutcomeListener, UnitClauseProvider {
 
-    private static final int NORMAL_SLEEP = 500;
-
-    private static final int FAST_SLEEP = 50;
+    /**
+     * Time after which idle worker threads are released.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60L;
 
     /**
      * 
@@ -87,9 +100,13 @@ public class ManyCore<S extends ISolver>
     protected int winnerId;
     private boolean resultFound;
     private AtomicInteger remainingSolvers;
-    private volatile int sleepTime;
     private volatile boolean solved;
+    private transient ExecutorService executor;
+    private long callStart;
+    private long answerLatency = -1;
+    private long callDuration = -1;
     private final IVecInt sharedUnitClauses = new VecInt();
+    private LearnedClauseExchange clauseExchange;
 
     private final IVec<Counter> solversStats = new Vec<Counter>();
 
@@ -202,13 +219,13 @@ public class ManyCore<S extends ISolver>
             this.solvers.get(i).clearLearntClauses();
         }
         sharedUnitClauses.clear();
+        clearSharedClauses();
     }
 
     public void expireTimeout() {
         for (int i = 0; i < this.numberOfSolvers; i++) {
             this.solvers.get(i).expireTimeout();
         }
-        this.sleepTime = FAST_SLEEP;
     }
 
     public Map<String, Number> getStat() {
@@ -268,6 +285,7 @@ public class ManyCore<S extends ISolver>
                 }
             }
             sharedUnitClauses.clear();
+            clearSharedClauses();
             return removed;
         }
         throw new IllegalArgumentException(
@@ -279,6 +297,7 @@ public class ManyCore<S extends ISolver>
             this.solvers.get(i).reset();
         }
         sharedUnitClauses.clear();
+        clearSharedClauses();
     }
 
     public void setExpectedNumberOfClauses(int nb) {
@@ -349,19 +368,22 @@ public class ManyCore<S extends ISolver>
             boolean globalTimeout) throws TimeoutException {
         this.remainingSolvers = new AtomicInteger(this.numberOfSolvers);
         this.solved = false;
+        this.answerLatency = -1;
+        this.callStart = System.nanoTime();
+        ExecutorService workers = getExecutor();
         for (int i = 0; i < this.numberOfSolvers; i++) {
-            new Thread(new RunnableSolver(i, this.solvers.get(i), assumps,
-                    globalTimeout, this)).start();
+            workers.execute(new RunnableSolver(i, this.solvers.get(i),
+                    assumps, globalTimeout, this));
         }
         try {
-            this.sleepTime = NORMAL_SLEEP;
-            do {
-                wait(this.sleepTime);
-            } while (this.remainingSolvers.get() > 0);
+            while (this.remainingSolvers.get() > 0) {
+                // notified by the last solver to finish
+                wait();
+            }
         } catch (InterruptedException e) {
-            // will happen when one solver found a solution
             Thread.currentThread().interrupt();
         }
+        this.callDuration = System.nanoTime() - this.callStart;
         if (!this.solved) {
             assert this.remainingSolvers.get() == 0;
             throw new TimeoutException();
@@ -405,6 +427,7 @@ public class ManyCore<S extends ISolver>
     public synchronized void onFinishWithAnswer(boolean finished,
             boolean result, int index) {
         if (finished && !this.solved) {
+            this.answerLatency = System.nanoTime() - this.callStart;
             this.winnerId = index;
             this.solversStats.get(index).inc();
             this.solved = true;
@@ -414,13 +437,57 @@ public class ManyCore<S extends ISolver>
                     this.solvers.get(i).expireTimeout();
                 }
             }
-            this.sleepTime = FAST_SLEEP;
             if (isVerbose()) {
                 System.out.println(getLogPrefix() + "And the winner is "
                         + this.availableSolvers[this.winnerId]);
             }
         }
-        this.remainingSolvers.getAndDecrement();
+        if (this.remainingSolvers.decrementAndGet() == 0) {
+            notifyAll();
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (this.executor == null) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                    this.numberOfSolvers, this.numberOfSolvers,
+                    KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                        private final AtomicInteger count = new AtomicInteger();
+
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "ManyCore worker "
+                                    + this.count.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+        }
+        return this.executor;
+    }
+
+    /**
+     * Time elapsed between the beginning of the last call to isSatisfiable
+     * and the first answer of a solver.
+     * 
+     * @return a number of nanoseconds, or -1 if no solver answered.
+     * @since 2.3.6
+     */
+    public long getLastAnswerLatency() {
+        return this.answerLatency;
+    }
+
+    /**
+     * Duration of the last call to isSatisfiable, including the time needed
+     * to stop the solvers which did not answer first.
+     * 
+     * @return a number of nanoseconds, or -1 if the solver was never called.
+     * @since 2.3.6
+     */
+    public long getLastCallDuration() {
+        return this.callDuration;
     }
 
     public boolean isDBSimplificationAllowed() {
@@ -609,6 +676,53 @@ public class ManyCore<S extends ISolver>
 
     }
 
+    public void setLearnedClauseProvider(LearnedClauseProvider lcp) {
+        throw new UnsupportedOperationException(
+                "Does not make sense in the parallel context");
+    }
+
+    /**
+     * Share the learned clauses between the solvers. Each solver publishes
+     * the clauses it learns with at most maxSize literals or at most maxLbd
+     * distinct decision levels, and imports the ones learned by the other
+     * solvers at each restart.
+     * 
+     * @param maxSize
+     *            the maximal size of the clauses to share.
+     * @param maxLbd
+     *            the maximal LBD of the clauses to share.
+     * @since 2.3.6
+     */
+    public void setLearnedClauseSharing(int maxSize, int maxLbd) {
+        this.clauseExchange = new LearnedClauseExchange(maxSize, maxLbd);
+        for (int i = 0; i < this.numberOfSolvers; i++) {
+            this.solvers.get(i).setLearnedClauseProvider(
+                    this.clauseExchange.newEndPoint());
+        }
+    }
+
+    /**
+     * 
+     * @return the learned clause exchange used by the solvers, or null if the
+     *         learned clauses are not shared.
+     * @since 2.3.6
+     */
+    public LearnedClauseExchange getLearnedClauseExchange() {
+        return this.clauseExchange;
+    }
+
+    /**
+     * Forget the clauses shared so far between the solvers, when they may no
+     * longer be implied by the problem.
+     * 
+     * @since 2.3.6
+     */
+    protected void clearSharedClauses() {
+        if (this.clauseExchange != null) {
+            this.clauseExchange.clear();
+        }
+    }
+
     public IConstr addConstr(Constr constr) {
         throw new UnsupportedOperationException(
                 "Not implemented yet in ManyCore: cannot add a specific constraint to each solver");
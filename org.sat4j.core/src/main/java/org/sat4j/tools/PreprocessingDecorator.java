@@ -0,0 +1,495 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import java.io.PrintWriter;
+
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.core.LiteralsUtils;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+import org.sat4j.tools.CNFPreprocessor.Elimination;
+
+/**
+ * A decorator simplifying the clauses of the problem before the first call to
+ * the solver, using subsumption, self-subsuming resolution and bounded variable
+ * elimination (see {@link CNFPreprocessor}).
+ * 
+ * The clauses given to the decorator before the first call to
+ * isSatisfiable() are kept by the preprocessor, so no constraint is returned
+ * for them and they cannot be removed. The other constraints (cardinality
+ * constraints, parity constraints, blocking clauses) are given directly to the
+ * decorated solver and their variables are frozen, as well as the variables
+ * of the assumptions of the first call and those declared with
+ * {@link #freeze(int)}. An eliminated variable appearing later in a new
+ * constraint or in the assumptions is put back in the solver with the
+ * clauses it was eliminated with.
+ * 
+ * The models of the decorated solver are extended to the eliminated
+ * variables. Prime implicants and proofs are computed on the simplified
+ * formula.
+ * 
+ * The decorator for PB solvers, org.sat4j.pb.tools.PreprocessingDecoratorPB,
+ * also freezes the variables of the objective function.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ * @param <T>
+ */
+public class PreprocessingDecorator<T extends ISolver> extends
+        SolverDecorator<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private CNFPreprocessor preprocessor = new CNFPreprocessor();
+
+    private long maxSteps = CNFPreprocessor.DEFAULT_MAX_STEPS;
+
+    private Elimination[] eliminations = new Elimination[0];
+
+    private IVec<Elimination> eliminationOrder = new Vec<Elimination>();
+
+    private boolean trivialUnsat;
+
+    private int[] model;
+
+    private boolean[] booleanModel;
+
+    private int nbOriginalClauses;
+
+    private int nbRemainingClauses;
+
+    private int nbEliminatedVars;
+
+    private int nbRestoredVars;
+
+    private int nbSubsumed;
+
+    private int nbStrengthened;
+
+    private long preprocessingTime;
+
+    public PreprocessingDecorator(T solver) {
+        super(solver);
+    }
+
+    /**
+     * Bounds the effort spent in preprocessing.
+     * 
+     * @param maxSteps
+     *            the maximum number of clauses and literals visited by
+     *            subsumption, and of literals visited by resolution.
+     */
+    public void setMaxSteps(long maxSteps) {
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Prevents a variable from being eliminated, e.g. a variable of an
+     * objective function. If the variable is already eliminated, it is put
+     * back in the solver.
+     * 
+     * @param var
+     *            a Dimacs variable.
+     */
+    public void freeze(int var) {
+        if (this.preprocessor != null) {
+            this.preprocessor.freeze(var);
+        } else {
+            restore(var);
+        }
+    }
+
+    /**
+     * Freezes the variables of the given literals, or put them back in the
+     * solver if they are eliminated.
+     */
+    private void freezeOrRestore(IVecInt literals) {
+        for (int i = 0; i < literals.size(); i++) {
+            freeze(Math.abs(literals.get(i)));
+        }
+    }
+
+    /**
+     * Puts back an eliminated variable in the solver, with the variables
+     * eliminated after it appearing in its clauses.
+     */
+    private void restore(int var) {
+        if (var >= this.eliminations.length || this.eliminations[var] == null) {
+            return;
+        }
+        IVec<int[]> clauses = new Vec<int[]>();
+        IVecInt toRestore = new VecInt();
+        toRestore.push(var);
+        while (!toRestore.isEmpty()) {
+            int v = toRestore.last();
+            toRestore.pop();
+            Elimination elimination = this.eliminations[v];
+            if (elimination == null) {
+                continue;
+            }
+            elimination.restored = true;
+            this.eliminations[v] = null;
+            this.nbRestoredVars++;
+            for (int[] clause : elimination.clauses) {
+                clauses.push(clause);
+                for (int x : clause) {
+                    int w = Math.abs(x);
+                    if (w < this.eliminations.length
+                            && this.eliminations[w] != null) {
+                        toRestore.push(w);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < clauses.size(); i++) {
+            try {
+                decorated().addClause(new VecInt(clauses.get(i)));
+            } catch (ContradictionException e) {
+                this.trivialUnsat = true;
+            }
+        }
+    }
+
+    /**
+     * Simplifies the clauses received so far and feeds the decorated solver
+     * with the result.
+     */
+    private void preprocess(IVecInt assumps) {
+        CNFPreprocessor pre = this.preprocessor;
+        this.preprocessor = null;
+        long begin = System.currentTimeMillis();
+        for (int i = 0; i < assumps.size(); i++) {
+            pre.freeze(Math.abs(assumps.get(i)));
+        }
+        pre.setMaxSteps(this.maxSteps);
+        if (!pre.simplify()) {
+            this.trivialUnsat = true;
+        }
+        this.nbOriginalClauses = pre.getNumberOfOriginalClauses();
+        this.nbSubsumed = pre.getNumberOfSubsumedClauses();
+        this.nbStrengthened = pre.getNumberOfStrengthenedClauses();
+        this.eliminationOrder = pre.getEliminations();
+        this.eliminations = new Elimination[pre.getMaxVar() + 1];
+        for (int i = 0; i < this.eliminationOrder.size(); i++) {
+            Elimination elimination = this.eliminationOrder.get(i);
+            this.eliminations[elimination.var] = elimination;
+        }
+        this.nbEliminatedVars = this.eliminationOrder.size();
+        if (!this.trivialUnsat) {
+            IVec<IVecInt> clauses = pre.getClauses();
+            IVecInt units = pre.getUnits();
+            this.nbRemainingClauses = clauses.size() + units.size();
+            try {
+                for (int i = 0; i < units.size(); i++) {
+                    decorated().addClause(new VecInt(new int[] { units.get(i) }));
+                }
+                for (int i = 0; i < clauses.size(); i++) {
+                    decorated().addClause(clauses.get(i));
+                }
+            } catch (ContradictionException e) {
+                this.trivialUnsat = true;
+            }
+        }
+        this.preprocessingTime = System.currentTimeMillis() - begin;
+        if (isVerbose()) {
+            System.out.println(getLogPrefix() + "preprocessing: "
+                    + this.nbEliminatedVars + " eliminated variables, "
+                    + this.nbOriginalClauses + " -> "
+                    + this.nbRemainingClauses + " clauses in "
+                    + this.preprocessingTime / 1000.0 + "s");
+        }
+    }
+
+    private boolean prepare(IVecInt assumps) {
+        this.model = null;
+        this.booleanModel = null;
+        if (this.preprocessor != null) {
+            preprocess(assumps);
+        } else {
+            freezeOrRestore(assumps);
+        }
+        return !this.trivialUnsat;
+    }
+
+    private boolean solved(boolean result) {
+        if (result) {
+            extendModel();
+        }
+        return result;
+    }
+
+    private void extendModel() {
+        int[] decoratedModel = decorated().model();
+        int size = this.eliminations.length;
+        for (int x : decoratedModel) {
+            size = Math.max(size, Math.abs(x) + 1);
+        }
+        boolean[] values = new boolean[size];
+        boolean[] inModel = new boolean[size];
+        for (int x : decoratedModel) {
+            values[Math.abs(x)] = x > 0;
+            inModel[Math.abs(x)] = true;
+        }
+        int nbVars = decoratedModel.length;
+        for (int i = this.eliminationOrder.size() - 1; i >= 0; i--) {
+            Elimination elimination = this.eliminationOrder.get(i);
+            if (!elimination.restored) {
+                elimination.extend(values);
+                for (int[] clause : elimination.clauses) {
+                    for (int x : clause) {
+                        if (!inModel[Math.abs(x)]) {
+                            inModel[Math.abs(x)] = true;
+                            nbVars++;
+                        }
+                    }
+                }
+            }
+        }
+        this.model = new int[nbVars];
+        int k = 0;
+        for (int var = 1; var < size; var++) {
+            if (inModel[var]) {
+                this.model[k++] = values[var] ? var : -var;
+            }
+        }
+        this.booleanModel = values;
+    }
+
+    @Override
+    public boolean isSatisfiable() throws TimeoutException {
+        return isSatisfiable(VecInt.EMPTY, false);
+    }
+
+    @Override
+    public boolean isSatisfiable(boolean global) throws TimeoutException {
+        return isSatisfiable(VecInt.EMPTY, global);
+    }
+
+    @Override
+    public boolean isSatisfiable(IVecInt assumps) throws TimeoutException {
+        return isSatisfiable(assumps, false);
+    }
+
+    @Override
+    public boolean isSatisfiable(IVecInt assumps, boolean global)
+            throws TimeoutException {
+        if (!prepare(assumps)) {
+            return false;
+        }
+        return solved(super.isSatisfiable(assumps, global));
+    }
+
+    @Override
+    public int[] findModel() throws TimeoutException {
+        return findModel(VecInt.EMPTY);
+    }
+
+    @Override
+    public int[] findModel(IVecInt assumps) throws TimeoutException {
+        if (isSatisfiable(assumps)) {
+            return model();
+        }
+        return null;
+    }
+
+    @Override
+    public int[] model() {
+        if (this.model == null) {
+            return super.model();
+        }
+        return this.model;
+    }
+
+    @Override
+    public boolean model(int var) {
+        if (this.booleanModel == null || var >= this.booleanModel.length) {
+            return super.model(var);
+        }
+        return this.booleanModel[var];
+    }
+
+    @Override
+    public int[] modelWithInternalVariables() {
+        return model();
+    }
+
+    @Override
+    public IVecInt createBlockingClauseForCurrentModel() {
+        int[] current = model();
+        IVecInt clause = new VecInt(current.length);
+        for (int x : current) {
+            clause.push(-x);
+        }
+        return clause;
+    }
+
+    @Override
+    public IConstr discardCurrentModel() throws ContradictionException {
+        return addBlockingClause(createBlockingClauseForCurrentModel());
+    }
+
+    @Override
+    public IVecInt unsatExplanation() {
+        if (this.trivialUnsat) {
+            return new VecInt();
+        }
+        return super.unsatExplanation();
+    }
+
+    @Override
+    public IConstr addClause(IVecInt literals) throws ContradictionException {
+        if (this.preprocessor != null) {
+            if (!this.preprocessor.addClause(literals)) {
+                throw new ContradictionException("Creating Empty clause ?");
+            }
+            return null;
+        }
+        freezeOrRestore(literals);
+        return super.addClause(literals);
+    }
+
+    @Override
+    public void addAllClauses(IVec<IVecInt> clauses)
+            throws ContradictionException {
+        for (int i = 0; i < clauses.size(); i++) {
+            addClause(clauses.get(i));
+        }
+    }
+
+    @Override
+    public IConstr addBlockingClause(IVecInt literals)
+            throws ContradictionException {
+        freezeOrRestore(literals);
+        return super.addBlockingClause(literals);
+    }
+
+    @Override
+    public IConstr addAtMost(IVecInt literals, int degree)
+            throws ContradictionException {
+        freezeOrRestore(literals);
+        return super.addAtMost(literals, degree);
+    }
+
+    @Override
+    public IConstr addAtLeast(IVecInt literals, int degree)
+            throws ContradictionException {
+        freezeOrRestore(literals);
+        return super.addAtLeast(literals, degree);
+    }
+
+    @Override
+    public IConstr addExactly(IVecInt literals, int n)
+            throws ContradictionException {
+        freezeOrRestore(literals);
+        return super.addExactly(literals, n);
+    }
+
+    @Override
+    public IConstr addParity(IVecInt literals, boolean even) {
+        freezeOrRestore(literals);
+        return super.addParity(literals, even);
+    }
+
+    @Override
+    public IConstr addConstr(Constr constr) {
+        for (int i = 0; i < constr.size(); i++) {
+            freeze(LiteralsUtils.var(constr.get(i)));
+        }
+        return super.addConstr(constr);
+    }
+
+    @Override
+    public int nConstraints() {
+        if (this.preprocessor != null) {
+            return this.preprocessor.getNumberOfOriginalClauses()
+                    + super.nConstraints();
+        }
+        return super.nConstraints();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.preprocessor = new CNFPreprocessor();
+        this.eliminations = new Elimination[0];
+        this.eliminationOrder = new Vec<Elimination>();
+        this.trivialUnsat = false;
+        this.model = null;
+        this.booleanModel = null;
+        this.nbOriginalClauses = 0;
+        this.nbRemainingClauses = 0;
+        this.nbEliminatedVars = 0;
+        this.nbRestoredVars = 0;
+        this.nbSubsumed = 0;
+        this.nbStrengthened = 0;
+        this.preprocessingTime = 0;
+    }
+
+    public int getNumberOfEliminatedVariables() {
+        return this.nbEliminatedVars - this.nbRestoredVars;
+    }
+
+    public int getNumberOfRemovedClauses() {
+        return this.nbOriginalClauses - this.nbRemainingClauses;
+    }
+
+    @Override
+    public void printStat(PrintWriter out) {
+        printStat(out, getLogPrefix());
+    }
+
+    @Override
+    public void printStat(PrintWriter out, String prefix) {
+        out.println(prefix + "preprocessing time (s)\t: "
+                + this.preprocessingTime / 1000.0);
+        out.println(prefix + "original clauses\t: " + this.nbOriginalClauses);
+        out.println(prefix + "clauses after preprocessing\t: "
+                + this.nbRemainingClauses);
+        out.println(prefix + "subsumed clauses\t: " + this.nbSubsumed);
+        out.println(prefix + "strengthened clauses\t: " + this.nbStrengthened);
+        out.println(prefix + "eliminated variables\t: "
+                + this.nbEliminatedVars);
+        out.println(prefix + "restored variables\t: " + this.nbRestoredVars);
+        super.printStat(out, prefix);
+    }
+
+    @Override
+    public String toString(String prefix) {
+        return super.toString(prefix) + "\n" + prefix
+                + "Preprocessing with subsumption, self-subsuming resolution and bounded variable elimination";
+    }
+}
@@ -40,6 +40,7 @@ import org.sat4j.specs.ISolver;
 import org.sat4j.specs.ISolverService;
 import org.sat4j.specs.IVec;
 import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.LearnedClauseProvider;
 import org.sat4j.specs.SearchListener;
 import org.sat4j.specs.TimeoutException;
 import org.sat4j.specs.UnitClauseProvider;
@@ -541,6 +542,13 @@ public abstract class SolverDecorator<T extends ISolver> implements ISolver {
         this.solver.setUnitClauseProvider(ucp);
     }
 
+    /**
+     * @since 2.3.6
+     */
+    public void setLearnedClauseProvider(LearnedClauseProvider lcp) {
+        this.solver.setLearnedClauseProvider(lcp);
+    }
+
     /**
      * @since 2.3.6
      */
@@ -46,6 +46,7 @@ import org.sat4j.specs.ISolverService;
 import org.sat4j.specs.IVec;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.IteratorInt;
+import org.sat4j.specs.LearnedClauseProvider;
 import org.sat4j.specs.SearchListener;
 import org.sat4j.specs.TimeoutException;
 import org.sat4j.specs.UnitClauseProvider;
@@ -454,6 +455,10 @@ public class StatisticsSolver implements ISolver {
         throw new UnsupportedOperationException(NOT_IMPLEMENTED_YET);
     }
 
+    public void setLearnedClauseProvider(LearnedClauseProvider lcp) {
+        throw new UnsupportedOperationException(NOT_IMPLEMENTED_YET);
+    }
+
     public IConstr addConstr(Constr constr) {
         throw new UnsupportedOperationException(NOT_IMPLEMENTED_YET);
     }
@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools.encoding;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.sat4j.core.ConstrGroup;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Generalized totalizer encoding, the weighted version of the
+ * {@link Totalizer}.
+ * 
+ * The encoding is a binary tree whose leaves are the input literals. Each
+ * node has an output literal for each sum of the weights of the inputs below
+ * the node, which is satisfied as soon as the inputs summing to that value are
+ * satisfied. The sums greater than the bound of the encoding are all
+ * represented by a single output. The outputs of the root are chained, from
+ * the greatest sum to the smallest one, so satisfying the negation of a single
+ * output, e.g. as an assumption, ensures that the weighted sum of the inputs
+ * is lower than the sum of that output.
+ * 
+ * The number of outputs of a node is the number of distinct sums of its
+ * inputs up to the bound, so the encoding is only practical with few distinct
+ * weights or a small bound. The encoding is described in:
+ * 
+ * S. Joshi, R. Martins and V. Manquinho, "Generalized Totalizer Encoding for
+ * Pseudo-Boolean Constraints", in International Conference on Principles and
+ * Practice of Constraint Programming, 2015
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public class GeneralizedTotalizer implements Serializable {
+
+    /**
+     * 
+     */
+    private static final long serialVersionUID = 1L;
+
+    private final ISolver solver;
+
+    private final long bound;
+
+    private final Node root;
+
+    private final ConstrGroup constrs = new ConstrGroup(false);
+
+    /**
+     * Builds the generalized totalizer of some weighted literals.
+     * 
+     * @param solver
+     *            the solver receiving the clauses of the encoding.
+     * @param literals
+     *            the literals to sum.
+     * @param weights
+     *            the positive weights of the literals.
+     * @param bound
+     *            the greatest sum that can be distinguished from the greater
+     *            ones.
+     */
+    public GeneralizedTotalizer(ISolver solver, IVecInt literals,
+            long[] weights, long bound) {
+        if (literals.size() != weights.length) {
+            throw new IllegalArgumentException(
+                    "Each literal must be given a weight");
+        }
+        if (bound < 0) {
+            throw new IllegalArgumentException("The bound must be positive");
+        }
+        this.solver = solver;
+        this.bound = bound;
+        IVecInt nonZero = new VecInt(literals.size());
+        long[] nonZeroWeights = new long[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException(
+                        "The weights must be positive");
+            }
+            if (weights[i] > 0) {
+                nonZeroWeights[nonZero.size()] = weights[i];
+                nonZero.push(literals.get(i));
+            }
+        }
+        if (nonZero.isEmpty()) {
+            this.root = new Node(new long[0], new int[0]);
+        } else {
+            this.root = build(nonZero, nonZeroWeights, 0, nonZero.size());
+            chainOutputs();
+        }
+    }
+
+    private Node build(IVecInt literals, long[] weights, int from, int to) {
+        if (to - from == 1) {
+            return new Node(new long[] { Math.min(weights[from],
+                    this.bound + 1) }, new int[] { literals.get(from) });
+        }
+        int middle = (from + to) >>> 1;
+        Node left = build(literals, weights, from, middle);
+        Node right = build(literals, weights, middle, to);
+        Map<Long, Integer> sums = new TreeMap<Long, Integer>();
+        for (int i = -1; i < left.values.length; i++) {
+            for (int j = -1; j < right.values.length; j++) {
+                if (i >= 0 || j >= 0) {
+                    long sum = Math.min(value(left, i) + value(right, j),
+                            this.bound + 1);
+                    if (!sums.containsKey(sum)) {
+                        sums.put(sum, this.solver.nextFreeVarId(true));
+                    }
+                }
+            }
+        }
+        long[] values = new long[sums.size()];
+        int[] outputs = new int[sums.size()];
+        int k = 0;
+        for (Map.Entry<Long, Integer> entry : sums.entrySet()) {
+            values[k] = entry.getKey();
+            outputs[k] = entry.getValue();
+            k++;
+        }
+        IVecInt clause = new VecInt(3);
+        // the outputs of the children imply the output of their sum
+        for (int i = -1; i < left.values.length; i++) {
+            for (int j = -1; j < right.values.length; j++) {
+                if (i < 0 && j < 0) {
+                    continue;
+                }
+                clause.clear();
+                if (i >= 0) {
+                    clause.push(-left.outputs[i]);
+                }
+                if (j >= 0) {
+                    clause.push(-right.outputs[j]);
+                }
+                clause.push(sums.get(Math.min(value(left, i) + value(right, j),
+                        this.bound + 1)));
+                addClause(clause);
+            }
+        }
+        return new Node(values, outputs);
+    }
+
+    private static long value(Node node, int index) {
+        return index < 0 ? 0 : node.values[index];
+    }
+
+    private void chainOutputs() {
+        IVecInt clause = new VecInt(2);
+        for (int i = 1; i < this.root.outputs.length; i++) {
+            clause.clear();
+            clause.push(-this.root.outputs[i]);
+            clause.push(this.root.outputs[i - 1]);
+            addClause(clause);
+        }
+    }
+
+    private void addClause(IVecInt clause) {
+        try {
+            this.constrs.add(this.solver.addClause(clause));
+        } catch (ContradictionException e) {
+            // cannot happen, the clauses are satisfiable by the outputs
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Retrieves the literal satisfied as soon as the weighted sum of the
+     * literals is greater than a given value. Its negation ensures that the
+     * weighted sum is at most that value.
+     * 
+     * @param value
+     *            a value between 0 and the bound of the encoding.
+     * @return a literal implied by a weighted sum greater than value, or 0 if
+     *         the weighted sum cannot be greater than value.
+     */
+    public int getOutputAbove(long value) {
+        if (value < 0 || value > this.bound) {
+            throw new IllegalArgumentException("No output above " + value
+                    + ", the bound is " + this.bound);
+        }
+        for (int i = 0; i < this.root.values.length; i++) {
+            if (this.root.values[i] > value) {
+                return this.root.outputs[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 
+     * @return the greatest sum that is distinguished from the greater ones.
+     */
+    public long getBound() {
+        return this.bound;
+    }
+
+    /**
+     * 
+     * @return the number of outputs of the root of the encoding.
+     */
+    public int getNumberOfOutputs() {
+        return this.root.outputs.length;
+    }
+
+    /**
+     * 
+     * @return the clauses added to the solver.
+     */
+    public IConstr getConstraints() {
+        return this.constrs;
+    }
+
+    private static final class Node implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] values;
+
+        private final int[] outputs;
+
+        Node(long[] values, int[] outputs) {
+            this.values = values;
+            this.outputs = outputs;
+        }
+    }
+}
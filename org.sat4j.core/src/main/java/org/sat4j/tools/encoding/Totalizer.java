@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools.encoding;
+
+import java.io.Serializable;
+
+import org.sat4j.core.ConstrGroup;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Incremental totalizer encoding, counting how many literals of a set are
+ * satisfied.
+ * 
+ * The encoding is a binary tree whose leaves are the input literals. Each
+ * node has output literals such that its k-th output is satisfied as soon as
+ * at least k of the inputs below the node are satisfied. Only that direction
+ * is encoded, so satisfying the negation of the k-th output of the root, e.g.
+ * as an assumption, ensures that fewer than k inputs are satisfied.
+ * 
+ * The outputs are only created up to a bound, which can be increased later
+ * on: the clauses already added to the solver are kept, and only the clauses
+ * for the new outputs are added. The encoding is described in:
+ * 
+ * O. Bailleux and Y. Boufkhad, "Efficient CNF Encoding of Boolean Cardinality
+ * Constraints", in International Conference on Principles and Practice of
+ * Constraint Programming, 2003
+ * 
+ * R. Martins, S. Joshi, V. Manquinho and I. Lynce, "Incremental Cardinality
+ * Constraints for MaxSAT", in International Conference on Principles and
+ * Practice of Constraint Programming, 2014
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public class Totalizer implements Serializable {
+
+    /**
+     * 
+     */
+    private static final long serialVersionUID = 1L;
+
+    private final ISolver solver;
+
+    private final Node root;
+
+    private final ConstrGroup constrs = new ConstrGroup(false);
+
+    /**
+     * Builds the totalizer of some literals, with outputs up to a given
+     * bound.
+     * 
+     * @param solver
+     *            the solver receiving the clauses of the encoding.
+     * @param literals
+     *            the literals to count (at least one).
+     * @param bound
+     *            the number of outputs to create.
+     */
+    public Totalizer(ISolver solver, IVecInt literals, int bound) {
+        if (literals.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Cannot count an empty set of literals");
+        }
+        this.solver = solver;
+        this.root = build(literals, 0, literals.size());
+        extend(bound);
+    }
+
+    private static Node build(IVecInt literals, int from, int to) {
+        if (to - from == 1) {
+            return new Node(literals.get(from));
+        }
+        int middle = (from + to) >>> 1;
+        return new Node(build(literals, from, middle),
+                build(literals, middle, to));
+    }
+
+    /**
+     * Creates the outputs of the totalizer up to a given bound.
+     * 
+     * @param bound
+     *            the number of outputs needed. Nothing is done if the
+     *            outputs already exist.
+     */
+    public void extend(int bound) {
+        extend(this.root, bound);
+    }
+
+    private void extend(Node node, int bound) {
+        int newBound = Math.min(bound, node.size);
+        int oldBound = node.outputs.size();
+        if (node.left == null || newBound <= oldBound) {
+            return;
+        }
+        extend(node.left, newBound);
+        extend(node.right, newBound);
+        for (int k = oldBound; k < newBound; k++) {
+            node.outputs.push(this.solver.nextFreeVarId(true));
+        }
+        IVecInt left = node.left.outputs;
+        IVecInt right = node.right.outputs;
+        IVecInt clause = new VecInt(3);
+        // an output is implied by i outputs of the left and j outputs of the
+        // right, for oldBound < i + j <= newBound
+        for (int i = 0; i <= left.size(); i++) {
+            for (int j = Math.max(0, oldBound + 1 - i); j <= right.size()
+                    && i + j <= newBound; j++) {
+                if (i + j == 0) {
+                    continue;
+                }
+                clause.clear();
+                if (i > 0) {
+                    clause.push(-left.get(i - 1));
+                }
+                if (j > 0) {
+                    clause.push(-right.get(j - 1));
+                }
+                clause.push(node.outputs.get(i + j - 1));
+                addClause(clause);
+            }
+        }
+    }
+
+    private void addClause(IVecInt clause) {
+        try {
+            this.constrs.add(this.solver.addClause(clause));
+        } catch (ContradictionException e) {
+            // cannot happen, each clause contains a new output variable
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Retrieves the literal satisfied as soon as at least k literals are
+     * satisfied.
+     * 
+     * @param k
+     *            a number of literals, between 1 and the current bound.
+     * @return a literal implied by k satisfied literals.
+     */
+    public int getOutput(int k) {
+        if (k < 1 || k > this.root.outputs.size()) {
+            throw new IllegalArgumentException("No output for " + k
+                    + " literals, the bound is " + getBound());
+        }
+        return this.root.outputs.get(k - 1);
+    }
+
+    /**
+     * 
+     * @return the number of outputs created so far.
+     */
+    public int getBound() {
+        return this.root.outputs.size();
+    }
+
+    /**
+     * 
+     * @return the number of literals counted by the totalizer.
+     */
+    public int size() {
+        return this.root.size;
+    }
+
+    /**
+     * 
+     * @return the clauses added to the solver so far.
+     */
+    public IConstr getConstraints() {
+        return this.constrs;
+    }
+
+    private static final class Node implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Node left;
+
+        private final Node right;
+
+        private final int size;
+
+        private final IVecInt outputs;
+
+        Node(int literal) {
+            this.left = null;
+            this.right = null;
+            this.size = 1;
+            this.outputs = new VecInt(new int[] { literal });
+        }
+
+        Node(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+            this.size = left.size + right.size;
+            this.outputs = new VecInt();
+        }
+    }
+}
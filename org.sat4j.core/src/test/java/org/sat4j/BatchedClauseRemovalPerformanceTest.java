@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.core.DataStructureFactory;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.specs.ContradictionException;
+
+/**
+ * This is a performance test checking that removing many clauses at once is
+ * linear in the size of the watch lists.
+ * 
+ * Several hundred thousand clauses sharing the same literal are satisfied by
+ * a unit clause, then removed by a single call to simplifyDB. Removing them
+ * one by one from the watch lists used to be quadratic, so the test fails
+ * if the removal does not end within the timeout.
+ * 
+ * It is not part of the default test run, use the benchmark profile to run
+ * it. {@link BatchedClauseRemovalTest} checks the same behavior on a small
+ * number of clauses.
+ * 
+ * @author leberre
+ *
+ */
+public class BatchedClauseRemovalPerformanceTest {
+
+    private static final int NB_CLAUSES = 400000;
+
+    @Test(timeout = 60000)
+    public void testRemovingManyClausesIsLinear()
+            throws ContradictionException {
+        Solver<DataStructureFactory> solver = SolverFactory
+                .newMiniLearningHeap();
+        for (int i = 0; i < NB_CLAUSES; i++) {
+            solver.addClause(new VecInt(new int[] { 1, 2 + i % 1000,
+                    1002 + i / 1000 }));
+        }
+        assertEquals(NB_CLAUSES, solver.nConstraints());
+        solver.addClause(new VecInt(new int[] { 1 }));
+        assertTrue(solver.simplifyDB());
+        assertTrue(solver.nConstraints() <= 1);
+        assertEquals(0,
+                solver.getVocabulary().watches(solver.getVocabulary()
+                        .getFromPool(-1)).size());
+    }
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Checks that the clauses removed at once by simplifyDB are removed from all
+ * the watch lists.
+ * 
+ * @author leberre
+ *
+ */
+public class BatchedClauseRemovalTest {
+
+    private static final int NB_CLAUSES = 2000;
+
+    private void checkRemoval(Solver<?> solver)
+            throws ContradictionException, TimeoutException {
+        for (int i = 0; i < NB_CLAUSES; i++) {
+            solver.addClause(new VecInt(new int[] { 1, 2 + i % 100,
+                    102 + i / 100 }));
+        }
+        solver.addClause(new VecInt(new int[] { -2, -3 }));
+        assertEquals(NB_CLAUSES + 1, solver.nConstraints());
+        solver.addClause(new VecInt(new int[] { 1 }));
+        int before = solver.nConstraints();
+        assertTrue(solver.simplifyDB());
+        assertEquals(before - NB_CLAUSES, solver.nConstraints());
+        for (int var = 1; var < 102 + NB_CLAUSES / 100; var++) {
+            assertEquals(0, solver.getVocabulary()
+                    .watches(solver.getVocabulary().getFromPool(-var)).size());
+        }
+        assertTrue(solver.isSatisfiable());
+        assertTrue(solver.model(1));
+        assertTrue(!solver.model(2) || !solver.model(3));
+    }
+
+    @Test
+    public void testWatchedLiterals() throws ContradictionException,
+            TimeoutException {
+        checkRemoval(SolverFactory.newMiniLearningHeap());
+    }
+
+    @Test
+    public void testDefaultSolver() throws ContradictionException,
+            TimeoutException {
+        checkRemoval((Solver<?>) SolverFactory.newGlucose21());
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.reader.LecteurDimacs;
+import org.sat4j.reader.MappedDimacsReader;
+import org.sat4j.reader.ParallelDimacsReader;
+import org.sat4j.reader.Reader;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.tools.EmptySolver;
+
+/**
+ * This is a performance test loading a large random 3-SAT instance with each
+ * Dimacs reader, {@link ParallelDimacsReader} being used with an increasing
+ * number of threads.
+ * 
+ * The clauses are counted but not stored, so that only the parsing time
+ * matters. All the readers must read the same clauses within the timeout.
+ * 
+ * It is not part of the default test run, use the benchmark profile to run
+ * it. {@link org.sat4j.reader.ParallelDimacsReaderTest} checks the parallel
+ * reader on small instances.
+ * 
+ * @author leberre
+ * 
+ */
+public class DimacsLoadingPerformanceTest {
+
+    private static final int NB_VARS = 100000;
+
+    private static final int NB_CLAUSES = 1000000;
+
+    private static class CountingSolver extends EmptySolver {
+
+        private static final long serialVersionUID = 1L;
+
+        private int clauses;
+
+        private long literals;
+
+        @Override
+        public IConstr addClause(IVecInt clause)
+                throws ContradictionException {
+            this.clauses++;
+            for (int i = 0; i < clause.size(); i++) {
+                this.literals += clause.get(i);
+            }
+            return null;
+        }
+
+        public IConstr addParity(IVecInt literals, boolean even) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static File createInstance() throws IOException {
+        File file = File.createTempFile("random3sat", ".cnf");
+        file.deleteOnExit();
+        Random rand = new Random(42);
+        BufferedWriter out = new BufferedWriter(new FileWriter(file));
+        out.write("c random 3-SAT instance\n");
+        out.write("p cnf " + NB_VARS + " " + NB_CLAUSES + "\n");
+        for (int i = 0; i < NB_CLAUSES; i++) {
+            for (int j = 0; j < 3; j++) {
+                int var = rand.nextInt(NB_VARS) + 1;
+                out.write(String.valueOf(rand.nextBoolean() ? var : -var));
+                out.write(' ');
+            }
+            out.write("0\n");
+        }
+        out.close();
+        return file;
+    }
+
+    private static long load(Reader reader, CountingSolver solver, File file)
+            throws Exception {
+        reader.parseInstance(file.getAbsolutePath());
+        assertEquals(NB_CLAUSES, solver.clauses);
+        return solver.literals;
+    }
+
+    @Test(timeout = 120000)
+    public void testLoadingTime() throws Exception {
+        File file = createInstance();
+        CountingSolver solver = new CountingSolver();
+        long checksum = load(new LecteurDimacs(solver), solver, file);
+        solver = new CountingSolver();
+        assertEquals(checksum,
+                load(new MappedDimacsReader(solver), solver, file));
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(4, cores); threads *= 2) {
+            solver = new CountingSolver();
+            assertEquals(checksum,
+                    load(new ParallelDimacsReader(solver, threads), solver,
+                            file));
+        }
+    }
+}
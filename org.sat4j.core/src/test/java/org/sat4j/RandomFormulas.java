@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j;
+
+import java.util.Random;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Random formulas and model checks shared by the tests.
+ */
+public final class RandomFormulas {
+
+    private RandomFormulas() {
+        // no instance
+    }
+
+    /**
+     * 
+     * @return a clause of size literals on distinct variables.
+     */
+    public static IVecInt randomClause(Random rand, int nbVars, int size) {
+        IVecInt clause = new VecInt(size);
+        while (clause.size() < size) {
+            int var = 1 + rand.nextInt(nbVars);
+            if (!clause.contains(var) && !clause.contains(-var)) {
+                clause.push(rand.nextBoolean() ? var : -var);
+            }
+        }
+        return clause;
+    }
+
+    /**
+     * 
+     * @return nbClauses clauses of minSize to maxSize literals, drawn
+     *         independently (a clause may contain a variable twice).
+     */
+    public static int[][] randomClauses(Random rand, int nbVars,
+            int nbClauses, int minSize, int maxSize) {
+        int[][] clauses = new int[nbClauses][];
+        for (int i = 0; i < nbClauses; i++) {
+            int size = minSize == maxSize ? minSize : minSize
+                    + rand.nextInt(maxSize - minSize + 1);
+            clauses[i] = new int[size];
+            for (int j = 0; j < size; j++) {
+                int var = 1 + rand.nextInt(nbVars);
+                clauses[i][j] = rand.nextBoolean() ? var : -var;
+            }
+        }
+        return clauses;
+    }
+
+    /**
+     * 
+     * @return nbClauses random clauses of three literals.
+     */
+    public static int[][] random3Sat(Random rand, int nbVars, int nbClauses) {
+        return randomClauses(rand, nbVars, nbClauses, 3, 3);
+    }
+
+    public static IVecInt copy(IVecInt clause) {
+        IVecInt copy = new VecInt(clause.size());
+        clause.copyTo(copy);
+        return copy;
+    }
+
+    /**
+     * 
+     * @return true iff the model of the solver satisfies the clause.
+     */
+    public static boolean satisfies(ISolver solver, IVecInt clause) {
+        for (int i = 0; i < clause.size(); i++) {
+            int lit = clause.get(i);
+            if (solver.model(Math.abs(lit)) == lit > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 
+     * @return true iff the model of the solver satisfies all the clauses.
+     */
+    public static boolean satisfies(ISolver solver, int[][] clauses) {
+        for (int[] clause : clauses) {
+            if (!satisfies(solver, new VecInt(clause))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean satisfies(int[] model, IVec<IVecInt> clauses) {
+        IVecInt literals = new VecInt(model);
+        for (int i = 0; i < clauses.size(); i++) {
+            boolean satisfied = false;
+            for (int j = 0; j < clauses.get(i).size(); j++) {
+                if (literals.contains(clauses.get(i).get(j))) {
+                    satisfied = true;
+                    break;
+                }
+            }
+            if (!satisfied) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j;
+
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * This is a performance test checking that the cost of conflict analysis
+ * depends on the size of the conflicts, not on the number of variables of the
+ * problem.
+ * 
+ * A pigeon hole problem requiring ten thousand conflicts is solved within a
+ * vocabulary of several million variables, all but the ones of the pigeon hole
+ * problem being fixed at decision level 0. The test fails if it is not solved
+ * within the timeout.
+ * 
+ * It is not part of the default test run, use the benchmark profile to run
+ * it.
+ * 
+ * @author leberre
+ *
+ */
+public class SparseConflictAnalysisPerformanceTest {
+
+    private static final int NB_VARS = 2000000;
+
+    private static final int NB_HOLES = 8;
+
+    @Test(timeout = 60000)
+    public void testConflictAnalysisDoesNotDependOnTheNumberOfVariables()
+            throws ContradictionException, TimeoutException {
+        ISolver solver = SolverFactory.newDefault();
+        solver.newVar(NB_VARS);
+        int nbPigeons = NB_HOLES + 1;
+        IVecInt clause = new VecInt();
+        for (int p = 0; p < nbPigeons; p++) {
+            clause.clear();
+            for (int h = 0; h < NB_HOLES; h++) {
+                clause.push(p * NB_HOLES + h + 1);
+            }
+            solver.addClause(clause);
+        }
+        for (int h = 0; h < NB_HOLES; h++) {
+            for (int p = 0; p < nbPigeons; p++) {
+                for (int q = p + 1; q < nbPigeons; q++) {
+                    clause.clear();
+                    clause.push(-(p * NB_HOLES + h + 1));
+                    clause.push(-(q * NB_HOLES + h + 1));
+                    solver.addClause(clause);
+                }
+            }
+        }
+        for (int i = nbPigeons * NB_HOLES + 1; i <= NB_VARS; i++) {
+            clause.clear();
+            clause.push(-i);
+            solver.addClause(clause);
+        }
+        assertFalse(solver.isSatisfiable());
+    }
+}
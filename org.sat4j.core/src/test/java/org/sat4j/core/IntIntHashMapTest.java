@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntIntHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        IntIntHashMap map = new IntIntHashMap();
+        assertTrue(map.isEmpty());
+        map.put(3, 0);
+        map.put(-3, 1);
+        assertEquals(2, map.size());
+        assertEquals(0, map.get(3));
+        assertEquals(1, map.get(-3));
+        assertEquals(IntIntHashMap.NO_VALUE, map.get(4));
+        map.put(3, 5);
+        assertEquals(2, map.size());
+        assertEquals(5, map.get(3));
+        assertEquals(5, map.remove(3));
+        assertFalse(map.containsKey(3));
+        assertEquals(IntIntHashMap.NO_VALUE, map.remove(3));
+        assertEquals(1, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(-3));
+    }
+
+    @Test
+    public void testSameContentAsHashMap() {
+        Random rand = new Random(17);
+        IntIntHashMap map = new IntIntHashMap(2);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 200000; i++) {
+            int key = rand.nextInt(2000) - 1000;
+            if (key == 0) {
+                continue;
+            }
+            if (rand.nextInt(3) == 0) {
+                Integer value = expected.remove(key);
+                assertEquals(value == null ? IntIntHashMap.NO_VALUE : value,
+                        map.remove(key));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int key = -1000; key < 1000; key++) {
+            if (key != 0) {
+                Integer value = expected.get(key);
+                assertEquals(value == null ? IntIntHashMap.NO_VALUE : value,
+                        map.get(key));
+            }
+        }
+    }
+}
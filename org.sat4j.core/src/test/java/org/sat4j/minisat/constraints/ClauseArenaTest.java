@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.constraints;
+
+import junit.framework.TestCase;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.constraints.cnf.ArenaClause;
+import org.sat4j.minisat.constraints.cnf.ClauseArena;
+import org.sat4j.minisat.constraints.cnf.Lits;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.UnitPropagationListener;
+
+/**
+ * Checks that the clauses stored in an arena are propagated from the watch
+ * lists of the arena and survive its compaction.
+ */
+public class ClauseArenaTest extends TestCase {
+
+    private static final int HEADER_SIZE = 5;
+
+    private ILits voc;
+
+    private ClauseArena arena;
+
+    private final VecInt enqueued = new VecInt();
+
+    private Constr lastReason;
+
+    private final UnitPropagationListener listener = new UnitPropagationListener() {
+
+        public boolean enqueue(int p) {
+            return enqueue(p, null);
+        }
+
+        public boolean enqueue(int p, Constr from) {
+            ClauseArenaTest.this.enqueued.push(p);
+            ClauseArenaTest.this.lastReason = from;
+            return !ClauseArenaTest.this.voc.isFalsified(p);
+        }
+
+        public void unset(int p) {
+        }
+
+        public int getPropagationLevel() {
+            return 0;
+        }
+    };
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.voc = new Lits();
+        this.voc.ensurePool(10);
+        this.arena = new ClauseArena(this.voc);
+    }
+
+    private int lit(int dimacs) {
+        return this.voc.getFromPool(dimacs);
+    }
+
+    private ArenaClause clause(int... dimacs) {
+        VecInt lits = new VecInt();
+        for (int d : dimacs) {
+            lits.push(lit(d));
+        }
+        return ArenaClause.brandNewClause(this.arena, lits);
+    }
+
+    private void assertLiterals(ArenaClause c, int... dimacs) {
+        assertEquals(dimacs.length, c.size());
+        for (int i = 0; i < dimacs.length; i++) {
+            assertEquals(lit(dimacs[i]), c.get(i));
+        }
+    }
+
+    private Constr satisfyAndPropagate(int dimacs) {
+        this.voc.satisfies(lit(dimacs));
+        return this.arena.propagate(lit(dimacs), this.listener);
+    }
+
+    public void testClausesAreStoredContiguously() {
+        clause(1, 2, 3);
+        clause(-1, 4, 5, 6);
+        assertEquals(2, this.arena.nClauses());
+        assertEquals(7 + 2 * HEADER_SIZE, this.arena.size());
+        assertEquals(0, this.arena.wasted());
+    }
+
+    public void testClausesAreWatchedByTheArena() {
+        clause(1, 2, 3);
+        assertEquals(1, this.arena.nbWatches(lit(-1)));
+        assertEquals(1, this.arena.nbWatches(lit(-2)));
+        assertEquals(0, this.arena.nbWatches(lit(-3)));
+        assertTrue(this.voc.watches(lit(-1)).isEmpty());
+    }
+
+    public void testCompactionKeepsLiveClauses() {
+        ArenaClause c1 = clause(1, 2, 3);
+        ArenaClause c2 = clause(-1, 4, 5, 6);
+        ArenaClause c3 = clause(7, -8, 9);
+        c1.remove(null);
+        assertEquals(3 + HEADER_SIZE, this.arena.wasted());
+        this.arena.compact();
+        assertEquals(0, this.arena.wasted());
+        assertEquals(2, this.arena.nClauses());
+        assertEquals(7 + 2 * HEADER_SIZE, this.arena.size());
+        assertLiterals(c2, -1, 4, 5, 6);
+        assertLiterals(c3, 7, -8, 9);
+        assertEquals(0, c1.size());
+        assertEquals(0, this.arena.nbWatches(lit(-1)));
+        assertEquals(1, this.arena.nbWatches(lit(1)));
+        assertEquals(1, this.arena.nbWatches(lit(-7)));
+    }
+
+    public void testCompactionOnlyWhenEnoughSpaceIsWasted() {
+        ArenaClause c1 = clause(1, 2, 3);
+        clause(4, 5, 6);
+        clause(7, 8, 9);
+        clause(-1, -4, -7);
+        clause(-2, -5, -8);
+        clause(-3, -6, -9);
+        assertFalse(this.arena.compactIfNeeded());
+        c1.remove(null);
+        assertFalse(this.arena.compactIfNeeded());
+        clause(1, 5, 9);
+        clause(3, 5, 7).remove(null);
+        assertTrue(this.arena.compactIfNeeded());
+        assertEquals(1, this.arena.getCompactions());
+        assertEquals(6, this.arena.nClauses());
+        assertFalse(this.arena.compactIfNeeded());
+    }
+
+    public void testGrowingKeepsClauses() {
+        ArenaClause[] clauses = new ArenaClause[1000];
+        for (int i = 0; i < clauses.length; i++) {
+            clauses[i] = clause(1, -2, 3 + i % 7);
+        }
+        assertTrue(this.arena.capacity() >= 1000 * (3 + HEADER_SIZE));
+        for (int i = 0; i < clauses.length; i++) {
+            assertLiterals(clauses[i], 1, -2, 3 + i % 7);
+        }
+    }
+
+    public void testUnitClauseIsPropagatedAfterCompaction() {
+        clause(1, 2, 3).remove(null);
+        ArenaClause c = clause(4, 5, 6);
+        this.arena.compact();
+        assertNull(satisfyAndPropagate(-4));
+        assertEquals(0, this.enqueued.size());
+        assertNull(satisfyAndPropagate(-6));
+        assertEquals(1, this.enqueued.size());
+        assertEquals(lit(5), this.enqueued.get(0));
+        assertSame(c, this.lastReason);
+    }
+
+    public void testConflictingClauseIsReturned() {
+        ArenaClause c = clause(4, 5, 6);
+        assertNull(satisfyAndPropagate(-4));
+        this.voc.satisfies(lit(-5));
+        assertSame(c, satisfyAndPropagate(-6));
+        // the clause is still watched by its two first literals
+        assertEquals(1, this.arena.nbWatches(lit(-5)));
+        assertEquals(1, this.arena.nbWatches(lit(-6)));
+    }
+
+    public void testRemovedClauseIsNotPropagated() {
+        clause(4, 5, 6).remove(null);
+        assertNull(satisfyAndPropagate(-4));
+        assertNull(satisfyAndPropagate(-5));
+        assertEquals(0, this.enqueued.size());
+        assertEquals(0, this.arena.nbWatches(lit(-4)));
+        assertEquals(0, this.arena.nbWatches(lit(-5)));
+    }
+
+    public void testLearntClauseIsStoredWhenRegistered() {
+        VecInt lits = new VecInt();
+        lits.push(lit(1)).push(lit(2)).push(lit(3));
+        this.voc.setLevel(lit(1), 5);
+        this.voc.setLevel(lit(2), 3);
+        this.voc.setLevel(lit(3), 3);
+        ArenaClause c = ArenaClause.learntClause(this.arena, lits);
+        assertTrue(c.learnt());
+        assertEquals(0, this.arena.nClauses());
+        c.setActivity(3.0);
+        c.register();
+        assertEquals(1, this.arena.nClauses());
+        assertTrue(c.learnt());
+        assertEquals(3, c.size());
+        assertEquals(2, c.getLBD());
+        assertEquals(3.0, c.getActivity(), 0.0);
+        c.incActivity(1.5);
+        assertEquals(4.5, c.getActivity(), 0.0);
+    }
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.constraints;
+
+import static org.sat4j.core.LiteralsUtils.neg;
+
+import junit.framework.TestCase;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.constraints.cnf.LitsWithImplications;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Checks the implication lists storing the original binary clauses.
+ */
+public class LitsWithImplicationsTest extends TestCase {
+
+    private LitsWithImplications voc;
+
+    private int a, b, c;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.voc = new LitsWithImplications();
+        this.a = this.voc.getFromPool(1);
+        this.b = this.voc.getFromPool(2);
+        this.c = this.voc.getFromPool(-3);
+    }
+
+    public void testAddAndRemoveImplications() {
+        assertEquals(0, this.voc.nbImplied(this.a));
+        for (int i = 0; i < 10; i++) {
+            this.voc.addImplication(this.a, this.b);
+            this.voc.addImplication(this.a, this.c);
+        }
+        assertEquals(20, this.voc.nbImplied(this.a));
+        this.voc.removeImplication(this.a, this.b);
+        assertEquals(19, this.voc.nbImplied(this.a));
+        int nbc = 0;
+        for (int i = 0; i < this.voc.nbImplied(this.a); i++) {
+            if (this.voc.implied(this.a)[i] == this.c) {
+                nbc++;
+            }
+        }
+        assertEquals(10, nbc);
+        assertEquals(0, this.voc.nbImplied(neg(this.a)));
+    }
+
+    public void testImplicationsSurviveGrowingTheVocabulary() {
+        this.voc.addImplication(this.a, this.b);
+        this.voc.getFromPool(1000);
+        assertEquals(1, this.voc.nbImplied(this.a));
+        assertEquals(this.b, this.voc.implied(this.a)[0]);
+        assertEquals(0, this.voc.nbImplied(this.voc.getFromPool(-1000)));
+    }
+
+    public void testReasonIsTheImplyingClause() {
+        this.voc.satisfies(this.a);
+        this.voc.satisfies(this.b);
+        Constr reason = this.voc.reason(this.a, this.b);
+        assertEquals(2, reason.size());
+        assertEquals(this.b, reason.get(0));
+        assertEquals(neg(this.a), reason.get(1));
+        assertFalse(reason.learnt());
+        IVecInt out = new VecInt();
+        reason.calcReason(this.b, out);
+        assertEquals(1, out.size());
+        assertEquals(this.a, out.get(0));
+    }
+
+    public void testConflictExplainsBothLiterals() {
+        this.voc.satisfies(this.a);
+        this.voc.satisfies(neg(this.b));
+        Constr conflict = this.voc.conflict(this.a, this.b);
+        IVecInt out = new VecInt();
+        conflict.calcReason(-1, out);
+        assertEquals(2, out.size());
+        assertTrue(out.contains(this.a));
+        assertTrue(out.contains(neg(this.b)));
+    }
+
+    public void testRemovedBinaryClauseIsNotPropagated()
+            throws ContradictionException, TimeoutException {
+        ISolver solver = SolverFactory.newImplications();
+        solver.newVar(3);
+        IConstr binary = solver.addClause(new VecInt(new int[] { 1, 2 }));
+        solver.addClause(new VecInt(new int[] { -2, 3 }));
+        IVecInt assumptions = new VecInt(new int[] { -1, -3 });
+        assertFalse(solver.isSatisfiable(assumptions));
+        assertTrue(solver.removeConstr(binary));
+        assertTrue(solver.isSatisfiable(assumptions));
+        assertEquals(1, solver.nConstraints());
+    }
+}
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.constraints;
+
+import java.util.Comparator;
+
+import junit.framework.TestCase;
+
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.constraints.cnf.WatchesWithBlockers;
+import org.sat4j.minisat.core.DataStructureFactory;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.MandatoryLiteralListener;
+import org.sat4j.specs.Propagatable;
+import org.sat4j.specs.TimeoutException;
+import org.sat4j.specs.UnitPropagationListener;
+
+/**
+ * Checks that the blocker of a watch follows its watcher.
+ */
+public class WatchesWithBlockersTest extends TestCase {
+
+    private WatchesWithBlockers watches;
+
+    private Propagatable[] watchers;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.watches = new WatchesWithBlockers();
+        this.watchers = new Propagatable[5];
+        for (int i = 0; i < this.watchers.length; i++) {
+            this.watchers[i] = new DummyWatcher();
+            this.watches.push(this.watchers[i], 2 * i + 2);
+        }
+    }
+
+    public void testPushKeepsBlockers() {
+        assertEquals(5, this.watches.size());
+        for (int i = 0; i < this.watchers.length; i++) {
+            assertSame(this.watchers[i], this.watches.get(i));
+            assertEquals(2 * i + 2, this.watches.getBlocker(i));
+        }
+    }
+
+    public void testDefaultBlockerIsUndefined() {
+        this.watches.push(new DummyWatcher());
+        assertEquals(ILits.UNDEFINED, this.watches.getBlocker(5));
+    }
+
+    public void testRemoveKeepsBlockersInSync() {
+        this.watches.remove(this.watchers[1]);
+        assertEquals(4, this.watches.size());
+        for (int i = 0; i < this.watches.size(); i++) {
+            Propagatable p = this.watches.get(i);
+            int index = indexOf(p);
+            assertEquals(2 * index + 2, this.watches.getBlocker(i));
+        }
+    }
+
+    public void testMoveToKeepsBlockers() {
+        WatchesWithBlockers dest = new WatchesWithBlockers();
+        this.watches.moveTo(dest);
+        assertEquals(0, this.watches.size());
+        assertEquals(5, dest.size());
+        for (int i = 0; i < this.watchers.length; i++) {
+            assertSame(this.watchers[i], dest.get(i));
+            assertEquals(2 * i + 2, dest.getBlocker(i));
+        }
+    }
+
+    public void testCopyToPlainVec() {
+        IVec<Propagatable> dest = new Vec<Propagatable>();
+        this.watches.copyTo(dest);
+        assertEquals(5, dest.size());
+        assertSame(this.watchers[3], dest.get(3));
+    }
+
+    public void testSortKeepsBlockers() {
+        this.watches.sort(new Comparator<Propagatable>() {
+            public int compare(Propagatable p1, Propagatable p2) {
+                return indexOf(p2) - indexOf(p1);
+            }
+        });
+        assertEquals(5, this.watches.size());
+        for (int i = 0; i < this.watchers.length; i++) {
+            assertSame(this.watchers[4 - i], this.watches.get(i));
+            assertEquals(2 * (4 - i) + 2, this.watches.getBlocker(i));
+        }
+    }
+
+    public void testSortUniqueKeepsBlockers() {
+        this.watches.push(this.watchers[2], 99);
+        this.watches.sortUnique(new Comparator<Propagatable>() {
+            public int compare(Propagatable p1, Propagatable p2) {
+                return indexOf(p1) - indexOf(p2);
+            }
+        });
+        assertEquals(5, this.watches.size());
+        for (int i = 0; i < this.watchers.length; i++) {
+            assertSame(this.watchers[i], this.watches.get(i));
+            assertEquals(2 * i + 2, this.watches.getBlocker(i));
+        }
+    }
+
+    public void testPrimeImplicantKeepsBlockers()
+            throws ContradictionException, TimeoutException {
+        Solver<DataStructureFactory> solver = SolverFactory.newBlockers();
+        for (int i = 1; i <= 8; i++) {
+            solver.addClause(new VecInt(new int[] { i, -(i % 8 + 1),
+                    (i + 2) % 8 + 1 }));
+        }
+        assertTrue(solver.isSatisfiable());
+        int before = numberOfBlockers(solver.getVocabulary());
+        assertTrue(before > 0);
+        solver.primeImplicant();
+        assertEquals(before, numberOfBlockers(solver.getVocabulary()));
+    }
+
+    private static int numberOfBlockers(ILits voc) {
+        int count = 0;
+        for (int lit = 2; lit < 2 * (voc.nVars() + 1); lit++) {
+            WatchesWithBlockers watches = (WatchesWithBlockers) voc
+                    .watches(lit);
+            for (int i = 0; i < watches.size(); i++) {
+                if (watches.getBlocker(i) != ILits.UNDEFINED) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int indexOf(Propagatable p) {
+        for (int i = 0; i < this.watchers.length; i++) {
+            if (this.watchers[i] == p) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class DummyWatcher implements Propagatable {
+
+        public boolean propagate(UnitPropagationListener s, int p) {
+            return true;
+        }
+
+        public boolean propagatePI(MandatoryLiteralListener l, int p) {
+            return true;
+        }
+
+        public Constr toConstraint() {
+            return null;
+        }
+    }
+}
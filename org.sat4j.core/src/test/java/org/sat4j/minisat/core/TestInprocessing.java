@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.sat4j.RandomFormulas.random3Sat;
+import static org.sat4j.RandomFormulas.satisfies;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+public class TestInprocessing {
+
+    private static final int NB_VARS = 150;
+
+    private static final int NB_CLAUSES = 639;
+
+    @Test
+    public void testInprocessingIsOptIn() {
+        Solver<?> solver = (Solver<?>) SolverFactory.newDefault();
+        assertFalse(solver.isInprocessing());
+        solver = (Solver<?>) SolverFactory.newInprocessing();
+        assertTrue(solver.isInprocessing());
+        solver.setInprocessing(false);
+        assertFalse(solver.isInprocessing());
+    }
+
+    @Test
+    public void testSameAnswersAsTheDefaultSolver()
+            throws ContradictionException, TimeoutException {
+        Random rand = new Random(2016);
+        long rounds = 0;
+        for (int k = 0; k < 10; k++) {
+            int[][] clauses = random3Sat(rand, NB_VARS, NB_CLAUSES);
+            ISolver reference = SolverFactory.newDefault();
+            ISolver solver = SolverFactory.newInprocessing();
+            reference.newVar(NB_VARS);
+            solver.newVar(NB_VARS);
+            for (int[] clause : clauses) {
+                reference.addClause(new VecInt(clause));
+                solver.addClause(new VecInt(clause));
+            }
+            boolean expected = reference.isSatisfiable();
+            assertEquals(expected, solver.isSatisfiable());
+            if (expected) {
+                assertTrue(satisfies(solver, clauses));
+            }
+            rounds += solver.getStat().get("inprocessings").longValue();
+        }
+        assertTrue(rounds > 0);
+    }
+}
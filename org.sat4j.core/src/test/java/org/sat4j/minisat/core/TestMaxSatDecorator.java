@@ -34,6 +34,23 @@ public class TestMaxSatDecorator {
 
     @Test
     public void test() throws ContradictionException, TimeoutException {
+        addClauses();
+        assertTrue(optimizer.isSatisfiable());
+        assertTrue(optimizer.isOptimal());
+        assertEquals(2, maxsat.getObjectiveValue());
+    }
+
+    @Test
+    public void testWithTotalizer() throws ContradictionException,
+            TimeoutException {
+        maxsat.setUseTotalizer(true);
+        addClauses();
+        assertTrue(optimizer.isSatisfiable());
+        assertTrue(optimizer.isOptimal());
+        assertEquals(2, maxsat.getObjectiveValue());
+    }
+
+    private void addClauses() throws ContradictionException {
         optimizer.newVar(4);
         IVecInt clause = new VecInt();
         clause.push(1).push(2);
@@ -62,10 +79,6 @@ public class TestMaxSatDecorator {
         clause.clear();
         clause.push(1).push(2).push(3).push(4);
         optimizer.addClause(clause);
-        clause.clear();
-        assertTrue(optimizer.isSatisfiable());
-        assertTrue(optimizer.isOptimal());
-        assertEquals(2, maxsat.getObjectiveValue());
     }
 
 }
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+public class TestSimplificationTypes {
+
+    private static final int NB_VARS = 100;
+
+    private static void addPigeonHole(ISolver solver, int holes)
+            throws ContradictionException {
+        for (int i = 0; i <= holes; i++) {
+            VecInt clause = new VecInt();
+            for (int j = 1; j <= holes; j++) {
+                clause.push(i * holes + j);
+            }
+            solver.addClause(clause);
+        }
+        for (int j = 1; j <= holes; j++) {
+            for (int a = 0; a <= holes; a++) {
+                for (int b = a + 1; b <= holes; b++) {
+                    solver.addClause(new VecInt(
+                            new int[] { -(a * holes + j), -(b * holes + j) }));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEachTypeSelectsItsSimplifier() {
+        Solver<?> solver = (Solver<?>) SolverFactory.newDefault();
+        solver.setSimplifier(SimplificationType.NO_SIMPLIFICATION);
+        assertSame(Solver.NO_SIMPLIFICATION, solver.getSimplifier());
+        for (SimplificationType type : SimplificationType.values()) {
+            if (type != SimplificationType.NO_SIMPLIFICATION) {
+                solver.setSimplifier(type);
+                assertTrue(type.toString(),
+                        solver.getSimplifier() != Solver.NO_SIMPLIFICATION);
+            }
+        }
+        solver.setSimplifier(SimplificationType.ALL_UIP_SHRINKING);
+        assertSame(solver.ALL_UIP_SHRINKING, solver.getSimplifier());
+    }
+
+    @Test
+    public void testBinaryImplicationSimplification()
+            throws ContradictionException, TimeoutException {
+        for (Solver<?> solver : new Solver<?>[] {
+                (Solver<?>) SolverFactory.newDefault(),
+                SolverFactory.newImplications() }) {
+            solver.setSimplifier(
+                    SimplificationType.BINARY_IMPLICATION_SIMPLIFICATION);
+            addPigeonHole(solver, 7);
+            assertFalse(solver.isSatisfiable());
+            assertTrue(solver.getStats().getBinaryreducedliterals() > 0);
+        }
+    }
+
+    @Test
+    public void testAllUIPShrinking()
+            throws ContradictionException, TimeoutException {
+        Solver<?> solver = (Solver<?>) SolverFactory.newDefault();
+        solver.setSimplifier(SimplificationType.ALL_UIP_SHRINKING);
+        addPigeonHole(solver, 7);
+        assertFalse(solver.isSatisfiable());
+        assertTrue(solver.getStats().getShrunkliterals() > 0);
+    }
+
+    @Test
+    public void testSameAnswersAsTheDefaultSolver()
+            throws ContradictionException, TimeoutException {
+        Random rand = new Random(2016);
+        for (int k = 0; k < 20; k++) {
+            int[][] clauses = new int[426][3];
+            for (int[] clause : clauses) {
+                for (int j = 0; j < 3; j++) {
+                    int var = 1 + rand.nextInt(NB_VARS);
+                    clause[j] = rand.nextBoolean() ? var : -var;
+                }
+            }
+            ISolver reference = SolverFactory.newDefault();
+            reference.newVar(NB_VARS);
+            for (int[] clause : clauses) {
+                reference.addClause(new VecInt(clause));
+            }
+            boolean expected = reference.isSatisfiable();
+            for (SimplificationType type : SimplificationType.values()) {
+                Solver<?> solver = (Solver<?>) SolverFactory.newDefault();
+                solver.setSimplifier(type);
+                solver.newVar(NB_VARS);
+                for (int[] clause : clauses) {
+                    solver.addClause(new VecInt(clause));
+                }
+                assertEquals(type.toString(), expected,
+                        solver.isSatisfiable());
+            }
+        }
+    }
+}
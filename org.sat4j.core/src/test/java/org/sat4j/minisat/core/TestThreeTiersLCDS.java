@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.sat4j.RandomFormulas.random3Sat;
+import static org.sat4j.RandomFormulas.satisfies;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sat4j.core.LiteralsUtils;
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.constraints.cnf.LearntWLClause;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+public class TestThreeTiersLCDS {
+
+    private static final int NB_VARS = 150;
+
+    private static final int NB_CLAUSES = 639;
+
+    private Solver<?> solver;
+
+    private ThreeTiersLCDS<?> lcds;
+
+    private IVec<Constr> learnts;
+
+    @Before
+    public void setUp() {
+        this.solver = (Solver<?>) SolverFactory.newTiersLCDS();
+        this.solver.newVar(NB_VARS);
+        this.lcds = (ThreeTiersLCDS<?>) this.solver.tier_based;
+        this.lcds.init();
+        this.learnts = new Vec<Constr>();
+    }
+
+    /**
+     * A learned clause over the variables from first to first + size - 1,
+     * with the given activity.
+     */
+    private Constr learnt(int first, int size, double activity) {
+        IVecInt lits = new VecInt();
+        for (int var = first; var < first + size; var++) {
+            lits.push(LiteralsUtils.posLit(var));
+        }
+        Constr c = new LearntWLClause(lits, this.solver.getVocabulary());
+        c.setActivity(activity);
+        this.learnts.push(c);
+        return c;
+    }
+
+    @Test
+    public void testSelectableFromTheFactory() {
+        Solver<?> solver = (Solver<?>) SolverFactory.newTiersLCDS();
+        assertSame(solver.tier_based, solver.learnedConstraintsDeletionStrategy);
+        solver = (Solver<?>) SolverFactory.newDefault();
+        solver.setLearnedConstraintsDeletionStrategy(LearnedConstraintsEvaluationType.TIERS);
+        assertTrue(solver.learnedConstraintsDeletionStrategy instanceof ThreeTiersLCDS);
+    }
+
+    @Test
+    public void testSameAnswersAsTheDefaultSolver()
+            throws ContradictionException, TimeoutException {
+        Random rand = new Random(2016);
+        long reductions = 0;
+        for (int k = 0; k < 10; k++) {
+            int[][] clauses = random3Sat(rand, NB_VARS, NB_CLAUSES);
+            ISolver reference = SolverFactory.newDefault();
+            Solver<?> solver = (Solver<?>) SolverFactory.newTiersLCDS();
+            solver.setLearnedConstraintsDeletionStrategy(
+                    new ConflictTimerAdapter(solver, 100) {
+                        private static final long serialVersionUID = 1L;
+
+                        @Override
+                        public void run() {
+                            getSolver().setNeedToReduceDB(true);
+                        }
+                    }, LearnedConstraintsEvaluationType.TIERS);
+            reference.newVar(NB_VARS);
+            solver.newVar(NB_VARS);
+            for (int[] clause : clauses) {
+                reference.addClause(new VecInt(clause));
+                solver.addClause(new VecInt(clause));
+            }
+            boolean expected = reference.isSatisfiable();
+            assertEquals(expected, solver.isSatisfiable());
+            if (expected) {
+                assertTrue(satisfies(solver, clauses));
+            }
+            reductions += solver.getStat().get("reduceddb").longValue();
+        }
+        assertTrue(reductions > 0);
+    }
+
+    @Test
+    public void testCoreClausesSurviveReduction() {
+        for (int i = 0; i < 10; i++) {
+            learnt(1 + i, 3, ThreeTiersLCDS.CORE_LBD);
+        }
+        this.lcds.reduce(this.learnts);
+        assertEquals(10, this.learnts.size());
+    }
+
+    @Test
+    public void testUnusedTier2ClauseIsDemotedToLocal() {
+        Constr unused = learnt(1, 4, ThreeTiersLCDS.TIER2_LBD);
+        Constr used = learnt(10, 4, ThreeTiersLCDS.TIER2_LBD + 0.5);
+        this.lcds.reduce(this.learnts);
+        assertEquals(2, this.learnts.size());
+        assertTrue(ThreeTiersLCDS.isLocal(unused));
+        // a grace period in the local tier before the next reduction
+        assertTrue(ThreeTiersLCDS.isUsed(unused));
+        assertFalse(ThreeTiersLCDS.isLocal(used));
+        assertFalse(ThreeTiersLCDS.isUsed(used));
+    }
+
+    @Test
+    public void testHalfOfTheLocalTierIsRemoved() {
+        for (int i = 0; i < 10; i++) {
+            learnt(1 + i, 3, ThreeTiersLCDS.TIER2_LBD + 1 + i);
+        }
+        this.lcds.reduce(this.learnts);
+        assertEquals(5, this.learnts.size());
+        for (int i = 0; i < this.learnts.size(); i++) {
+            Constr c = this.learnts.get(i);
+            assertTrue(ThreeTiersLCDS.lbd(c) <= ThreeTiersLCDS.TIER2_LBD + 5);
+            assertTrue(ThreeTiersLCDS.isLocal(c));
+        }
+    }
+
+    @Test
+    public void testLockedClausesAreKept() {
+        Constr locked = learnt(1, 3, 3 * ThreeTiersLCDS.TIER2_LBD);
+        this.solver.getVocabulary().setReason(locked.get(0), locked);
+        for (int i = 0; i < 4; i++) {
+            learnt(10 + i, 3, ThreeTiersLCDS.TIER2_LBD + 1);
+        }
+        this.lcds.reduce(this.learnts);
+        assertEquals(3, this.learnts.size());
+        assertTrue(this.learnts.contains(locked));
+    }
+
+    @Test
+    public void testBetterLBDPromotesTheClause() {
+        // a local clause whose literals are now on 3 decision levels
+        Constr c = learnt(1, 8, 8.25);
+        assertTrue(ThreeTiersLCDS.isLocal(c));
+        for (int i = 0; i < c.size(); i++) {
+            this.solver.getVocabulary().setLevel(c.get(i), 1 + i / 3);
+        }
+        this.lcds.onConflictAnalysis(c);
+        assertEquals(3, ThreeTiersLCDS.lbd(c));
+        assertFalse(ThreeTiersLCDS.isLocal(c));
+        assertTrue(ThreeTiersLCDS.isUsed(c));
+    }
+}
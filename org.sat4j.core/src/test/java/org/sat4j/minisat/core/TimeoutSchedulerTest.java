@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.minisat.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.TimeoutException;
+
+public class TimeoutSchedulerTest {
+
+    private TimeoutScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        this.scheduler = new TimeoutScheduler("test timeout scheduler");
+    }
+
+    @After
+    public void tearDown() {
+        this.scheduler.shutdown();
+    }
+
+    private Solver<DataStructureFactory> createSolver() {
+        Solver<DataStructureFactory> solver = SolverFactory.newMiniLearningHeap();
+        solver.setTimeoutScheduler(this.scheduler);
+        return solver;
+    }
+
+    private static void addPigeonHole(Solver<DataStructureFactory> solver,
+            int pigeons, int holes) throws ContradictionException {
+        for (int i = 0; i < pigeons; i++) {
+            VecInt clause = new VecInt();
+            for (int j = 0; j < holes; j++) {
+                clause.push(i * holes + j + 1);
+            }
+            solver.addClause(clause);
+        }
+        for (int j = 0; j < holes; j++) {
+            for (int i = 0; i < pigeons; i++) {
+                for (int k = i + 1; k < pigeons; k++) {
+                    solver.addClause(new VecInt(new int[] {
+                            -(i * holes + j + 1), -(k * holes + j + 1) }));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIncrementalCallsDoNotLeaveTasks() throws Exception {
+        Solver<DataStructureFactory> solver1 = createSolver();
+        Solver<DataStructureFactory> solver2 = createSolver();
+        solver1.setTimeout(10);
+        solver2.setTimeout(10);
+        solver1.addClause(new VecInt(new int[] { 1, 2 }));
+        solver2.addClause(new VecInt(new int[] { -1, 2 }));
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(solver1.isSatisfiable(new VecInt(new int[] { -1 })));
+            assertFalse(solver2.isSatisfiable(new VecInt(new int[] { 1,
+                    -2 })));
+        }
+        assertEquals(0, this.scheduler.getPendingTasks());
+    }
+
+    @Test(timeout = 10000)
+    public void testTimeoutIsStillReached() throws Exception {
+        Solver<DataStructureFactory> solver = createSolver();
+        addPigeonHole(solver, 14, 13);
+        solver.setTimeoutMs(200);
+        try {
+            solver.isSatisfiable();
+            fail();
+        } catch (TimeoutException e) {
+            // expected
+        }
+        assertEquals(0, this.scheduler.getPendingTasks());
+    }
+
+    @Test(timeout = 10000)
+    public void testExpireTimeout() throws Exception {
+        final Solver<DataStructureFactory> solver = createSolver();
+        addPigeonHole(solver, 14, 13);
+        solver.setTimeout(1000);
+        this.scheduler.schedule(new Runnable() {
+            public void run() {
+                solver.expireTimeout();
+            }
+        }, 100);
+        try {
+            solver.isSatisfiable();
+            fail();
+        } catch (TimeoutException e) {
+            // expected
+        }
+    }
+}
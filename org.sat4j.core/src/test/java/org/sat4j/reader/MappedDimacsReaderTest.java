@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import org.junit.Test;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+public class MappedDimacsReaderTest {
+
+    private static final String PREFIX = System.getProperty("test.prefix");
+
+    private static void assertSameProblem(String filename, int segmentSize)
+            throws ParseFormatException, IOException, ContradictionException,
+            TimeoutException {
+        ISolver expected = SolverFactory.newDefault();
+        new LecteurDimacs(expected).parseInstance(filename);
+        ISolver solver = SolverFactory.newDefault();
+        new MappedDimacsReader(solver, segmentSize).parseInstance(filename);
+        assertEquals(expected.nVars(), solver.nVars());
+        assertEquals(expected.nConstraints(), solver.nConstraints());
+        assertEquals(expected.isSatisfiable(), solver.isSatisfiable());
+    }
+
+    @Test
+    public void testSameProblemAsLecteurDimacs() throws Exception {
+        for (String name : new String[] { "aim-50-yes-ok.cnf",
+                "aim-50-no-ok.cnf", "jnh/jnh1.cnf", "jnh/jnh10.cnf" }) {
+            assertSameProblem(PREFIX + name, 1 << 30);
+        }
+    }
+
+    @Test
+    public void testLiteralsAcrossSegments() throws Exception {
+        for (int segmentSize = 1; segmentSize < 20; segmentSize++) {
+            assertSameProblem(PREFIX + "aim-50-yes-ok.cnf", segmentSize);
+        }
+    }
+
+    @Test
+    public void testSelectionFromInstanceReader() throws Exception {
+        File file = File.createTempFile("mapped", ".cnf");
+        file.deleteOnExit();
+        FileWriter writer = new FileWriter(file);
+        writer.write("c a comment\r\np cnf 3 4\r\n1 2 3 0\n-1 -2 0\n-1\t-3 0\n-2 -3 0\n");
+        writer.close();
+        ISolver solver = SolverFactory.newDefault();
+        InstanceReader reader = new InstanceReader(solver);
+        reader.parseInstance("MMAP:" + file.getAbsolutePath());
+        assertEquals(3, solver.nVars());
+        assertEquals(4, solver.nConstraints());
+        assertTrue(solver.isSatisfiable());
+        StringWriter out = new StringWriter();
+        reader.decode(solver.model(), new PrintWriter(out));
+        assertTrue(out.toString().endsWith(" 0"));
+    }
+
+    @Test
+    public void testSatlibEndMarker() throws Exception {
+        File file = File.createTempFile("mapped", ".cnf");
+        file.deleteOnExit();
+        FileWriter writer = new FileWriter(file);
+        writer.write("p cnf 47 0\n%\n");
+        writer.close();
+        assertSameProblem(file.getAbsolutePath(), 1 << 30);
+        writer = new FileWriter(file);
+        writer.write("p cnf 3 2\n1 2 0\n-1 0\n%\n0\n");
+        writer.close();
+        for (int segmentSize = 1; segmentSize < 20; segmentSize++) {
+            ISolver solver = SolverFactory.newDefault();
+            new MappedDimacsReader(solver, segmentSize).parseInstance(file
+                    .getAbsolutePath());
+            assertEquals(3, solver.nVars());
+            assertEquals(2, solver.nConstraints());
+        }
+    }
+
+    @Test(expected = ParseFormatException.class)
+    public void testWrongFormat() throws Exception {
+        File file = File.createTempFile("mapped", ".cnf");
+        file.deleteOnExit();
+        FileWriter writer = new FileWriter(file);
+        writer.write("p cnf 3 2\n1 2 x 0\n");
+        writer.close();
+        new MappedDimacsReader(SolverFactory.newDefault()).parseInstance(file
+                .getAbsolutePath());
+    }
+}
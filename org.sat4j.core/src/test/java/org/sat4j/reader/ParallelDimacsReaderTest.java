@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+public class ParallelDimacsReaderTest {
+
+    private static final String PREFIX = System.getProperty("test.prefix");
+
+    private static void assertSameProblem(String filename, int nbThreads,
+            int chunkSize) throws ParseFormatException, IOException,
+            ContradictionException, TimeoutException {
+        ISolver expected = SolverFactory.newDefault();
+        new LecteurDimacs(expected).parseInstance(filename);
+        ISolver solver = SolverFactory.newDefault();
+        new ParallelDimacsReader(solver, nbThreads, chunkSize)
+                .parseInstance(filename);
+        assertEquals(expected.nVars(), solver.nVars());
+        assertEquals(expected.nConstraints(), solver.nConstraints());
+        assertEquals(expected.isSatisfiable(), solver.isSatisfiable());
+    }
+
+    private static File createFile(String content) throws IOException {
+        File file = File.createTempFile("parallel", ".cnf");
+        file.deleteOnExit();
+        FileWriter writer = new FileWriter(file);
+        writer.write(content);
+        writer.close();
+        return file;
+    }
+
+    @Test
+    public void testSameProblemAsLecteurDimacs() throws Exception {
+        for (String name : new String[] { "aim-50-yes-ok.cnf",
+                "aim-50-no-ok.cnf", "jnh/jnh1.cnf", "jnh/jnh10.cnf" }) {
+            assertSameProblem(PREFIX + name, 4, 1 << 23);
+            assertSameProblem(PREFIX + name, 3, 64);
+        }
+    }
+
+    @Test
+    public void testChunkBoundaries() throws Exception {
+        for (int chunkSize = 1; chunkSize < 20; chunkSize++) {
+            assertSameProblem(PREFIX + "aim-50-yes-ok.cnf", 2, chunkSize);
+        }
+    }
+
+    @Test
+    public void testClausesOnSeveralLines() throws Exception {
+        File file = createFile("c a comment\r\np cnf 3 4\r\n1 2\n3 0 -1\n-2 0\nc another comment\n-1\t-3\n0\n-2 -3 0");
+        for (int chunkSize = 1; chunkSize < 10; chunkSize++) {
+            ISolver solver = SolverFactory.newDefault();
+            new ParallelDimacsReader(solver, 2, chunkSize).parseInstance(file
+                    .getAbsolutePath());
+            assertEquals(3, solver.nVars());
+            assertEquals(4, solver.nConstraints());
+            assertTrue(solver.isSatisfiable());
+        }
+    }
+
+    @Test
+    public void testSelectionFromInstanceReader() throws Exception {
+        File file = createFile("p cnf 2 2\n1 2 0\n-1 0\n");
+        ISolver solver = SolverFactory.newDefault();
+        InstanceReader reader = new InstanceReader(solver);
+        reader.parseInstance("PARALLEL:" + file.getAbsolutePath());
+        assertEquals(2, solver.nVars());
+        assertTrue(solver.isSatisfiable());
+        assertTrue(solver.model(2));
+    }
+
+    @Test
+    public void testSatlibEndMarker() throws Exception {
+        assertSameProblem(createFile("p cnf 47 0\n%\n").getAbsolutePath(), 2,
+                4);
+        File file = createFile("p cnf 3 2\n1 2 0\n-1 0\n%\n0\n");
+        for (int chunkSize = 1; chunkSize < 10; chunkSize++) {
+            ISolver solver = SolverFactory.newDefault();
+            new ParallelDimacsReader(solver, 2, chunkSize).parseInstance(file
+                    .getAbsolutePath());
+            assertEquals(3, solver.nVars());
+            assertEquals(2, solver.nConstraints());
+        }
+    }
+
+    @Test(expected = ParseFormatException.class)
+    public void testEndMarkerBeforeTheLastClause() throws Exception {
+        File file = createFile("p cnf 3 2\n1 2 0\n%\n-1 0\n");
+        new ParallelDimacsReader(SolverFactory.newDefault(), 2, 4)
+                .parseInstance(file.getAbsolutePath());
+    }
+
+    @Test(expected = ParseFormatException.class)
+    public void testWrongFormat() throws Exception {
+        File file = createFile("p cnf 3 2\n1 2 0\n1 x 0\n");
+        new ParallelDimacsReader(SolverFactory.newDefault(), 2, 4)
+                .parseInstance(file.getAbsolutePath());
+    }
+
+    @Test(expected = ParseFormatException.class)
+    public void testMissingHeader() throws Exception {
+        File file = createFile("c no header\n1 2 0\n");
+        new ParallelDimacsReader(SolverFactory.newDefault())
+                .parseInstance(file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.sat4j.RandomFormulas.satisfies;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.ISolverService;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.SearchListenerAdapter;
+import org.sat4j.specs.TimeoutException;
+
+public class CubeAndConquerTest {
+
+    private CubeAndConquer<ISolver> solver;
+
+    @Before
+    public void setUp() {
+        this.solver = new CubeAndConquer<ISolver>(SolverFactory.instance(),
+                "Default", 4);
+        this.solver.setConflictBudget(50);
+    }
+
+    private static IVec<IVecInt> pigeonHole(int pigeons, int holes) {
+        IVec<IVecInt> clauses = new Vec<IVecInt>();
+        for (int p = 0; p < pigeons; p++) {
+            IVecInt clause = new VecInt();
+            for (int h = 1; h <= holes; h++) {
+                clause.push(p * holes + h);
+            }
+            clauses.push(clause);
+        }
+        for (int h = 1; h <= holes; h++) {
+            for (int p = 0; p < pigeons; p++) {
+                for (int q = p + 1; q < pigeons; q++) {
+                    clauses.push(new VecInt(new int[] { -(p * holes + h),
+                            -(q * holes + h) }));
+                }
+            }
+        }
+        return clauses;
+    }
+
+    @Test(timeout = 60000)
+    public void testUnsatisfiableProblemIsSplit()
+            throws ContradictionException, TimeoutException {
+        this.solver.newVar(56);
+        this.solver.addAllClauses(pigeonHole(8, 7));
+        assertFalse(this.solver.isSatisfiable());
+        assertTrue(this.solver.getSplitCubes() > 0);
+        assertTrue(this.solver.getSolvedCubes() > 0);
+    }
+
+    @Test(timeout = 60000)
+    public void testModelIsValid() throws ContradictionException,
+            TimeoutException {
+        IVec<IVecInt> clauses = pigeonHole(9, 9);
+        this.solver.newVar(81);
+        this.solver.addAllClauses(clauses);
+        assertTrue(this.solver.isSatisfiable());
+        assertTrue(satisfies(this.solver.model(), clauses));
+    }
+
+    @Test(timeout = 60000)
+    public void testExplanationOnlyContainsAssumptions()
+            throws ContradictionException, TimeoutException {
+        // pigeons 0 to 7 can only use the first 7 holes when 8 is excluded
+        IVec<IVecInt> clauses = pigeonHole(8, 8);
+        this.solver.newVar(66);
+        this.solver.addAllClauses(clauses);
+        IVecInt assumps = new VecInt();
+        for (int p = 0; p < 8; p++) {
+            assumps.push(-(p * 8 + 8));
+        }
+        assumps.push(65).push(-66);
+        assertFalse(this.solver.isSatisfiable(assumps));
+        IVecInt explanation = this.solver.unsatExplanation();
+        for (int i = 0; i < explanation.size(); i++) {
+            assertTrue(assumps.contains(explanation.get(i)));
+        }
+        assertFalse(explanation.contains(65));
+        assertTrue(this.solver.isSatisfiable());
+    }
+
+    @Test(timeout = 60000)
+    public void testSameAnswersAsSequentialSolver()
+            throws ContradictionException, TimeoutException {
+        for (int holes = 3; holes <= 6; holes++) {
+            for (int pigeons = holes; pigeons <= holes + 1; pigeons++) {
+                CubeAndConquer<ISolver> cubes = new CubeAndConquer<ISolver>(
+                        SolverFactory.instance(), "Default", 3);
+                cubes.setConflictBudget(5);
+                ISolver reference = SolverFactory.newDefault();
+                IVec<IVecInt> clauses = pigeonHole(pigeons, holes);
+                cubes.newVar(pigeons * holes);
+                reference.newVar(pigeons * holes);
+                cubes.addAllClauses(clauses);
+                reference.addAllClauses(clauses);
+                assertEquals(reference.isSatisfiable(), cubes.isSatisfiable());
+            }
+        }
+    }
+
+    @Test(timeout = 60000, expected = TimeoutException.class)
+    public void testTimeoutStopsTheSearch() throws ContradictionException,
+            TimeoutException {
+        this.solver.newVar(132);
+        this.solver.addAllClauses(pigeonHole(12, 11));
+        this.solver.setTimeoutMs(200);
+        this.solver.isSatisfiable();
+    }
+
+    @Test(timeout = 60000, expected = TimeoutException.class)
+    public void testTimeoutInterruptsTheCubesBeingSolved()
+            throws ContradictionException, TimeoutException {
+        this.solver.newVar(132);
+        this.solver.addAllClauses(pigeonHole(12, 11));
+        this.solver.setConflictBudget(Integer.MAX_VALUE);
+        this.solver.setTimeoutMs(200);
+        this.solver.isSatisfiable();
+    }
+
+    @Test(timeout = 60000, expected = TimeoutException.class)
+    public void testTimeoutOnConflictsStopsTheSearch()
+            throws ContradictionException, TimeoutException {
+        this.solver.newVar(132);
+        this.solver.addAllClauses(pigeonHole(12, 11));
+        this.solver.setTimeoutOnConflicts(2000);
+        this.solver.isSatisfiable();
+    }
+
+    @Test(timeout = 60000, expected = TimeoutException.class)
+    public void testExpiryDuringSetupIsNotLost()
+            throws ContradictionException, TimeoutException {
+        ISolver single = SolverFactory.newDefault();
+        single.newVar(132);
+        single.addAllClauses(pigeonHole(12, 11));
+        single.setTimeoutOnConflicts(Integer.MAX_VALUE);
+        // the timeout expires before the solver sets its timers up
+        single.setSearchListener(new SearchListenerAdapter<ISolverService>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void init(ISolverService solverService) {
+                solverService.stop();
+            }
+        });
+        single.isSatisfiable();
+    }
+
+    @Test(timeout = 60000)
+    public void testSolversGivenExplicitly() throws ContradictionException,
+            TimeoutException {
+        CubeAndConquer<ISolver> cubes = new CubeAndConquer<ISolver>(
+                SolverFactory.newDefault(), SolverFactory.newDefault());
+        cubes.setConflictBudget(20);
+        cubes.newVar(42);
+        cubes.addAllClauses(pigeonHole(7, 6));
+        assertFalse(cubes.isSatisfiable());
+    }
+}
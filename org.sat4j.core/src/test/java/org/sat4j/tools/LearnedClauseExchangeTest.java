@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.LearnedClauseProvider;
+import org.sat4j.specs.TimeoutException;
+
+public class LearnedClauseExchangeTest {
+
+    private LearnedClauseExchange exchange;
+
+    private LearnedClauseProvider first;
+
+    private LearnedClauseProvider second;
+
+    @Before
+    public void setUp() {
+        this.exchange = new LearnedClauseExchange(3, 2);
+        this.first = this.exchange.newEndPoint();
+        this.second = this.exchange.newEndPoint();
+    }
+
+    @Test
+    public void testClausesAreNotImportedBackByTheirOrigin() {
+        assertTrue(this.first.exportLearnedClause(new VecInt(new int[] { 1,
+                -2 }), 2));
+        IVec<IVecInt> clauses = new Vec<IVecInt>();
+        IVecInt lbds = new VecInt();
+        this.first.provideLearnedClauses(clauses, lbds);
+        assertEquals(0, clauses.size());
+        this.second.provideLearnedClauses(clauses, lbds);
+        assertEquals(1, clauses.size());
+        assertEquals(2, clauses.get(0).size());
+        assertEquals(1, lbds.size());
+        assertEquals(2, lbds.get(0));
+        clauses.clear();
+        this.second.provideLearnedClauses(clauses, lbds);
+        assertEquals(0, clauses.size());
+    }
+
+    @Test
+    public void testSizeAndLbdLimits() {
+        IVecInt longClause = new VecInt(new int[] { 1, 2, 3, 4, 5 });
+        assertFalse(this.first.exportLearnedClause(longClause, 3));
+        assertTrue(this.first.exportLearnedClause(longClause, 2));
+        assertTrue(this.first.exportLearnedClause(new VecInt(new int[] { 1,
+                2, 6 }), 3));
+        assertEquals(2, this.exchange.getPublishedClauses());
+    }
+
+    @Test
+    public void testDuplicatesAreFiltered() {
+        assertTrue(this.first.exportLearnedClause(new VecInt(new int[] { 1,
+                -2, 3 }), 2));
+        assertFalse(this.second.exportLearnedClause(new VecInt(new int[] {
+                3, 1, -2 }), 2));
+        assertEquals(1, this.exchange.getPublishedClauses());
+        assertEquals(1, this.exchange.getRejectedDuplicates());
+    }
+
+    @Test
+    public void testClearForgetsSharedClauses() {
+        this.first.exportLearnedClause(new VecInt(new int[] { 1, -2 }), 2);
+        this.exchange.clear();
+        IVec<IVecInt> clauses = new Vec<IVecInt>();
+        IVecInt lbds = new VecInt();
+        this.second.provideLearnedClauses(clauses, lbds);
+        assertEquals(0, clauses.size());
+        assertTrue(this.first.exportLearnedClause(new VecInt(new int[] { 1,
+                -2 }), 2));
+        this.second.provideLearnedClauses(clauses, lbds);
+        assertEquals(1, clauses.size());
+    }
+
+    private static void addPigeonHole(ISolver solver, int holes)
+            throws ContradictionException {
+        int pigeons = holes + 1;
+        IVecInt clause = new VecInt();
+        for (int p = 0; p < pigeons; p++) {
+            clause.clear();
+            for (int h = 1; h <= holes; h++) {
+                clause.push(p * holes + h);
+            }
+            solver.addClause(clause);
+        }
+        for (int h = 1; h <= holes; h++) {
+            for (int p = 0; p < pigeons; p++) {
+                for (int q = p + 1; q < pigeons; q++) {
+                    clause.clear();
+                    clause.push(-(p * holes + h)).push(-(q * holes + h));
+                    solver.addClause(clause);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSolversImportLearnedClauses() throws ContradictionException,
+            TimeoutException {
+        LearnedClauseExchange shared = new LearnedClauseExchange(8, 8);
+        ISolver exporter = SolverFactory.newDefault();
+        exporter.setLearnedClauseProvider(shared.newEndPoint());
+        ISolver importer = SolverFactory.newDefault();
+        importer.setLearnedClauseProvider(shared.newEndPoint());
+        addPigeonHole(exporter, 6);
+        addPigeonHole(importer, 6);
+        assertFalse(exporter.isSatisfiable());
+        long exported = exporter.getStat().get("exportedClauses").longValue();
+        assertTrue(exported > 0);
+        assertFalse(importer.isSatisfiable());
+        long imported = importer.getStat().get("importedClauses").longValue();
+        assertTrue(imported > 0);
+        assertTrue(imported <= exported);
+    }
+
+    @Test
+    public void testManyCoreSharesLearnedClauses()
+            throws ContradictionException, TimeoutException {
+        ManyCore<ISolver> solver = new ManyCore<ISolver>(
+                SolverFactory.instance(), "Default", "MiniLearningHeap");
+        solver.setLearnedClauseSharing(8, 4);
+        addPigeonHole(solver, 7);
+        assertFalse(solver.isSatisfiable());
+        assertTrue(solver.getLearnedClauseExchange().getPublishedClauses() > 0);
+    }
+
+    @Test
+    public void testImportedClausesKeepTheirLbd()
+            throws ContradictionException, TimeoutException {
+        Solver<?> importer = (Solver<?>) SolverFactory.newDefault();
+        importer.setLearnedClauseProvider(new LearnedClauseProvider() {
+            private boolean provided;
+
+            public boolean exportLearnedClause(IVecInt clause, int lbd) {
+                return false;
+            }
+
+            public void provideLearnedClauses(IVec<IVecInt> clauses,
+                    IVecInt lbds) {
+                if (!this.provided) {
+                    clauses.push(new VecInt(new int[] { 1, 2, 3, 4 }));
+                    lbds.push(4);
+                    this.provided = true;
+                }
+            }
+        });
+        importer.addClause(new VecInt(new int[] { 1, 2, 3, 4, 5 }));
+        assertTrue(importer.isSatisfiable());
+        IVec<Constr> learnts = importer.getLearnedConstraints();
+        assertEquals(1, learnts.size());
+        // a clause with LBD at most 2 is never deleted by the Glucose strategy
+        assertTrue(learnts.get(0).getActivity() > 2.0);
+    }
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+public class ManyCoreTest {
+
+    private ManyCore<ISolver> solver;
+
+    @Before
+    public void setUp() throws ContradictionException {
+        this.solver = new ManyCore<ISolver>(SolverFactory.instance(),
+                "Default", "MiniLearningHeap");
+        this.solver.addClause(new VecInt(new int[] { 1, 2 }));
+        this.solver.addClause(new VecInt(new int[] { -1, 3 }));
+        this.solver.addClause(new VecInt(new int[] { -2, 3 }));
+    }
+
+    @Test(timeout = 10000)
+    public void testIncrementalCallsAnswerWithoutDelay()
+            throws TimeoutException {
+        for (int i = 0; i < 500; i++) {
+            assertTrue(this.solver.isSatisfiable(new VecInt(new int[] { 1 }),
+                    false));
+            assertFalse(this.solver.isSatisfiable(new VecInt(new int[] {
+                    -3 }), false));
+        }
+    }
+
+    private static int countWorkers() {
+        int workers = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("ManyCore worker")) {
+                workers++;
+            }
+        }
+        return workers;
+    }
+
+    @Test
+    public void testWorkerThreadsAreReused() throws TimeoutException {
+        int before = countWorkers();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(this.solver.isSatisfiable(new VecInt(new int[] { 2 }),
+                    false));
+        }
+        assertTrue(countWorkers() - before <= 2);
+    }
+
+    @Test
+    public void testLatencyMetrics() throws TimeoutException {
+        assertEquals(-1, this.solver.getLastCallDuration());
+        assertTrue(this.solver.isSatisfiable());
+        assertTrue(this.solver.getLastAnswerLatency() >= 0);
+        assertTrue(this.solver.getLastAnswerLatency() <= this.solver
+                .getLastCallDuration());
+    }
+}
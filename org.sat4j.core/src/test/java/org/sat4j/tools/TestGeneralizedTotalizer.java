@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.opt.MinOneDecorator;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+import org.sat4j.tools.encoding.GeneralizedTotalizer;
+
+public class TestGeneralizedTotalizer {
+
+    private static final long[] WEIGHTS = { 3, 5, 1, 3, 8, 2 };
+
+    private ISolver solver;
+
+    private IVecInt literals;
+
+    @Before
+    public void setUp() {
+        this.solver = SolverFactory.newDefault();
+        this.solver.newVar(WEIGHTS.length);
+        this.literals = new VecInt();
+        for (int i = 1; i <= WEIGHTS.length; i++) {
+            this.literals.push(i % 2 == 0 ? -i : i);
+        }
+    }
+
+    @Test
+    public void testOutputsBoundTheWeightedSum() throws TimeoutException {
+        GeneralizedTotalizer totalizer = new GeneralizedTotalizer(
+                this.solver, this.literals, WEIGHTS, 22);
+        checkOutputs(totalizer);
+    }
+
+    @Test
+    public void testSmallBound() throws TimeoutException {
+        GeneralizedTotalizer totalizer = new GeneralizedTotalizer(
+                this.solver, this.literals, WEIGHTS, 6);
+        // 0 to 6 and the sums greater than 6
+        assertEquals(7, totalizer.getNumberOfOutputs());
+        checkOutputs(totalizer);
+    }
+
+    @Test
+    public void testNoOutputAboveTheGreatestSum() {
+        GeneralizedTotalizer totalizer = new GeneralizedTotalizer(
+                this.solver, this.literals, WEIGHTS, 30);
+        assertEquals(0, totalizer.getOutputAbove(22));
+    }
+
+    @Test
+    public void testMinOneWithTotalizer() throws ContradictionException,
+            TimeoutException {
+        MinOneDecorator minone = new MinOneDecorator(
+                SolverFactory.newDefault());
+        minone.setUseTotalizer(true);
+        minone.newVar(6);
+        minone.addClause(new VecInt(new int[] { 1, 2, 3 }));
+        minone.addClause(new VecInt(new int[] { 4, 5, 6 }));
+        minone.addClause(new VecInt(new int[] { -1, -4 }));
+        minone.addClause(new VecInt(new int[] { 2, 5 }));
+        OptToSatAdapter optimizer = new OptToSatAdapter(minone);
+        assertEquals(true, optimizer.isSatisfiable());
+        assertEquals(2, minone.getObjectiveValue());
+    }
+
+    /**
+     * checks for each assignment of the literals that the output above a
+     * value can be falsified iff the weighted sum is at most that value.
+     */
+    private void checkOutputs(GeneralizedTotalizer totalizer)
+            throws TimeoutException {
+        IVecInt assumptions = new VecInt();
+        for (int mask = 0; mask < 1 << WEIGHTS.length; mask++) {
+            long sum = 0;
+            for (int i = 0; i < WEIGHTS.length; i++) {
+                if ((mask & 1 << i) != 0) {
+                    sum += WEIGHTS[i];
+                }
+            }
+            for (long value = 0; value <= totalizer.getBound(); value++) {
+                assumptions.clear();
+                for (int i = 0; i < WEIGHTS.length; i++) {
+                    int literal = this.literals.get(i);
+                    assumptions.push((mask & 1 << i) == 0 ? -literal
+                            : literal);
+                }
+                int output = totalizer.getOutputAbove(value);
+                if (output != 0) {
+                    assumptions.push(-output);
+                }
+                assertEquals(sum <= value,
+                        this.solver.isSatisfiable(assumptions));
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.sat4j.RandomFormulas.randomClauses;
+import static org.sat4j.RandomFormulas.satisfies;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.reader.InstanceReader;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+public class TestPreprocessingDecorator {
+
+    private PreprocessingDecorator<ISolver> solver;
+
+    @Before
+    public void setUp() {
+        solver = new PreprocessingDecorator<ISolver>(SolverFactory.newDefault());
+    }
+
+    @Test
+    public void testSubsumedAndStrengthenedClauses()
+            throws ContradictionException, TimeoutException {
+        solver.newVar(4);
+        solver.addClause(new VecInt(new int[] { 1, 2 }));
+        solver.addClause(new VecInt(new int[] { 1, 2, 3 }));
+        solver.addClause(new VecInt(new int[] { 1, -2, 4 }));
+        solver.addClause(new VecInt(new int[] { -1, 3, 4 }));
+        solver.addClause(new VecInt(new int[] { -3, -4 }));
+        for (int var = 1; var <= 4; var++) {
+            solver.freeze(var);
+        }
+        assertTrue(solver.isSatisfiable());
+        // 1 v 2 subsumes 1 v 2 v 3 and strengthens 1 v -2 v 4 into 1 v 4
+        assertEquals(1, solver.getNumberOfRemovedClauses());
+        assertEquals(0, solver.getNumberOfEliminatedVariables());
+        assertEquals(4, solver.nConstraints());
+    }
+
+    @Test
+    public void testModelsAreExtendedToEliminatedVariables()
+            throws ContradictionException, TimeoutException {
+        Random rand = new Random(12345);
+        for (int k = 0; k < 50; k++) {
+            int[][] clauses = randomClauses(rand, 30, 60, 2, 3);
+            ISolver reference = SolverFactory.newDefault();
+            solver = new PreprocessingDecorator<ISolver>(
+                    SolverFactory.newDefault());
+            boolean trivialUnsat = false;
+            for (int[] clause : clauses) {
+                try {
+                    reference.addClause(new VecInt(clause));
+                    solver.addClause(new VecInt(clause));
+                } catch (ContradictionException e) {
+                    trivialUnsat = true;
+                    break;
+                }
+            }
+            if (trivialUnsat) {
+                continue;
+            }
+            boolean expected = reference.isSatisfiable();
+            assertEquals(expected, solver.isSatisfiable());
+            if (expected) {
+                assertTrue(satisfies(solver, clauses));
+            }
+        }
+    }
+
+    @Test
+    public void testAssumptionsOnEliminatedVariables()
+            throws ContradictionException, TimeoutException {
+        Random rand = new Random(54321);
+        int[][] clauses = randomClauses(rand, 40, 70, 2, 3);
+        ISolver reference = SolverFactory.newDefault();
+        for (int[] clause : clauses) {
+            reference.addClause(new VecInt(clause));
+            solver.addClause(new VecInt(clause));
+        }
+        assertTrue(solver.isSatisfiable());
+        assertTrue(solver.getNumberOfEliminatedVariables() > 0);
+        for (int x = -40; x <= 40; x++) {
+            if (x == 0) {
+                continue;
+            }
+            IVecInt assumps = new VecInt(new int[] { x });
+            boolean expected = reference.isSatisfiable(assumps);
+            assertEquals(expected, solver.isSatisfiable(assumps));
+            if (expected) {
+                assertEquals(x > 0, solver.model(Math.abs(x)));
+                assertTrue(satisfies(solver, clauses));
+            }
+        }
+    }
+
+    @Test
+    public void testEliminatedVariablesInNewConstraints()
+            throws ContradictionException, TimeoutException {
+        solver.newVar(4);
+        solver.addClause(new VecInt(new int[] { 1, 2 }));
+        solver.addClause(new VecInt(new int[] { -1, 3 }));
+        solver.addClause(new VecInt(new int[] { -2, 4 }));
+        assertTrue(solver.isSatisfiable());
+        assertTrue(solver.getNumberOfEliminatedVariables() > 0);
+        solver.addClause(new VecInt(new int[] { -3 }));
+        solver.addClause(new VecInt(new int[] { -4 }));
+        assertFalse(solver.isSatisfiable());
+    }
+
+    @Test
+    public void testFrozenVariablesAreKept() throws ContradictionException,
+            TimeoutException {
+        solver.newVar(3);
+        solver.addClause(new VecInt(new int[] { 1, 2 }));
+        solver.addClause(new VecInt(new int[] { -1, 3 }));
+        solver.freeze(1);
+        solver.freeze(2);
+        solver.freeze(3);
+        assertTrue(solver.isSatisfiable());
+        assertEquals(0, solver.getNumberOfEliminatedVariables());
+        solver.addAtMost(new VecInt(new int[] { 1, 2, 3 }), 1);
+        assertTrue(solver.isSatisfiable());
+        assertTrue(solver.model(2));
+    }
+
+    @Test
+    public void testIndustrialInstance() throws Exception {
+        ISolver reference = SolverFactory.newDefault();
+        new InstanceReader(reference)
+                .parseInstance("src/test/testfiles/bmc-ibm-3.cnf.gz");
+        new InstanceReader(solver)
+                .parseInstance("src/test/testfiles/bmc-ibm-3.cnf.gz");
+        assertTrue(solver.isSatisfiable());
+        assertTrue(solver.getNumberOfRemovedClauses() * 4 > solver
+                .nConstraints());
+        assertTrue(reference.isSatisfiable(new VecInt(solver.model())));
+    }
+
+    @Test
+    public void testUnsatisfiableInstance() throws Exception {
+        new InstanceReader(solver)
+                .parseInstance("src/test/testfiles/aim-50-no-ok.cnf");
+        assertFalse(solver.isSatisfiable());
+    }
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+import org.sat4j.tools.encoding.Totalizer;
+
+public class TestTotalizer {
+
+    private static final int N = 5;
+
+    private ISolver solver;
+
+    private Totalizer totalizer;
+
+    @Before
+    public void setUp() {
+        this.solver = SolverFactory.newDefault();
+        this.solver.newVar(N);
+        IVecInt literals = new VecInt();
+        for (int i = 1; i <= N; i++) {
+            literals.push(i);
+        }
+        this.totalizer = new Totalizer(this.solver, literals, 2);
+    }
+
+    @Test
+    public void testOutputsCountSatisfiedLiterals() throws TimeoutException {
+        assertEquals(2, this.totalizer.getBound());
+        assertEquals(N, this.totalizer.size());
+        checkOutputs(2);
+    }
+
+    @Test
+    public void testIncrementalExtension() throws TimeoutException {
+        this.totalizer.extend(4);
+        assertEquals(4, this.totalizer.getBound());
+        checkOutputs(4);
+        this.totalizer.extend(N);
+        checkOutputs(N);
+    }
+
+    /**
+     * checks for each assignment of the literals that output k can be
+     * falsified iff less than k literals are satisfied.
+     */
+    private void checkOutputs(int bound) throws TimeoutException {
+        IVecInt assumptions = new VecInt();
+        for (int mask = 0; mask < 1 << N; mask++) {
+            for (int k = 1; k <= bound; k++) {
+                assumptions.clear();
+                for (int i = 0; i < N; i++) {
+                    assumptions.push((mask & 1 << i) == 0 ? -(i + 1) : i + 1);
+                }
+                assumptions.push(-this.totalizer.getOutput(k));
+                assertEquals(Integer.bitCount(mask) < k,
+                        this.solver.isSatisfiable(assumptions));
+            }
+        }
+    }
+}
@@ -0,0 +1,644 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.maxsat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.IteratorInt;
+import org.sat4j.specs.TimeoutException;
+import org.sat4j.tools.SolverDecorator;
+import org.sat4j.tools.encoding.Totalizer;
+
+/**
+ * Core guided maxsat solver, following the OLL algorithm.
+ * 
+ * Each soft clause is enforced by an assumption literal. Cores are extracted
+ * by the SAT solver in terms of those assumptions. The minimum weight of the
+ * core is added to the lower bound and removed from the weight of its
+ * assumptions. The core is then relaxed by a totalizer counting its violated
+ * soft clauses: having at most one of them violated becomes a new soft
+ * constraint, assumed through an output of the totalizer. When such an output
+ * appears in a core, the next output of its totalizer becomes soft in turn.
+ * 
+ * The soft clauses are stratified by weight: only the heaviest ones are
+ * assumed first, the lighter ones are added when the heavier ones can be
+ * satisfied. Each model provides an upper bound, used to harden the soft
+ * clauses which cannot be violated by a better solution.
+ * 
+ * The user assumptions are assumed on each call to the SAT solver. The cores
+ * found under those assumptions are only valid for the current call: the
+ * weights and the lower bound are restored once the call is over, and the
+ * clauses hardened during the call are guarded by a new variable, which is
+ * falsified once the call is over.
+ * 
+ * The algorithm is described in:
+ * 
+ * A. Morgado, C. Dodaro and J. Marques-Silva, "Core-Guided MaxSAT with Soft
+ * Cardinality Constraints", in International Conference on Principles and
+ * Practice of Constraint Programming, 2014
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public class CoreGuidedSolver extends SolverDecorator<ISolver>
+        implements WeightedPartialMaxsat {
+
+    /**
+     * 
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Maximum number of attempts to reduce the size of a core.
+     */
+    private static final int TRIMMING_ATTEMPTS = 5;
+
+    /**
+     * the weight of the soft constraints still to be satisfied, indexed by
+     * the literal to assume to satisfy them.
+     */
+    private final Map<Integer, BigInteger> weights = new LinkedHashMap<Integer, BigInteger>();
+
+    /**
+     * the totalizer and the output behind the assumptions relaxing a core.
+     */
+    private final Map<Integer, Output> outputs = new HashMap<Integer, Output>();
+
+    /**
+     * the soft clauses, to compute the cost of the models.
+     */
+    private final IVec<IVecInt> softClauses = new Vec<IVecInt>();
+
+    private final IVec<BigInteger> softWeights = new Vec<BigInteger>();
+
+    private BigInteger lowerBound = BigInteger.ZERO;
+
+    private BigInteger upperBound;
+
+    private int[] bestModel;
+
+    private boolean[] bestValues;
+
+    private boolean maxVarIdFixed = false;
+
+    private IVecInt userAssumptions = VecInt.EMPTY;
+
+    private int guard;
+
+    private IVecInt explanation;
+
+    protected BigInteger top = SAT4J_MAX_BIG_INTEGER;
+
+    public CoreGuidedSolver(ISolver satsolver) {
+        super(satsolver);
+    }
+
+    @Override
+    public IConstr addClause(IVecInt literals) throws ContradictionException {
+        return addSoftClause(1, literals);
+    }
+
+    @Override
+    public void reset() {
+        decorated().reset();
+        this.weights.clear();
+        this.outputs.clear();
+        this.softClauses.clear();
+        this.softWeights.clear();
+        this.lowerBound = BigInteger.ZERO;
+        this.upperBound = null;
+        this.bestModel = null;
+        this.bestValues = null;
+        this.explanation = null;
+        this.maxVarIdFixed = false;
+    }
+
+    @Override
+    public IConstr addHardClause(IVecInt literals)
+            throws ContradictionException {
+        return decorated().addClause(literals);
+    }
+
+    @Override
+    public IConstr addSoftClause(IVecInt literals)
+            throws ContradictionException {
+        return addSoftClause(1, literals);
+    }
+
+    public void setTopWeight(BigInteger top) {
+        this.top = top;
+    }
+
+    @Override
+    public int newVar(int howmany) {
+        int res = super.newVar(howmany);
+        this.maxVarIdFixed = true;
+        return res;
+    }
+
+    protected void checkMaxVarId() {
+        if (!this.maxVarIdFixed) {
+            throw new IllegalStateException(
+                    "Please call newVar(int) before adding constraints!!!");
+        }
+    }
+
+    @Override
+    public IConstr addSoftClause(int weight, IVecInt literals)
+            throws ContradictionException {
+        return addSoftClause(BigInteger.valueOf(weight), literals);
+    }
+
+    @Override
+    public IConstr addSoftClause(BigInteger weight, IVecInt literals)
+            throws ContradictionException {
+        checkMaxVarId();
+        if (weight.compareTo(this.top) >= 0) {
+            return addHardClause(literals);
+        }
+        IVecInt soft = new VecInt(literals.size());
+        literals.copyTo(soft);
+        this.softClauses.push(soft);
+        this.softWeights.push(weight);
+        if (literals.isEmpty()) {
+            // always violated
+            this.lowerBound = this.lowerBound.add(weight);
+            return UnitWeightedClause.instance();
+        }
+        if (literals.size() == 1) {
+            // no need to create a new variable, the literal can be assumed
+            int lit = literals.get(0);
+            BigInteger opposite = this.weights.get(-lit);
+            if (opposite == null) {
+                addWeight(lit, weight);
+            } else {
+                // one of the two soft clauses will be violated
+                BigInteger min = opposite.min(weight);
+                this.lowerBound = this.lowerBound.add(min);
+                setWeight(-lit, opposite.subtract(min));
+                addWeight(lit, weight.subtract(min));
+            }
+            return UnitWeightedClause.instance();
+        }
+        int selector = nextFreeVarId(true);
+        IVecInt clause = new VecInt(literals.size() + 1);
+        literals.copyTo(clause);
+        clause.push(selector);
+        addWeight(-selector, weight);
+        return decorated().addClause(clause);
+    }
+
+    private void addWeight(int assumption, BigInteger weight) {
+        BigInteger previous = this.weights.get(assumption);
+        setWeight(assumption,
+                previous == null ? weight : previous.add(weight));
+    }
+
+    private void setWeight(int assumption, BigInteger weight) {
+        if (weight.signum() > 0) {
+            this.weights.put(assumption, weight);
+        } else {
+            this.weights.remove(assumption);
+        }
+    }
+
+    @Override
+    public boolean isSatisfiable(boolean global) throws TimeoutException {
+        return isSatisfiable();
+    }
+
+    @Override
+    public boolean isSatisfiable(IVecInt assumps, boolean global)
+            throws TimeoutException {
+        return isSatisfiable(assumps);
+    }
+
+    @Override
+    public boolean isSatisfiable(IVecInt assumps) throws TimeoutException {
+        if (assumps.isEmpty()) {
+            return isSatisfiable();
+        }
+        Map<Integer, BigInteger> savedWeights = new LinkedHashMap<Integer, BigInteger>(
+                this.weights);
+        Map<Integer, Output> savedOutputs = new HashMap<Integer, Output>(
+                this.outputs);
+        BigInteger savedLowerBound = this.lowerBound;
+        // the best model so far may not satisfy the assumptions
+        this.upperBound = null;
+        this.bestModel = null;
+        this.bestValues = null;
+        this.userAssumptions = assumps;
+        try {
+            return search();
+        } finally {
+            this.userAssumptions = VecInt.EMPTY;
+            this.weights.clear();
+            this.weights.putAll(savedWeights);
+            this.outputs.clear();
+            this.outputs.putAll(savedOutputs);
+            this.lowerBound = savedLowerBound;
+            if (this.guard != 0) {
+                // the clauses hardened during this call are disabled
+                try {
+                    decorated().addClause(
+                            new VecInt(new int[] { -this.guard }));
+                } catch (ContradictionException e) {
+                    throw new IllegalStateException(e);
+                }
+                this.guard = 0;
+            }
+        }
+    }
+
+    @Override
+    public boolean isSatisfiable() throws TimeoutException {
+        return search();
+    }
+
+    private boolean search() throws TimeoutException {
+        this.explanation = null;
+        BigInteger stratum = nextStratum(null);
+        IVecInt assumptions = new VecInt();
+        try {
+            while (true) {
+                activeAssumptions(stratum, assumptions);
+                if (decorated().isSatisfiable(assumptions)) {
+                    updateUpperBound();
+                    if (this.upperBound.equals(this.lowerBound)) {
+                        return true;
+                    }
+                    harden();
+                    stratum = nextStratum(stratum);
+                    if (stratum == null) {
+                        // all the soft constraints are satisfied
+                        return true;
+                    }
+                } else {
+                    IVecInt core = softPart(decorated().unsatExplanation());
+                    if (core.isEmpty()) {
+                        // the hard clauses are unsatisfiable
+                        if (this.bestModel == null) {
+                            this.explanation = userPart(decorated()
+                                    .unsatExplanation());
+                            return false;
+                        }
+                        return true;
+                    }
+                    relax(trim(core));
+                    if (this.bestModel != null) {
+                        if (this.upperBound.equals(this.lowerBound)) {
+                            return true;
+                        }
+                        harden();
+                    }
+                }
+            }
+        } catch (ContradictionException e) {
+            // no better solution than the best one
+            return this.bestModel != null;
+        }
+    }
+
+    /**
+     * computes the next stratum of weights.
+     * 
+     * @param stratum
+     *            the current stratum, null before the first one.
+     * @return the largest weight lower than the current stratum, null if
+     *         there is none.
+     */
+    private BigInteger nextStratum(BigInteger stratum) {
+        BigInteger next = null;
+        for (BigInteger weight : this.weights.values()) {
+            if ((stratum == null || weight.compareTo(stratum) < 0)
+                    && (next == null || weight.compareTo(next) > 0)) {
+                next = weight;
+            }
+        }
+        return next;
+    }
+
+    private void activeAssumptions(BigInteger stratum, IVecInt assumptions) {
+        assumptions.clear();
+        this.userAssumptions.copyTo(assumptions);
+        if (this.guard != 0) {
+            assumptions.push(this.guard);
+        }
+        if (stratum == null) {
+            return;
+        }
+        for (Map.Entry<Integer, BigInteger> entry : this.weights.entrySet()) {
+            if (entry.getValue().compareTo(stratum) >= 0) {
+                assumptions.push(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * 
+     * @param core
+     *            a core found by the SAT solver, possibly null.
+     * @return the soft constraints of the core, without the user assumptions
+     *         and the guard.
+     */
+    private IVecInt softPart(IVecInt core) {
+        IVecInt soft = new VecInt();
+        if (core == null) {
+            return soft;
+        }
+        int lit;
+        for (IteratorInt it = core.iterator(); it.hasNext();) {
+            lit = it.next();
+            if (lit != this.guard && !this.userAssumptions.contains(lit)
+                    && this.weights.containsKey(lit)) {
+                soft.push(lit);
+            }
+        }
+        return soft;
+    }
+
+    private IVecInt userPart(IVecInt core) {
+        IVecInt user = new VecInt();
+        if (core == null) {
+            return user;
+        }
+        int lit;
+        for (IteratorInt it = core.iterator(); it.hasNext();) {
+            lit = it.next();
+            if (this.userAssumptions.contains(lit)) {
+                user.push(lit);
+            }
+        }
+        return user;
+    }
+
+    /**
+     * tries to find a smaller core by solving again with the core as
+     * assumptions, in addition to the user assumptions.
+     */
+    private IVecInt trim(IVecInt core) throws TimeoutException {
+        IVecInt trimmed = core;
+        IVecInt assumptions = new VecInt();
+        for (int i = 0; i < TRIMMING_ATTEMPTS && trimmed.size() > 1; i++) {
+            assumptions.clear();
+            this.userAssumptions.copyTo(assumptions);
+            if (this.guard != 0) {
+                assumptions.push(this.guard);
+            }
+            for (IteratorInt it = trimmed.iterator(); it.hasNext();) {
+                assumptions.push(it.next());
+            }
+            if (decorated().isSatisfiable(assumptions)) {
+                break;
+            }
+            IVecInt smaller = softPart(decorated().unsatExplanation());
+            if (smaller.isEmpty() || smaller.size() >= trimmed.size()) {
+                break;
+            }
+            trimmed = smaller;
+        }
+        return trimmed;
+    }
+
+    /**
+     * adds a clause which only holds under the user assumptions, if any.
+     */
+    private void addDerivedClause(IVecInt clause)
+            throws ContradictionException {
+        if (!this.userAssumptions.isEmpty()) {
+            if (this.guard == 0) {
+                this.guard = nextFreeVarId(true);
+            }
+            clause.push(-this.guard);
+        }
+        decorated().addClause(clause);
+    }
+
+    /**
+     * relaxes a core: its minimum weight goes to the lower bound, and at most
+     * one of its soft constraints may now be violated for that weight.
+     */
+    private void relax(IVecInt core) throws ContradictionException {
+        BigInteger minWeight = null;
+        BigInteger weight;
+        for (IteratorInt it = core.iterator(); it.hasNext();) {
+            weight = this.weights.get(it.next());
+            if (minWeight == null || weight.compareTo(minWeight) < 0) {
+                minWeight = weight;
+            }
+        }
+        this.lowerBound = this.lowerBound.add(minWeight);
+        if (isVerbose()) {
+            System.out.println(getLogPrefix() + "core of size " + core.size()
+                    + ", lower bound " + this.lowerBound);
+        }
+        int assumption;
+        Output output;
+        IVecInt violated = new VecInt(core.size());
+        List<Output> nextOutputs = new ArrayList<Output>();
+        for (IteratorInt it = core.iterator(); it.hasNext();) {
+            assumption = it.next();
+            setWeight(assumption,
+                    this.weights.get(assumption).subtract(minWeight));
+            violated.push(-assumption);
+            output = this.outputs.get(assumption);
+            if (output != null && output.k < output.totalizer.size()) {
+                nextOutputs.add(new Output(output.totalizer, output.k + 1));
+            }
+        }
+        if (core.size() == 1) {
+            // the soft constraint is violated
+            addDerivedClause(violated);
+        } else {
+            addSoftOutput(new Output(new Totalizer(decorated(), violated, 2),
+                    2), minWeight);
+        }
+        for (Output next : nextOutputs) {
+            next.totalizer.extend(next.k);
+            addSoftOutput(next, minWeight);
+        }
+    }
+
+    private void addSoftOutput(Output output, BigInteger weight) {
+        int assumption = -output.totalizer.getOutput(output.k);
+        this.outputs.put(assumption, output);
+        addWeight(assumption, weight);
+    }
+
+    private void updateUpperBound() {
+        int[] model = decorated().model();
+        boolean[] values = new boolean[nVars() + 1];
+        for (int lit : model) {
+            if (lit > 0 && lit < values.length) {
+                values[lit] = true;
+            }
+        }
+        BigInteger cost = BigInteger.ZERO;
+        IVecInt clause;
+        boolean satisfied;
+        int lit;
+        for (int i = 0; i < this.softClauses.size(); i++) {
+            clause = this.softClauses.get(i);
+            satisfied = false;
+            for (int j = 0; j < clause.size() && !satisfied; j++) {
+                lit = clause.get(j);
+                satisfied = values[Math.abs(lit)] == lit > 0;
+            }
+            if (!satisfied) {
+                cost = cost.add(this.softWeights.get(i));
+            }
+        }
+        if (this.upperBound == null || cost.compareTo(this.upperBound) < 0) {
+            this.upperBound = cost;
+            this.bestModel = model;
+            this.bestValues = values;
+            if (isVerbose()) {
+                System.out.println(getLogPrefix() + "upper bound "
+                        + this.upperBound);
+            }
+        }
+    }
+
+    /**
+     * makes hard the soft constraints which cannot be violated by a solution
+     * better than the best one.
+     */
+    private void harden() throws ContradictionException {
+        BigInteger margin = this.upperBound.subtract(this.lowerBound);
+        IVecInt unit = new VecInt(1);
+        Map.Entry<Integer, BigInteger> entry;
+        for (Iterator<Map.Entry<Integer, BigInteger>> it = this.weights
+                .entrySet().iterator(); it.hasNext();) {
+            entry = it.next();
+            if (entry.getValue().compareTo(margin) > 0) {
+                unit.clear();
+                unit.push(entry.getKey());
+                addDerivedClause(unit);
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public int[] model() {
+        if (this.bestModel == null) {
+            throw new UnsupportedOperationException(
+                    "Call the solve method first!!!"); //$NON-NLS-1$
+        }
+        return this.bestModel;
+    }
+
+    @Override
+    public boolean model(int var) {
+        if (this.bestValues == null) {
+            throw new UnsupportedOperationException(
+                    "Call the solve method first!!!"); //$NON-NLS-1$
+        }
+        if (var <= 0 || var >= this.bestValues.length) {
+            throw new IllegalArgumentException(
+                    "Use a valid Dimacs var id as argument!"); //$NON-NLS-1$
+        }
+        return this.bestValues[var];
+    }
+
+    @Override
+    public int[] findModel() throws TimeoutException {
+        if (isSatisfiable()) {
+            return model();
+        }
+        return null;
+    }
+
+    @Override
+    public int[] findModel(IVecInt assumps) throws TimeoutException {
+        if (isSatisfiable(assumps)) {
+            return model();
+        }
+        return null;
+    }
+
+    @Override
+    public IVecInt unsatExplanation() {
+        return this.explanation;
+    }
+
+    @Override
+    public BigInteger violatedWeight() {
+        return this.upperBound;
+    }
+
+    /**
+     * 
+     * @return the best lower bound proved so far.
+     */
+    public BigInteger getLowerBound() {
+        return this.lowerBound;
+    }
+
+    @Override
+    public String toString(String prefix) {
+        return prefix + "Core guided optimization (OLL)"
+                + System.lineSeparator() + super.toString(prefix);
+    }
+
+    @Override
+    public String toString() {
+        return "Core guided optimization (OLL) " + super.toString();
+    }
+
+    /**
+     * An output of a totalizer: its negation is assumed to satisfy at most
+     * k-1 of the literals of the totalizer.
+     */
+    private static final class Output {
+
+        private final Totalizer totalizer;
+
+        private final int k;
+
+        Output(Totalizer totalizer, int k) {
+            this.totalizer = totalizer;
+            this.k = k;
+        }
+    }
+}
@@ -40,6 +40,7 @@ import org.sat4j.AbstractLauncher;
 import org.sat4j.ILauncherMode;
 import org.sat4j.maxsat.reader.WDimacsReader;
 import org.sat4j.opt.MinOneDecorator;
+import org.sat4j.pb.BoundStrategy;
 import org.sat4j.pb.ConstraintRelaxingPseudoOptDecorator;
 import org.sat4j.pb.IPBSolver;
 import org.sat4j.pb.OptToPBSATAdapter;
@@ -102,6 +103,16 @@ public class GenericOptLauncher extends AbstractLauncher {
                 "search solution by lower bounding instead of by upper bounding");
         options.addOption("hs", "MaxHS Like", false,
                 "search solution using a MaxHS like approach");
+        options.addOption("cg", "core-guided", false,
+                "search solution using a core guided (OLL) approach");
+        options.addOption("st", "stratified", false,
+                "optimize the strata of weights in decreasing order");
+        options.addOption("b", "bound", true,
+                "bound strategy of the upper bounding search: linear, binary or progression");
+        options.addOption("g", "totalizer", false,
+                "bound the objective function using a (generalized) totalizer instead of constraints");
+        options.addOption("ls", "local-search", false,
+                "improve the solutions with a local search running on its own thread");
         options.addOption("m", "mystery", false, "mystery option");
         options.addOption("B", "External&Internal", false,
                 "External&Internal optimization");
@@ -123,7 +134,7 @@ public class GenericOptLauncher extends AbstractLauncher {
     protected Reader createReader(ISolver aSolver, String problemname) {
         Reader reader;
         if (problemname.contains(".wcnf")) { //$NON-NLS-1$
-            reader = new WDimacsReader(this.wmsd);
+            reader = new WDimacsReader(this.maxsat);
         } else {
             reader = new LecteurDimacs(aSolver);
         }
@@ -138,6 +149,8 @@ public class GenericOptLauncher extends AbstractLauncher {
 
     private WeightedMaxSatDecorator wmsd;
 
+    private WeightedPartialMaxsat maxsat;
+
     @Override
     protected ISolver configureSolver(String[] args) {
         ISolver asolver = null;
@@ -161,7 +174,10 @@ public class GenericOptLauncher extends AbstractLauncher {
                     aPBSolverName = "Default";
                 }
                 if ("minone".equalsIgnoreCase(kind)) {
-                    asolver = new MinOneDecorator(org.sat4j.minisat.SolverFactory.newDefault());
+                    MinOneDecorator minone = new MinOneDecorator(
+                            org.sat4j.minisat.SolverFactory.newDefault());
+                    minone.setUseTotalizer(cmd.hasOption("g"));
+                    asolver = minone;
                 } else if ("mincost".equalsIgnoreCase(kind)
                         || args[problemindex].endsWith(".p2cnf")) {
                     asolver = new MinCostDecorator(SolverFactory.newDefault());
@@ -179,12 +195,18 @@ public class GenericOptLauncher extends AbstractLauncher {
                         this.wmsd = new WeightedMaxSatDecorator(
                                 org.sat4j.pb.SolverFactory.instance().createSolverByName(aPBSolverName), equivalence);
                     }
-                    if (cmd.hasOption("l")) {
+                    if (cmd.hasOption("st")) {
+                        asolver = new StratifiedOptDecorator(this.wmsd);
+                    } else if (cmd.hasOption("l")) {
                         asolver = new ConstraintRelaxingPseudoOptDecorator(
                                 this.wmsd);
                     } else if (cmd.hasOption("hs"))  {
                         asolver = org.sat4j.maxsat.SolverFactory.newMaxHSLike();
                         setLauncherMode(ILauncherMode.DECISION);
+                    } else if (cmd.hasOption("cg")) {
+                        asolver = org.sat4j.maxsat.SolverFactory
+                                .newCoreGuided();
+                        setLauncherMode(ILauncherMode.DECISION);
                     } else if (cmd.hasOption("I")){
                         this.wmsd.setSearchListener(new SearchOptimizerListener(ILauncherMode.DECISION));
                         setLauncherMode(ILauncherMode.DECISION);
@@ -199,8 +221,22 @@ public class GenericOptLauncher extends AbstractLauncher {
                         setLauncherMode(ILauncherMode.DECISION);
                         asolver = this.wmsd;
                     }else{
-                        asolver = new PseudoOptDecorator(this.wmsd, false,
-                                cmd.hasOption("pi"));
+                        PseudoOptDecorator optimizer = new PseudoOptDecorator(
+                                this.wmsd, false, cmd.hasOption("pi"));
+                        String bound = cmd.getOptionValue("b");
+                        if (bound != null) {
+                            optimizer.setBoundStrategy(BoundStrategy
+                                    .valueOf(bound.toUpperCase()));
+                        }
+                        optimizer.setUseGeneralizedTotalizer(cmd
+                                .hasOption("g"));
+                        optimizer.setUseLocalSearch(cmd.hasOption("ls"));
+                        asolver = optimizer;
+                    }
+                    if (asolver instanceof WeightedPartialMaxsat) {
+                        this.maxsat = (WeightedPartialMaxsat) asolver;
+                    } else {
+                        this.maxsat = this.wmsd;
                     }
                 }
                 if (cmd.hasOption("i")) {
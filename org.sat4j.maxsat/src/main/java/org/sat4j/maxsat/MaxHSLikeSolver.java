@@ -29,10 +29,14 @@
  *******************************************************************************/
 package org.sat4j.maxsat;
 
+import java.io.PrintWriter;
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
+import org.sat4j.core.IntIntHashMap;
 import org.sat4j.core.Vec;
 import org.sat4j.core.VecInt;
 import org.sat4j.pb.IPBSolver;
@@ -53,6 +57,24 @@ import org.sat4j.tools.SolverDecorator;
  * a SAT solver, and the minimal hitting set computation is handled by a PBO solver
  * (unlike the original MAXSAT which relies on a MILP solver like CPLEX).
  * 
+ * Since computing an optimal hitting set is expensive, the search follows the
+ * MaxHS pipeline:
+ * <ol>
+ * <li>disjoint cores are first extracted to seed the hitting set problem and
+ * to provide a lower bound;</li>
+ * <li>each core is trimmed and minimized before being added;</li>
+ * <li>greedy hitting sets, extended incrementally with the cheapest soft
+ * clause of each new core, are used as long as they lead to new cores;</li>
+ * <li>an optimal hitting set is computed only when the non optimal one is
+ * satisfiable;</li>
+ * <li>soft clauses whose reduced cost, wrt the dual solution given by the
+ * disjoint cores, exceeds the gap between the bounds are fixed.</li>
+ * </ol>
+ * 
+ * The cores found under user assumptions are only valid for the current call:
+ * they are added to the hitting set solver guarded by a new variable, which is
+ * satisfied once the call is over.
+ * 
  * @author leberre
  * @since 2.3.6
  */
@@ -64,6 +86,17 @@ public class MaxHSLikeSolver extends SolverDecorator<ISolver>
      */
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Maximum number of attempts to trim a core.
+     */
+    private static final int TRIMMING_ATTEMPTS = 5;
+
+    /**
+     * Maximum size of the cores minimized by removing their soft clauses one
+     * by one.
+     */
+    private static final int MINIMIZATION_LIMIT = 32;
+
     private final IPBSolver hsfinder;
 
     private final IVecInt lits = new VecInt();
@@ -75,10 +108,63 @@ public class MaxHSLikeSolver extends SolverDecorator<ISolver>
 
     private final Set<Integer> unitClauses = new HashSet<Integer>();
 
+    /**
+     * the soft clauses behind the literals of the objective function, null
+     * for unit soft clauses.
+     */
+    private final IVec<IVecInt> softClauses = new Vec<IVecInt>();
+
+    /**
+     * the index in the objective function of the soft clauses, by literal to
+     * assume to satisfy them.
+     */
+    private final IntIntHashMap indexes = new IntIntHashMap();
+
+    /**
+     * the position of the literals in the objective function, to merge the
+     * unit soft clauses in constant time. A literal appears at most once in
+     * the objective function.
+     */
+    private final IntIntHashMap positions = new IntIntHashMap();
+
+    /**
+     * the cores found under the current assumptions, as indexes in the
+     * objective function.
+     */
+    private final IVec<IVecInt> cores = new Vec<IVecInt>();
+
+    /**
+     * the cores found without user assumptions, as clauses of the hitting set
+     * problem, valid for all the calls.
+     */
+    private final IVec<IVecInt> permanentCores = new Vec<IVecInt>();
+
     private BigInteger falsifiedWeight = BigInteger.ZERO;
 
     private boolean maxVarIdFixed = false;
 
+    private IVecInt assumptions;
+
+    private boolean[] fixed;
+
+    private int guard;
+
+    private BigInteger lowerBound;
+
+    private BigInteger upperBound;
+
+    private int[] bestModel;
+
+    private boolean[] bestValues;
+
+    private IVecInt explanation;
+
+    private long nbCores;
+
+    private long nbNonOptimalHittingSets;
+
+    private long nbOptimalHittingSets;
+
     public MaxHSLikeSolver(IPBSolver pbsolver, ISolver satsolver) {
         super(satsolver);
         this.hsfinder = new OptToPBSATAdapter(new PseudoOptDecorator(pbsolver));
@@ -94,6 +180,20 @@ public class MaxHSLikeSolver extends SolverDecorator<ISolver>
     public void reset() {
         decorated().reset();
         hsfinder.reset();
+        hsfinder.setObjectiveFunction(obj);
+        this.lits.clear();
+        this.coefs.clear();
+        this.positions.clear();
+        this.softClauses.clear();
+        this.unitClauses.clear();
+        this.permanentCores.clear();
+        this.falsifiedWeight = BigInteger.ZERO;
+        this.obj.setCorrectionOffset(this.falsifiedWeight);
+        this.upperBound = null;
+        this.bestModel = null;
+        this.bestValues = null;
+        this.explanation = null;
+        this.maxVarIdFixed = false;
     }
 
     @Override
@@ -153,13 +253,13 @@ public class MaxHSLikeSolver extends SolverDecorator<ISolver>
                 // a new variable
                 // check first if the literal is already in the list:
                 int lit = -literals.get(0);
-                int index = this.lits.containsAt(lit);
+                int index = this.positions.get(lit);
 
                 this.unitClauses.add(-lit);
 
                 if (index == -1) {
                     // check if the opposite literal is already there
-                    index = this.lits.containsAt(-lit);
+                    index = this.positions.get(-lit);
                     if (index != -1) {
                         this.falsifiedWeight = this.falsifiedWeight.add(weight);
                         BigInteger oldw = this.coefs.get(index);
@@ -167,7 +267,7 @@ public class MaxHSLikeSolver extends SolverDecorator<ISolver>
                         if (diff.signum() > 0) {
                             this.coefs.set(index, diff);
                         } else if (diff.signum() < 0) {
-                            this.lits.set(index, lit);
+                            setLiteral(index, lit);
                             this.coefs.set(index, diff.abs());
                             // remove from falsifiedWeight the
                             // part of the weight that will remain
@@ -176,26 +276,25 @@ public class MaxHSLikeSolver extends SolverDecorator<ISolver>
                                     .add(diff);
                         } else {
                             assert diff.signum() == 0;
-                            this.lits.delete(index);
-                            this.coefs.delete(index);
+                            deleteLiteral(index);
                         }
                         this.obj.setCorrectionOffset(this.falsifiedWeight);
 
                     } else {
                         hsfinder.registerLiteral(lit);
-                        this.lits.push(lit);
-                        this.coefs.push(weight);
+                        pushLiteral(lit, weight, null);
                     }
                 } else {
                     this.coefs.set(index, this.coefs.get(index).add(weight));
                 }
                 return UnitWeightedClause.instance();
             }
-            this.coefs.push(weight);
+            IVecInt clause = new VecInt(literals.size());
+            literals.copyTo(clause);
             int newvar = nextFreeVarId(true);
             hsfinder.registerLiteral(newvar);
             literals.push(newvar);
-            this.lits.push(newvar);
+            pushLiteral(newvar, weight, clause);
         }
         IConstr constr = decorated().addClause(literals);
         if (constr == null && isVerbose()) {
@@ -205,6 +304,38 @@ public class MaxHSLikeSolver extends SolverDecorator<ISolver>
         return constr;
     }
 
+    /**
+     * Adds a literal to the objective function. It is either a literal of a
+     * unit soft clause not yet in the objective function, or a new variable
+     * for a non unit soft clause.
+     */
+    private void pushLiteral(int lit, BigInteger weight, IVecInt clause) {
+        assert !this.positions.containsKey(lit);
+        this.positions.put(lit, this.lits.size());
+        this.lits.push(lit);
+        this.coefs.push(weight);
+        this.softClauses.push(clause);
+    }
+
+    private void setLiteral(int index, int lit) {
+        assert !this.positions.containsKey(lit);
+        this.positions.remove(this.lits.get(index));
+        this.positions.put(lit, index);
+        this.lits.set(index, lit);
+    }
+
+    private void deleteLiteral(int index) {
+        this.positions.remove(this.lits.get(index));
+        int last = this.lits.size() - 1;
+        if (index != last) {
+            // the last literal is moved to the deleted position
+            this.positions.put(this.lits.get(last), index);
+        }
+        this.lits.delete(index);
+        this.coefs.delete(index);
+        this.softClauses.delete(index);
+    }
+
     @Override
     public boolean isSatisfiable(boolean global) throws TimeoutException {
         return isSatisfiable();
@@ -213,39 +344,504 @@ public class MaxHSLikeSolver extends SolverDecorator<ISolver>
     @Override
     public boolean isSatisfiable(IVecInt assumps, boolean global)
             throws TimeoutException {
-        throw new UnsupportedOperationException();
+        return isSatisfiable(assumps);
     }
 
     @Override
     public boolean isSatisfiable() throws TimeoutException {
-        IVecInt hs = new VecInt(hsfinder.findModel());
-        while (!decorated().isSatisfiable(hs)) {
+        return isSatisfiable(VecInt.EMPTY);
+    }
+
+    @Override
+    public boolean isSatisfiable(IVecInt assumps) throws TimeoutException {
+        this.assumptions = assumps;
+        this.indexes.clear();
+        for (int i = 0; i < this.lits.size(); i++) {
+            this.indexes.put(-this.lits.get(i), i);
+        }
+        for (IteratorInt it = assumps.iterator(); it.hasNext();) {
+            // the user assumptions take precedence over the soft clauses
+            this.indexes.remove(it.next());
+        }
+        this.fixed = new boolean[this.lits.size()];
+        this.guard = 0;
+        this.lowerBound = this.falsifiedWeight;
+        this.upperBound = null;
+        this.bestModel = null;
+        this.bestValues = null;
+        this.explanation = null;
+        this.cores.clear();
+        for (int i = 0; i < this.permanentCores.size(); i++) {
+            IVecInt core = toIndexes(this.permanentCores.get(i));
+            if (core != null) {
+                this.cores.push(core);
+            }
+        }
+        try {
+            return search();
+        } catch (ContradictionException e) {
+            // the hitting set problem is unsatisfiable
+            return this.bestModel != null;
+        } finally {
+            if (this.guard != 0) {
+                // the cores and fixed literals of this call are disabled
+                try {
+                    this.hsfinder.addClause(new VecInt(
+                            new int[] { this.guard }));
+                } catch (ContradictionException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
             if (isVerbose()) {
-                System.out.print(".");
+                System.out.println(getLogPrefix() + this.nbCores + " cores, "
+                        + this.nbNonOptimalHittingSets
+                        + " non optimal hitting sets, "
+                        + this.nbOptimalHittingSets + " optimal hitting sets");
+            }
+        }
+    }
+
+    private boolean search() throws TimeoutException, ContradictionException {
+        int n = this.lits.size();
+        boolean[] hs = new boolean[n];
+        BigInteger[] duals = new BigInteger[n];
+        IVecInt core;
+        // disjoint cores phase
+        while ((core = nextCore(hs)) != null) {
+            if (core.isEmpty()) {
+                return false;
+            }
+            BigInteger min = null;
+            for (IteratorInt it = core.iterator(); it.hasNext();) {
+                BigInteger weight = this.coefs.get(it.next());
+                if (min == null || weight.compareTo(min) < 0) {
+                    min = weight;
+                }
             }
-            IVecInt core = decorated().unsatExplanation();
-            IVecInt clause = new VecInt(core.size());
+            this.lowerBound = this.lowerBound.add(min);
             for (IteratorInt it = core.iterator(); it.hasNext();) {
-                clause.push(-it.next());
+                int index = it.next();
+                hs[index] = true;
+                duals[index] = min;
+            }
+        }
+        BigInteger disjointBound = this.lowerBound;
+        while (true) {
+            if (this.upperBound.compareTo(this.lowerBound) <= 0) {
+                return true;
+            }
+            fixByReducedCosts(disjointBound, duals);
+            if (!greedyHittingSet(hs)) {
+                // no better solution than the best one
+                return true;
+            }
+            // non optimal hitting sets, extended incrementally
+            this.nbNonOptimalHittingSets++;
+            while ((core = nextCore(hs)) != null) {
+                if (core.isEmpty()) {
+                    return false;
+                }
+                int cheapest = cheapest(core);
+                if (cheapest < 0) {
+                    return true;
+                }
+                hs[cheapest] = true;
+                this.nbNonOptimalHittingSets++;
+            }
+            if (this.upperBound.compareTo(this.lowerBound) <= 0) {
+                return true;
+            }
+            // optimal hitting set
+            if (!optimalHittingSet(hs)) {
+                return true;
+            }
+            if (this.lowerBound.compareTo(this.upperBound) >= 0) {
+                return true;
+            }
+            core = nextCore(hs);
+            if (core == null) {
+                // the solution found has the cost of the lower bound
+                return true;
+            }
+            if (core.isEmpty()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * checks if the soft clauses out of the hitting set can be satisfied.
+     * 
+     * @param hs
+     *            the hitting set, i.e. the soft clauses allowed to be violated
+     * @return null if it is the case, an empty core if the problem is
+     *         unsatisfiable, else a new core in terms of indexes in the
+     *         objective function.
+     */
+    private IVecInt nextCore(boolean[] hs) throws TimeoutException,
+            ContradictionException {
+        IVecInt assumps = new VecInt(this.assumptions.size() + hs.length);
+        this.assumptions.copyTo(assumps);
+        for (int i = 0; i < hs.length; i++) {
+            if (!hs[i]) {
+                assumps.push(-this.lits.get(i));
+            }
+        }
+        if (decorated().isSatisfiable(assumps)) {
+            updateUpperBound();
+            return null;
+        }
+        IVecInt core = decorated().unsatExplanation();
+        if (core == null) {
+            this.explanation = new VecInt();
+            return VecInt.EMPTY;
+        }
+        core = minimize(core);
+        IVecInt indexesCore = new VecInt(core.size());
+        IVecInt clause = new VecInt(core.size() + 1);
+        int index;
+        for (IteratorInt it = core.iterator(); it.hasNext();) {
+            index = this.indexes.get(it.next());
+            if (index != IntIntHashMap.NO_VALUE) {
+                indexesCore.push(index);
+                clause.push(this.lits.get(index));
+            }
+        }
+        if (indexesCore.isEmpty()) {
+            // unsatisfiable under the user assumptions
+            this.explanation = core;
+            return VecInt.EMPTY;
+        }
+        this.nbCores++;
+        if (indexesCore.size() < core.size()) {
+            // the core depends on the user assumptions
+            clause.push(guard());
+        } else {
+            IVecInt permanent = new VecInt(clause.size());
+            clause.copyTo(permanent);
+            this.permanentCores.push(permanent);
+        }
+        this.hsfinder.addClause(clause);
+        this.cores.push(indexesCore);
+        return indexesCore;
+    }
+
+    /**
+     * trims the core by solving again with the core as assumptions, then
+     * removes its useless soft clauses one by one when it is small enough.
+     */
+    private IVecInt minimize(IVecInt core) throws TimeoutException {
+        IVecInt current = core;
+        for (int i = 0; i < TRIMMING_ATTEMPTS && current.size() > 1; i++) {
+            if (decorated().isSatisfiable(current)) {
+                updateUpperBound();
+                break;
+            }
+            IVecInt smaller = decorated().unsatExplanation();
+            if (smaller == null || smaller.size() >= current.size()) {
+                break;
+            }
+            current = smaller;
+        }
+        if (current.size() > MINIMIZATION_LIMIT) {
+            return current;
+        }
+        Set<Integer> necessary = new HashSet<Integer>();
+        IVecInt candidate = new VecInt(current.size());
+        int lit = 0;
+        while (true) {
+            lit = 0;
+            for (IteratorInt it = current.iterator(); it.hasNext();) {
+                int p = it.next();
+                if (this.indexes.containsKey(p) && !necessary.contains(p)) {
+                    lit = p;
+                    break;
+                }
             }
-            try {
-                hsfinder.addClause(clause);
-            } catch (ContradictionException e) {
+            if (lit == 0) {
+                return current;
+            }
+            candidate.clear();
+            for (IteratorInt it = current.iterator(); it.hasNext();) {
+                int p = it.next();
+                if (p != lit) {
+                    candidate.push(p);
+                }
+            }
+            if (decorated().isSatisfiable(candidate)) {
+                updateUpperBound();
+                necessary.add(lit);
+            } else {
+                IVecInt smaller = decorated().unsatExplanation();
+                current = new VecInt(smaller == null ? candidate.size()
+                        : smaller.size());
+                (smaller == null ? candidate : smaller).copyTo(current);
+            }
+        }
+    }
+
+    /**
+     * 
+     * @return the literal guarding the clauses added to the hitting set solver
+     *         for the current call only.
+     */
+    private int guard() {
+        if (this.guard == 0) {
+            this.guard = nextFreeVarId(true);
+            this.hsfinder.registerLiteral(this.guard);
+        }
+        return this.guard;
+    }
+
+    /**
+     * fixes the soft clauses which cannot be violated by a solution better
+     * than the best one. The disjoint cores provide a feasible dual solution
+     * of the hitting set problem: violating a soft clause costs at least its
+     * weight plus the minimum weights of the disjoint cores it does not belong
+     * to.
+     */
+    private void fixByReducedCosts(BigInteger disjointBound,
+            BigInteger[] duals) throws ContradictionException {
+        for (int i = 0; i < this.fixed.length; i++) {
+            if (this.fixed[i]) {
+                continue;
+            }
+            BigInteger bound = disjointBound.add(this.coefs.get(i));
+            if (duals[i] != null) {
+                bound = bound.subtract(duals[i]);
+            }
+            if (bound.compareTo(this.upperBound) >= 0) {
+                this.fixed[i] = true;
+                this.hsfinder.addClause(new VecInt(new int[] {
+                        -this.lits.get(i), guard() }));
+            }
+        }
+    }
+
+    /**
+     * computes a hitting set of the cores by choosing greedily the soft
+     * clause hitting the most cores per unit of weight.
+     * 
+     * @return false iff a core contains only fixed soft clauses.
+     */
+    private boolean greedyHittingSet(boolean[] hs) {
+        Arrays.fill(hs, false);
+        IVec<IVecInt> uncovered = new Vec<IVecInt>(this.cores.size());
+        this.cores.copyTo(uncovered);
+        int[] occurrences = new int[hs.length];
+        while (!uncovered.isEmpty()) {
+            Arrays.fill(occurrences, 0);
+            for (int i = 0; i < uncovered.size(); i++) {
+                for (IteratorInt it = uncovered.get(i).iterator(); it
+                        .hasNext();) {
+                    occurrences[it.next()]++;
+                }
+            }
+            int best = -1;
+            for (int i = 0; i < hs.length; i++) {
+                if (occurrences[i] > 0 && !this.fixed[i]
+                        && (best < 0 || this.coefs.get(best)
+                                .multiply(BigInteger.valueOf(occurrences[i]))
+                                .compareTo(this.coefs.get(i).multiply(
+                                        BigInteger.valueOf(occurrences[best]))) > 0)) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                return false;
+            }
+            hs[best] = true;
+            for (int i = uncovered.size() - 1; i >= 0; i--) {
+                if (uncovered.get(i).contains(best)) {
+                    uncovered.delete(i);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 
+     * @return the index of the cheapest soft clause of the core which is not
+     *         fixed, -1 if there is none.
+     */
+    private int cheapest(IVecInt core) {
+        int cheapest = -1;
+        for (IteratorInt it = core.iterator(); it.hasNext();) {
+            int index = it.next();
+            if (!this.fixed[index]
+                    && (cheapest < 0 || this.coefs.get(index).compareTo(
+                            this.coefs.get(cheapest)) < 0)) {
+                cheapest = index;
+            }
+        }
+        return cheapest;
+    }
+
+    /**
+     * computes an optimal hitting set of the cores found so far, which
+     * provides a new lower bound.
+     * 
+     * @return false iff there is no hitting set respecting the fixed soft
+     *         clauses.
+     */
+    private boolean optimalHittingSet(boolean[] hs) throws TimeoutException {
+        this.nbOptimalHittingSets++;
+        int[] model;
+        if (this.guard == 0) {
+            model = this.hsfinder.findModel();
+        } else {
+            model = this.hsfinder.findModel(new VecInt(
+                    new int[] { -this.guard }));
+        }
+        if (model == null) {
+            return false;
+        }
+        BigInteger cost = this.falsifiedWeight;
+        for (int i = 0; i < hs.length; i++) {
+            int lit = this.lits.get(i);
+            hs[i] = this.hsfinder.model(Math.abs(lit)) == lit > 0;
+            if (hs[i]) {
+                cost = cost.add(this.coefs.get(i));
+            }
+        }
+        if (cost.compareTo(this.lowerBound) > 0) {
+            this.lowerBound = cost;
+            if (isVerbose()) {
+                System.out.println(getLogPrefix() + "lower bound "
+                        + this.lowerBound);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 
+     * @return the indexes in the objective function of the literals of a
+     *         permanent core, null if one of them is no longer in the
+     *         objective function.
+     */
+    private IVecInt toIndexes(IVecInt clause) {
+        IVecInt core = new VecInt(clause.size());
+        for (IteratorInt it = clause.iterator(); it.hasNext();) {
+            int index = this.indexes.get(-it.next());
+            if (index == IntIntHashMap.NO_VALUE) {
+                return null;
+            }
+            core.push(index);
+        }
+        return core;
+    }
+
+    private void updateUpperBound() {
+        for (IteratorInt it = this.assumptions.iterator(); it.hasNext();) {
+            int lit = it.next();
+            if (decorated().model(Math.abs(lit)) != lit > 0) {
+                // found while minimizing a core, without all the assumptions
+                return;
+            }
+        }
+        BigInteger cost = this.falsifiedWeight;
+        for (int i = 0; i < this.lits.size(); i++) {
+            if (isViolated(i)) {
+                cost = cost.add(this.coefs.get(i));
+            }
+        }
+        if (this.upperBound == null || cost.compareTo(this.upperBound) < 0) {
+            this.upperBound = cost;
+            this.bestModel = decorated().model();
+            this.bestValues = new boolean[nVars() + 1];
+            for (int i = 1; i < this.bestValues.length; i++) {
+                this.bestValues[i] = decorated().model(i);
+            }
+            if (isVerbose()) {
+                System.out.println(getLogPrefix() + "upper bound "
+                        + this.upperBound);
+            }
+        }
+    }
+
+    private boolean isViolated(int index) {
+        IVecInt clause = this.softClauses.get(index);
+        if (clause == null) {
+            int lit = this.lits.get(index);
+            return decorated().model(Math.abs(lit)) == lit > 0;
+        }
+        for (IteratorInt it = clause.iterator(); it.hasNext();) {
+            int lit = it.next();
+            if (decorated().model(Math.abs(lit)) == lit > 0) {
                 return false;
             }
-            hs = new VecInt(hsfinder.findModel());
         }
         return true;
     }
 
     @Override
-    public boolean isSatisfiable(IVecInt assumps) throws TimeoutException {
-        throw new UnsupportedOperationException();
+    public int[] model() {
+        if (this.bestModel == null) {
+            throw new UnsupportedOperationException(
+                    "Call the solve method first!!!"); //$NON-NLS-1$
+        }
+        return this.bestModel;
+    }
+
+    @Override
+    public boolean model(int var) {
+        if (this.bestValues == null) {
+            throw new UnsupportedOperationException(
+                    "Call the solve method first!!!"); //$NON-NLS-1$
+        }
+        if (var <= 0 || var >= this.bestValues.length) {
+            throw new IllegalArgumentException(
+                    "Use a valid Dimacs var id as argument!"); //$NON-NLS-1$
+        }
+        return this.bestValues[var];
+    }
+
+    @Override
+    public int[] findModel() throws TimeoutException {
+        if (isSatisfiable()) {
+            return model();
+        }
+        return null;
+    }
+
+    @Override
+    public int[] findModel(IVecInt assumps) throws TimeoutException {
+        if (isSatisfiable(assumps)) {
+            return model();
+        }
+        return null;
+    }
+
+    @Override
+    public IVecInt unsatExplanation() {
+        return this.explanation;
     }
 
     @Override
     public BigInteger violatedWeight() {
-        return hsfinder.getObjectiveFunction().calculateDegree(hsfinder);
+        return this.upperBound;
+    }
+
+    @Override
+    public Map<String, Number> getStat() {
+        Map<String, Number> stats = super.getStat();
+        stats.put("cores", this.nbCores); //$NON-NLS-1$
+        stats.put("non optimal hitting sets", //$NON-NLS-1$
+                this.nbNonOptimalHittingSets);
+        stats.put("optimal hitting sets", this.nbOptimalHittingSets); //$NON-NLS-1$
+        return stats;
+    }
+
+    @Override
+    public void printStat(PrintWriter out) {
+        super.printStat(out);
+        out.println(getLogPrefix() + "cores\t\t: " + this.nbCores); //$NON-NLS-1$
+        out.println(getLogPrefix() + "non optimal hitting sets\t: " //$NON-NLS-1$
+                + this.nbNonOptimalHittingSets);
+        out.println(getLogPrefix() + "optimal hitting sets\t: " //$NON-NLS-1$
+                + this.nbOptimalHittingSets);
     }
 
     @Override
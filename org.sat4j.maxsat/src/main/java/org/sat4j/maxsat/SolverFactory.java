@@ -110,4 +110,9 @@ public class SolverFactory extends ASolverFactory<IPBSolver> {
     public static ISolver newMaxHSLike() {
         return new MaxHSLikeSolver(newDefault(), newDefault());
     }
+
+    public static ISolver newCoreGuided() {
+        return new CoreGuidedSolver(
+                org.sat4j.minisat.SolverFactory.newDefault());
+    }
 }
@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.maxsat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.pb.ObjectiveFunction;
+import org.sat4j.pb.tools.LexicoDecoratorPB;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Stratified optimization of the objective function of a
+ * {@link WeightedMaxSatDecorator}.
+ * 
+ * The soft clauses are grouped by weight levels into strata, which are
+ * optimized in decreasing order of weights, each stratum being a criterion of
+ * a lexicographic optimization. A criterion whose values differ by more than
+ * the sum of the weights of the following strata, i.e. whose weights have a
+ * greatest common divisor greater than that sum, dominates them: its optimal
+ * value is hardened before optimizing the next strata (all its soft clauses
+ * become hard when they are all satisfied). Otherwise, the stratum is
+ * kept in the following criteria, so that the last criterion is the objective
+ * function of all the non dominant strata, and the optimum found is the
+ * optimum of the weighted problem.
+ * 
+ * When there are more weight levels than the maximum number of strata,
+ * consecutive levels are grouped into the same stratum.
+ * 
+ * Since the strata are the criteria of a {@link LexicoDecoratorPB}, the value
+ * of each stratum is reported by the optimization mode of the launchers.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public class StratifiedOptDecorator extends LexicoDecoratorPB {
+
+    /**
+     * 
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * default maximum number of strata.
+     */
+    public static final int DEFAULT_MAX_STRATA = 16;
+
+    private final WeightedMaxSatDecorator wmsd;
+
+    private final int maxStrata;
+
+    /**
+     * for each criterion, true iff it dominates the following ones.
+     */
+    private final List<Boolean> dominant = new ArrayList<Boolean>();
+
+    private ObjectiveFunction fullObjective;
+
+    public StratifiedOptDecorator(WeightedMaxSatDecorator wmsd) {
+        this(wmsd, DEFAULT_MAX_STRATA);
+    }
+
+    public StratifiedOptDecorator(WeightedMaxSatDecorator wmsd, int maxStrata) {
+        super(wmsd);
+        if (maxStrata < 1) {
+            throw new IllegalArgumentException(
+                    "There must be at least one stratum");
+        }
+        this.wmsd = wmsd;
+        this.maxStrata = maxStrata;
+    }
+
+    @Override
+    public boolean admitABetterSolution(IVecInt assumps)
+            throws TimeoutException {
+        if (this.objs.isEmpty()) {
+            stratify();
+        }
+        decorated().setObjectiveFunction(this.objs.get(this.currentCriterion));
+        this.isSolutionOptimal = false;
+        if (decorated().isSatisfiable(assumps, true)) {
+            // the selector variables are needed to evaluate the strata
+            this.prevboolmodel = new boolean[realNumberOfVariables()];
+            for (int i = 0; i < this.prevboolmodel.length; i++) {
+                this.prevboolmodel[i] = decorated().model(i + 1);
+            }
+            this.prevfullmodel = decorated().model();
+            this.prevmodelwithinternalvars = decorated()
+                    .modelWithInternalVariables();
+            calculateObjective();
+            return true;
+        }
+        return manageUnsatCase();
+    }
+
+    /**
+     * builds the criteria from the objective function of the soft clauses.
+     */
+    private void stratify() {
+        this.fullObjective = this.wmsd.getObjectiveFunction();
+        IVecInt vars = this.fullObjective.getVars();
+        IVec<BigInteger> coeffs = this.fullObjective.getCoeffs();
+        Integer[] order = new Integer[vars.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        final IVec<BigInteger> weights = coeffs;
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer i, Integer j) {
+                return weights.get(j).compareTo(weights.get(i));
+            }
+        });
+        // the total weight of the soft clauses from position i in the order
+        BigInteger[] remaining = new BigInteger[order.length + 1];
+        remaining[order.length] = BigInteger.ZERO;
+        int nbLevels = 0;
+        for (int i = order.length - 1; i >= 0; i--) {
+            remaining[i] = remaining[i + 1].add(coeffs.get(order[i]));
+            if (i == order.length - 1
+                    || !coeffs.get(order[i]).equals(coeffs.get(order[i + 1]))) {
+                nbLevels++;
+            }
+        }
+        int levelsPerStratum = (nbLevels + this.maxStrata - 1)
+                / this.maxStrata;
+        IVecInt stratumVars = new VecInt();
+        IVec<BigInteger> stratumCoeffs = new Vec<BigInteger>();
+        // two values of the criterion differ by a multiple of that gcd
+        BigInteger gcd = BigInteger.ZERO;
+        int levels = 0;
+        for (int i = 0; i < order.length; i++) {
+            BigInteger weight = coeffs.get(order[i]);
+            stratumVars.push(vars.get(order[i]));
+            stratumCoeffs.push(weight);
+            if (i + 1 < order.length
+                    && weight.equals(coeffs.get(order[i + 1]))) {
+                continue;
+            }
+            // end of a weight level
+            levels++;
+            gcd = gcd.gcd(weight);
+            boolean dominates = gcd.compareTo(remaining[i + 1]) > 0;
+            if (dominates || levels == levelsPerStratum
+                    || i + 1 == order.length) {
+                addStratum(stratumVars, stratumCoeffs, dominates);
+                levels = 0;
+                if (dominates) {
+                    stratumVars = new VecInt();
+                    stratumCoeffs = new Vec<BigInteger>();
+                    gcd = BigInteger.ZERO;
+                } else {
+                    // the next criterion includes this stratum
+                    IVecInt nextVars = new VecInt(stratumVars.size());
+                    stratumVars.copyTo(nextVars);
+                    IVec<BigInteger> nextCoeffs = new Vec<BigInteger>(
+                            stratumCoeffs.size());
+                    stratumCoeffs.copyTo(nextCoeffs);
+                    stratumVars = nextVars;
+                    stratumCoeffs = nextCoeffs;
+                }
+            }
+        }
+        if (this.objs.isEmpty()) {
+            // no soft clauses
+            addStratum(stratumVars, stratumCoeffs, true);
+        }
+        if (isVerbose()) {
+            System.out.println(getLogPrefix() + nbLevels
+                    + " weight levels in " + numberOfCriteria() + " strata");
+        }
+    }
+
+    private void addStratum(IVecInt vars, IVec<BigInteger> coeffs,
+            boolean dominates) {
+        addCriterion(new ObjectiveFunction(vars, coeffs));
+        this.dominant.add(dominates);
+    }
+
+    @Override
+    protected void fixCriterionValue() throws ContradictionException {
+        Number value = getObjectiveValue();
+        boolean dominates = this.dominant.get(this.currentCriterion);
+        if (isVerbose()) {
+            System.out.println(getLogPrefix() + "stratum "
+                    + (this.currentCriterion + 1) + "/" + numberOfCriteria()
+                    + " optimal value " + value
+                    + (dominates ? " hardened" : ""));
+        }
+        if (!dominates) {
+            return;
+        }
+        ObjectiveFunction obj = this.objs.get(this.currentCriterion);
+        if (BigInteger.ZERO.equals(value)) {
+            // all the soft clauses of the stratum are satisfied
+            IVecInt unit = new VecInt(1);
+            for (int i = 0; i < obj.getVars().size(); i++) {
+                unit.clear();
+                unit.push(-obj.getVars().get(i));
+                this.wmsd.addHardClause(unit);
+            }
+        } else {
+            addAtMost(obj.getVars(), obj.getCoeffs(), (BigInteger) value);
+        }
+    }
+
+    @Override
+    protected boolean manageUnsatCase() {
+        boolean result = super.manageUnsatCase();
+        if (!result && this.fullObjective != null) {
+            this.wmsd.setObjectiveFunction(this.fullObjective);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean nonOptimalMeansSatisfiable() {
+        return false;
+    }
+
+    /**
+     * 
+     * @return the weight of the soft clauses violated by the current model.
+     */
+    public BigInteger violatedWeight() {
+        return this.fullObjective.calculateDegree(this).add(
+                this.fullObjective.getCorrectionOffset());
+    }
+
+    @Override
+    public String toString(String prefix) {
+        return prefix + "Stratified optimization (at most " + this.maxStrata
+                + " strata)" + System.lineSeparator()
+                + super.toString(prefix);
+    }
+}
@@ -34,6 +34,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.sat4j.core.ConstrGroup;
+import org.sat4j.core.IntIntHashMap;
 import org.sat4j.core.Vec;
 import org.sat4j.core.VecInt;
 import org.sat4j.pb.IPBSolver;
@@ -69,6 +70,13 @@ public class WeightedMaxSatDecorator extends PBSolverDecorator implements Weight
 
     private final IVec<BigInteger> coefs = new Vec<BigInteger>();
 
+    /**
+     * the position of the literals in the objective function, to merge the
+     * unit soft clauses in constant time. A literal appears at most once in
+     * the objective function.
+     */
+    private final IntIntHashMap positions = new IntIntHashMap();
+
     private final ObjectiveFunction obj = new ObjectiveFunction(this.lits,
             this.coefs);
 
@@ -174,13 +182,13 @@ public class WeightedMaxSatDecorator extends PBSolverDecorator implements Weight
                 // a new variable
                 // check first if the literal is already in the list:
                 int lit = -literals.get(0);
-                int index = this.lits.containsAt(lit);
+                int index = this.positions.get(lit);
 
                 this.unitClauses.add(-lit);
 
                 if (index == -1) {
                     // check if the opposite literal is already there
-                    index = this.lits.containsAt(-lit);
+                    index = this.positions.get(-lit);
                     if (index != -1) {
                         this.falsifiedWeight = this.falsifiedWeight.add(weight);
                         BigInteger oldw = this.coefs.get(index);
@@ -188,7 +196,7 @@ public class WeightedMaxSatDecorator extends PBSolverDecorator implements Weight
                         if (diff.signum() > 0) {
                             this.coefs.set(index, diff);
                         } else if (diff.signum() < 0) {
-                            this.lits.set(index, lit);
+                            setLiteral(index, lit);
                             this.coefs.set(index, diff.abs());
                             // remove from falsifiedWeight the
                             // part of the weight that will remain
@@ -197,25 +205,22 @@ public class WeightedMaxSatDecorator extends PBSolverDecorator implements Weight
                                     .add(diff);
                         } else {
                             assert diff.signum() == 0;
-                            this.lits.delete(index);
-                            this.coefs.delete(index);
+                            deleteLiteral(index);
                         }
                         this.obj.setCorrectionOffset(this.falsifiedWeight);
 
                     } else {
                         registerLiteral(lit);
-                        this.lits.push(lit);
-                        this.coefs.push(weight);
+                        pushLiteral(lit, weight);
                     }
                 } else {
                     this.coefs.set(index, this.coefs.get(index).add(weight));
                 }
                 return UnitWeightedClause.instance();
             }
-            this.coefs.push(weight);
             int newvar = nextFreeVarId(true);
             literals.push(newvar);
-            this.lits.push(newvar);
+            pushLiteral(newvar, weight);
             if (this.equivalence) {
                 ConstrGroup constrs = new ConstrGroup();
                 IConstr constr = super.addClause(literals);
@@ -242,6 +247,36 @@ public class WeightedMaxSatDecorator extends PBSolverDecorator implements Weight
         return constr;
     }
 
+    private void pushLiteral(int lit, BigInteger weight) {
+        int index = this.positions.get(lit);
+        if (index != IntIntHashMap.NO_VALUE) {
+            // the literal is already in the objective function
+            this.coefs.set(index, this.coefs.get(index).add(weight));
+            return;
+        }
+        this.positions.put(lit, this.lits.size());
+        this.lits.push(lit);
+        this.coefs.push(weight);
+    }
+
+    private void setLiteral(int index, int lit) {
+        assert !this.positions.containsKey(lit);
+        this.positions.remove(this.lits.get(index));
+        this.positions.put(lit, index);
+        this.lits.set(index, lit);
+    }
+
+    private void deleteLiteral(int index) {
+        this.positions.remove(this.lits.get(index));
+        int last = this.lits.size() - 1;
+        if (index != last) {
+            // the last literal is moved to the deleted position
+            this.positions.put(this.lits.get(last), index);
+        }
+        this.lits.delete(index);
+        this.coefs.delete(index);
+    }
+
     /**
      * Allow adding a new soft cardinality constraint in the solver.
      * 
@@ -296,9 +331,8 @@ public class WeightedMaxSatDecorator extends PBSolverDecorator implements Weight
             int degree) throws ContradictionException {
         checkMaxVarId();
         if (weight.compareTo(this.top) < 0) {
-            this.coefs.push(weight);
             int newvar = nextFreeVarId(true);
-            this.lits.push(newvar);
+            pushLiteral(newvar, weight);
             IVec<BigInteger> cardcoeffs = new Vec<BigInteger>(
                     literals.size() + 1);
             cardcoeffs.growTo(literals.size(), BigInteger.ONE);
@@ -365,9 +399,8 @@ public class WeightedMaxSatDecorator extends PBSolverDecorator implements Weight
             throws ContradictionException {
         checkMaxVarId();
         if (weight.compareTo(this.top) < 0) {
-            this.coefs.push(weight);
             int newvar = nextFreeVarId(true);
-            this.lits.push(newvar);
+            pushLiteral(newvar, weight);
             IVec<BigInteger> cardcoeffs = new Vec<BigInteger>(
                     literals.size() + 1);
             cardcoeffs.growTo(literals.size(), BigInteger.ONE);
@@ -388,8 +421,7 @@ public class WeightedMaxSatDecorator extends PBSolverDecorator implements Weight
      */
     public void addLiteralsToMinimize(IVecInt literals) {
         for (IteratorInt it = literals.iterator(); it.hasNext();) {
-            this.lits.push(it.next());
-            this.coefs.push(BigInteger.ONE);
+            pushLiteral(it.next(), BigInteger.ONE);
         }
     }
 
@@ -407,8 +439,7 @@ public class WeightedMaxSatDecorator extends PBSolverDecorator implements Weight
             throw new IllegalArgumentException();
         }
         for (int i = 0; i < literals.size(); i++) {
-            this.lits.push(literals.get(i));
-            this.coefs.push(coefficients.get(i));
+            pushLiteral(literals.get(i), coefficients.get(i));
         }
     }
 
@@ -426,8 +457,8 @@ public class WeightedMaxSatDecorator extends PBSolverDecorator implements Weight
             throw new IllegalArgumentException();
         }
         for (int i = 0; i < literals.size(); i++) {
-            this.lits.push(literals.get(i));
-            this.coefs.push(BigInteger.valueOf(coefficients.get(i)));
+            pushLiteral(literals.get(i),
+                    BigInteger.valueOf(coefficients.get(i)));
         }
     }
 
@@ -435,6 +466,7 @@ public class WeightedMaxSatDecorator extends PBSolverDecorator implements Weight
     public void reset() {
         this.coefs.clear();
         this.lits.clear();
+        this.positions.clear();
         this.nbnewvar = 0;
         super.reset();
     }
@@ -0,0 +1,92 @@
+package org.sat4j.maxsat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.pb.BoundStrategy;
+import org.sat4j.pb.PseudoOptDecorator;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+public class TestBoundStrategyMaxsat {
+
+    @Test
+    public void testSameOptimumWithAllStrategies()
+            throws ContradictionException, TimeoutException {
+        checkSameOptimum(100, false);
+    }
+
+    /**
+     * the size of the generalized totalizer depends on the number of distinct
+     * sums of weights, so the weights are kept small.
+     */
+    @Test
+    public void testSameOptimumWithGeneralizedTotalizer()
+            throws ContradictionException, TimeoutException {
+        checkSameOptimum(10, true);
+    }
+
+    private static void checkSameOptimum(int maxWeight, boolean totalizer)
+            throws ContradictionException, TimeoutException {
+        Random rand = new Random(11);
+        BoundStrategy[] strategies = BoundStrategy.values();
+        int nbVariants = totalizer ? 2 : 1;
+        for (int i = 0; i < 20; i++) {
+            long seed = rand.nextLong();
+            Number expected = null;
+            for (int k = 0; k < nbVariants * strategies.length; k++) {
+                BoundStrategy strategy = strategies[k / nbVariants];
+                boolean useTotalizer = k % nbVariants == 1;
+                WeightedMaxSatDecorator wmsd = new WeightedMaxSatDecorator(
+                        SolverFactory.newDefault());
+                fillRandomProblem(wmsd, new Random(seed), maxWeight);
+                // the soft clauses must not be modified by the optimizer
+                BigInteger maxValue = wmsd.getObjectiveFunction().maxValue();
+                PseudoOptDecorator optimizer = new PseudoOptDecorator(wmsd,
+                        false);
+                optimizer.setBoundStrategy(strategy);
+                optimizer.setUseGeneralizedTotalizer(useTotalizer);
+                Number optimum = null;
+                try {
+                    while (optimizer.admitABetterSolution()) {
+                        optimum = optimizer.getObjectiveValue();
+                        optimizer.discardCurrentSolution();
+                    }
+                } catch (ContradictionException e) {
+                    // optimum found
+                }
+                assertEquals(maxValue, wmsd.getObjectiveFunction().maxValue());
+                assertTrue(optimum != null);
+                if (expected == null) {
+                    expected = optimum;
+                } else {
+                    assertEquals(strategy + (useTotalizer ? " with totalizer"
+                            : ""), expected, optimum);
+                }
+            }
+        }
+    }
+
+    private static void fillRandomProblem(WeightedMaxSatDecorator wmsd,
+            Random rand, int maxWeight) throws ContradictionException {
+        int nbVars = 15;
+        wmsd.newVar(nbVars);
+        for (int i = 0; i < 5 * nbVars; i++) {
+            IVecInt clause = new VecInt();
+            int size = 1 + rand.nextInt(3);
+            while (clause.size() < size) {
+                int var = 1 + rand.nextInt(nbVars);
+                if (!clause.contains(var) && !clause.contains(-var)) {
+                    clause.push(rand.nextBoolean() ? var : -var);
+                }
+            }
+            wmsd.addSoftClause(1 + rand.nextInt(maxWeight), clause);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package org.sat4j.maxsat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.sat4j.RandomFormulas.copy;
+import static org.sat4j.RandomFormulas.randomClause;
+import static org.sat4j.RandomFormulas.satisfies;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.pb.OptToPBSATAdapter;
+import org.sat4j.pb.PseudoOptDecorator;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+public class TestCoreGuidedSolver {
+
+    private CoreGuidedSolver pwms;
+
+    @Before
+    public void init() {
+        this.pwms = new CoreGuidedSolver(
+                org.sat4j.minisat.SolverFactory.newDefault());
+    }
+
+    @Test
+    public void testOnePMS() throws ContradictionException, TimeoutException {
+        pwms.newVar(4);
+        pwms.addHardClause(new VecInt(new int[] { 1, 2, 3, 4 }));
+        pwms.addSoftClause(new VecInt(new int[] { -1, -2 }));
+        pwms.addSoftClause(new VecInt(new int[] { -1, 2 }));
+        pwms.addSoftClause(new VecInt(new int[] { 1, -3 }));
+        pwms.addSoftClause(new VecInt(new int[] { 1, 3 }));
+        assertTrue(pwms.isSatisfiable());
+        assertEquals(BigInteger.ONE, pwms.violatedWeight());
+    }
+
+    @Test
+    public void testAnotherPMS() throws ContradictionException,
+            TimeoutException {
+        pwms.newVar(4);
+        pwms.addHardClause(new VecInt(new int[] { 1, 2, 3, 4 }));
+        pwms.addSoftClause(new VecInt(new int[] { -1, -2 }));
+        pwms.addSoftClause(new VecInt(new int[] { 1 }));
+        pwms.addSoftClause(new VecInt(new int[] { 2 }));
+        pwms.addSoftClause(new VecInt(new int[] { -1, -3 }));
+        pwms.addSoftClause(new VecInt(new int[] { 3 }));
+        assertTrue(pwms.isSatisfiable());
+        assertEquals(BigInteger.ONE, pwms.violatedWeight());
+    }
+
+    @Test
+    public void testAnotherPMSRelaxingTwoConstraints()
+            throws ContradictionException, TimeoutException {
+        pwms.newVar(4);
+        pwms.addHardClause(new VecInt(new int[] { 1, 2, 3, 4 }));
+        pwms.addSoftClause(new VecInt(new int[] { -1, -2 }));
+        pwms.addSoftClause(new VecInt(new int[] { 1 }));
+        pwms.addSoftClause(new VecInt(new int[] { 2 }));
+        pwms.addSoftClause(new VecInt(new int[] { -3, -4 }));
+        pwms.addSoftClause(new VecInt(new int[] { 3 }));
+        pwms.addSoftClause(new VecInt(new int[] { 4 }));
+        assertTrue(pwms.isSatisfiable());
+        assertEquals(BigInteger.valueOf(2), pwms.violatedWeight());
+    }
+
+    @Test
+    public void testOneWPMS() throws ContradictionException, TimeoutException {
+        pwms.newVar(4);
+        pwms.addHardClause(new VecInt(new int[] { 1, 2, 3, 4 }));
+        pwms.addSoftClause(1000, new VecInt(new int[] { -1, -2 }));
+        pwms.addSoftClause(500, new VecInt(new int[] { -1, 2 }));
+        pwms.addSoftClause(200, new VecInt(new int[] { 1, -3 }));
+        pwms.addSoftClause(100, new VecInt(new int[] { 1, 3 }));
+        assertTrue(pwms.isSatisfiable());
+        assertEquals(BigInteger.valueOf(100), pwms.violatedWeight());
+    }
+
+    @Test
+    public void testOppositeUnitSoftClauses() throws ContradictionException,
+            TimeoutException {
+        pwms.newVar(2);
+        pwms.addSoftClause(3, new VecInt(new int[] { 1 }));
+        pwms.addSoftClause(5, new VecInt(new int[] { -1 }));
+        pwms.addSoftClause(2, new VecInt(new int[] { 1, 2 }));
+        assertTrue(pwms.isSatisfiable());
+        assertEquals(BigInteger.valueOf(3), pwms.violatedWeight());
+        assertFalse(pwms.model(1));
+        assertTrue(pwms.model(2));
+    }
+
+    @Test
+    public void testUnsatisfiableHardClauses() throws ContradictionException,
+            TimeoutException {
+        pwms.newVar(2);
+        pwms.addHardClause(new VecInt(new int[] { 1, 2 }));
+        pwms.addHardClause(new VecInt(new int[] { 1, -2 }));
+        pwms.addHardClause(new VecInt(new int[] { -1, 2 }));
+        pwms.addHardClause(new VecInt(new int[] { -1, -2 }));
+        pwms.addSoftClause(new VecInt(new int[] { 1 }));
+        assertFalse(pwms.isSatisfiable());
+    }
+
+    @Test
+    public void testSameOptimumAsLinearSearch() throws ContradictionException,
+            TimeoutException {
+        Random rand = new Random(12345);
+        for (int i = 0; i < 30; i++) {
+            int nbVars = 10 + rand.nextInt(10);
+            CoreGuidedSolver coreGuided = new CoreGuidedSolver(
+                    org.sat4j.minisat.SolverFactory.newDefault());
+            WeightedMaxSatDecorator linear = new WeightedMaxSatDecorator(
+                    SolverFactory.newDefault());
+            coreGuided.newVar(nbVars);
+            linear.newVar(nbVars);
+            int nbSofts = 4 * nbVars;
+            IVecInt[] softs = new IVecInt[nbSofts];
+            int[] weights = new int[nbSofts];
+            for (int j = 0; j < nbSofts; j++) {
+                softs[j] = randomClause(rand, nbVars, 1 + rand.nextInt(3));
+                weights[j] = 1 + rand.nextInt(i % 2 == 0 ? 1 : 20);
+                coreGuided.addSoftClause(weights[j], softs[j]);
+                linear.addSoftClause(weights[j], copy(softs[j]));
+            }
+            for (int j = 0; j < nbVars; j++) {
+                IVecInt clause = randomClause(rand, nbVars, 3);
+                coreGuided.addHardClause(clause);
+                linear.addHardClause(clause);
+            }
+            OptToPBSATAdapter problem = new OptToPBSATAdapter(
+                    new PseudoOptDecorator(linear));
+            assertTrue(problem.isSatisfiable());
+            assertTrue(coreGuided.isSatisfiable());
+            assertEquals(problem.getCurrentObjectiveValue(),
+                    coreGuided.violatedWeight());
+            BigInteger cost = BigInteger.ZERO;
+            for (int j = 0; j < nbSofts; j++) {
+                if (!satisfies(coreGuided, softs[j])) {
+                    cost = cost.add(BigInteger.valueOf(weights[j]));
+                }
+            }
+            assertEquals(cost, coreGuided.violatedWeight());
+        }
+    }
+
+    @Test
+    public void testAssumptions() throws ContradictionException,
+            TimeoutException {
+        pwms.newVar(3);
+        pwms.addHardClause(new VecInt(new int[] { -1, -2 }));
+        pwms.addSoftClause(new VecInt(new int[] { 1 }));
+        pwms.addSoftClause(new VecInt(new int[] { 2 }));
+        pwms.addSoftClause(new VecInt(new int[] { 3 }));
+        assertTrue(pwms.isSatisfiable(new VecInt(new int[] { -3 })));
+        assertEquals(BigInteger.valueOf(2), pwms.violatedWeight());
+        assertFalse(pwms.model(3));
+        assertTrue(pwms.isSatisfiable(new VecInt(new int[] { 1 })));
+        assertEquals(BigInteger.ONE, pwms.violatedWeight());
+        assertFalse(pwms.model(2));
+        IVecInt assumps = new VecInt(new int[] { 1, 2 });
+        assertFalse(pwms.isSatisfiable(assumps));
+        IVecInt explanation = pwms.unsatExplanation();
+        for (int i = 0; i < explanation.size(); i++) {
+            assertTrue(assumps.contains(explanation.get(i)));
+        }
+        assertTrue(pwms.isSatisfiable());
+        assertEquals(BigInteger.ONE, pwms.violatedWeight());
+        assertTrue(pwms.model(3));
+    }
+
+    @Test
+    public void testSameOptimumAsLinearSearchUnderAssumptions()
+            throws ContradictionException, TimeoutException {
+        Random rand = new Random(54321);
+        for (int i = 0; i < 30; i++) {
+            int nbVars = 10 + rand.nextInt(10);
+            CoreGuidedSolver coreGuided = new CoreGuidedSolver(
+                    org.sat4j.minisat.SolverFactory.newDefault());
+            WeightedMaxSatDecorator linear = new WeightedMaxSatDecorator(
+                    SolverFactory.newDefault());
+            WeightedMaxSatDecorator assumed = new WeightedMaxSatDecorator(
+                    SolverFactory.newDefault());
+            coreGuided.newVar(nbVars);
+            linear.newVar(nbVars);
+            assumed.newVar(nbVars);
+            for (int j = 0; j < 4 * nbVars; j++) {
+                IVecInt soft = randomClause(rand, nbVars, 1 + rand.nextInt(3));
+                int weight = 1 + rand.nextInt(i % 2 == 0 ? 1 : 20);
+                coreGuided.addSoftClause(weight, soft);
+                linear.addSoftClause(weight, copy(soft));
+                assumed.addSoftClause(weight, copy(soft));
+            }
+            for (int j = 0; j < nbVars; j++) {
+                IVecInt clause = randomClause(rand, nbVars, 3);
+                coreGuided.addHardClause(clause);
+                linear.addHardClause(copy(clause));
+                assumed.addHardClause(copy(clause));
+            }
+            IVecInt assumps = randomClause(rand, nbVars, 3);
+            OptToPBSATAdapter problem = new OptToPBSATAdapter(
+                    new PseudoOptDecorator(assumed));
+            boolean sat;
+            try {
+                for (int j = 0; j < assumps.size(); j++) {
+                    assumed.addHardClause(new VecInt(
+                            new int[] { assumps.get(j) }));
+                }
+                sat = problem.isSatisfiable();
+            } catch (ContradictionException e) {
+                sat = false;
+            }
+            assertEquals(sat, coreGuided.isSatisfiable(assumps));
+            if (sat) {
+                assertEquals(problem.getCurrentObjectiveValue(),
+                        coreGuided.violatedWeight());
+                for (int j = 0; j < assumps.size(); j++) {
+                    IVecInt unit = new VecInt(new int[] { assumps.get(j) });
+                    assertTrue(satisfies(coreGuided, unit));
+                }
+            }
+            problem = new OptToPBSATAdapter(new PseudoOptDecorator(linear));
+            assertTrue(problem.isSatisfiable());
+            assertTrue(coreGuided.isSatisfiable());
+            assertEquals(problem.getCurrentObjectiveValue(),
+                    coreGuided.violatedWeight());
+        }
+    }
+}
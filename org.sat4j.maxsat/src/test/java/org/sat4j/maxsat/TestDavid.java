@@ -33,9 +33,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.math.BigInteger;
+
 import org.junit.Test;
 import org.sat4j.core.VecInt;
 import org.sat4j.opt.MaxSatDecorator;
+import org.sat4j.pb.ObjectiveFunction;
 import org.sat4j.pb.OptToPBSATAdapter;
 import org.sat4j.pb.PseudoOptDecorator;
 import org.sat4j.specs.ContradictionException;
@@ -158,4 +161,29 @@ public class TestDavid {
         assertFalse(opt.model(2));
         assertFalse(opt.model(3));
     }
+
+    @Test
+    public void testDuplicateLiteralsToMinimizeAreMerged()
+            throws ContradictionException, TimeoutException {
+        WeightedMaxSatDecorator maxsat = new WeightedMaxSatDecorator(
+                SolverFactory.newLight());
+        maxsat.newVar(2);
+        maxsat.addLiteralsToMinimize(new VecInt(new int[] { 1, 1, 2 }));
+        // 2x1 + x2 + 3~x1 = 2 + ~x1 + x2
+        maxsat.addSoftClause(3, new VecInt(new int[] { 1 }));
+        // 2 + ~x1 + x2 + 4x1 = 3 + 3x1 + x2
+        maxsat.addSoftClause(4, new VecInt(new int[] { -1 }));
+        ObjectiveFunction obj = maxsat.getObjectiveFunction();
+        assertEquals(2, obj.getVars().size());
+        assertEquals(1, obj.getVars().get(0));
+        assertEquals(BigInteger.valueOf(3), obj.getCoeffs().get(0));
+        assertEquals(2, obj.getVars().get(1));
+        assertEquals(BigInteger.ONE, obj.getCoeffs().get(1));
+        assertEquals(BigInteger.valueOf(3), obj.getCorrectionOffset());
+        OptToPBSATAdapter opt = new OptToPBSATAdapter(new PseudoOptDecorator(
+                maxsat));
+        assertTrue(opt.isSatisfiable());
+        assertFalse(opt.model(1));
+        assertFalse(opt.model(2));
+    }
 }
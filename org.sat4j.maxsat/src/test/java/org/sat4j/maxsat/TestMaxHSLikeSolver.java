@@ -1,13 +1,16 @@
 package org.sat4j.maxsat;
 
 import static org.junit.Assert.*;
+import static org.sat4j.RandomFormulas.randomClause;
 
 import java.math.BigInteger;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.sat4j.core.VecInt;
 import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
 
 public class TestMaxHSLikeSolver {
@@ -72,4 +75,69 @@ public class TestMaxHSLikeSolver {
         assertEquals(pwms.violatedWeight(),BigInteger.valueOf(100));     
     }
     
+    @Test
+    public void testAssumptions() throws ContradictionException,
+            TimeoutException {
+        pwms.newVar(4);
+        pwms.addHardClause(new VecInt(new int[] { 1, 2, 3, 4 }));
+        pwms.addSoftClause(new VecInt(new int[] { -1, -2 }));
+        pwms.addSoftClause(new VecInt(new int[] { 1 }));
+        pwms.addSoftClause(new VecInt(new int[] { 2 }));
+        assertTrue(pwms.isSatisfiable(new VecInt(new int[] { -1, -2 })));
+        assertEquals(BigInteger.valueOf(2), pwms.violatedWeight());
+        assertFalse(pwms.model(1));
+        assertFalse(pwms.model(2));
+        // the cores found under assumptions must not be kept
+        assertTrue(pwms.isSatisfiable());
+        assertEquals(BigInteger.ONE, pwms.violatedWeight());
+        assertTrue(pwms.isSatisfiable(new VecInt(new int[] { 1 })));
+        assertEquals(BigInteger.ONE, pwms.violatedWeight());
+        assertTrue(pwms.model(1));
+    }
+
+    @Test
+    public void testUnsatExplanation() throws ContradictionException,
+            TimeoutException {
+        pwms.newVar(4);
+        pwms.addHardClause(new VecInt(new int[] { 1, 2 }));
+        pwms.addSoftClause(new VecInt(new int[] { 3 }));
+        assertFalse(pwms.isSatisfiable(new VecInt(new int[] { 4, -1, -2 })));
+        IVecInt explanation = pwms.unsatExplanation();
+        assertEquals(2, explanation.size());
+        assertTrue(explanation.contains(-1));
+        assertTrue(explanation.contains(-2));
+        assertTrue(pwms.isSatisfiable(new VecInt(new int[] { 4, -1 })));
+        assertEquals(BigInteger.ZERO, pwms.violatedWeight());
+    }
+
+    @Test
+    public void testSameOptimumAsCoreGuided() throws ContradictionException,
+            TimeoutException {
+        Random rand = new Random(54321);
+        for (int i = 0; i < 30; i++) {
+            int nbVars = 10 + rand.nextInt(10);
+            init();
+            CoreGuidedSolver coreGuided = new CoreGuidedSolver(
+                    org.sat4j.minisat.SolverFactory.newDefault());
+            pwms.newVar(nbVars);
+            coreGuided.newVar(nbVars);
+            for (int j = 0; j < 4 * nbVars; j++) {
+                IVecInt clause = randomClause(rand, nbVars,
+                        1 + rand.nextInt(3));
+                int weight = 1 + rand.nextInt(i % 2 == 0 ? 1 : 20);
+                coreGuided.addSoftClause(weight, clause);
+                pwms.addSoftClause(weight, clause);
+            }
+            for (int j = 0; j < nbVars; j++) {
+                IVecInt clause = randomClause(rand, nbVars, 3);
+                coreGuided.addHardClause(clause);
+                pwms.addHardClause(clause);
+            }
+            assertTrue(coreGuided.isSatisfiable());
+            assertTrue(pwms.isSatisfiable());
+            assertEquals(coreGuided.violatedWeight(), pwms.violatedWeight());
+            assertTrue(pwms.getStat().get("optimal hitting sets").longValue() <= pwms
+                    .getStat().get("cores").longValue() + 1);
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package org.sat4j.maxsat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.sat4j.RandomFormulas.copy;
+import static org.sat4j.RandomFormulas.randomClause;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+import org.sat4j.pb.OptToPBSATAdapter;
+import org.sat4j.pb.PseudoOptDecorator;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IOptimizationProblem;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+public class TestStratifiedOptDecorator {
+
+    /**
+     * optimizes the problem the way the optimization mode of the launchers
+     * does.
+     */
+    private static void optimize(IOptimizationProblem problem)
+            throws TimeoutException {
+        try {
+            while (problem.admitABetterSolution()) {
+                problem.discardCurrentSolution();
+            }
+        } catch (ContradictionException e) {
+            // optimum found
+        }
+    }
+
+    @Test
+    public void testPriorities() throws TimeoutException,
+            ContradictionException {
+        WeightedMaxSatDecorator wmsd = new WeightedMaxSatDecorator(
+                SolverFactory.newDefault());
+        wmsd.newVar(3);
+        wmsd.addSoftClause(100, new VecInt(new int[] { 1, 2 }));
+        wmsd.addSoftClause(100, new VecInt(new int[] { -1, 3 }));
+        wmsd.addSoftClause(10, new VecInt(new int[] { -2, -3 }));
+        wmsd.addSoftClause(10, new VecInt(new int[] { 1, -3 }));
+        wmsd.addSoftClause(1, new VecInt(new int[] { 3 }));
+        wmsd.addSoftClause(1, new VecInt(new int[] { 2 }));
+        StratifiedOptDecorator stratified = new StratifiedOptDecorator(wmsd);
+        optimize(stratified);
+        assertTrue(stratified.isOptimal());
+        assertEquals(3, stratified.numberOfCriteria());
+        assertEquals(BigInteger.ZERO, stratified.getObjectiveValue(0));
+        assertEquals(BigInteger.ZERO, stratified.getObjectiveValue(1));
+        assertEquals(BigInteger.ONE, stratified.getObjectiveValue(2));
+        assertEquals(BigInteger.ONE, stratified.violatedWeight());
+    }
+
+    @Test
+    public void testNoSoftClause() throws TimeoutException,
+            ContradictionException {
+        WeightedMaxSatDecorator wmsd = new WeightedMaxSatDecorator(
+                SolverFactory.newDefault());
+        wmsd.newVar(2);
+        wmsd.addHardClause(new VecInt(new int[] { 1, 2 }));
+        StratifiedOptDecorator stratified = new StratifiedOptDecorator(wmsd);
+        optimize(stratified);
+        assertTrue(stratified.isOptimal());
+        assertEquals(1, stratified.numberOfCriteria());
+        assertEquals(BigInteger.ZERO, stratified.violatedWeight());
+    }
+
+    @Test
+    public void testSeveralWeightLevelsInACriterion()
+            throws TimeoutException, ContradictionException {
+        WeightedMaxSatDecorator wmsd = new WeightedMaxSatDecorator(
+                SolverFactory.newDefault());
+        wmsd.newVar(6);
+        int[] weights = { 5, 3, 3, 1, 1 };
+        for (int i = 0; i < weights.length; i++) {
+            wmsd.addSoftClause(weights[i], new VecInt(new int[] { i + 1 }));
+        }
+        wmsd.addHardClause(new VecInt(new int[] { -6, -1 }));
+        wmsd.addHardClause(new VecInt(new int[] { -6, -4 }));
+        wmsd.addHardClause(new VecInt(new int[] { -6, -5 }));
+        wmsd.addHardClause(new VecInt(new int[] { 6, -2 }));
+        wmsd.addHardClause(new VecInt(new int[] { 6, -3 }));
+        // the weight 3 is greater than the remaining weight 2, but the
+        // values of the criterion {5, 3, 3} may differ by 1
+        StratifiedOptDecorator stratified = new StratifiedOptDecorator(wmsd);
+        optimize(stratified);
+        assertTrue(stratified.isOptimal());
+        assertEquals(BigInteger.valueOf(6), stratified.violatedWeight());
+    }
+
+    @Test
+    public void testSameOptimumAsLinearSearch() throws TimeoutException,
+            ContradictionException {
+        Random rand = new Random(2016);
+        for (int i = 0; i < 40; i++) {
+            int nbVars = 10 + rand.nextInt(10);
+            WeightedMaxSatDecorator wmsd = new WeightedMaxSatDecorator(
+                    SolverFactory.newDefault());
+            WeightedMaxSatDecorator linear = new WeightedMaxSatDecorator(
+                    SolverFactory.newDefault());
+            wmsd.newVar(nbVars);
+            linear.newVar(nbVars);
+            for (int j = 0; j < 4 * nbVars; j++) {
+                IVecInt clause = randomClause(rand, nbVars,
+                        1 + rand.nextInt(3));
+                // weights spanning several orders of magnitude
+                int weight = (1 + rand.nextInt(9))
+                        * (int) Math.pow(10, rand.nextInt(4));
+                linear.addSoftClause(weight, copy(clause));
+                wmsd.addSoftClause(weight, clause);
+            }
+            for (int j = 0; j < nbVars; j++) {
+                IVecInt clause = randomClause(rand, nbVars, 3);
+                linear.addHardClause(copy(clause));
+                wmsd.addHardClause(clause);
+            }
+            OptToPBSATAdapter problem = new OptToPBSATAdapter(
+                    new PseudoOptDecorator(linear));
+            assertTrue(problem.isSatisfiable());
+            StratifiedOptDecorator stratified = new StratifiedOptDecorator(
+                    wmsd, 1 + i % 4);
+            optimize(stratified);
+            assertTrue(stratified.isOptimal());
+            assertEquals(problem.getCurrentObjectiveValue(),
+                    stratified.violatedWeight());
+        }
+    }
+}
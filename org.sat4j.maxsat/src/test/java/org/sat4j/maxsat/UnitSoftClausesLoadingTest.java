@@ -0,0 +1,122 @@
+package org.sat4j.maxsat;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.maxsat.reader.WDimacsReader;
+import org.sat4j.pb.ObjectiveFunction;
+
+/**
+ * Checks the objective function built when loading a WCNF file made of
+ * weighted unit soft clauses, many of them being on the same variable.
+ * 
+ * @author leberre
+ * 
+ */
+public class UnitSoftClausesLoadingTest {
+
+    private static final int TOP = 1000;
+
+    private final int nbVars;
+
+    private final int nbSoftClauses;
+
+    private final int nbHardClauses;
+
+    /**
+     * the expected objective function, by literal.
+     */
+    private final Map<Integer, BigInteger> expected = new HashMap<Integer, BigInteger>();
+
+    private BigInteger expectedOffset = BigInteger.ZERO;
+
+    public UnitSoftClausesLoadingTest() {
+        this(300, 2000, 10);
+    }
+
+    protected UnitSoftClausesLoadingTest(int nbVars, int nbSoftClauses,
+            int nbHardClauses) {
+        this.nbVars = nbVars;
+        this.nbSoftClauses = nbSoftClauses;
+        this.nbHardClauses = nbHardClauses;
+    }
+
+    private File createInstance() throws IOException {
+        File file = File.createTempFile("unitsofts", ".wcnf");
+        file.deleteOnExit();
+        Random rand = new Random(42);
+        BufferedWriter out = new BufferedWriter(new FileWriter(file));
+        out.write("p wcnf " + this.nbVars + " "
+                + (this.nbSoftClauses + this.nbHardClauses) + " " + TOP + "\n");
+        for (int i = 0; i < this.nbSoftClauses; i++) {
+            int var = rand.nextInt(this.nbVars) + 1;
+            int lit = rand.nextBoolean() ? var : -var;
+            int weight = rand.nextInt(10) + 1;
+            out.write(weight + " " + lit + " 0\n");
+            expectSoftUnit(lit, BigInteger.valueOf(weight));
+        }
+        for (int i = 0; i < this.nbHardClauses; i++) {
+            out.write(String.valueOf(TOP));
+            for (int j = 0; j < 3; j++) {
+                int var = rand.nextInt(this.nbVars) + 1;
+                out.write(" " + (rand.nextBoolean() ? var : -var));
+            }
+            out.write(" 0\n");
+        }
+        out.close();
+        return file;
+    }
+
+    /**
+     * the objective function contains the negation of the literal of the
+     * soft clause, with the weight not compensated by the opposite soft
+     * clause.
+     */
+    private void expectSoftUnit(int lit, BigInteger weight) {
+        BigInteger opposite = this.expected.remove(lit);
+        if (opposite == null) {
+            BigInteger previous = this.expected.get(-lit);
+            this.expected.put(-lit,
+                    previous == null ? weight : previous.add(weight));
+            return;
+        }
+        BigInteger min = opposite.min(weight);
+        this.expectedOffset = this.expectedOffset.add(min);
+        if (opposite.compareTo(weight) > 0) {
+            this.expected.put(lit, opposite.subtract(weight));
+        } else if (weight.compareTo(opposite) > 0) {
+            this.expected.put(-lit, weight.subtract(opposite));
+        }
+    }
+
+    private static void load(WeightedPartialMaxsat solver, File file)
+            throws Exception {
+        new WDimacsReader(solver).parseInstance(file.getAbsolutePath());
+    }
+
+    @Test(timeout = 120000)
+    public void testUnitSoftClausesAreMerged() throws Exception {
+        File file = createInstance();
+        WeightedMaxSatDecorator wmsd = new WeightedMaxSatDecorator(
+                SolverFactory.newDefault());
+        load(wmsd, file);
+        ObjectiveFunction obj = wmsd.getObjectiveFunction();
+        assertEquals(this.expected.size(), obj.getVars().size());
+        for (int i = 0; i < obj.getVars().size(); i++) {
+            assertEquals(this.expected.get(obj.getVars().get(i)), obj
+                    .getCoeffs().get(i));
+        }
+        assertEquals(this.expectedOffset, obj.getCorrectionOffset());
+        load(new MaxHSLikeSolver(SolverFactory.newDefault(),
+                org.sat4j.minisat.SolverFactory.newDefault()), file);
+    }
+}
@@ -0,0 +1,20 @@
+package org.sat4j.maxsat;
+
+/**
+ * This is a performance test loading a WCNF file made of a large number of
+ * weighted unit soft clauses. Merging the unit soft clauses on the same
+ * variable must take constant time for the file to be loaded within the
+ * timeout.
+ * 
+ * It is not part of the default test run, use the benchmark profile to run
+ * it.
+ * 
+ * @author leberre
+ * 
+ */
+public class WcnfLoadingPerformanceTest extends UnitSoftClausesLoadingTest {
+
+    public WcnfLoadingPerformanceTest() {
+        super(300000, 1000000, 10000);
+    }
+}
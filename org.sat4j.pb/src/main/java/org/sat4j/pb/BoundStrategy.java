@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.pb;
+
+import java.math.BigInteger;
+
+/**
+ * The way {@link PseudoOptDecorator} chooses the bound on the objective
+ * function when looking for a better solution.
+ * 
+ * With the LINEAR strategy, each new solution is required to be strictly better
+ * than the previous one, so the bound is always the value of the current
+ * solution minus one. The other strategies look for a solution whose value is
+ * at most a bound between the lower bound of the objective function and the
+ * value of the current solution, using a constraint that is retracted once
+ * the solver answered. A failure to find such a solution raises the lower
+ * bound, so the optimality is proved when both bounds meet.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public enum BoundStrategy {
+
+    /**
+     * Strengthen the objective function from above.
+     */
+    LINEAR {
+        @Override
+        BigInteger nextBound(BigInteger lowerBound, BigInteger upperBound,
+                int nbFailures) {
+            return upperBound.subtract(BigInteger.ONE);
+        }
+    },
+
+    /**
+     * Look for a solution in the lower half of the range of values.
+     */
+    BINARY {
+        @Override
+        BigInteger nextBound(BigInteger lowerBound, BigInteger upperBound,
+                int nbFailures) {
+            return lowerBound.add(upperBound.subtract(BigInteger.ONE)
+                    .subtract(lowerBound).shiftRight(1));
+        }
+    },
+
+    /**
+     * Look for a solution close to the lower bound, doubling the size of the
+     * range of values after each failure.
+     */
+    PROGRESSION {
+        @Override
+        BigInteger nextBound(BigInteger lowerBound, BigInteger upperBound,
+                int nbFailures) {
+            BigInteger bound = lowerBound.add(BigInteger.ONE.shiftLeft(
+                    nbFailures).subtract(BigInteger.ONE));
+            return bound.min(upperBound.subtract(BigInteger.ONE));
+        }
+    };
+
+    /**
+     * Computes the bound of the next search.
+     * 
+     * @param lowerBound
+     *            the lower bound of the objective function.
+     * @param upperBound
+     *            the value of the current solution, greater than the lower
+     *            bound.
+     * @param nbFailures
+     *            the number of searches that failed since the last solution
+     *            found.
+     * @return a bound b such that lowerBound &lt;= b &lt; upperBound
+     */
+    abstract BigInteger nextBound(BigInteger lowerBound, BigInteger upperBound,
+            int nbFailures);
+}
@@ -35,6 +35,7 @@ import org.sat4j.AbstractLauncher;
 import org.sat4j.ILauncherMode;
 import org.sat4j.core.ASolverFactory;
 import org.sat4j.pb.core.ObjectiveReducerPBSolverDecorator;
+import org.sat4j.pb.core.PBSolver;
 import org.sat4j.pb.reader.OPBReader2006;
 import org.sat4j.pb.tools.SearchOptimizerListener;
 import org.sat4j.reader.ParseFormatException;
@@ -114,6 +115,10 @@ public class LanceurPseudo2005 extends AbstractLauncher implements ILogAble {
         } else {
             theSolver = this.factory.defaultSolver();
         }
+        if (System.getProperty("LP") != null
+                && theSolver instanceof PBSolver) {
+            ((PBSolver) theSolver).setUseLPRelaxation(true);
+        }
         if (System.getProperty("OBJREDUCER") != null) {
             if (lower) {
                 theSolver = new ConstraintRelaxingPseudoOptDecorator(
@@ -130,7 +135,18 @@ public class LanceurPseudo2005 extends AbstractLauncher implements ILogAble {
             if (lower) {
                 theSolver = new ConstraintRelaxingPseudoOptDecorator(theSolver);
             } else {
-                theSolver = new PseudoOptDecorator(theSolver);
+                PseudoOptDecorator optimizer = new PseudoOptDecorator(
+                        theSolver);
+                String bound = System.getProperty("BOUND");
+                if (bound != null) {
+                    optimizer.setBoundStrategy(
+                            BoundStrategy.valueOf(bound.toUpperCase()));
+                }
+                optimizer.setUseGeneralizedTotalizer(
+                        System.getProperty("TOTALIZER") != null);
+                optimizer.setUseLocalSearch(
+                        System.getProperty("SLS") != null);
+                theSolver = optimizer;
             }
         }
         if (args.length == 3) {
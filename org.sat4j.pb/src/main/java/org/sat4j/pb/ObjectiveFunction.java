@@ -198,6 +198,22 @@ public class ObjectiveFunction implements Serializable {
         return tempDegree;
     }
 
+    /**
+     * 
+     * @return the greatest value the objective function can take.
+     * @since 2.3.6
+     */
+    public BigInteger maxValue() {
+        BigInteger tempDegree = BigInteger.ZERO;
+        for (int i = 0; i < this.vars.size(); i++) {
+            BigInteger coeff = this.coeffs.get(i);
+            if (coeff.signum() > 0) {
+                tempDegree = tempDegree.add(coeff);
+            }
+        }
+        return tempDegree;
+    }
+
     @Override
     public int hashCode() {
         return this.coeffs.hashCode() / 3 + this.vars.hashCode() / 3
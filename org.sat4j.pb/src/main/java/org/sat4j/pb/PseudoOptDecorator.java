@@ -31,12 +31,16 @@ package org.sat4j.pb;
 
 import java.math.BigInteger;
 
+import org.sat4j.core.Vec;
 import org.sat4j.core.VecInt;
+import org.sat4j.pb.tools.PBLocalSearch;
 import org.sat4j.specs.ContradictionException;
 import org.sat4j.specs.IConstr;
 import org.sat4j.specs.IOptimizationProblem;
+import org.sat4j.specs.IVec;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
+import org.sat4j.tools.encoding.GeneralizedTotalizer;
 
 /**
  * A decorator that computes minimal pseudo boolean models.
@@ -73,6 +77,51 @@ public class PseudoOptDecorator extends PBSolverDecorator
 
     private int optimizationTimeout = -1;
 
+    /**
+     * the greatest number of bits of the weights of the generalized totalizer,
+     * so that their sums fit in a long.
+     */
+    private static final int MAX_WEIGHT_BITS = 61;
+
+    private BoundStrategy boundStrategy = BoundStrategy.LINEAR;
+
+    /**
+     * no solution has a value lower than the lower bound (without correction).
+     */
+    private BigInteger lowerBound;
+
+    /**
+     * the assumptions under which the lower bound was proved.
+     */
+    private IVecInt lowerBoundAssumps;
+
+    private int nbFailedBounds;
+
+    private boolean useGeneralizedTotalizer;
+
+    private GeneralizedTotalizer totalizer;
+
+    /**
+     * the negation of the totalizer output bounding the objective function, 0
+     * if there is no bound.
+     */
+    private int boundLiteral;
+
+    private boolean useLocalSearch;
+
+    private transient PBLocalSearch localSearch;
+
+    /**
+     * the problem the local search was created on: its constraints are a
+     * snapshot, so its solutions are only adopted while the problem is the
+     * same.
+     */
+    private int localSearchNVars;
+
+    private int localSearchNConstraints;
+
+    private ObjectiveFunction localSearchObjective;
+
     /**
      * Create a PB decorator for which a non optimal solution means that the
      * problem is satisfiable.
@@ -163,8 +212,23 @@ public class PseudoOptDecorator extends PBSolverDecorator
         return isSatisfiable(assumps, false);
     }
 
+    /**
+     * The bounds found for the previous objective function are forgotten.
+     */
     @Override
     public void setObjectiveFunction(ObjectiveFunction objf) {
+        if (this.previousPBConstr != null) {
+            decorated().removeConstr(this.previousPBConstr);
+            this.previousPBConstr = null;
+        }
+        this.objectiveValue = null;
+        this.isSolutionOptimal = false;
+        this.lowerBound = null;
+        this.lowerBoundAssumps = null;
+        this.nbFailedBounds = 0;
+        // the totalizer encodes the previous objective function
+        this.totalizer = null;
+        this.boundLiteral = 0;
         decorated().setObjectiveFunction(objf);
     }
 
@@ -176,7 +240,25 @@ public class PseudoOptDecorator extends PBSolverDecorator
             throws TimeoutException {
         try {
             this.isSolutionOptimal = false;
-            boolean result = super.isSatisfiable(assumps, true);
+            if (this.localSearch != null && assumps.isEmpty()
+                    && adoptLocalSearchSolution()) {
+                return true;
+            }
+            boolean result;
+            if (this.boundStrategy == BoundStrategy.LINEAR
+                    || this.objectiveValue == null
+                    || decorated().getObjectiveFunction() == null) {
+                if (this.boundLiteral == 0) {
+                    result = super.isSatisfiable(assumps, true);
+                } else {
+                    IVecInt boundedAssumps = new VecInt(assumps.size() + 1);
+                    assumps.copyTo(boundedAssumps);
+                    boundedAssumps.push(this.boundLiteral);
+                    result = super.isSatisfiable(boundedAssumps, true);
+                }
+            } else {
+                result = isSatisfiableWithinBounds(assumps);
+            }
             if (result) {
                 if (this.useAnImplicantForEvaluation) {
                     this.prevmodel = modelWithAdaptedNonPrimeLiterals();
@@ -192,6 +274,9 @@ public class PseudoOptDecorator extends PBSolverDecorator
                 }
                 if (decorated().getObjectiveFunction() != null) {
                     calculateObjective();
+                    if (this.useLocalSearch && assumps.isEmpty()) {
+                        seedLocalSearch();
+                    }
                 }
                 if (optimizationTimeout > 0) {
                     super.expireTimeout();
@@ -199,6 +284,7 @@ public class PseudoOptDecorator extends PBSolverDecorator
                 }
             } else {
                 this.isSolutionOptimal = true;
+                stopLocalSearch();
                 if (this.previousPBConstr != null) {
                     decorated().removeConstr(this.previousPBConstr);
                     this.previousPBConstr = null;
@@ -206,6 +292,7 @@ public class PseudoOptDecorator extends PBSolverDecorator
             }
             return result;
         } catch (TimeoutException te) {
+            stopLocalSearch();
             if (this.previousPBConstr != null) {
                 decorated().removeConstr(this.previousPBConstr);
                 this.previousPBConstr = null;
@@ -214,6 +301,219 @@ public class PseudoOptDecorator extends PBSolverDecorator
         }
     }
 
+    /**
+     * Seed the local search with the solution found by the solver, and use
+     * the solution of the local search if it is better.
+     */
+    private void seedLocalSearch() {
+        if (this.localSearch != null && !isLocalSearchUpToDate()) {
+            stopLocalSearch();
+        }
+        if (this.localSearch == null) {
+            ObjectiveFunction obj = decorated().getObjectiveFunction();
+            this.localSearch = PBLocalSearch.create(decorated(), obj);
+            if (this.localSearch == null) {
+                this.useLocalSearch = false;
+                return;
+            }
+            this.localSearchNVars = nVars();
+            this.localSearchNConstraints = nConstraints();
+            this.localSearchObjective = obj;
+        }
+        this.localSearch.seed(this.prevmodelwithadditionalvars);
+        adoptLocalSearchSolution();
+    }
+
+    /**
+     * Replace the current solution by the best solution found by the local
+     * search, if it is better.
+     * 
+     * @return true iff the current solution was replaced.
+     */
+    private boolean adoptLocalSearchSolution() {
+        if (!isLocalSearchUpToDate()) {
+            // constraints or variables were added since the snapshot
+            stopLocalSearch();
+            return false;
+        }
+        int[] model = this.localSearch.getBestModel();
+        if (model == null) {
+            return false;
+        }
+        ObjectiveFunction obj = decorated().getObjectiveFunction();
+        BigInteger value = BigInteger.ZERO;
+        for (int i = 0; i < obj.getVars().size(); i++) {
+            int x = obj.getVars().get(i);
+            if (model[Math.abs(x) - 1] == x) {
+                value = value.add(obj.getCoeffs().get(i));
+            }
+        }
+        if (this.objectiveValue != null
+                && value.compareTo(this.objectiveValue) >= 0) {
+            return false;
+        }
+        this.prevmodel = new int[nVars()];
+        this.prevfullmodel = new boolean[nVars()];
+        IVecInt blockingClause = new VecInt(nVars());
+        for (int i = 0; i < nVars(); i++) {
+            this.prevmodel[i] = model[i];
+            this.prevfullmodel[i] = model[i] > 0;
+            blockingClause.push(-model[i]);
+        }
+        this.prevModelBlockingClause = blockingClause;
+        this.prevmodelwithadditionalvars = model;
+        this.objectiveValue = value;
+        return true;
+    }
+
+    /**
+     * Check that no variable, constraint or objective function was set since
+     * the local search took its snapshot of the problem. A bound on the
+     * objective function replacing another one does not matter, since only
+     * better solutions are adopted.
+     */
+    private boolean isLocalSearchUpToDate() {
+        return this.localSearchNVars == nVars()
+                && this.localSearchNConstraints == nConstraints()
+                && this.localSearchObjective == decorated()
+                        .getObjectiveFunction();
+    }
+
+    private void stopLocalSearch() {
+        if (this.localSearch != null) {
+            this.localSearch.stop();
+            this.localSearch = null;
+        }
+    }
+
+    /**
+     * Look for a solution better than the current one, using bounds chosen by
+     * the bound strategy between the lower bound and the value of the current
+     * solution. Each bound is enforced either by assuming the negation of an
+     * output of the generalized totalizer, or by a constraint guarded by a new
+     * variable, that is assumed during the search and falsified afterwards. The
+     * constraint is not removed, since removing a constraint would clear the
+     * learnt clauses.
+     * 
+     * @param assumps
+     *            the assumptions of the search.
+     * @return true iff a better solution has been found, false iff the current
+     *         solution is optimal.
+     * @throws TimeoutException
+     */
+    private boolean isSatisfiableWithinBounds(IVecInt assumps)
+            throws TimeoutException {
+        ObjectiveFunction obj = decorated().getObjectiveFunction();
+        if (this.lowerBound == null
+                || !this.lowerBoundAssumps.equals(assumps)) {
+            // a bound proved under other assumptions may not hold
+            this.lowerBound = obj.minValue();
+            this.nbFailedBounds = 0;
+            this.lowerBoundAssumps = new VecInt(assumps.size());
+            assumps.copyTo(this.lowerBoundAssumps);
+        }
+        BigInteger maxValue = obj.maxValue();
+        IVecInt guardedAssumps = new VecInt(assumps.size() + 1);
+        while (this.lowerBound.compareTo(this.objectiveValue) < 0) {
+            BigInteger bound = this.boundStrategy.nextBound(this.lowerBound,
+                    this.objectiveValue, this.nbFailedBounds);
+            guardedAssumps.clear();
+            assumps.copyTo(guardedAssumps);
+            boolean result;
+            if (encodeBounds(obj)) {
+                int output = this.totalizer.getOutputAbove(bound.subtract(
+                        obj.minValue()).longValue());
+                if (output != 0) {
+                    guardedAssumps.push(-output);
+                }
+                result = decorated().isSatisfiable(guardedAssumps, true);
+            } else {
+                result = isSatisfiableWithGuardedBound(obj, maxValue, bound,
+                        guardedAssumps);
+            }
+            if (result) {
+                this.nbFailedBounds = 0;
+                return true;
+            }
+            this.nbFailedBounds++;
+            this.lowerBound = bound.add(BigInteger.ONE);
+        }
+        return false;
+    }
+
+    private boolean isSatisfiableWithGuardedBound(ObjectiveFunction obj,
+            BigInteger maxValue, BigInteger bound, IVecInt guardedAssumps)
+            throws TimeoutException {
+        int guard = decorated().nextFreeVarId(true);
+        IVecInt literals = new VecInt(obj.getVars().size() + 1);
+        obj.getVars().copyTo(literals);
+        literals.push(guard);
+        IVec<BigInteger> coeffs = new Vec<BigInteger>(
+                obj.getCoeffs().size() + 1);
+        obj.getCoeffs().copyTo(coeffs);
+        coeffs.push(maxValue.subtract(bound));
+        guardedAssumps.push(guard);
+        try {
+            // guard implies obj <= bound
+            decorated().addPseudoBoolean(literals, coeffs, false, maxValue);
+            return decorated().isSatisfiable(guardedAssumps, true);
+        } catch (ContradictionException e) {
+            return false;
+        } finally {
+            retractBound(guard);
+        }
+    }
+
+    /**
+     * Builds the generalized totalizer of the objective function if needed,
+     * with the value of the current solution as bound.
+     * 
+     * @param obj
+     *            the objective function
+     * @return true iff the bounds are enforced by the generalized totalizer.
+     */
+    private boolean encodeBounds(ObjectiveFunction obj) {
+        if (!this.useGeneralizedTotalizer || this.totalizer != null) {
+            return this.totalizer != null;
+        }
+        // a negative coefficient c for a literal l is the coefficient -c of
+        // its negation plus the constant c, which is part of minValue()
+        IVecInt literals = new VecInt(obj.getVars().size());
+        long[] weights = new long[obj.getVars().size()];
+        for (int i = 0; i < weights.length; i++) {
+            BigInteger coeff = obj.getCoeffs().get(i);
+            if (coeff.bitLength() > MAX_WEIGHT_BITS) {
+                // the sums of the weights would not fit in a long
+                this.useGeneralizedTotalizer = false;
+                return false;
+            }
+            weights[i] = coeff.abs().longValue();
+            literals.push(coeff.signum() < 0 ? -obj.getVars().get(i)
+                    : obj.getVars().get(i));
+        }
+        BigInteger bound = this.objectiveValue.subtract(BigInteger.ONE)
+                .subtract(obj.minValue());
+        if (bound.signum() < 0 || bound.bitLength() > MAX_WEIGHT_BITS) {
+            this.useGeneralizedTotalizer = false;
+            return false;
+        }
+        this.totalizer = new GeneralizedTotalizer(new HardClauses(
+                decorated()), literals, weights, bound.longValue());
+        return true;
+    }
+
+    private void retractBound(int guard) {
+        // not a clause: it could be a soft clause for the decorated solver
+        IVec<BigInteger> coeffs = new Vec<BigInteger>(1);
+        coeffs.push(BigInteger.ONE);
+        try {
+            decorated().addPseudoBoolean(new VecInt(new int[] { guard }),
+                    coeffs, false, BigInteger.ZERO);
+        } catch (ContradictionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private int[] modelWithAdaptedNonPrimeLiterals() {
         // do not use model() because it might contain holes.
         int[] completeModel = new int[nVars()];
@@ -269,7 +569,23 @@ public class PseudoOptDecorator extends PBSolverDecorator
             super.removeSubsumedConstr(this.previousPBConstr);
         }
         if (decorated().getObjectiveFunction() != null
-                && this.objectiveValue != null) {
+                && this.objectiveValue != null
+                && this.boundStrategy == BoundStrategy.LINEAR
+                && encodeBounds(decorated().getObjectiveFunction())) {
+            BigInteger bound = this.objectiveValue.subtract(BigInteger.ONE)
+                    .subtract(decorated().getObjectiveFunction().minValue());
+            if (bound.signum() < 0) {
+                throw new ContradictionException("No better solution");
+            }
+            this.boundLiteral = -this.totalizer.getOutputAbove(bound
+                    .longValue());
+            return;
+        }
+        // the other bound strategies bound the objective function while
+        // looking for a better solution
+        if (decorated().getObjectiveFunction() != null
+                && this.objectiveValue != null
+                && this.boundStrategy == BoundStrategy.LINEAR) {
             this.previousPBConstr = super.addPseudoBoolean(
                     decorated().getObjectiveFunction().getVars(),
                     decorated().getObjectiveFunction().getCoeffs(), false,
@@ -277,9 +593,87 @@ public class PseudoOptDecorator extends PBSolverDecorator
         }
     }
 
+    /**
+     * Set the way the bound on the objective function is chosen when looking
+     * for a better solution. With a strategy other than
+     * {@link BoundStrategy#LINEAR}, the lower bound proved during the search
+     * is kept from one call to the next, as long as the assumptions do not
+     * change.
+     * 
+     * @param boundStrategy
+     *            the bound strategy, {@link BoundStrategy#LINEAR} by default.
+     * @since 2.3.6
+     */
+    public void setBoundStrategy(BoundStrategy boundStrategy) {
+        this.boundStrategy = boundStrategy;
+    }
+
+    public BoundStrategy getBoundStrategy() {
+        return this.boundStrategy;
+    }
+
+    /**
+     * Bound the objective function using a generalized totalizer instead of
+     * PB constraints. The encoding is built once, from the value of the first
+     * solution, and each bound is enforced by assuming the negation of one of
+     * its outputs. It allows to optimize with solvers handling only clauses,
+     * but its size depends on the number of distinct sums of the
+     * coefficients of the objective function: PB constraints are used when
+     * they do not fit in a long.
+     * 
+     * @param useGeneralizedTotalizer
+     *            true to use a generalized totalizer, false (the default) to
+     *            use PB constraints.
+     * @since 2.3.6
+     */
+    public void setUseGeneralizedTotalizer(boolean useGeneralizedTotalizer) {
+        this.useGeneralizedTotalizer = useGeneralizedTotalizer;
+    }
+
+    public boolean isUseGeneralizedTotalizer() {
+        return this.useGeneralizedTotalizer;
+    }
+
+    /**
+     * Run a stochastic local search next to the solver, on its own thread. The
+     * local search starts from the solutions found by the solver, and its
+     * improved solutions are used as new upper bounds each time a better
+     * solution is requested: the best of both solutions is kept. The local
+     * search is only used when there are no assumptions, and is stopped when
+     * the optimal solution is found, on timeout or when the solver is reset.
+     * 
+     * @param useLocalSearch
+     *            true to use a local search, false (the default) otherwise.
+     * @see PBLocalSearch
+     * @since 2.3.6
+     */
+    public void setUseLocalSearch(boolean useLocalSearch) {
+        this.useLocalSearch = useLocalSearch;
+        if (!useLocalSearch) {
+            stopLocalSearch();
+        }
+    }
+
+    public boolean isUseLocalSearch() {
+        return this.useLocalSearch;
+    }
+
+    @Override
+    public void expireTimeout() {
+        stopLocalSearch();
+        super.expireTimeout();
+    }
+
     @Override
     public void reset() {
         this.previousPBConstr = null;
+        this.objectiveValue = null;
+        this.lowerBound = null;
+        this.lowerBoundAssumps = null;
+        this.nbFailedBounds = 0;
+        this.totalizer = null;
+        this.boundLiteral = 0;
+        stopLocalSearch();
         super.reset();
     }
 
@@ -301,6 +695,16 @@ public class PseudoOptDecorator extends PBSolverDecorator
     @Override
     public String toString(String prefix) {
         return prefix + "Pseudo Boolean Optimization by upper bound\n"
+                + (useGeneralizedTotalizer
+                        ? prefix + "using a generalized totalizer for the bounds\n"
+                        : "")
+                + (useLocalSearch
+                        ? prefix + "using a local search to improve the solutions\n"
+                        : "")
+                + (boundStrategy != BoundStrategy.LINEAR
+                        ? prefix + "using " + boundStrategy
+                                + " bound strategy\n"
+                        : "")
                 + (useAnImplicantForEvaluation
                         ? prefix + "using prime implicants for evaluating the objective function\n"
                         : "")
@@ -356,4 +760,24 @@ public class PseudoOptDecorator extends PBSolverDecorator
     public IConstr discardCurrentModel() throws ContradictionException {
         return addBlockingClause(this.prevModelBlockingClause);
     }
+
+    /**
+     * Adds the clauses of an encoding as constraints that cannot be soft,
+     * since the decorated solver may consider clauses as soft constraints
+     * (e.g. a maxsat decorator).
+     */
+    private static final class HardClauses extends PBSolverDecorator {
+
+        private static final long serialVersionUID = 1L;
+
+        HardClauses(IPBSolver solver) {
+            super(solver);
+        }
+
+        @Override
+        public IConstr addClause(IVecInt literals)
+                throws ContradictionException {
+            return decorated().addAtLeast(literals, 1);
+        }
+    }
 }
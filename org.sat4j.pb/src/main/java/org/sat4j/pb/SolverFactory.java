@@ -62,6 +62,7 @@ import org.sat4j.pb.constraints.PBMinDataStructure;
 import org.sat4j.pb.constraints.PuebloPBMinClauseAtLeastConstrDataStructure;
 import org.sat4j.pb.constraints.PuebloPBMinClauseCardConstrDataStructure;
 import org.sat4j.pb.constraints.PuebloPBMinDataStructure;
+import org.sat4j.pb.constraints.pb.LongConflictMap;
 import org.sat4j.pb.core.PBDataStructureFactory;
 import org.sat4j.pb.core.PBSolver;
 import org.sat4j.pb.core.PBSolverCP;
@@ -732,6 +733,21 @@ public final class SolverFactory extends ASolverFactory<IPBSolver> {
         return newCompetPBCPMixedConstraintsObjective();
     }
 
+    /**
+     * Cutting Planes based solver performing the conflict analysis with longs
+     * as long as the coefficients fit in them, and with BigIntegers once an
+     * overflow occurs.
+     * 
+     * @return the best available cutting planes based solver of the library,
+     *         using long arithmetic during conflict analysis.
+     * @since 2.3.6
+     */
+    public static PBSolverCP newCuttingPlanesLongArithmetic() {
+        PBSolverCP solver = newCuttingPlanes();
+        solver.setConflictFactory(LongConflictMap.factory());
+        return solver;
+    }
+
     public static IPBSolver newCuttingPlanesWatched() {
         return newCompetPBCPMixedConstraintsMinObjective();
     }
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.pb.constraints.pb;
+
+import org.sat4j.minisat.core.ILits;
+
+/**
+ * Weakening strategy which is also able to weaken a constraint whose
+ * coefficients are computed with longs.
+ * 
+ * {@link LongConflictMap} uses that version when it is available, and works on
+ * BigIntegers otherwise.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+abstract class AbstractWeakeningStrategy implements IWeakeningStrategy {
+
+    /**
+     * Same as
+     * {@link #findLiteralToRemove(ILits, IWatchPb, java.math.BigInteger[], int, java.math.BigInteger)}
+     * for coefficients computed with longs.
+     */
+    abstract int findLiteralToRemove(ILits voc, IWatchPb wpb,
+            final long[] coefsBis, final int indLitImplied,
+            final long degreeBis);
+}
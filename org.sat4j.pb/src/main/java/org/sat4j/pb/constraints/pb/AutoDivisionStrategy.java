@@ -48,6 +48,11 @@ public enum AutoDivisionStrategy {
         boolean isCardinality(InternalMapPBStructure weightedLits) {
             return false;
         }
+
+        @Override
+        boolean isCardinality(long[] coefs, int size) {
+            return false;
+        }
     },
 
     /**
@@ -64,6 +69,16 @@ public enum AutoDivisionStrategy {
             }
             return true;
         }
+
+        @Override
+        boolean isCardinality(long[] coefs, int size) {
+            for (int i = 1; i < size; i++) {
+                if (coefs[i] != coefs[0]) {
+                    return false;
+                }
+            }
+            return true;
+        }
     };
 
     /**
@@ -76,6 +91,19 @@ public enum AutoDivisionStrategy {
      */
     abstract boolean isCardinality(InternalMapPBStructure weightedLits);
 
+    /**
+     * Checks out if the constraint represented by the first {@code size}
+     * coefficients of {@code coefs} is a cardinality constraint.
+     * 
+     * @param coefs
+     *            The coefficients of the constraint.
+     * @param size
+     *            The number of coefficients to consider.
+     * @return If the constraint is a cardinality constraint.
+     * @see LongConflictMap
+     */
+    abstract boolean isCardinality(long[] coefs, int size);
+
     /*
      * (non-Javadoc)
      * 
@@ -31,11 +31,13 @@ package org.sat4j.pb.constraints.pb;
 
 import java.math.BigInteger;
 
+import org.sat4j.core.Vec;
 import org.sat4j.core.VecInt;
 import org.sat4j.minisat.constraints.cnf.Lits;
 import org.sat4j.minisat.core.ILits;
 import org.sat4j.minisat.core.VarActivityListener;
 import org.sat4j.pb.core.PBSolverStats;
+import org.sat4j.specs.IVec;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.IteratorInt;
 
@@ -51,8 +53,8 @@ public class ConflictMap extends MapPb implements IConflict {
 
     protected boolean hasBeenReduced = false;
     protected long numberOfReductions = 0;
-    private boolean allowSkipping = false;
-    private boolean endingSkipping = true;
+    final boolean allowSkipping;
+    boolean endingSkipping = true;
     /**
      * to store the slack of the current resolvant
      */
@@ -71,6 +73,11 @@ public class ConflictMap extends MapPb implements IConflict {
      */
     protected VecInt[] byLevel;
 
+    /**
+     * memory shared with the previous conflicts of the solver.
+     */
+    final ConflictWorkspace workspace;
+
     /**
      * constructs the data structure needed to perform cutting planes
      * 
@@ -84,9 +91,10 @@ public class ConflictMap extends MapPb implements IConflict {
     public static IConflict createConflict(PBConstr cpb, int level,
             boolean noRemove, boolean skip, IPostProcess postProcessing,
             IWeakeningStrategy weakeningStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
         return new ConflictMap(cpb, level, noRemove, skip, postProcessing,
-                weakeningStrategy, autoDivisionStrategy, stats);
+                weakeningStrategy, autoDivisionStrategy, stats, workspace);
     }
 
     public static IConflictFactory factory() {
@@ -96,10 +104,10 @@ public class ConflictMap extends MapPb implements IConflict {
                     boolean noRemove, boolean skip, IPostProcess postprocess,
                     IWeakeningStrategy weakeningStrategy,
                     AutoDivisionStrategy autoDivisionStrategy,
-                    PBSolverStats stats) {
+                    PBSolverStats stats, ConflictWorkspace workspace) {
                 return ConflictMap.createConflict(cpb, level, noRemove, skip,
                         postprocess, weakeningStrategy, autoDivisionStrategy,
-                        stats);
+                        stats, workspace);
             }
 
             @Override
@@ -112,31 +120,61 @@ public class ConflictMap extends MapPb implements IConflict {
     ConflictMap(PBConstr cpb, int level) {
         this(cpb, level, false, false, NoPostProcess.instance(),
                 IWeakeningStrategy.UNASSIGNED_FIRST,
-                AutoDivisionStrategy.ENABLED, null);
+                AutoDivisionStrategy.ENABLED, null, new ConflictWorkspace());
     }
 
     ConflictMap(PBConstr cpb, int level, boolean noRemove) {
         this(cpb, level, noRemove, false, NoPostProcess.instance(),
                 IWeakeningStrategy.UNASSIGNED_FIRST,
-                AutoDivisionStrategy.ENABLED, null);
+                AutoDivisionStrategy.ENABLED, null, new ConflictWorkspace());
     }
 
     ConflictMap(PBConstr cpb, int level, boolean noRemove, boolean skip,
             PBSolverStats stats) {
         this(cpb, level, noRemove, skip, NoPostProcess.instance(),
                 IWeakeningStrategy.UNASSIGNED_FIRST,
-                AutoDivisionStrategy.ENABLED, stats);
+                AutoDivisionStrategy.ENABLED, stats, new ConflictWorkspace());
     }
 
     ConflictMap(PBConstr cpb, int level, boolean noRemove, boolean skip,
             IPostProcess postProcessing, IWeakeningStrategy weakeningStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
-        super(cpb, level, noRemove, autoDivisionStrategy);
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
+        this(cpb.getVocabulary(),
+                new InternalMapPBStructure(cpb, level, noRemove, workspace),
+                level, noRemove, skip, postProcessing, weakeningStrategy,
+                autoDivisionStrategy, stats, workspace);
+        initStructures();
+    }
+
+    /**
+     * Builds an empty conflict, for a subclass which represents the literals
+     * and coefficients of the conflict on its own until it stores them here.
+     * The subclass is responsible for the byLevel structure and the slack.
+     * 
+     * @see LongConflictMap
+     */
+    ConflictMap(ILits voc, int level, boolean noRemove, boolean skip,
+            IPostProcess postProcessing, IWeakeningStrategy weakeningStrategy,
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
+        this(voc, new InternalMapPBStructure(workspace, new VecInt(),
+                new Vec<BigInteger>(), BigInteger.ZERO), level, noRemove,
+                skip, postProcessing, weakeningStrategy, autoDivisionStrategy,
+                stats, workspace);
+    }
+
+    private ConflictMap(ILits voc, InternalMapPBStructure weightedLits,
+            int level, boolean noRemove, boolean skip,
+            IPostProcess postProcessing, IWeakeningStrategy weakeningStrategy,
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
+        super(weightedLits, autoDivisionStrategy);
         this.stats = stats;
         this.allowSkipping = skip;
-        this.voc = cpb.getVocabulary();
+        this.voc = voc;
         this.currentLevel = level;
-        initStructures();
+        this.workspace = workspace;
 
         this.postProcess = postProcessing;
         this.weakeningStrategy = weakeningStrategy;
@@ -149,8 +187,9 @@ public class ConflictMap extends MapPb implements IConflict {
     private void initStructures() {
         this.currentSlack = BigInteger.ZERO;
         this.sumAllCoefs = BigInteger.ZERO;
-        this.byLevel = new VecInt[levelToIndex(this.currentLevel) + 1];
-        int ilit, litLevel, index;
+        this.byLevel = this.workspace
+                .byLevel(levelToIndex(this.currentLevel) + 1);
+        int ilit, litLevel;
         BigInteger tmp;
         for (int i = 0; i < size(); i++) {
             ilit = this.weightedLits.getLit(i);
@@ -163,11 +202,7 @@ public class ConflictMap extends MapPb implements IConflict {
                 this.currentSlack = this.currentSlack.add(tmp);
             }
             // add to byLevel structure
-            index = levelToIndex(litLevel);
-            if (this.byLevel[index] == null) {
-                this.byLevel[index] = new VecInt();
-            }
-            this.byLevel[index].push(ilit);
+            addToLevel(ilit, litLevel);
         }
     }
 
@@ -245,9 +280,9 @@ public class ConflictMap extends MapPb implements IConflict {
 
     };
 
-    private final IPostProcess postProcess;
+    final IPostProcess postProcess;
 
-    private final IWeakeningStrategy weakeningStrategy;
+    final IWeakeningStrategy weakeningStrategy;
 
     public void postProcess(int dl) {
         this.postProcess.postProcess(dl, this);
@@ -275,46 +310,14 @@ public class ConflictMap extends MapPb implements IConflict {
         assert litImplied > 1;
         int nLitImplied = litImplied ^ 1;
         if (cpb == null || !this.weightedLits.containsKey(nLitImplied)) {
-            // no resolution
-            // undo operation should be anticipated
-            int litLevel = levelToIndex(this.voc.getLevel(litImplied));
-            int lit = 0;
-            if (this.byLevel[litLevel] != null) {
-                if (this.byLevel[litLevel].contains(litImplied)) {
-                    lit = litImplied;
-                    assert this.weightedLits.containsKey(litImplied);
-                } else if (this.byLevel[litLevel].contains(nLitImplied)) {
-                    lit = nLitImplied;
-                    assert this.weightedLits.containsKey(nLitImplied);
-                }
-            }
-
-            if (lit > 0) {
-                this.byLevel[litLevel].remove(lit);
-                if (this.byLevel[0] == null) {
-                    this.byLevel[0] = new VecInt();
-                }
-                this.byLevel[0].push(lit);
-            }
+            noResolution(litImplied);
             return this.degree;
         }
 
         if (this.allowSkipping) {
             if (this.weightedLits.get(nLitImplied).negate()
                     .compareTo(slackConflict()) > 0) {
-                if (this.endingSkipping)
-                    stats.incNumberOfEndingSkipping();
-                else
-                    stats.incNumberOfInternalSkipping();
-
-                // no resolution
-                // undo operation should be anticipated
-                int litLevel = levelToIndex(this.voc.getLevel(litImplied));
-                this.byLevel[litLevel].remove(nLitImplied);
-                if (this.byLevel[0] == null) {
-                    this.byLevel[0] = new VecInt();
-                }
-                this.byLevel[0].push(nLitImplied);
+                skipResolution(litImplied);
                 assert slackConflict().signum() < 0;
                 return this.degree;
             } else
@@ -420,6 +423,82 @@ public class ConflictMap extends MapPb implements IConflict {
         return this.degree;
     }
 
+    /**
+     * anticipates the undo operation on a literal which is not resolved
+     * because its negation does not appear in the conflict: the literal of
+     * the conflict on that variable, if any, is moved to the unassigned level.
+     * 
+     * @param litImplied
+     *            the literal implied by the reason
+     */
+    void noResolution(int litImplied) {
+        int nLitImplied = litImplied ^ 1;
+        int litLevel = levelToIndex(this.voc.getLevel(litImplied));
+        int lit = 0;
+        if (this.byLevel[litLevel] != null) {
+            if (this.byLevel[litLevel].contains(litImplied)) {
+                lit = litImplied;
+                assert this.weightedLits.containsKey(litImplied);
+            } else if (this.byLevel[litLevel].contains(nLitImplied)) {
+                lit = nLitImplied;
+                assert this.weightedLits.containsKey(nLitImplied);
+            }
+        }
+        if (lit > 0) {
+            moveToUnassigned(litLevel, lit);
+        }
+    }
+
+    /**
+     * skips the resolution of a literal whose negation appears in the
+     * conflict, which remains conflicting without it.
+     * 
+     * @param litImplied
+     *            the literal implied by the reason
+     */
+    void skipResolution(int litImplied) {
+        if (this.endingSkipping)
+            stats.incNumberOfEndingSkipping();
+        else
+            stats.incNumberOfInternalSkipping();
+        // no resolution
+        // undo operation should be anticipated
+        moveToUnassigned(levelToIndex(this.voc.getLevel(litImplied)),
+                litImplied ^ 1);
+    }
+
+    /**
+     * moves a literal of the conflict to the level "unassigned".
+     * 
+     * @param indLitLevel
+     *            the index of the current level of the literal in byLevel
+     * @param lit
+     *            a literal of the conflict
+     */
+    void moveToUnassigned(int indLitLevel, int lit) {
+        this.byLevel[indLitLevel].remove(lit);
+        if (this.byLevel[0] == null) {
+            this.byLevel[0] = this.workspace.level(0);
+        }
+        this.byLevel[0].push(lit);
+    }
+
+    /**
+     * adds a literal of the conflict to the byLevel structure.
+     * 
+     * @param lit
+     *            a literal of the conflict
+     * @param litLevel
+     *            the decision level of that literal
+     */
+    void addToLevel(int lit, int litLevel) {
+        int index = levelToIndex(litLevel);
+        if (this.byLevel[index] == null) {
+            this.byLevel[index] = this.workspace.level(index);
+        }
+        this.byLevel[index].push(lit);
+    }
+
     void divideCoefs() {
     }
 
@@ -902,16 +981,11 @@ public class ConflictMap extends MapPb implements IConflict {
                     .subtract(this.weightedLits.get(lit));
         }
         this.sumAllCoefs = this.sumAllCoefs.add(newValue);
-        int indLitLevel = levelToIndex(litLevel);
         if (!this.weightedLits.containsKey(lit)) {
-            if (this.byLevel[indLitLevel] == null) {
-                this.byLevel[indLitLevel] = new VecInt();
-            }
-            this.byLevel[indLitLevel].push(lit);
-
+            addToLevel(lit, litLevel);
         }
-        assert this.byLevel[indLitLevel] != null;
-        assert this.byLevel[indLitLevel].contains(lit);
+        assert this.byLevel[levelToIndex(litLevel)] != null;
+        assert this.byLevel[levelToIndex(litLevel)].contains(lit);
         super.setCoef(lit, newValue);
     }
 
@@ -1006,12 +1080,8 @@ public class ConflictMap extends MapPb implements IConflict {
         assert indLitLevel < this.byLevel.length;
         if (this.byLevel[indLitLevel] != null
                 && this.byLevel[indLitLevel].contains(lit)) {
-            this.byLevel[indLitLevel].remove(lit);
             // then lit is added at the level "unassigned"
-            if (this.byLevel[0] == null) {
-                this.byLevel[0] = new VecInt();
-            }
-            this.byLevel[0].push(lit);
+            moveToUnassigned(indLitLevel, lit);
         }
 
     }
@@ -7,17 +7,20 @@ public class ConflictMapReduceByGCD extends ConflictMap {
     public ConflictMapReduceByGCD(PBConstr cpb, int level, boolean noRemove,
             boolean skip, IPostProcess postProcessing,
             IWeakeningStrategy weakeningStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
         super(cpb, level, noRemove, skip, postProcessing, weakeningStrategy,
-                autoDivisionStrategy, stats);
+                autoDivisionStrategy, stats, workspace);
     }
 
     public static IConflict createConflict(PBConstr cpb, int level,
             boolean noRemove, boolean skip, IPostProcess postprocess,
             IWeakeningStrategy weakeningStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
         return new ConflictMapReduceByGCD(cpb, level, noRemove, skip,
-                postprocess, weakeningStrategy, autoDivisionStrategy, stats);
+                postprocess, weakeningStrategy, autoDivisionStrategy, stats,
+                workspace);
     }
 
     public static IConflictFactory factory() {
@@ -27,10 +30,10 @@ public class ConflictMapReduceByGCD extends ConflictMap {
                     boolean noRemove, boolean skip, IPostProcess postprocess,
                     IWeakeningStrategy weakeningStrategy,
                     AutoDivisionStrategy autoDivisionStrategy,
-                    PBSolverStats stats) {
+                    PBSolverStats stats, ConflictWorkspace workspace) {
                 return ConflictMapReduceByGCD.createConflict(cpb, level,
                         noRemove, skip, postprocess, weakeningStrategy,
-                        autoDivisionStrategy, stats);
+                        autoDivisionStrategy, stats, workspace);
             }
 
             @Override
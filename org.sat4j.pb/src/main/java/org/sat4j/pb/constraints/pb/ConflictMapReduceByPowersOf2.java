@@ -7,17 +7,20 @@ public class ConflictMapReduceByPowersOf2 extends ConflictMap {
     public ConflictMapReduceByPowersOf2(PBConstr cpb, int level,
             boolean noRemove, boolean skip,
             IWeakeningStrategy weakeningStrategy, IPostProcess postProcessing,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
         super(cpb, level, noRemove, skip, postProcessing, weakeningStrategy,
-                autoDivisionStrategy, stats);
+                autoDivisionStrategy, stats, workspace);
     }
 
     public static IConflict createConflict(PBConstr cpb, int level,
             boolean noRemove, boolean skip, IPostProcess postprocess,
             IWeakeningStrategy weakeningStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
         return new ConflictMapReduceByPowersOf2(cpb, level, noRemove, skip,
-                weakeningStrategy, postprocess, autoDivisionStrategy, stats);
+                weakeningStrategy, postprocess, autoDivisionStrategy, stats,
+                workspace);
     }
 
     public static IConflictFactory factory() {
@@ -27,10 +30,10 @@ public class ConflictMapReduceByPowersOf2 extends ConflictMap {
                     boolean noRemove, boolean skip, IPostProcess postprocess,
                     IWeakeningStrategy weakeningStrategy,
                     AutoDivisionStrategy autoDivisionStrategy,
-                    PBSolverStats stats) {
+                    PBSolverStats stats, ConflictWorkspace workspace) {
                 return ConflictMapReduceByPowersOf2.createConflict(cpb, level,
                         noRemove, skip, postprocess, weakeningStrategy,
-                        autoDivisionStrategy, stats);
+                        autoDivisionStrategy, stats, workspace);
             }
 
             @Override
@@ -21,17 +21,20 @@ public class ConflictMapReduceToCard extends ConflictMap {
     public ConflictMapReduceToCard(PBConstr cpb, int level, boolean noRemove,
             boolean skip, IPostProcess postprocess,
             IWeakeningStrategy weakeningStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
         super(cpb, level, noRemove, skip, postprocess, weakeningStrategy,
-                autoDivisionStrategy, stats);
+                autoDivisionStrategy, stats, workspace);
     }
 
     public static IConflict createConflict(PBConstr cpb, int level,
             boolean noRemove, boolean skip, IPostProcess postprocess,
             IWeakeningStrategy weakeningStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
         return new ConflictMapReduceToCard(cpb, level, noRemove, skip,
-                postprocess, weakeningStrategy, autoDivisionStrategy, stats);
+                postprocess, weakeningStrategy, autoDivisionStrategy, stats,
+                workspace);
     }
 
     public static IConflictFactory factory() {
@@ -41,10 +44,10 @@ public class ConflictMapReduceToCard extends ConflictMap {
                     boolean noRemove, boolean skip, IPostProcess postprocess,
                     IWeakeningStrategy weakeningStrategy,
                     AutoDivisionStrategy autoDivisionStrategy,
-                    PBSolverStats stats) {
+                    PBSolverStats stats, ConflictWorkspace workspace) {
                 return ConflictMapReduceToCard.createConflict(cpb, level,
                         noRemove, skip, postprocess, weakeningStrategy,
-                        autoDivisionStrategy, stats);
+                        autoDivisionStrategy, stats, workspace);
             }
 
             @Override
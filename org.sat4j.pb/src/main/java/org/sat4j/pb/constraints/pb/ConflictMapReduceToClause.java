@@ -38,17 +38,20 @@ public final class ConflictMapReduceToClause extends ConflictMap {
     public ConflictMapReduceToClause(PBConstr cpb, int level, boolean noRemove,
             boolean skip, IPostProcess postprocess,
             IWeakeningStrategy weakeningStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
         super(cpb, level, noRemove, skip, postprocess, weakeningStrategy,
-                autoDivisionStrategy, stats);
+                autoDivisionStrategy, stats, workspace);
     }
 
     public static IConflict createConflict(PBConstr cpb, int level,
             boolean noRemove, boolean skip, IPostProcess postprocess,
             IWeakeningStrategy weakeningStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
         return new ConflictMapReduceToClause(cpb, level, noRemove, skip,
-                postprocess, weakeningStrategy, autoDivisionStrategy, stats);
+                postprocess, weakeningStrategy, autoDivisionStrategy, stats,
+                workspace);
     }
 
     public static IConflictFactory factory() {
@@ -58,10 +61,10 @@ public final class ConflictMapReduceToClause extends ConflictMap {
                     boolean noRemove, boolean skip, IPostProcess postprocess,
                     IWeakeningStrategy weakeningStrategy,
                     AutoDivisionStrategy autoDivisionStrategy,
-                    PBSolverStats stats) {
+                    PBSolverStats stats, ConflictWorkspace workspace) {
                 return ConflictMapReduceToClause.createConflict(cpb, level,
                         noRemove, skip, postprocess, weakeningStrategy,
-                        autoDivisionStrategy, stats);
+                        autoDivisionStrategy, stats, workspace);
             }
 
             @Override
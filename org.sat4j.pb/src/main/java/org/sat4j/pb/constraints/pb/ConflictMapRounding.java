@@ -38,17 +38,20 @@ public class ConflictMapRounding extends ConflictMap {
     public ConflictMapRounding(PBConstr cpb, int level, boolean noRemove,
             boolean skip, IPostProcess postProcessing,
             IWeakeningStrategy weakeningStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
         super(cpb, level, noRemove, skip, postProcessing, weakeningStrategy,
-                autoDivisionStrategy, stats);
+                autoDivisionStrategy, stats, workspace);
     }
 
     public static IConflict createConflict(PBConstr cpb, int level,
             boolean noRemove, boolean skip, IPostProcess postProcessing,
             IWeakeningStrategy weakeningStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats) {
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
         return new ConflictMapRounding(cpb, level, noRemove, skip,
-                postProcessing, weakeningStrategy, autoDivisionStrategy, stats);
+                postProcessing, weakeningStrategy, autoDivisionStrategy, stats,
+                workspace);
     }
 
     public static IConflictFactory factory() {
@@ -58,10 +61,10 @@ public class ConflictMapRounding extends ConflictMap {
                     boolean noRemove, boolean skip, IPostProcess postprocess,
                     IWeakeningStrategy weakeningStrategy,
                     AutoDivisionStrategy autoDivisionStrategy,
-                    PBSolverStats stats) {
+                    PBSolverStats stats, ConflictWorkspace workspace) {
                 return ConflictMapRounding.createConflict(cpb, level, noRemove,
                         skip, postprocess, weakeningStrategy,
-                        autoDivisionStrategy, stats);
+                        autoDivisionStrategy, stats, workspace);
             }
 
             @Override
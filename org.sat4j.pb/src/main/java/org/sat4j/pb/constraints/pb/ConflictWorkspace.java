@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.pb.constraints.pb;
+
+import java.util.Arrays;
+
+import org.sat4j.core.VecInt;
+
+/**
+ * Memory reused by the successive conflicts analyzed by a solver.
+ * 
+ * A conflict needs to find the position of any literal of the vocabulary in
+ * the constraint being derived, and to group its literals by decision level.
+ * Allocating those structures for each conflict costs time proportional to the
+ * number of variables, whatever the size of the conflict. They are thus kept
+ * from one conflict to the other: the positions of the literals are reset to
+ * -1 only for the literals set during the previous conflict, and the vectors
+ * of literals by decision level are cleared and reused.
+ * 
+ * A workspace can only be used by one conflict at a time: starting the
+ * analysis of a new conflict invalidates the previous one.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public final class ConflictWorkspace {
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * index of each literal in the conflict, -1 if it does not appear in it.
+     */
+    private int[] indexes = EMPTY;
+
+    /**
+     * literals whose index has been set since the last reset.
+     */
+    private final VecInt touched = new VecInt();
+
+    private VecInt[] byLevel = new VecInt[0];
+
+    /**
+     * the vectors used by byLevel, kept when it is cleared.
+     */
+    private VecInt[] levels = new VecInt[0];
+
+    private int nbUsedLevels;
+
+    /**
+     * prepares the workspace for a new conflict.
+     * 
+     * @param nbLits
+     *            the number of literals of the vocabulary, i.e. twice the
+     *            number of variables plus 2.
+     */
+    void reset(int nbLits) {
+        int[] theIndexes = this.indexes;
+        for (int i = 0; i < this.touched.size(); i++) {
+            theIndexes[this.touched.get(i)] = -1;
+        }
+        this.touched.clear();
+        if (theIndexes.length < nbLits) {
+            int oldLength = theIndexes.length;
+            this.indexes = Arrays.copyOf(theIndexes,
+                    Math.max(nbLits, 2 * oldLength));
+            Arrays.fill(this.indexes, oldLength, this.indexes.length, -1);
+        }
+    }
+
+    int get(int lit) {
+        return this.indexes[lit];
+    }
+
+    void set(int lit, int index) {
+        if (this.indexes[lit] == -1) {
+            this.touched.push(lit);
+        }
+        this.indexes[lit] = index;
+    }
+
+    /**
+     * provides an array to store the literals of a conflict by decision level.
+     * 
+     * @param nbLevels
+     *            the number of levels needed
+     * @return an array of at least nbLevels null elements.
+     */
+    VecInt[] byLevel(int nbLevels) {
+        Arrays.fill(this.byLevel, 0, this.nbUsedLevels, null);
+        if (this.byLevel.length < nbLevels) {
+            int newLength = Math.max(nbLevels, 2 * this.byLevel.length);
+            this.byLevel = new VecInt[newLength];
+            this.levels = Arrays.copyOf(this.levels, newLength);
+        }
+        this.nbUsedLevels = nbLevels;
+        return this.byLevel;
+    }
+
+    /**
+     * provides an empty vector to store the literals of a decision level.
+     * 
+     * @param index
+     *            the index of the level in the array returned by
+     *            {@link #byLevel(int)}
+     * @return an empty vector.
+     */
+    VecInt level(int index) {
+        VecInt level = this.levels[index];
+        if (level == null) {
+            level = new VecInt();
+            this.levels[index] = level;
+        } else {
+            level.clear();
+        }
+        return level;
+    }
+}
@@ -7,5 +7,6 @@ public interface IConflictFactory {
     IConflict createConflict(PBConstr cpb, int level, boolean noRemove,
             boolean skip, IPostProcess postprocess,
             IWeakeningStrategy removeStrategy,
-            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats);
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace);
 }
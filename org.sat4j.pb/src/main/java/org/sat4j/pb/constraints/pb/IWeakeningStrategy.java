@@ -13,7 +13,7 @@ import org.sat4j.minisat.core.ILits;
  *
  */
 public interface IWeakeningStrategy {
-    IWeakeningStrategy UNASSIGNED_FIRST = new IWeakeningStrategy() {
+    IWeakeningStrategy UNASSIGNED_FIRST = new AbstractWeakeningStrategy() {
         @Override
         public int findLiteralToRemove(ILits voc, IWatchPb wpb,
                 final BigInteger[] coefsBis, final int indLitImplied,
@@ -40,13 +40,37 @@ public interface IWeakeningStrategy {
             return lit;
         }
 
+        @Override
+        public int findLiteralToRemove(ILits voc, IWatchPb wpb,
+                final long[] coefsBis, final int indLitImplied,
+                final long degreeBis) {
+            int lit = -1;
+            int size = wpb.size();
+            for (int ind = 0; ind < size && lit == -1; ind++) {
+                if (coefsBis[ind] != 0 && voc.isUnassigned(wpb.get(ind))) {
+                    assert coefsBis[ind] < degreeBis;
+                    lit = ind;
+                }
+            }
+
+            if (lit == -1) {
+                for (int ind = 0; ind < size && lit == -1; ind++) {
+                    if (coefsBis[ind] != 0 && voc.isSatisfied(wpb.get(ind))
+                            && ind != indLitImplied) {
+                        lit = ind;
+                    }
+                }
+            }
+            return lit;
+        }
+
         @Override
         public String toString() {
             return "Weaken first using unassigned literals";
         }
     };
 
-    IWeakeningStrategy SATISFIED_FIRST = new IWeakeningStrategy() {
+    IWeakeningStrategy SATISFIED_FIRST = new AbstractWeakeningStrategy() {
         @Override
         public int findLiteralToRemove(ILits voc, IWatchPb wpb,
                 final BigInteger[] coefsBis, final int indLitImplied,
@@ -73,13 +97,37 @@ public interface IWeakeningStrategy {
             return lit;
         }
 
+        @Override
+        public int findLiteralToRemove(ILits voc, IWatchPb wpb,
+                final long[] coefsBis, final int indLitImplied,
+                final long degreeBis) {
+            int lit = -1;
+            int size = wpb.size();
+            for (int ind = 0; ind < size && lit == -1; ind++) {
+                if (coefsBis[ind] != 0 && voc.isSatisfied(wpb.get(ind))) {
+                    assert coefsBis[ind] < degreeBis;
+                    lit = ind;
+                }
+            }
+
+            if (lit == -1) {
+                for (int ind = 0; ind < size && lit == -1; ind++) {
+                    if (coefsBis[ind] != 0 && voc.isUnassigned(wpb.get(ind))
+                            && ind != indLitImplied) {
+                        lit = ind;
+                    }
+                }
+            }
+            return lit;
+        }
+
         @Override
         public String toString() {
             return "Weaken first using satisfied literals";
         }
     };
 
-    IWeakeningStrategy ANY = new IWeakeningStrategy() {
+    IWeakeningStrategy ANY = new AbstractWeakeningStrategy() {
         @Override
         public int findLiteralToRemove(ILits voc, IWatchPb wpb,
                 final BigInteger[] coefsBis, final int indLitImplied,
@@ -98,6 +146,23 @@ public interface IWeakeningStrategy {
             return lit;
         }
 
+        @Override
+        public int findLiteralToRemove(ILits voc, IWatchPb wpb,
+                final long[] coefsBis, final int indLitImplied,
+                final long degreeBis) {
+            int lit = -1;
+            int size = wpb.size();
+            for (int ind = 0; ind < size && lit == -1; ind++) {
+                if (coefsBis[ind] != 0 && !voc.isFalsified(wpb.get(ind))
+                        && ind != indLitImplied) {
+                    assert coefsBis[ind] < degreeBis;
+                    lit = ind;
+                }
+            }
+
+            return lit;
+        }
+
         @Override
         public String toString() {
             return "Weaken with no priority";
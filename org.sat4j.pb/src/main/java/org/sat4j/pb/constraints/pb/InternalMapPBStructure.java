@@ -45,7 +45,7 @@ public class InternalMapPBStructure {
 
     private final IVecInt lits;
     private final IVec<BigInteger> coefs;
-    private IVecInt allLits;
+    private ConflictWorkspace allLits;
     protected BigInteger degree;
 
     // temporarily : just for the case where an InternalMapPBStructure
@@ -57,14 +57,17 @@ public class InternalMapPBStructure {
 
     InternalMapPBStructure(int size) {
         assert size > 0;
-        this.allLits = new VecInt(size, -1);
+        this.allLits = new ConflictWorkspace();
+        this.allLits.reset(size);
         this.coefs = new Vec<BigInteger>();
         this.lits = new VecInt();
     }
 
-    InternalMapPBStructure(PBConstr cpb, int level, boolean noRemove) {
+    InternalMapPBStructure(PBConstr cpb, int level, boolean noRemove,
+            ConflictWorkspace workspace) {
         ILits voc = cpb.getVocabulary();
-        this.allLits = new VecInt(cpb.getVocabulary().nVars() * 2 + 2, -1);
+        this.allLits = workspace;
+        this.allLits.reset(voc.nVars() * 2 + 2);
         this.coefs = new Vec<BigInteger>(cpb.size());
         this.lits = new VecInt(cpb.size());
         int lit;
@@ -93,6 +96,22 @@ public class InternalMapPBStructure {
         this.degree = degree;
     }
 
+    /**
+     * Builds the structure from literals and coefficients which are all kept,
+     * e.g. when a conflict computed with longs is translated into BigIntegers.
+     * The workspace is not reset: it may already contain those literals.
+     */
+    InternalMapPBStructure(ConflictWorkspace workspace, IVecInt lits,
+            IVec<BigInteger> coefs, BigInteger degree) {
+        this.allLits = workspace;
+        this.lits = lits;
+        this.coefs = coefs;
+        for (int i = 0; i < lits.size(); i++) {
+            this.allLits.set(lits.get(i), i);
+        }
+        this.degree = degree;
+    }
+
     public BigInteger getComputedDegree() {
         return this.degree;
     }
@@ -0,0 +1,1125 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.pb.constraints.pb;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.constraints.cnf.Lits;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.minisat.core.VarActivityListener;
+import org.sat4j.pb.core.PBSolverStats;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.IteratorInt;
+
+/**
+ * Conflict performing the cutting planes of the conflict analysis with
+ * primitive longs instead of BigIntegers.
+ * 
+ * It derives exactly the same constraints as {@link ConflictMap}, and shares
+ * with it the literals by decision level, the position of each literal in the
+ * conflict and the decisions to skip a resolution. For each cutting plane, the
+ * reason is first reduced and the multiplying coefficients are computed with
+ * overflow checks, then the largest value the cutting plane may produce is
+ * bounded. Only then is the conflict modified, with plain long arithmetic. As
+ * soon as one of those values does not fit in a long, the coefficients are
+ * stored as BigIntegers and that cutting plane and the remaining ones are
+ * performed by {@link ConflictMap}.
+ * 
+ * The post processing strategies work on the BigInteger coefficients, so the
+ * conflict is also translated at the end of the analysis when a post
+ * processing other than {@link NoPostProcess} is used.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public class LongConflictMap extends ConflictMap {
+
+    private final boolean noRemove;
+
+    /**
+     * the literals of the conflict, null once the conflict is represented
+     * with BigIntegers.
+     */
+    private int[] lits;
+
+    private long[] coefs;
+
+    private int size;
+
+    private long longDegree;
+
+    /**
+     * to store the slack of the current resolvant
+     */
+    private long longSlack;
+
+    private long longSumAllCoefs;
+
+    private long longCardDegree;
+
+    /**
+     * coefficients of the reason, reduced before the cutting plane.
+     */
+    private long[] coefsCons = new long[0];
+
+    private long longCoefMult;
+
+    private long longCoefMultCons;
+
+    private long longPossReducedCoefs;
+
+    /**
+     * constructs the data structure needed to perform cutting planes, using
+     * longs if the coefficients of the constraint fit in longs.
+     * 
+     * @param cpb
+     *            pseudo-boolean constraint which raised the conflict
+     * @param level
+     *            current decision level
+     * @return a conflict on which cutting plane can be performed.
+     */
+    public static IConflict createConflict(PBConstr cpb, int level,
+            boolean noRemove, boolean skip, IPostProcess postProcessing,
+            IWeakeningStrategy weakeningStrategy,
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
+        try {
+            return new LongConflictMap(cpb, level, noRemove, skip,
+                    postProcessing, weakeningStrategy, autoDivisionStrategy,
+                    stats, workspace);
+        } catch (ArithmeticException e) {
+            stats.incNumberOfOverflowsToBigInteger();
+            return ConflictMap.createConflict(cpb, level, noRemove, skip,
+                    postProcessing, weakeningStrategy, autoDivisionStrategy,
+                    stats, workspace);
+        }
+    }
+
+    public static IConflictFactory factory() {
+        return new IConflictFactory() {
+            @Override
+            public IConflict createConflict(PBConstr cpb, int level,
+                    boolean noRemove, boolean skip, IPostProcess postprocess,
+                    IWeakeningStrategy weakeningStrategy,
+                    AutoDivisionStrategy autoDivisionStrategy,
+                    PBSolverStats stats, ConflictWorkspace workspace) {
+                return LongConflictMap.createConflict(cpb, level, noRemove,
+                        skip, postprocess, weakeningStrategy,
+                        autoDivisionStrategy, stats, workspace);
+            }
+
+            @Override
+            public String toString() {
+                return "Use constraints as they come during conflict analysis, computing with longs until an overflow occurs";
+            }
+        };
+    }
+
+    LongConflictMap(PBConstr cpb, int level, boolean noRemove, boolean skip,
+            IPostProcess postProcessing, IWeakeningStrategy weakeningStrategy,
+            AutoDivisionStrategy autoDivisionStrategy, PBSolverStats stats,
+            ConflictWorkspace workspace) {
+        super(cpb.getVocabulary(), level, noRemove, skip, postProcessing,
+                weakeningStrategy, autoDivisionStrategy, stats, workspace);
+        this.noRemove = noRemove;
+        workspace.reset(this.voc.nVars() * 2 + 2);
+        int cpbSize = cpb.size();
+        this.lits = new int[cpbSize];
+        this.coefs = new long[cpbSize];
+        long deg = toLong(cpb.getDegree());
+        boolean clause = deg == 1;
+        int lit;
+        long coef;
+        for (int i = 0; i < cpbSize; i++) {
+            lit = cpb.get(i);
+            coef = toLong(cpb.getCoef(i));
+            assert coef > 0;
+            if (noRemove || clause || !(this.voc.isSatisfied(lit)
+                    && this.voc.getLevel(lit) < level)) {
+                // the literal is kept
+                workspace.set(lit, this.size);
+                this.lits[this.size] = lit;
+                this.coefs[this.size++] = coef;
+            } else {
+                // the literal is forgotten
+                deg -= coef;
+            }
+        }
+        this.longDegree = deg;
+        this.byLevel = workspace.byLevel(levelToIndex(level) + 1);
+        int litLevel;
+        for (int i = 0; i < this.size; i++) {
+            lit = this.lits[i];
+            litLevel = this.voc.getLevel(lit);
+            // eventually add to slack
+            coef = this.coefs[i];
+            this.longSumAllCoefs = add(this.longSumAllCoefs, coef);
+            if (countsInSlack(lit, litLevel)) {
+                this.longSlack += coef;
+            }
+            // add to byLevel structure
+            addToLevel(lit, litLevel);
+        }
+    }
+
+    /**
+     * converts a BigInteger into a long.
+     * 
+     * @throws ArithmeticException
+     *             if the value does not fit in a long.
+     */
+    static long toLong(BigInteger value) {
+        if (value.bitLength() >= Long.SIZE) {
+            throw new ArithmeticException("long overflow");
+        }
+        return value.longValue();
+    }
+
+    /**
+     * adds two longs.
+     * 
+     * @throws ArithmeticException
+     *             if the result does not fit in a long.
+     */
+    static long add(long a, long b) {
+        long r = a + b;
+        if (((a ^ r) & (b ^ r)) < 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        return r;
+    }
+
+    /**
+     * multiplies two longs.
+     * 
+     * @throws ArithmeticException
+     *             if the result does not fit in a long.
+     */
+    static long multiply(long a, long b) {
+        long r = a * b;
+        if (((Math.abs(a) | Math.abs(b)) >>> 31 != 0)
+                && (b != 0 && r / b != a || a == Long.MIN_VALUE && b == -1)) {
+            throw new ArithmeticException("long overflow");
+        }
+        return r;
+    }
+
+    private static long gcd(long a, long b) {
+        long x = a;
+        long y = b;
+        long tmp;
+        while (y != 0) {
+            tmp = x % y;
+            x = y;
+            y = tmp;
+        }
+        return x;
+    }
+
+    /**
+     * computes the least common factor of two integers (Plus Petit Commun
+     * Multiple in french)
+     * 
+     * @throws ArithmeticException
+     *             if the result does not fit in a long.
+     */
+    static long ppcm(long a, long b) {
+        return multiply(a / gcd(a, b), b);
+    }
+
+    /**
+     * stores the coefficients of the conflict as BigIntegers. From that point,
+     * all the operations are performed by {@link ConflictMap}. The literals
+     * keep their position, so the workspace and the literals by decision level
+     * remain valid.
+     */
+    private void toBigIntegers() {
+        IVecInt bigLits = new VecInt(this.size);
+        IVec<BigInteger> bigCoefs = new Vec<BigInteger>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            bigLits.push(this.lits[i]);
+            bigCoefs.push(BigInteger.valueOf(this.coefs[i]));
+        }
+        this.weightedLits = new InternalMapPBStructure(this.workspace, bigLits,
+                bigCoefs, BigInteger.valueOf(this.longDegree));
+        this.degree = this.weightedLits.getComputedDegree();
+        this.currentSlack = BigInteger.valueOf(this.longSlack);
+        this.sumAllCoefs = BigInteger.valueOf(this.longSumAllCoefs);
+        this.lits = null;
+        this.coefs = null;
+        this.coefsCons = null;
+    }
+
+    /**
+     * tells if the computations are performed with BigIntegers, i.e. if an
+     * overflow occurred.
+     * 
+     * @return true iff the conflict is no longer represented with longs.
+     */
+    public boolean isBigInteger() {
+        return this.lits == null;
+    }
+
+    private long get(int lit) {
+        assert this.workspace.get(lit) != -1;
+        return this.coefs[this.workspace.get(lit)];
+    }
+
+    private boolean countsInSlack(int lit, int litLevel) {
+        return !this.voc.isFalsified(lit) || litLevel == this.currentLevel;
+    }
+
+    private void increaseCoef(int lit, long incCoef) {
+        if (countsInSlack(lit, this.voc.getLevel(lit))) {
+            this.longSlack += incCoef;
+        }
+        this.longSumAllCoefs += incCoef;
+        this.coefs[this.workspace.get(lit)] += incCoef;
+    }
+
+    private void decreaseCoef(int lit, long decCoef) {
+        if (countsInSlack(lit, this.voc.getLevel(lit))) {
+            this.longSlack -= decCoef;
+        }
+        this.longSumAllCoefs -= decCoef;
+        this.coefs[this.workspace.get(lit)] -= decCoef;
+    }
+
+    private void setCoef(int lit, long newValue) {
+        assert !this.weightedLits.containsKey(lit);
+        int litLevel = this.voc.getLevel(lit);
+        if (countsInSlack(lit, litLevel)) {
+            this.longSlack += newValue;
+        }
+        this.longSumAllCoefs += newValue;
+        addToLevel(lit, litLevel);
+        if (this.size == this.lits.length) {
+            int newSize = Math.max(2 * this.size, 4);
+            this.lits = Arrays.copyOf(this.lits, newSize);
+            this.coefs = Arrays.copyOf(this.coefs, newSize);
+        }
+        this.workspace.set(lit, this.size);
+        this.lits[this.size] = lit;
+        this.coefs[this.size++] = newValue;
+    }
+
+    private void changeCoef(int indLit, long newValue) {
+        int lit = this.lits[indLit];
+        if (countsInSlack(lit, this.voc.getLevel(lit))) {
+            this.longSlack += newValue - this.coefs[indLit];
+        }
+        this.longSumAllCoefs += newValue - this.coefs[indLit];
+        this.coefs[indLit] = newValue;
+    }
+
+    private void removeLongCoef(int lit) {
+        int litLevel = this.voc.getLevel(lit);
+        int indLit = this.workspace.get(lit);
+        if (countsInSlack(lit, litLevel)) {
+            this.longSlack -= this.coefs[indLit];
+        }
+        this.longSumAllCoefs -= this.coefs[indLit];
+        this.byLevel[levelToIndex(litLevel)].remove(lit);
+        // the last literal takes the place of the removed one
+        int last = this.lits[--this.size];
+        this.lits[indLit] = last;
+        this.coefs[indLit] = this.coefs[this.size];
+        this.workspace.set(last, indLit);
+        this.workspace.set(lit, -1);
+    }
+
+    @Override
+    public BigInteger resolve(PBConstr cpb, int litImplied,
+            VarActivityListener val) {
+        if (isBigInteger()) {
+            return super.resolve(cpb, litImplied, val);
+        }
+        assert litImplied > 1;
+        int nLitImplied = litImplied ^ 1;
+        if (cpb == null || !this.weightedLits.containsKey(nLitImplied)) {
+            noResolution(litImplied);
+            return BigInteger.valueOf(this.longDegree);
+        }
+        if (this.allowSkipping && -get(nLitImplied) > slack()) {
+            skipResolution(litImplied);
+            assert slack() < 0;
+            return BigInteger.valueOf(this.longDegree);
+        }
+        try {
+            cuttingPlaneWithLongs(cpb, litImplied, val);
+        } catch (ArithmeticException e) {
+            // nothing has been changed yet
+            this.stats.incNumberOfOverflowsToBigInteger();
+            toBigIntegers();
+            return super.resolve(cpb, litImplied, val);
+        }
+        if (this.allowSkipping) {
+            this.endingSkipping = false;
+        }
+        return BigInteger.valueOf(this.longDegree);
+    }
+
+    /**
+     * computes a cutting plane with a pseudo-boolean constraint, as
+     * {@link ConflictMap#resolve(PBConstr, int, VarActivityListener)}.
+     * 
+     * @throws ArithmeticException
+     *             if the cutting plane cannot be performed with longs. In that
+     *             case, the conflict is left unchanged.
+     */
+    private void cuttingPlaneWithLongs(PBConstr cpb, int litImplied,
+            VarActivityListener val) {
+        int nLitImplied = litImplied ^ 1;
+        assert slack() < 0;
+        assert this.longDegree >= 0;
+
+        // coefficients of the constraint are copied in order to make
+        // reduction operations.
+        int consSize = cpb.size();
+        if (this.coefsCons.length < consSize) {
+            this.coefsCons = new long[consSize];
+        }
+        for (int i = 0; i < consSize; i++) {
+            this.coefsCons[i] = toLong(cpb.getCoef(i));
+        }
+        long degreeCons = toLong(cpb.getDegree());
+        long newDegree = this.longDegree;
+        boolean reduced = false;
+
+        // search of the index of the implied literal
+        int ind = 0;
+        while (cpb.get(ind) != litImplied) {
+            ind++;
+        }
+        assert this.coefsCons[ind] != 0;
+
+        if (this.coefsCons[ind] == 1) {
+            // then we know that the resolvant will still be a conflict (cf.
+            // Dixon's property)
+            this.longCoefMultCons = get(nLitImplied);
+            this.longCoefMult = 1;
+            degreeCons = multiply(degreeCons, this.longCoefMultCons);
+        } else {
+            IWatchPb wpb = (IWatchPb) cpb;
+            if (!this.noRemove) {
+                degreeCons = removeSatisfiedLiteralsFromHigherDecisionLevels(
+                        wpb, this.coefsCons, degreeCons);
+            }
+            if (get(nLitImplied) == 1) {
+                // then we know that the resolvant will still be a conflict
+                // (cf. Dixon's property)
+                this.longCoefMult = this.coefsCons[ind];
+                this.longCoefMultCons = 1;
+                newDegree = multiply(this.longDegree, this.longCoefMult);
+            } else if (this.coefsCons[ind] == 1) {
+                // it is now again possible
+                this.longCoefMultCons = get(nLitImplied);
+                this.longCoefMult = 1;
+                degreeCons = multiply(degreeCons, this.longCoefMultCons);
+            } else {
+                // pb-constraint has to be reduced
+                // to obtain a conflictual result from the cutting plane
+                degreeCons = reduceUntilConflict(litImplied, ind,
+                        this.coefsCons, degreeCons, wpb);
+                degreeCons = multiply(degreeCons, this.longCoefMultCons);
+                newDegree = multiply(this.longDegree, this.longCoefMult);
+                reduced = true;
+            }
+        }
+
+        // the values computed by the cutting plane are bounded by the sum of
+        // the coefficients and of the degrees of both constraints
+        long sumCons = 0;
+        for (int i = 0; i < consSize; i++) {
+            sumCons = add(sumCons, this.coefsCons[i]);
+        }
+        add(add(multiply(this.longSumAllCoefs, this.longCoefMult), newDegree),
+                add(multiply(sumCons, this.longCoefMultCons), degreeCons));
+
+        // from now on, nothing can overflow
+        this.stats.incNumberOfDerivationSteps();
+        if (reduced) {
+            // Updating the stats about the reduction.
+            for (int i = 0; i < consSize; i++) {
+                if (this.coefsCons[i] != 0) {
+                    if (this.voc.isUnassigned(cpb.get(i))) {
+                        this.stats.incNumberOfRemainingUnassigned();
+                    } else {
+                        this.stats.incNumberOfRemainingAssigned();
+                    }
+                }
+            }
+        }
+        this.longDegree = newDegree;
+        // coefficients of the conflict must be multiplied by coefMult
+        if (this.longCoefMult != 1) {
+            for (int i = 0; i < this.size; i++) {
+                changeCoef(i, this.coefs[i] * this.longCoefMult);
+            }
+        }
+        assert slack() < 0;
+
+        // cutting plane
+        this.longDegree += degreeCons;
+        assert this.longDegree > 0;
+        for (int i = 0; i < consSize; i++) {
+            val.varBumpActivity(cpb.get(i));
+            cuttingPlaneStep(cpb.get(i),
+                    this.coefsCons[i] * this.longCoefMultCons);
+        }
+        // neither litImplied nor nLitImplied is present in coefs structure
+        assert !this.weightedLits.containsKey(litImplied);
+        assert !this.weightedLits.containsKey(nLitImplied);
+        assert this.longDegree > 0;
+        assert slack() < 0;
+
+        // saturation
+        saturateConflict();
+        assert slack() < 0;
+    }
+
+    private void cuttingPlaneStep(final int lit, final long coef) {
+        assert coef >= 0;
+        int nlit = lit ^ 1;
+        if (coef > 0) {
+            if (this.weightedLits.containsKey(nlit)) {
+                assert !this.weightedLits.containsKey(lit);
+                long tmp = get(nlit);
+                if (tmp < coef) {
+                    setCoef(lit, coef - tmp);
+                    this.longDegree -= tmp;
+                    removeLongCoef(nlit);
+                } else if (tmp == coef) {
+                    this.longDegree -= coef;
+                    removeLongCoef(nlit);
+                } else {
+                    decreaseCoef(nlit, coef);
+                    this.longDegree -= coef;
+                }
+            } else if (this.weightedLits.containsKey(lit)) {
+                increaseCoef(lit, coef);
+            } else {
+                setCoef(lit, coef);
+            }
+        }
+        assert !this.weightedLits.containsKey(nlit) || !this.weightedLits.containsKey(lit);
+    }
+
+    private long saturateConflict() {
+        assert this.longDegree > 0;
+        long minimum = this.longDegree;
+        for (int ind = 0; ind < this.size; ind++) {
+            assert this.coefs[ind] >= 0;
+            if (this.longDegree < this.coefs[ind]) {
+                changeCoef(ind, this.longDegree);
+            }
+            if (this.coefs[ind] > 0) {
+                minimum = Math.min(minimum, this.coefs[ind]);
+            }
+        }
+        // a clause has been learned
+        if (minimum == this.longDegree && minimum > 1) {
+            this.longDegree = 1;
+            for (int ind = 0; ind < this.size; ind++) {
+                changeCoef(ind, 1);
+            }
+        }
+        return this.longDegree;
+    }
+
+    private long removeSatisfiedLiteralsFromHigherDecisionLevels(
+            IWatchPb wpb, final long[] coefsBis, final long degreeBis) {
+        assert degreeBis > 1;
+        // search for all satisfied literals above the current decision
+        // level
+        int wpbSize = wpb.size();
+        long degUpdate = degreeBis;
+        int p;
+        this.longPossReducedCoefs = possConstraint(wpb, coefsBis);
+        for (int ind = 0; ind < wpbSize; ind++) {
+            p = wpb.get(ind);
+            if (coefsBis[ind] != 0 && this.voc.isSatisfied(p)
+                    && this.voc.getLevel(p) < this.currentLevel) {
+                // reduction can be done
+                degUpdate -= coefsBis[ind];
+                this.longPossReducedCoefs -= coefsBis[ind];
+                coefsBis[ind] = 0;
+            }
+        }
+        // saturation of the constraint
+        return saturation(coefsBis, degUpdate, wpb);
+    }
+
+    private long reduceUntilConflict(int litImplied, int ind,
+            long[] reducedCoefs, long degreeReduced, IWatchPb wpb) {
+        long slackResolve = -1;
+        long slackThis = 0;
+        long slackIndex;
+        long slackConflict = slack();
+        long ppcm;
+        long reducedDegree = degreeReduced;
+        long previousCoefLitImplied = 0;
+        long coefLitImplied = get(litImplied ^ 1);
+        this.longPossReducedCoefs = possConstraint(wpb, reducedCoefs);
+        do {
+            if (slackResolve >= 0) {
+                assert slackThis > 0;
+                long tmp = reduceInConstraint(wpb, reducedCoefs, ind,
+                        reducedDegree);
+                assert tmp < reducedDegree && tmp >= 1;
+                reducedDegree = tmp;
+            }
+            // search of the multiplying coefficients
+            assert reducedCoefs[ind] > 0;
+            if (reducedCoefs[ind] != previousCoefLitImplied) {
+                ppcm = ppcm(reducedCoefs[ind], coefLitImplied);
+                this.longCoefMult = ppcm / coefLitImplied;
+                this.longCoefMultCons = ppcm / reducedCoefs[ind];
+                previousCoefLitImplied = reducedCoefs[ind];
+            }
+            // slacks computed for each constraint
+            slackThis = multiply(this.longPossReducedCoefs - reducedDegree,
+                    this.longCoefMultCons);
+            slackIndex = multiply(slackConflict, this.longCoefMult);
+            assert slackIndex <= 0;
+            // estimate of the slack after the cutting plane
+            slackResolve = add(slackThis, slackIndex);
+        } while (slackResolve >= 0 || isUnsat());
+        return reducedDegree;
+    }
+
+    private long possConstraint(IWatchPb wpb, long[] theCoefs) {
+        long poss = 0;
+        // for each literal
+        for (int i = 0; i < wpb.size(); i++) {
+            if (!this.voc.isFalsified(wpb.get(i))) {
+                assert theCoefs[i] >= 0;
+                poss = add(poss, theCoefs[i]);
+            }
+        }
+        return poss;
+    }
+
+    private long reduceInConstraint(IWatchPb wpb, final long[] coefsBis,
+            final int indLitImplied, final long degreeBis) {
+        assert degreeBis > 1;
+        // search of a literal to remove
+        int lit;
+        if (this.weakeningStrategy instanceof AbstractWeakeningStrategy) {
+            lit = ((AbstractWeakeningStrategy) this.weakeningStrategy)
+                    .findLiteralToRemove(this.voc, wpb, coefsBis,
+                            indLitImplied, degreeBis);
+        } else {
+            BigInteger[] bigCoefs = new BigInteger[wpb.size()];
+            for (int i = 0; i < bigCoefs.length; i++) {
+                bigCoefs[i] = BigInteger.valueOf(coefsBis[i]);
+            }
+            lit = this.weakeningStrategy.findLiteralToRemove(this.voc, wpb,
+                    bigCoefs, indLitImplied, BigInteger.valueOf(degreeBis));
+        }
+        // a literal has been found
+        assert lit != -1;
+        assert lit != indLitImplied;
+        // reduction can be done
+        long degUpdate = degreeBis - coefsBis[lit];
+        this.longPossReducedCoefs -= coefsBis[lit];
+        coefsBis[lit] = 0;
+        // saturation of the constraint
+        degUpdate = saturation(coefsBis, degUpdate, wpb);
+        assert coefsBis[indLitImplied] > 0;
+        assert degreeBis > degUpdate;
+        return degUpdate;
+    }
+
+    private long saturation(long[] theCoefs, long theDegree, IWatchPb wpb) {
+        assert theDegree > 0;
+        int wpbSize = wpb.size();
+        long degreeResult = theDegree;
+        boolean isMinimumEqualsToDegree = true;
+        for (int i = 0; i < wpbSize; i++) {
+            if (theCoefs[i] > theDegree) {
+                if (!this.voc.isFalsified(wpb.get(i))) {
+                    this.longPossReducedCoefs += theDegree - theCoefs[i];
+                }
+                theCoefs[i] = theDegree;
+            } else if (theCoefs[i] < theDegree && theCoefs[i] > 0) {
+                isMinimumEqualsToDegree = false;
+            }
+        }
+        if (isMinimumEqualsToDegree && theDegree != 1) {
+            // the result is a clause
+            // there is no more possible reduction
+            this.longPossReducedCoefs = 0;
+            degreeResult = 1;
+            for (int i = 0; i < wpbSize; i++) {
+                if (theCoefs[i] > 0) {
+                    theCoefs[i] = 1;
+                    if (!this.voc.isFalsified(wpb.get(i))) {
+                        this.longPossReducedCoefs++;
+                    }
+                }
+            }
+        }
+        return degreeResult;
+    }
+
+    private long slack() {
+        long poss = 0;
+        for (int i = 0; i < this.size; i++) {
+            if (this.coefs[i] != 0 && !this.voc.isFalsified(this.lits[i])) {
+                assert this.coefs[i] > 0;
+                poss += this.coefs[i];
+            }
+        }
+        return poss - this.longDegree;
+    }
+
+    /**
+     * computes the slack of the current instance
+     */
+    @Override
+    public BigInteger slackConflict() {
+        if (isBigInteger()) {
+            return super.slackConflict();
+        }
+        return BigInteger.valueOf(slack());
+    }
+
+    // computes a slack with respect to a particular decision level
+    private long computeLongSlack(int dl) {
+        long slack = 0;
+        int lit;
+        for (int i = 0; i < this.size; i++) {
+            lit = this.lits[i];
+            if (this.coefs[i] > 0 && (!this.voc.isFalsified(lit)
+                    || this.voc.getLevel(lit) >= dl)) {
+                slack += this.coefs[i];
+            }
+        }
+        return slack;
+    }
+
+    @Override
+    public void postProcess(int dl) {
+        if (!isBigInteger()) {
+            if (this.postProcess == NoPostProcess.instance()) {
+                return;
+            }
+            toBigIntegers();
+        }
+        super.postProcess(dl);
+    }
+
+    /**
+     * change the currentLevel of the conflict to a new decision level and tests
+     * if the conflict is assertive (allows to imply a literal) at this new
+     * decision level
+     * 
+     * @param dl
+     *            the decision level
+     * @return true if the conflict is assertive at the decision level
+     */
+    @Override
+    public boolean isAssertive(int dl) {
+        if (isBigInteger()) {
+            return super.isAssertive(dl);
+        }
+        assert dl <= this.currentLevel;
+        long slack = this.longSlack - this.longDegree;
+        if (slack < 0) {
+            return false;
+        }
+        return isImplyingLiteral(slack, dl);
+    }
+
+    // given the slack already computed, tests if a literal could be implied at
+    // a particular level
+    // uses the byLevel data structure to parse each literal by decision level
+    private boolean isImplyingLiteral(long slack, int currentDecisionLevel) {
+        // unassigned literals are tried first
+        int unassigned = levelToIndex(-1);
+        int lit;
+        if (this.byLevel[unassigned] != null) {
+            for (IteratorInt iterator = this.byLevel[unassigned]
+                    .iterator(); iterator.hasNext();) {
+                lit = iterator.next();
+                if (slack < get(lit)) {
+                    this.assertiveLiteral = this.workspace.get(lit);
+                    return true;
+                }
+            }
+        }
+        // then we have to look at every literal
+        // at a decision level >= currentLevel
+        int level = levelToIndex(currentDecisionLevel);
+        if (this.byLevel[level] != null) {
+            for (IteratorInt iterator = this.byLevel[level].iterator(); iterator
+                    .hasNext();) {
+                lit = iterator.next();
+                if (this.weightedLits.containsKey(lit) && slack < get(lit)) {
+                    this.assertiveLiteral = this.workspace.get(lit);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // given the slack already computed, tests if a literal could be implied at
+    // a particular level
+    // uses the coefs data structure to parse each literal
+    private boolean isImplyingLiteralOrdered(int dl, long slack) {
+        int lit, litLevel;
+        for (int i = 0; i < this.size; i++) {
+            lit = this.lits[i];
+            litLevel = this.voc.getLevel(lit);
+            if ((litLevel >= dl || this.voc.isUnassigned(lit))
+                    && slack < this.coefs[i]) {
+                this.assertiveLiteral = i;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * tests if the conflict is unsatisfiable
+     * 
+     * @return true if the conflict is unsatisfiable
+     */
+    @Override
+    public boolean isUnsat() {
+        if (isBigInteger()) {
+            return super.isUnsat();
+        }
+        return this.longSumAllCoefs < this.longDegree;
+    }
+
+    @Override
+    public boolean oldIsAssertive(int dl) {
+        if (!isBigInteger()) {
+            toBigIntegers();
+        }
+        return super.oldIsAssertive(dl);
+    }
+
+    @Override
+    public BigInteger reduceInConstraint(IWatchPb wpb,
+            final BigInteger[] coefsBis, final int indLitImplied,
+            final BigInteger degreeBis) {
+        if (!isBigInteger()) {
+            toBigIntegers();
+        }
+        return super.reduceInConstraint(wpb, coefsBis, indLitImplied,
+                degreeBis);
+    }
+
+    /**
+     * computes the level for the backtrack : the highest decision level for
+     * which the conflict is assertive.
+     * 
+     * @param maxLevel
+     *            the lowest level for which the conflict is assertive
+     * @return the highest level (smaller int) for which the constraint is
+     *         assertive.
+     */
+    @Override
+    public int getBacktrackLevel(int maxLevel) {
+        if (isBigInteger()) {
+            return super.getBacktrackLevel(maxLevel);
+        }
+        // we are looking for a level higher than maxLevel
+        // where the constraint is still assertive
+        VecInt levelLits;
+        int level;
+        int indStop = levelToIndex(maxLevel) - 1;
+        int indStart = levelToIndex(0);
+        long slack = computeLongSlack(0) - this.longDegree;
+        int previous = 0;
+        int lit;
+        for (int indLevel = indStart; indLevel <= indStop; indLevel++) {
+            if (this.byLevel[indLevel] != null) {
+                level = indexToLevel(indLevel);
+                assert computeLongSlack(level) - this.longDegree == slack;
+                if (isImplyingLiteralOrdered(level, slack))
+                    break;
+                // updating the new slack
+                levelLits = this.byLevel[indLevel];
+                for (IteratorInt iterator = levelLits.iterator(); iterator
+                        .hasNext();) {
+                    lit = iterator.next();
+                    if (this.voc.isFalsified(lit)
+                            && this.voc.getLevel(lit) == level)
+                        slack -= get(lit);
+                }
+                if (!levelLits.isEmpty())
+                    previous = level;
+            }
+        }
+        return previous;
+    }
+
+    @Override
+    public int oldGetBacktrackLevel(int maxLevel) {
+        if (!isBigInteger()) {
+            toBigIntegers();
+        }
+        return super.oldGetBacktrackLevel(maxLevel);
+    }
+
+    @Override
+    public void updateSlack(int level) {
+        if (isBigInteger()) {
+            super.updateSlack(level);
+            return;
+        }
+        int dl = levelToIndex(level);
+        if (this.byLevel[dl] != null) {
+            int lit;
+            for (IteratorInt iterator = this.byLevel[dl].iterator(); iterator
+                    .hasNext();) {
+                lit = iterator.next();
+                if (this.voc.isFalsified(lit)) {
+                    this.longSlack += get(lit);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean slackIsCorrect(int dl) {
+        if (isBigInteger()) {
+            return super.slackIsCorrect(dl);
+        }
+        return this.longSlack == computeLongSlack(dl);
+    }
+
+    @Override
+    public BigInteger saturation() {
+        if (isBigInteger()) {
+            return super.saturation();
+        }
+        return BigInteger.valueOf(saturateConflict());
+    }
+
+    @Override
+    public BigInteger cuttingPlane(PBConstr cpb, BigInteger deg,
+            BigInteger[] reducedCoefs, VarActivityListener val) {
+        if (!isBigInteger()) {
+            toBigIntegers();
+        }
+        return super.cuttingPlane(cpb, deg, reducedCoefs, val);
+    }
+
+    @Override
+    public BigInteger cuttingPlane(PBConstr cpb, BigInteger degreeCons,
+            BigInteger[] reducedCoefs, BigInteger coefMult,
+            VarActivityListener val) {
+        if (!isBigInteger()) {
+            toBigIntegers();
+        }
+        return super.cuttingPlane(cpb, degreeCons, reducedCoefs,
+                coefMult, val);
+    }
+
+    @Override
+    public BigInteger cuttingPlane(int[] lits, BigInteger[] reducedCoefs,
+            BigInteger deg) {
+        if (!isBigInteger()) {
+            toBigIntegers();
+        }
+        return super.cuttingPlane(lits, reducedCoefs, deg);
+    }
+
+    @Override
+    public BigInteger cuttingPlane(int[] lits, BigInteger[] reducedCoefs,
+            BigInteger degreeCons, BigInteger coefMult) {
+        if (!isBigInteger()) {
+            toBigIntegers();
+        }
+        return super.cuttingPlane(lits, reducedCoefs, degreeCons,
+                coefMult);
+    }
+
+    @Override
+    public void buildConstraintFromConflict(IVecInt resLits,
+            IVec<BigInteger> resCoefs) {
+        if (isBigInteger()) {
+            super.buildConstraintFromConflict(resLits, resCoefs);
+            return;
+        }
+        resLits.clear();
+        resCoefs.clear();
+        for (int i = 0; i < this.size; i++) {
+            if (this.coefs[i] != 0) {
+                resLits.push(this.lits[i]);
+                resCoefs.push(BigInteger.valueOf(this.coefs[i]));
+            }
+        }
+    }
+
+    @Override
+    public void buildConstraintFromMapPb(int[] resLits, BigInteger[] resCoefs) {
+        if (isBigInteger()) {
+            super.buildConstraintFromMapPb(resLits, resCoefs);
+            return;
+        }
+        assert resLits.length == resCoefs.length;
+        assert resLits.length == this.size;
+        for (int i = 0; i < this.size; i++) {
+            resLits[i] = this.lits[i];
+            resCoefs[i] = BigInteger.valueOf(this.coefs[i]);
+        }
+    }
+
+    @Override
+    public BigInteger getDegree() {
+        if (isBigInteger()) {
+            return super.getDegree();
+        }
+        return BigInteger.valueOf(this.longDegree);
+    }
+
+    @Override
+    public BigInteger getCardDegree() {
+        if (isBigInteger()) {
+            return super.getCardDegree();
+        }
+        return BigInteger.valueOf(this.longCardDegree);
+    }
+
+    @Override
+    public int size() {
+        if (isBigInteger()) {
+            return super.size();
+        }
+        return this.size;
+    }
+
+    @Override
+    public boolean isCardinality() {
+        if (isBigInteger()) {
+            return super.isCardinality();
+        }
+        boolean newcase = false;
+        for (int i = 0; i < this.size; i++) {
+            if (this.coefs[i] != 1 && this.coefs[i] != 0) {
+                newcase = true;
+                break;
+            }
+        }
+        if (newcase) {
+            if (!this.autoDivisionStrategy.isCardinality(this.coefs,
+                    this.size)) {
+                return false;
+            }
+            this.longCardDegree = this.longDegree / this.coefs[0];
+            if (this.longDegree % this.coefs[0] != 0) {
+                this.longCardDegree++;
+            }
+        } else {
+            this.longCardDegree = this.longDegree;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isLongSufficient() {
+        if (isBigInteger()) {
+            return super.isLongSufficient();
+        }
+        // the sum of the coefficients is known to fit in a long
+        return true;
+    }
+
+    @Override
+    public int reduceCoeffsByPower2() {
+        if (isBigInteger()) {
+            return super.reduceCoeffsByPower2();
+        }
+        if (this.size == 0) {
+            return 0;
+        }
+        int nbBits = Long.SIZE - Long.numberOfLeadingZeros(this.coefs[0]);
+        for (int i = 0; i < this.size && nbBits > 0; i++) {
+            nbBits = Math.min(nbBits, lowestSetBit(this.coefs[i]));
+        }
+        if (nbBits > 0) {
+            for (int i = 0; i < this.size; i++) {
+                changeCoef(i, this.coefs[i] >> nbBits);
+            }
+            // diviser le degre
+            int nbBitsDegree = lowestSetBit(this.longDegree);
+            this.longDegree = this.longDegree >> nbBits;
+            if (nbBitsDegree < nbBits) {
+                this.longDegree++;
+            }
+        }
+        return nbBits;
+    }
+
+    @Override
+    public int reduceCoeffsByGCD() {
+        if (!isBigInteger()) {
+            toBigIntegers();
+        }
+        return super.reduceCoeffsByGCD();
+    }
+
+    private static int lowestSetBit(long value) {
+        return value == 0 ? -1 : Long.numberOfTrailingZeros(value);
+    }
+
+    @Override
+    public String toString() {
+        if (isBigInteger()) {
+            return super.toString();
+        }
+        int lit;
+        StringBuilder stb = new StringBuilder();
+        for (int i = 0; i < this.size; i++) {
+            lit = this.lits[i];
+            stb.append(this.coefs[i]);
+            stb.append(".");
+            stb.append(Lits.toString(lit));
+            stb.append(" ");
+            stb.append("[");
+            stb.append(this.voc.valueToString(lit));
+            stb.append("@");
+            stb.append(this.voc.getLevel(lit));
+            stb.append("]");
+        }
+        return stb.toString() + " >= " + this.longDegree; //$NON-NLS-1$
+    }
+}
@@ -59,9 +59,9 @@ public class MapPb implements IDataStructurePB {
 
     protected final AutoDivisionStrategy autoDivisionStrategy;
 
-    MapPb(PBConstr cpb, int level, boolean noRemove,
+    MapPb(InternalMapPBStructure weightedLits,
             AutoDivisionStrategy autoDivisionStrategy) {
-        this.weightedLits = new InternalMapPBStructure(cpb, level, noRemove);
+        this.weightedLits = weightedLits;
         this.degree = this.weightedLits.getComputedDegree();
         this.autoDivisionStrategy = autoDivisionStrategy;
     }
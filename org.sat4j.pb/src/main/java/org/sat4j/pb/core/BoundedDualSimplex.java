@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.pb.core;
+
+/**
+ * A dense dual simplex for the linear relaxation of a pseudo boolean problem:
+ * minimize c.x subject to A.x &gt;= b and 0 &lt;= x &lt;= 1.
+ * 
+ * A surplus variable s_i &gt;= 0 is introduced for each row, so that the
+ * initial basis is made of those variables. The nonbasic variables start at
+ * the bound given by the sign of their cost, which makes that initial basis
+ * dual feasible without any phase one. Since every basis met by the dual
+ * simplex is dual feasible, the objective value and the reduced costs can be
+ * used to derive a lower bound and to fix variables even when the iteration
+ * limit is reached before the optimum.
+ * 
+ * The computations are done with floating point numbers. The dual values and
+ * the multipliers proving the infeasibility are provided so that a caller
+ * needing safe results can check them with exact arithmetic against the
+ * original constraints.
+ * 
+ * The whole tableau is kept in memory, so that class is only meant for small
+ * to medium size problems.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public class BoundedDualSimplex {
+
+    public enum Status {
+        OPTIMAL, INFEASIBLE, ITERATION_LIMIT
+    }
+
+    private static final double FEASIBILITY_TOLERANCE = 1e-7;
+
+    private static final double PIVOT_TOLERANCE = 1e-9;
+
+    private final int nbRows;
+
+    private final int nbColumns;
+
+    /**
+     * The rows of the tableau, over the n structural columns and the m surplus
+     * columns.
+     */
+    private final double[][] tableau;
+
+    private final double[] reducedCosts;
+
+    private final double[] costs;
+
+    private final double[] values;
+
+    private final boolean[] atUpperBound;
+
+    private final int[] basis;
+
+    private final boolean[] isBasic;
+
+    private final int[] nonZeros;
+
+    private int nbIterations;
+
+    /**
+     * the row of the tableau showing the infeasibility, -1 if none.
+     */
+    private int infeasibleRow = -1;
+
+    /**
+     * Create the linear program. The arrays are not modified by the simplex.
+     * 
+     * @param a
+     *            the coefficients of the m rows over the n variables
+     * @param b
+     *            the m right hand sides
+     * @param c
+     *            the n costs
+     */
+    public BoundedDualSimplex(double[][] a, double[] b, double[] c) {
+        this.nbRows = b.length;
+        this.nbColumns = c.length;
+        int width = this.nbColumns + this.nbRows;
+        this.tableau = new double[this.nbRows][width];
+        this.reducedCosts = new double[width];
+        this.costs = c;
+        this.values = new double[width];
+        this.atUpperBound = new boolean[width];
+        this.basis = new int[this.nbRows];
+        this.isBasic = new boolean[width];
+        this.nonZeros = new int[width];
+        for (int j = 0; j < this.nbColumns; j++) {
+            this.reducedCosts[j] = c[j];
+            this.atUpperBound[j] = c[j] < 0;
+            this.values[j] = this.atUpperBound[j] ? 1.0 : 0.0;
+        }
+        // row i reads s_i - a_i.x = -b_i
+        for (int i = 0; i < this.nbRows; i++) {
+            double[] row = this.tableau[i];
+            double value = -b[i];
+            for (int j = 0; j < this.nbColumns; j++) {
+                row[j] = -a[i][j];
+                value += a[i][j] * this.values[j];
+            }
+            row[this.nbColumns + i] = 1.0;
+            this.basis[i] = this.nbColumns + i;
+            this.isBasic[this.nbColumns + i] = true;
+            this.values[this.nbColumns + i] = value;
+        }
+    }
+
+    /**
+     * Run the dual simplex.
+     * 
+     * @param maxIterations
+     *            the maximum number of pivots
+     * @return the status of the linear program
+     */
+    public Status solve(int maxIterations) {
+        this.nbIterations = 0;
+        this.infeasibleRow = -1;
+        int width = this.nbColumns + this.nbRows;
+        while (true) {
+            // leaving variable: the most infeasible basic variable
+            int r = -1;
+            double worst = FEASIBILITY_TOLERANCE;
+            for (int i = 0; i < this.nbRows; i++) {
+                double infeasibility = infeasibility(i);
+                if (Math.abs(infeasibility) > worst) {
+                    worst = Math.abs(infeasibility);
+                    r = i;
+                }
+            }
+            if (r < 0) {
+                return Status.OPTIMAL;
+            }
+            if (this.nbIterations >= maxIterations) {
+                return Status.ITERATION_LIMIT;
+            }
+            boolean toLowerBound = infeasibility(r) < 0;
+            // entering variable: dual ratio test
+            double[] row = this.tableau[r];
+            int q = -1;
+            double bestRatio = Double.POSITIVE_INFINITY;
+            double bestPivot = 0.0;
+            for (int j = 0; j < width; j++) {
+                if (this.isBasic[j]) {
+                    continue;
+                }
+                double alpha = row[j];
+                if (Math.abs(alpha) <= PIVOT_TOLERANCE) {
+                    continue;
+                }
+                // the basic variable must increase when going to its lower
+                // bound, it decreases when x_j increases and alpha > 0
+                boolean increaseBasic = alpha > 0 == this.atUpperBound[j];
+                if (increaseBasic != toLowerBound) {
+                    continue;
+                }
+                double ratio = Math.abs(this.reducedCosts[j] / alpha);
+                if (ratio < bestRatio - PIVOT_TOLERANCE
+                        || ratio <= bestRatio + PIVOT_TOLERANCE
+                                && Math.abs(alpha) > bestPivot) {
+                    bestRatio = ratio;
+                    bestPivot = Math.abs(alpha);
+                    q = j;
+                }
+            }
+            if (q < 0) {
+                this.infeasibleRow = r;
+                return Status.INFEASIBLE;
+            }
+            pivot(r, q, toLowerBound);
+            this.nbIterations++;
+        }
+    }
+
+    private double infeasibility(int i) {
+        int j = this.basis[i];
+        double value = this.values[j];
+        if (value < 0.0) {
+            return value;
+        }
+        if (j < this.nbColumns && value > 1.0) {
+            return value - 1.0;
+        }
+        return 0.0;
+    }
+
+    private void pivot(int r, int q, boolean toLowerBound) {
+        int width = this.nbColumns + this.nbRows;
+        double[] pivotRow = this.tableau[r];
+        double pivot = pivotRow[q];
+        // move the entering variable until the leaving one reaches its bound
+        int leaving = this.basis[r];
+        double target = toLowerBound ? 0.0 : 1.0;
+        double delta = (this.values[leaving] - target) / pivot;
+        for (int i = 0; i < this.nbRows; i++) {
+            double alpha = this.tableau[i][q];
+            if (alpha != 0.0) {
+                this.values[this.basis[i]] -= alpha * delta;
+            }
+        }
+        this.values[q] += delta;
+        this.values[leaving] = target;
+        // the rows of the tableau are mostly sparse
+        int[] nonZeros = this.nonZeros;
+        int nbNonZeros = 0;
+        for (int j = 0; j < width; j++) {
+            if (pivotRow[j] != 0.0) {
+                pivotRow[j] /= pivot;
+                nonZeros[nbNonZeros++] = j;
+            }
+        }
+        pivotRow[q] = 1.0;
+        for (int i = 0; i < this.nbRows; i++) {
+            if (i == r) {
+                continue;
+            }
+            double[] row = this.tableau[i];
+            double factor = row[q];
+            if (factor != 0.0) {
+                for (int k = 0; k < nbNonZeros; k++) {
+                    int j = nonZeros[k];
+                    row[j] -= factor * pivotRow[j];
+                }
+                row[q] = 0.0;
+            }
+        }
+        double factor = this.reducedCosts[q];
+        if (factor != 0.0) {
+            for (int k = 0; k < nbNonZeros; k++) {
+                int j = nonZeros[k];
+                this.reducedCosts[j] -= factor * pivotRow[j];
+            }
+        }
+        this.reducedCosts[q] = 0.0;
+        this.isBasic[leaving] = false;
+        this.atUpperBound[leaving] = !toLowerBound;
+        this.isBasic[q] = true;
+        this.atUpperBound[q] = false;
+        this.basis[r] = q;
+    }
+
+    /**
+     * The objective value of the current basis. It is a lower bound of the
+     * optimum of the linear program, hence of the original problem, as long as
+     * the status is not {@link Status#INFEASIBLE}.
+     * 
+     * @return c.x for the current basis.
+     */
+    public double getObjectiveValue() {
+        double value = 0.0;
+        for (int j = 0; j < this.nbColumns; j++) {
+            value += this.costs[j] * this.values[j];
+        }
+        return value;
+    }
+
+    /**
+     * The value of a variable in the current basis.
+     * 
+     * @param j
+     *            a variable, between 0 and n-1
+     * @return its value, between 0 and 1 when the status is
+     *         {@link Status#OPTIMAL}
+     */
+    public double getValue(int j) {
+        return this.values[j];
+    }
+
+    /**
+     * The reduced cost of a variable in the current basis. Any solution in
+     * which a nonbasic variable leaves its bound costs at least the absolute
+     * value of its reduced cost more than {@link #getObjectiveValue()}.
+     * 
+     * @param j
+     *            a variable, between 0 and n-1
+     * @return 0 for a basic variable, a positive value for a variable at its
+     *         lower bound, a negative value for a variable at its upper bound.
+     */
+    public double getReducedCost(int j) {
+        return this.isBasic[j] ? 0.0 : this.reducedCosts[j];
+    }
+
+    /**
+     * 
+     * @param j
+     *            a variable, between 0 and n-1
+     * @return true iff the variable is nonbasic at its upper bound 1.
+     */
+    public boolean isAtUpperBound(int j) {
+        return !this.isBasic[j] && this.atUpperBound[j];
+    }
+
+    /**
+     * The dual value of a row in the current basis, i.e. the reduced cost of
+     * its surplus variable.
+     * 
+     * @param i
+     *            a row, between 0 and m-1
+     * @return a nonnegative value, up to rounding errors.
+     */
+    public double getDualValue(int i) {
+        int j = this.nbColumns + i;
+        return this.isBasic[j] ? 0.0 : this.reducedCosts[j];
+    }
+
+    /**
+     * The coefficient of a row in the combination of the rows which shows
+     * that the linear program is infeasible. Up to rounding errors, those
+     * coefficients, or their opposites, are nonnegative multipliers u such
+     * that u.A.x &lt; u.b for any x between 0 and 1.
+     * 
+     * @param i
+     *            a row, between 0 and m-1
+     * @return the coefficient of that row, 0 if the status is not
+     *         {@link Status#INFEASIBLE}.
+     */
+    public double getInfeasibilityMultiplier(int i) {
+        if (this.infeasibleRow < 0) {
+            return 0.0;
+        }
+        return this.tableau[this.infeasibleRow][this.nbColumns + i];
+    }
+
+    public int getNumberOfIterations() {
+        return this.nbIterations;
+    }
+}
@@ -0,0 +1,408 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.pb.core;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+import org.sat4j.core.LiteralsUtils;
+import org.sat4j.core.Vec;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.pb.ObjectiveFunction;
+import org.sat4j.pb.constraints.pb.PBConstr;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Lower bounding of the objective function by the linear relaxation of the
+ * original constraints, solved at decision level 0 with a
+ * {@link BoundedDualSimplex}.
+ * 
+ * The relaxation is built over the variables which are not assigned yet. If it
+ * is infeasible, or if its optimum is greater than the upper bound of the
+ * objective function, there is no (better) solution. Otherwise, the reduced
+ * costs are used to fix the variables that cannot leave their bound without
+ * exceeding that upper bound (reduced cost fixing).
+ * 
+ * The simplex works with floating point numbers, so its results are not used
+ * directly. Its dual values are taken as nonnegative multipliers of the
+ * original constraints, and the lower bound and the reduced costs given by
+ * those multipliers are computed with exact arithmetic. Rounding errors can
+ * thus only weaken the bound, never make it wrong. The infeasibility of the
+ * relaxation is checked the same way. The relaxation is skipped when its
+ * tableau would be too large.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+final class LPRelaxation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum number of cells of the tableau.
+     */
+    static final long MAX_TABLEAU_SIZE = 4000000L;
+
+    private final PBSolver solver;
+
+    private BigInteger lowerBound;
+
+    LPRelaxation(PBSolver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Solve the linear relaxation of the current problem at decision level 0.
+     * 
+     * @param constrs
+     *            the original constraints of the solver
+     * @param objf
+     *            the objective function to minimize
+     * @param objectiveBound
+     *            the constraint bounding the objective function from above, if
+     *            any
+     * @param upperBound
+     *            the degree of that constraint
+     * @return false iff the problem is unsatisfiable.
+     */
+    boolean run(IVec<Constr> constrs, ObjectiveFunction objf,
+            IConstr objectiveBound, BigInteger upperBound) {
+        ILits voc = this.solver.getVocabulary();
+        int[] columns = new int[voc.nVars() + 1];
+        int nbColumns = 0;
+        IVec<int[]> rowsLits = new Vec<int[]>();
+        IVec<BigInteger[]> rowsCoefs = new Vec<BigInteger[]>();
+        IVec<BigInteger> rowsDegrees = new Vec<BigInteger>();
+        boolean bounded = false;
+        for (int i = 0; i < constrs.size(); i++) {
+            Constr constr = constrs.get(i);
+            int[] lits;
+            BigInteger[] coefs;
+            BigInteger degree;
+            if (constr instanceof PBConstr) {
+                PBConstr pbconstr = (PBConstr) constr;
+                lits = pbconstr.getLits();
+                coefs = pbconstr.getCoefs();
+                degree = pbconstr.getDegree();
+            } else if (constr.canBeSatisfiedByCountingLiterals()) {
+                lits = new int[constr.size()];
+                coefs = new BigInteger[constr.size()];
+                for (int j = 0; j < lits.length; j++) {
+                    lits[j] = constr.get(j);
+                    coefs[j] = BigInteger.ONE;
+                }
+                degree = BigInteger.valueOf(
+                        constr.requiredNumberOfSatisfiedLiterals());
+            } else {
+                // not a linear constraint: the relaxation is weaker
+                continue;
+            }
+            // remove the literals assigned at decision level 0
+            BigInteger slack = degree.negate();
+            for (int j = 0; j < lits.length; j++) {
+                if (voc.isSatisfied(lits[j])) {
+                    degree = degree.subtract(coefs[j]);
+                }
+                if (!voc.isFalsified(lits[j])) {
+                    slack = slack.add(coefs[j]);
+                }
+            }
+            if (slack.signum() < 0) {
+                return false;
+            }
+            if (degree.signum() <= 0) {
+                continue;
+            }
+            for (int j = 0; j < lits.length; j++) {
+                int var = LiteralsUtils.var(lits[j]);
+                if (voc.isUnassigned(lits[j]) && columns[var] == 0) {
+                    columns[var] = ++nbColumns;
+                }
+            }
+            if (constr == objectiveBound) {
+                bounded = true;
+            }
+            rowsLits.push(lits);
+            rowsCoefs.push(coefs);
+            rowsDegrees.push(degree);
+        }
+        IVecInt objVars = objf.getVars();
+        IVec<BigInteger> objCoefs = objf.getCoeffs();
+        BigInteger constant = BigInteger.ZERO;
+        for (int i = 0; i < objVars.size(); i++) {
+            int p = LiteralsUtils.toInternal(objVars.get(i));
+            int var = LiteralsUtils.var(p);
+            if (var < columns.length && voc.isUnassigned(p)) {
+                if (columns[var] == 0) {
+                    columns[var] = ++nbColumns;
+                }
+            } else if (var < columns.length ? voc.isSatisfied(p)
+                    : objCoefs.get(i).signum() < 0) {
+                constant = constant.add(objCoefs.get(i));
+            }
+        }
+        int nbRows = rowsLits.size();
+        if ((long) nbRows * (nbRows + nbColumns + 1) > MAX_TABLEAU_SIZE) {
+            return true;
+        }
+        // a column x_j is true when its variable is satisfied
+        // the rows are kept exactly, as sparse rows over the columns
+        ExactRows rows = new ExactRows(nbRows);
+        double[][] a = new double[nbRows][nbColumns];
+        double[] b = new double[nbRows];
+        double[] norms = new double[nbRows];
+        for (int i = 0; i < nbRows; i++) {
+            int[] lits = rowsLits.get(i);
+            BigInteger[] coefs = rowsCoefs.get(i);
+            BigInteger degree = rowsDegrees.get(i);
+            int size = 0;
+            for (int j = 0; j < lits.length; j++) {
+                if (voc.isUnassigned(lits[j])) {
+                    size++;
+                }
+            }
+            int[] rowColumns = new int[size];
+            BigInteger[] rowCoefs = new BigInteger[size];
+            size = 0;
+            for (int j = 0; j < lits.length; j++) {
+                if (!voc.isUnassigned(lits[j])) {
+                    continue;
+                }
+                int column = columns[LiteralsUtils.var(lits[j])] - 1;
+                rowColumns[size] = column;
+                if ((lits[j] & 1) == 0) {
+                    rowCoefs[size++] = coefs[j];
+                } else {
+                    rowCoefs[size++] = coefs[j].negate();
+                    degree = degree.subtract(coefs[j]);
+                }
+                a[i][column] += rowCoefs[size - 1].doubleValue();
+            }
+            rows.set(i, rowColumns, rowCoefs, degree);
+            b[i] = degree.doubleValue();
+            norms[i] = normalize(a[i], b, i);
+        }
+        BigInteger[] costs = new BigInteger[nbColumns];
+        for (int j = 0; j < nbColumns; j++) {
+            costs[j] = BigInteger.ZERO;
+        }
+        for (int i = 0; i < objVars.size(); i++) {
+            int p = LiteralsUtils.toInternal(objVars.get(i));
+            int var = LiteralsUtils.var(p);
+            if (var >= columns.length || !voc.isUnassigned(p)) {
+                continue;
+            }
+            if ((p & 1) == 0) {
+                costs[columns[var] - 1] = costs[columns[var] - 1]
+                        .add(objCoefs.get(i));
+            } else {
+                costs[columns[var] - 1] = costs[columns[var] - 1]
+                        .subtract(objCoefs.get(i));
+                constant = constant.add(objCoefs.get(i));
+            }
+        }
+        double[] c = new double[nbColumns];
+        double scale = 0.0;
+        for (int j = 0; j < nbColumns; j++) {
+            c[j] = costs[j].doubleValue();
+            scale = Math.max(scale, Math.abs(c[j]));
+        }
+        if (scale == 0.0) {
+            this.lowerBound = constant;
+            return true;
+        }
+        for (int j = 0; j < nbColumns; j++) {
+            c[j] /= scale;
+        }
+        BoundedDualSimplex simplex = new BoundedDualSimplex(a, b, c);
+        int maxIterations = 10 * (nbRows + nbColumns) + 100;
+        PBSolverStats stats = this.solver.pbStats;
+        stats.incNumberOfLPRelaxations();
+        BigDecimal[] multipliers = new BigDecimal[nbRows];
+        BigDecimal[] reducedCosts = new BigDecimal[nbColumns];
+        if (simplex.solve(maxIterations) == BoundedDualSimplex.Status.INFEASIBLE) {
+            // the multipliers of the rows, or their opposites, must prove it
+            for (int sign = 1; sign >= -1; sign -= 2) {
+                for (int i = 0; i < nbRows; i++) {
+                    multipliers[i] = multiplier(sign
+                            * simplex.getInfeasibilityMultiplier(i), norms[i]);
+                }
+                if (rows.lagrangianBound(multipliers, null, reducedCosts)
+                        .signum() > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (int i = 0; i < nbRows; i++) {
+            multipliers[i] = multiplier(scale * simplex.getDualValue(i),
+                    norms[i]);
+        }
+        BigDecimal bound = new BigDecimal(constant).add(rows.lagrangianBound(
+                multipliers, costs, reducedCosts));
+        this.lowerBound = bound.setScale(0, RoundingMode.CEILING)
+                .toBigIntegerExact();
+        if (!bounded) {
+            return true;
+        }
+        if (this.lowerBound.compareTo(upperBound) > 0) {
+            return false;
+        }
+        // reduced cost fixing: moving x_j from the bound selected by the sign
+        // of its reduced cost increases the bound by the absolute value of
+        // that reduced cost
+        BigDecimal margin = new BigDecimal(upperBound).subtract(bound);
+        for (int var = 1; var < columns.length; var++) {
+            int column = columns[var] - 1;
+            if (column < 0 || reducedCosts[column].signum() == 0
+                    || reducedCosts[column].abs().compareTo(margin) <= 0) {
+                continue;
+            }
+            int p = reducedCosts[column].signum() < 0 ? LiteralsUtils
+                    .posLit(var) : LiteralsUtils.negLit(var);
+            if (voc.isFalsified(p)) {
+                return false;
+            }
+            if (voc.isUnassigned(p)) {
+                this.solver.enqueue(p);
+                stats.incNumberOfLPFixedLiterals();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * translates a multiplier of a normalized row into an exact nonnegative
+     * multiplier of the original row. Any nonnegative value is safe: only the
+     * strength of the bound depends on it.
+     */
+    private static BigDecimal multiplier(double value, double norm) {
+        double multiplier = value / norm;
+        if (!(multiplier > 0.0) || Double.isInfinite(multiplier)) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(multiplier);
+    }
+
+    private static double normalize(double[] row, double[] b, int i) {
+        double max = 0.0;
+        for (double coef : row) {
+            max = Math.max(max, Math.abs(coef));
+        }
+        if (max > 0.0) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] /= max;
+            }
+            b[i] /= max;
+        }
+        return max;
+    }
+
+    /**
+     * 
+     * @return the lower bound of the objective function found by the last
+     *         relaxation, null if there is none
+     */
+    BigInteger getLowerBound() {
+        return this.lowerBound;
+    }
+
+    /**
+     * The rows A.x &gt;= b of the relaxation, with their integer coefficients.
+     */
+    private static final class ExactRows {
+
+        private final int[][] columns;
+
+        private final BigInteger[][] coefs;
+
+        private final BigInteger[] degrees;
+
+        ExactRows(int nbRows) {
+            this.columns = new int[nbRows][];
+            this.coefs = new BigInteger[nbRows][];
+            this.degrees = new BigInteger[nbRows];
+        }
+
+        void set(int i, int[] rowColumns, BigInteger[] rowCoefs,
+                BigInteger degree) {
+            this.columns[i] = rowColumns;
+            this.coefs[i] = rowCoefs;
+            this.degrees[i] = degree;
+        }
+
+        /**
+         * computes exactly the bound given by nonnegative multipliers u of the
+         * rows: any x between 0 and 1 satisfying the rows is such that c.x
+         * &gt;= u.b + sum_j min(0, c_j - u.A_j).
+         * 
+         * @param u
+         *            nonnegative multipliers of the rows
+         * @param costs
+         *            the costs c of the columns, null for zero costs
+         * @param reducedCosts
+         *            receives the reduced costs c_j - u.A_j of the columns
+         * @return the bound
+         */
+        BigDecimal lagrangianBound(BigDecimal[] u, BigInteger[] costs,
+                BigDecimal[] reducedCosts) {
+            for (int j = 0; j < reducedCosts.length; j++) {
+                reducedCosts[j] = costs == null ? BigDecimal.ZERO
+                        : new BigDecimal(costs[j]);
+            }
+            BigDecimal bound = BigDecimal.ZERO;
+            for (int i = 0; i < u.length; i++) {
+                if (u[i].signum() == 0) {
+                    continue;
+                }
+                bound = bound.add(u[i].multiply(new BigDecimal(
+                        this.degrees[i])));
+                int[] rowColumns = this.columns[i];
+                BigInteger[] rowCoefs = this.coefs[i];
+                for (int k = 0; k < rowColumns.length; k++) {
+                    reducedCosts[rowColumns[k]] = reducedCosts[rowColumns[k]]
+                            .subtract(u[i].multiply(new BigDecimal(
+                                    rowCoefs[k])));
+                }
+            }
+            for (BigDecimal reducedCost : reducedCosts) {
+                if (reducedCost.signum() < 0) {
+                    bound = bound.add(reducedCost);
+                }
+            }
+            return bound;
+        }
+    }
+}
@@ -53,6 +53,7 @@ import org.sat4j.specs.ISolverService;
 import org.sat4j.specs.IVec;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.IteratorInt;
+import org.sat4j.specs.LearnedClauseProvider;
 import org.sat4j.specs.SearchListener;
 import org.sat4j.specs.TimeoutException;
 import org.sat4j.specs.UnitClauseProvider;
@@ -434,6 +435,10 @@ public class ObjectiveReducerPBSolverDecorator implements IPBSolver {
         decorated.setUnitClauseProvider(ucp);
     }
 
+    public void setLearnedClauseProvider(LearnedClauseProvider lcp) {
+        decorated.setLearnedClauseProvider(lcp);
+    }
+
     public IConstr addConstr(Constr constr) {
         return decorated.addConstr(constr);
     }
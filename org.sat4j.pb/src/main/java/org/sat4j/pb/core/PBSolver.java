@@ -67,6 +67,20 @@ public abstract class PBSolver extends Solver<PBDataStructureFactory> implements
 
     protected PBSolverStats pbStats;
 
+    /**
+     * The number of restarts between two linear relaxations.
+     */
+    private static final int LP_RELAXATION_PERIOD = 16;
+
+    private LPRelaxation lpRelaxation;
+
+    /**
+     * The last constraint bounding the objective function from above.
+     */
+    private IConstr objectiveBound;
+
+    private BigInteger objectiveUpperBound;
+
     public PBSolver(LearningStrategy<PBDataStructureFactory> learner,
             PBDataStructureFactory dsf, IOrder order, RestartStrategy restarter) {
         super(learner, dsf, order, restarter);
@@ -87,8 +101,81 @@ public abstract class PBSolver extends Solver<PBDataStructureFactory> implements
         IVecInt vlits = dimacs2internal(literals);
         assert vlits.size() == literals.size();
         assert literals.size() == coeffs.size();
-        return addConstr(this.dsfactory.createPseudoBooleanConstraint(vlits,
-                coeffs, moreThan, degree));
+        IConstr constr = addConstr(this.dsfactory
+                .createPseudoBooleanConstraint(vlits, coeffs, moreThan, degree));
+        if (!moreThan) {
+            checkObjectiveBound(literals, coeffs, degree, constr);
+        }
+        return constr;
+    }
+
+    /**
+     * Keep track of the constraints bounding the objective function from
+     * above, as added by an optimization decorator, to use that bound in the
+     * linear relaxation.
+     */
+    private void checkObjectiveBound(IVecInt literals,
+            IVec<BigInteger> coeffs, BigInteger degree, IConstr constr) {
+        if (this.objf != null && constr != null
+                && this.objf.getVars().equals(literals)
+                && this.objf.getCoeffs().equals(coeffs)) {
+            this.objectiveBound = constr;
+            this.objectiveUpperBound = degree;
+        }
+    }
+
+    /**
+     * Solve the linear relaxation of the problem at decision level 0 before
+     * the search starts and periodically at restarts, to get a lower bound of
+     * the objective function. That lower bound is used to prove that no
+     * solution is better than the upper bound given by the last constraint on
+     * the objective function (as added by an optimization decorator), and to
+     * fix the literals which cannot change without exceeding that upper bound.
+     * 
+     * The relaxation is only computed when there is an objective function and
+     * no assumptions, and is skipped on large problems. The literals it fixes
+     * cannot be justified in a RUP proof.
+     * 
+     * The upper bound is only recognized on a constraint over exactly the
+     * literals and coefficients of the objective function, as added by
+     * {@link org.sat4j.pb.PseudoOptDecorator} with the
+     * {@link org.sat4j.pb.BoundStrategy#LINEAR} strategy. The other strategies
+     * bound the objective function with constraints guarded by an assumption,
+     * so the relaxation then only provides the lower bound given by
+     * {@link #getObjectiveLowerBound()}, without pruning the search.
+     * 
+     * @param useLPRelaxation
+     *            true to use the linear relaxation, false (the default)
+     *            otherwise.
+     * @since 2.3.6
+     */
+    public void setUseLPRelaxation(boolean useLPRelaxation) {
+        this.lpRelaxation = useLPRelaxation ? new LPRelaxation(this) : null;
+    }
+
+    public boolean isUseLPRelaxation() {
+        return this.lpRelaxation != null;
+    }
+
+    /**
+     * 
+     * @return the lower bound of the objective function given by the last
+     *         linear relaxation of the problem, null if there is none.
+     * @since 2.3.6
+     */
+    public BigInteger getObjectiveLowerBound() {
+        return this.lpRelaxation == null ? null : this.lpRelaxation
+                .getLowerBound();
+    }
+
+    @Override
+    protected boolean reasonAtRootLevel(int nbRestarts) {
+        if (this.lpRelaxation == null || this.objf == null
+                || nbRestarts % LP_RELAXATION_PERIOD != 0) {
+            return true;
+        }
+        return this.lpRelaxation.run(this.constrs, this.objf,
+                this.objectiveBound, this.objectiveUpperBound);
     }
 
     public void setObjectiveFunction(ObjectiveFunction obj) {
@@ -123,8 +210,10 @@ public abstract class PBSolver extends Solver<PBDataStructureFactory> implements
         IVecInt vlits = dimacs2internal(literals);
         assert vlits.size() == literals.size();
         assert literals.size() == coeffs.size();
-        return addConstr(this.dsfactory.createPseudoBooleanConstraint(vlits,
-                coeffs, false, degree));
+        IConstr constr = addConstr(this.dsfactory
+                .createPseudoBooleanConstraint(vlits, coeffs, false, degree));
+        checkObjectiveBound(literals, coeffs, degree, constr);
+        return constr;
     }
 
     public IConstr addAtLeast(IVecInt literals, IVecInt coeffs, int degree)
@@ -299,6 +388,10 @@ public abstract class PBSolver extends Solver<PBDataStructureFactory> implements
             this.clauseManagement.reset();
         }
 
+        public void onClauseImport(Constr constr, int lbd) {
+            onClauseLearning(constr);
+        }
+
         public void onClauseLearning(Constr constr) {
             boolean fullObj = true;
 
@@ -39,6 +39,7 @@ import org.sat4j.minisat.core.SearchParams;
 import org.sat4j.minisat.restarts.MiniSATRestarts;
 import org.sat4j.pb.constraints.pb.AutoDivisionStrategy;
 import org.sat4j.pb.constraints.pb.ConflictMap;
+import org.sat4j.pb.constraints.pb.ConflictWorkspace;
 import org.sat4j.pb.constraints.pb.IConflict;
 import org.sat4j.pb.constraints.pb.IConflictFactory;
 import org.sat4j.pb.constraints.pb.IPostProcess;
@@ -77,6 +78,11 @@ public class PBSolverCP extends PBSolver {
 
     private AutoDivisionStrategy autoDivisionStrategy = AutoDivisionStrategy.DISABLED;
 
+    /**
+     * memory reused from one conflict analysis to the next one.
+     */
+    protected final ConflictWorkspace conflictWorkspace = new ConflictWorkspace();
+
     /**
      * @param acg
      * @param learner
@@ -203,7 +209,7 @@ public class PBSolverCP extends PBSolver {
     protected IConflict chooseConflict(PBConstr myconfl, int level) {
         return conflictFactory.createConflict(myconfl, level, noRemove,
                 skipAllow, postprocess, weakeningStrategy, autoDivisionStrategy,
-                pbStats);
+                pbStats, conflictWorkspace);
     }
 
     @Override
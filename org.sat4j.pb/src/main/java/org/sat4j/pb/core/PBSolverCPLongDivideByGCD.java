@@ -69,7 +69,7 @@ public class PBSolverCPLongDivideByGCD extends PBSolverCPLong {
         return ConflictMap.createConflict(myconfl, level, isNoRemove(),
                 isSkipAllow(), PostProcessDivideBy2.instance(),
                 IWeakeningStrategy.UNASSIGNED_FIRST,
-                AutoDivisionStrategy.ENABLED, pbStats);
+                AutoDivisionStrategy.ENABLED, pbStats, conflictWorkspace);
     }
 
     @Override
@@ -69,7 +69,7 @@ public class PBSolverCPReduceByGCD extends PBSolverCP {
         return ConflictMapReduceByGCD.createConflict(myconfl, level,
                 isNoRemove(), isSkipAllow(), NoPostProcess.instance(),
                 IWeakeningStrategy.UNASSIGNED_FIRST,
-                AutoDivisionStrategy.ENABLED, pbStats);
+                AutoDivisionStrategy.ENABLED, pbStats, conflictWorkspace);
     }
 
     @Override
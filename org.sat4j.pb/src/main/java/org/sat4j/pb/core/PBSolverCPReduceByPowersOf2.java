@@ -69,7 +69,7 @@ public class PBSolverCPReduceByPowersOf2 extends PBSolverCP {
         return ConflictMapReduceByPowersOf2.createConflict(myconfl, level,
                 isNoRemove(), isSkipAllow(), NoPostProcess.instance(),
                 IWeakeningStrategy.UNASSIGNED_FIRST,
-                AutoDivisionStrategy.ENABLED, pbStats);
+                AutoDivisionStrategy.ENABLED, pbStats, conflictWorkspace);
     }
 
     @Override
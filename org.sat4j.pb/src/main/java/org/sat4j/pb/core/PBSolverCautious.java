@@ -60,7 +60,7 @@ public class PBSolverCautious extends PBSolverCP {
         return ConflictMapSwitchToClause.createConflict(myconfl, level,
                 isNoRemove(), isSkipAllow(), NoPostProcess.instance(),
                 IWeakeningStrategy.UNASSIGNED_FIRST,
-                AutoDivisionStrategy.ENABLED, null);
+                AutoDivisionStrategy.ENABLED, null, conflictWorkspace);
     }
 
     @Override
@@ -55,7 +55,7 @@ public class PBSolverClause extends PBSolverCP {
         return ConflictMapClause.createConflict(myconfl, level, isNoRemove(),
                 isSkipAllow(), NoPostProcess.instance(),
                 IWeakeningStrategy.UNASSIGNED_FIRST,
-                AutoDivisionStrategy.ENABLED, pbStats);
+                AutoDivisionStrategy.ENABLED, pbStats, conflictWorkspace);
     }
 
     @Override
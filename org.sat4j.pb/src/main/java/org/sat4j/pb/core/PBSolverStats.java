@@ -68,6 +68,12 @@ public class PBSolverStats extends SolverStats {
 
     private long numberOfRemainingAssigned;
 
+    private long numberOfOverflowsToBigInteger;
+
+    private long numberOfLPRelaxations;
+
+    private long numberOfLPFixedLiterals;
+
     @Override
     public void reset() {
         super.reset();
@@ -84,6 +90,9 @@ public class PBSolverStats extends SolverStats {
         this.numberOfDerivationSteps = 0;
         this.numberOfRemainingUnassigned = 0;
         this.numberOfRemainingAssigned = 0;
+        this.numberOfOverflowsToBigInteger = 0;
+        this.numberOfLPRelaxations = 0;
+        this.numberOfLPFixedLiterals = 0;
     }
 
     @Override
@@ -126,6 +135,12 @@ public class PBSolverStats extends SolverStats {
                 + this.numberOfRemainingUnassigned);
         out.println(prefix + "number of remaining assigned \t: "
                 + this.numberOfRemainingAssigned);
+        out.println(prefix + "number of overflows to BigInteger \t: "
+                + this.numberOfOverflowsToBigInteger);
+        out.println(prefix + "number of LP relaxations \t: "
+                + this.numberOfLPRelaxations);
+        out.println(prefix + "number of literals fixed by LP relaxations \t: "
+                + this.numberOfLPFixedLiterals);
     }
 
     public long getNumberOfReductions() {
@@ -240,4 +255,28 @@ public class PBSolverStats extends SolverStats {
         this.numberOfRemainingAssigned++;
     }
 
+    public long getNumberOfOverflowsToBigInteger() {
+        return numberOfOverflowsToBigInteger;
+    }
+
+    public void incNumberOfOverflowsToBigInteger() {
+        this.numberOfOverflowsToBigInteger++;
+    }
+
+    public long getNumberOfLPRelaxations() {
+        return numberOfLPRelaxations;
+    }
+
+    public void incNumberOfLPRelaxations() {
+        this.numberOfLPRelaxations++;
+    }
+
+    public long getNumberOfLPFixedLiterals() {
+        return numberOfLPFixedLiterals;
+    }
+
+    public void incNumberOfLPFixedLiterals() {
+        this.numberOfLPFixedLiterals++;
+    }
+
 }
@@ -23,6 +23,7 @@ import org.sat4j.specs.ISolverService;
 import org.sat4j.specs.IVec;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.IteratorInt;
+import org.sat4j.specs.LearnedClauseProvider;
 import org.sat4j.specs.SearchListener;
 import org.sat4j.specs.TimeoutException;
 import org.sat4j.specs.UnitClauseProvider;
@@ -433,6 +434,10 @@ public class SumLeximinDecompositionOWAOptimizer
         solver.setUnitClauseProvider(ucp);
     }
 
+    public void setLearnedClauseProvider(LearnedClauseProvider lcp) {
+        solver.setLearnedClauseProvider(lcp);
+    }
+
     public <S extends ISolverService> SearchListener<S> getSearchListener() {
         return solver.getSearchListener();
     }
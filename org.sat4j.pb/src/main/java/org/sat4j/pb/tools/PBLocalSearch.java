@@ -0,0 +1,595 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.pb.tools;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.sat4j.core.LiteralsUtils;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.pb.ObjectiveFunction;
+import org.sat4j.pb.constraints.pb.PBConstr;
+import org.sat4j.specs.Constr;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * A stochastic local search looking for solutions of a pseudo boolean
+ * optimization problem, meant to run on its own thread next to a CDCL solver.
+ * 
+ * The search works on a copy of the original constraints of the CDCL solver,
+ * taken when the local search is created. Each constraint gets a weight which
+ * is increased each time the search is stuck while the constraint is violated
+ * (in the style of the weighting schemes of PBO-IHS or NuPBO). Once a solution
+ * is found, the objective function becomes a constraint requiring a better
+ * solution, so the search keeps improving the best solution found so far.
+ * 
+ * The CDCL solver can seed the search with its own solutions using
+ * {@link #seed(int[])}, and collect the improved solutions using
+ * {@link #getBestValue()} and {@link #getBestModel()}. The search stops by
+ * itself after a long period without improvement, when no better solution can
+ * exist, or when {@link #stop()} is called.
+ * 
+ * @author leberre
+ * @since 2.3.6
+ */
+public class PBLocalSearch implements Runnable {
+
+    /**
+     * The number of steps without improvement after which the search stops
+     * until the next seed.
+     */
+    private static final long MAX_STEPS_WITHOUT_IMPROVEMENT = 10000000L;
+
+    /**
+     * The probability of a random walk step when the search is stuck.
+     */
+    private static final double NOISE = 0.01;
+
+    /**
+     * The number of flips during which a flipped variable cannot be flipped
+     * back, unless it improves the score.
+     */
+    private static final int TABU_TENURE = 3;
+
+    private final int nbVars;
+
+    private final int[][] lits;
+
+    private final long[][] coefs;
+
+    private final long[] degrees;
+
+    private final long[] sums;
+
+    private final long[] weights;
+
+    /**
+     * the constraints in which each variable occurs, and the coefficient of
+     * that variable in each of them.
+     */
+    private final int[][] occurrences;
+
+    private final long[][] occurrencesCoefs;
+
+    /**
+     * the variables assigned at decision level 0 by the CDCL solver.
+     */
+    private final boolean[] fixed;
+
+    /**
+     * the contribution of each variable to the objective function when it is
+     * satisfied.
+     */
+    private final long[] objCoefs;
+
+    /**
+     * the variables occurring in the objective function.
+     */
+    private final int[] objVars;
+
+    private final long objConstant;
+
+    private final long objMinValue;
+
+    private final boolean[] values;
+
+    private final long[] lastFlip;
+
+    private final int[] violated;
+
+    private final int[] violatedIndex;
+
+    private int nbViolated;
+
+    private long objValue;
+
+    private long objWeight = 1;
+
+    private long nbFlips;
+
+    private long nbSteps;
+
+    private long lastImprovement;
+
+    private final Random rand = new Random(17);
+
+    private boolean[] bestValues;
+
+    private long bestValue = Long.MAX_VALUE;
+
+    private boolean[] nextSeed;
+
+    private volatile boolean stopped;
+
+    private boolean running;
+
+    private PBLocalSearch(int nbVars, IVec<int[]> lits, IVec<long[]> coefs,
+            long[] degrees, boolean[] fixed, long[] objCoefs, long objConstant) {
+        this.nbVars = nbVars;
+        int nbConstrs = lits.size();
+        this.lits = new int[nbConstrs][];
+        this.coefs = new long[nbConstrs][];
+        int[] nbOccurrences = new int[nbVars + 1];
+        for (int i = 0; i < nbConstrs; i++) {
+            this.lits[i] = lits.get(i);
+            this.coefs[i] = coefs.get(i);
+            for (int p : this.lits[i]) {
+                nbOccurrences[LiteralsUtils.var(p)]++;
+            }
+        }
+        this.occurrences = new int[nbVars + 1][];
+        this.occurrencesCoefs = new long[nbVars + 1][];
+        for (int v = 1; v <= nbVars; v++) {
+            this.occurrences[v] = new int[nbOccurrences[v]];
+            this.occurrencesCoefs[v] = new long[nbOccurrences[v]];
+            nbOccurrences[v] = 0;
+        }
+        for (int i = 0; i < nbConstrs; i++) {
+            for (int j = 0; j < this.lits[i].length; j++) {
+                int p = this.lits[i][j];
+                int v = LiteralsUtils.var(p);
+                this.occurrences[v][nbOccurrences[v]] = i;
+                // the coefficient is positive iff the literal is positive
+                this.occurrencesCoefs[v][nbOccurrences[v]++] = (p & 1) == 0 ? this.coefs[i][j]
+                        : -this.coefs[i][j];
+            }
+        }
+        this.degrees = degrees;
+        this.sums = new long[nbConstrs];
+        this.weights = new long[nbConstrs];
+        this.fixed = fixed;
+        this.objCoefs = objCoefs;
+        this.objConstant = objConstant;
+        long min = objConstant;
+        for (int v = 1; v <= nbVars; v++) {
+            if (objCoefs[v] < 0) {
+                min += objCoefs[v];
+            }
+        }
+        this.objMinValue = min;
+        int nbObjVars = 0;
+        for (int v = 1; v <= nbVars; v++) {
+            if (objCoefs[v] != 0) {
+                nbObjVars++;
+            }
+        }
+        this.objVars = new int[nbObjVars];
+        for (int v = 1; v <= nbVars; v++) {
+            if (objCoefs[v] != 0) {
+                this.objVars[--nbObjVars] = v;
+            }
+        }
+        this.values = new boolean[nbVars + 1];
+        this.lastFlip = new long[nbVars + 1];
+        this.violated = new int[nbConstrs];
+        this.violatedIndex = new int[nbConstrs];
+    }
+
+    /**
+     * Create a local search over the original constraints of a CDCL solver.
+     * 
+     * @param solver
+     *            a solver, or a solver decorator, at decision level 0
+     * @param objf
+     *            the objective function to minimize
+     * @return a local search, or null if some constraints cannot be handled by
+     *         the local search or if the coefficients are too large.
+     */
+    public static PBLocalSearch create(ISolver solver, ObjectiveFunction objf) {
+        if (objf == null || !(solver.getSolvingEngine() instanceof Solver<?>)) {
+            return null;
+        }
+        Solver<?> engine = (Solver<?>) solver.getSolvingEngine();
+        ILits voc = engine.getVocabulary();
+        int nbVars = voc.nVars();
+        boolean[] fixed = new boolean[nbVars + 1];
+        for (int v = 1; v <= nbVars; v++) {
+            fixed[v] = !voc.isUnassigned(LiteralsUtils.posLit(v));
+        }
+        IVec<int[]> lits = new org.sat4j.core.Vec<int[]>();
+        IVec<long[]> coefs = new org.sat4j.core.Vec<long[]>();
+        IVec<Long> degrees = new org.sat4j.core.Vec<Long>();
+        BigInteger maxSum = BigInteger.valueOf(Long.MAX_VALUE >> 2);
+        for (int i = 0; i < engine.nConstraints(); i++) {
+            Constr constr = (Constr) engine.getIthConstr(i);
+            int[] clits;
+            BigInteger[] bcoefs;
+            BigInteger degree;
+            if (constr instanceof PBConstr) {
+                PBConstr pbconstr = (PBConstr) constr;
+                clits = pbconstr.getLits().clone();
+                bcoefs = pbconstr.getCoefs();
+                degree = pbconstr.getDegree();
+            } else if (constr.canBeSatisfiedByCountingLiterals()) {
+                clits = new int[constr.size()];
+                bcoefs = new BigInteger[constr.size()];
+                for (int j = 0; j < clits.length; j++) {
+                    clits[j] = constr.get(j);
+                    bcoefs[j] = BigInteger.ONE;
+                }
+                degree = BigInteger.valueOf(
+                        constr.requiredNumberOfSatisfiedLiterals());
+            } else {
+                return null;
+            }
+            BigInteger sum = BigInteger.ZERO;
+            long[] lcoefs = new long[clits.length];
+            for (int j = 0; j < clits.length; j++) {
+                sum = sum.add(bcoefs[j]);
+                lcoefs[j] = bcoefs[j].longValue();
+            }
+            if (sum.compareTo(maxSum) > 0) {
+                return null;
+            }
+            lits.push(clits);
+            coefs.push(lcoefs);
+            degrees.push(degree.longValue());
+        }
+        long[] objCoefs = new long[nbVars + 1];
+        BigInteger constant = BigInteger.ZERO;
+        BigInteger sum = BigInteger.ZERO;
+        IVecInt objVars = objf.getVars();
+        IVec<BigInteger> objCoeffs = objf.getCoeffs();
+        for (int i = 0; i < objVars.size(); i++) {
+            int x = objVars.get(i);
+            BigInteger coef = objCoeffs.get(i);
+            sum = sum.add(coef.abs());
+            if (Math.abs(x) > nbVars || sum.compareTo(maxSum) > 0) {
+                return null;
+            }
+            if (x > 0) {
+                objCoefs[x] += coef.longValue();
+            } else {
+                // c.-x = c - c.x
+                constant = constant.add(coef);
+                objCoefs[-x] -= coef.longValue();
+            }
+        }
+        long[] ldegrees = new long[degrees.size()];
+        for (int i = 0; i < ldegrees.length; i++) {
+            ldegrees[i] = degrees.get(i);
+        }
+        PBLocalSearch search = new PBLocalSearch(nbVars, lits, coefs,
+                ldegrees, fixed, objCoefs, constant.longValue());
+        for (int v = 1; v <= nbVars; v++) {
+            if (fixed[v]) {
+                search.values[v] = voc.isSatisfied(LiteralsUtils.posLit(v));
+            }
+        }
+        return search;
+    }
+
+    /**
+     * Restart the local search from a solution found by the CDCL solver. The
+     * local search is started on its own thread if it is not running.
+     * 
+     * @param model
+     *            a model, including the internal variables of the solver
+     */
+    public synchronized void seed(int[] model) {
+        boolean[] seedValues = new boolean[this.nbVars + 1];
+        for (int x : model) {
+            if (x > 0 && x <= this.nbVars) {
+                seedValues[x] = true;
+            }
+        }
+        for (int v = 1; v <= this.nbVars; v++) {
+            if (this.fixed[v]) {
+                seedValues[v] = this.values[v];
+            }
+        }
+        this.nextSeed = seedValues;
+        if (!this.running && !this.stopped) {
+            this.running = true;
+            Thread thread = new Thread(this, "PB local search");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Stop the local search for good.
+     */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * 
+     * @return the value of the objective function of the best solution found
+     *         by the local search, {@link Long#MAX_VALUE} if there is none.
+     */
+    public synchronized long getBestValue() {
+        return this.bestValue;
+    }
+
+    /**
+     * 
+     * @return the best solution found by the local search, as a model in
+     *         Dimacs format over all the variables, null if there is none.
+     */
+    public synchronized int[] getBestModel() {
+        if (this.bestValues == null) {
+            return null;
+        }
+        int[] model = new int[this.nbVars];
+        for (int v = 1; v <= this.nbVars; v++) {
+            model[v - 1] = this.bestValues[v] ? v : -v;
+        }
+        return model;
+    }
+
+    public void run() {
+        while (!this.stopped) {
+            boolean[] seedValues;
+            synchronized (this) {
+                // a seed given meanwhile must not be lost
+                seedValues = this.nextSeed;
+                this.nextSeed = null;
+            }
+            if (seedValues != null) {
+                init(seedValues);
+            }
+            if (this.nbSteps - this.lastImprovement > MAX_STEPS_WITHOUT_IMPROVEMENT
+                    || getBestValue() == this.objMinValue) {
+                // wait for the next seed
+                synchronized (this) {
+                    if (this.nextSeed == null) {
+                        this.running = false;
+                        return;
+                    }
+                }
+                continue;
+            }
+            for (int i = 0; i < 1024 && !this.stopped; i++) {
+                step();
+            }
+        }
+    }
+
+    private void init(boolean[] seedValues) {
+        System.arraycopy(seedValues, 0, this.values, 0, this.values.length);
+        this.nbViolated = 0;
+        for (int i = 0; i < this.lits.length; i++) {
+            this.sums[i] = 0;
+            for (int j = 0; j < this.lits[i].length; j++) {
+                if (isSatisfied(this.lits[i][j])) {
+                    this.sums[i] += this.coefs[i][j];
+                }
+            }
+            this.weights[i] = 1;
+            if (this.sums[i] < this.degrees[i]) {
+                addViolated(i);
+            }
+        }
+        this.objValue = this.objConstant;
+        for (int v = 1; v <= this.nbVars; v++) {
+            if (this.values[v]) {
+                this.objValue += this.objCoefs[v];
+            }
+        }
+        this.objWeight = 1;
+        this.lastImprovement = this.nbSteps;
+        checkSolution();
+    }
+
+    private boolean isSatisfied(int p) {
+        return this.values[LiteralsUtils.var(p)] == ((p & 1) == 0);
+    }
+
+    private void addViolated(int i) {
+        this.violatedIndex[i] = this.nbViolated;
+        this.violated[this.nbViolated++] = i;
+    }
+
+    private void removeViolated(int i) {
+        int last = this.violated[--this.nbViolated];
+        this.violated[this.violatedIndex[i]] = last;
+        this.violatedIndex[last] = this.violatedIndex[i];
+    }
+
+    /**
+     * 
+     * @return the amount by which the objective function exceeds the value
+     *         required to improve the best solution.
+     */
+    private long objectiveViolation(long value) {
+        if (this.bestValues == null) {
+            return 0;
+        }
+        return Math.max(0, value - (this.bestValue - 1));
+    }
+
+    /**
+     * The weighted decrease of the violation of the constraints when flipping
+     * a variable.
+     */
+    private double score(int v) {
+        double score = 0.0;
+        int[] occs = this.occurrences[v];
+        long[] occsCoefs = this.occurrencesCoefs[v];
+        for (int k = 0; k < occs.length; k++) {
+            int i = occs[k];
+            long delta = this.values[v] ? -occsCoefs[k] : occsCoefs[k];
+            long before = Math.max(0, this.degrees[i] - this.sums[i]);
+            long after = Math.max(0, this.degrees[i] - this.sums[i] - delta);
+            if (before != after) {
+                score += (double) this.weights[i] * (before - after);
+            }
+        }
+        long objDelta = this.values[v] ? -this.objCoefs[v] : this.objCoefs[v];
+        if (objDelta != 0) {
+            score += (double) this.objWeight
+                    * (objectiveViolation(this.objValue) - objectiveViolation(this.objValue
+                            + objDelta));
+        }
+        return score;
+    }
+
+    private void flip(int v) {
+        this.values[v] = !this.values[v];
+        int[] occs = this.occurrences[v];
+        long[] occsCoefs = this.occurrencesCoefs[v];
+        for (int k = 0; k < occs.length; k++) {
+            int i = occs[k];
+            boolean wasViolated = this.sums[i] < this.degrees[i];
+            this.sums[i] += this.values[v] ? occsCoefs[k] : -occsCoefs[k];
+            boolean isViolated = this.sums[i] < this.degrees[i];
+            if (wasViolated && !isViolated) {
+                removeViolated(i);
+            } else if (!wasViolated && isViolated) {
+                addViolated(i);
+            }
+        }
+        this.objValue += this.values[v] ? this.objCoefs[v] : -this.objCoefs[v];
+        this.lastFlip[v] = ++this.nbFlips;
+    }
+
+    private void step() {
+        this.nbSteps++;
+        boolean objViolated = objectiveViolation(this.objValue) > 0;
+        if (this.nbViolated == 0 && !objViolated) {
+            checkSolution();
+            return;
+        }
+        // pick a violated constraint, possibly the objective function
+        int constr = -1;
+        if (!objViolated || this.nbViolated > 0
+                && this.rand.nextInt(this.nbViolated + 1) > 0) {
+            constr = this.violated[this.rand.nextInt(this.nbViolated)];
+        }
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int nbCandidates = 0;
+        int randomCandidate = 0;
+        if (constr >= 0) {
+            for (int p : this.lits[constr]) {
+                int v = LiteralsUtils.var(p);
+                if (this.fixed[v] || isSatisfied(p)) {
+                    continue;
+                }
+                double score = score(v);
+                if (this.rand.nextInt(++nbCandidates) == 0) {
+                    randomCandidate = v;
+                }
+                if (isBetter(v, score, best, bestScore)) {
+                    best = v;
+                    bestScore = score;
+                }
+            }
+        } else {
+            for (int v : this.objVars) {
+                if (this.fixed[v] || (this.values[v] ? this.objCoefs[v] < 0
+                        : this.objCoefs[v] > 0)) {
+                    continue;
+                }
+                double score = score(v);
+                if (this.rand.nextInt(++nbCandidates) == 0) {
+                    randomCandidate = v;
+                }
+                if (isBetter(v, score, best, bestScore)) {
+                    best = v;
+                    bestScore = score;
+                }
+            }
+        }
+        if (nbCandidates == 0) {
+            increaseWeights();
+            return;
+        }
+        if (bestScore <= 0) {
+            increaseWeights();
+            // best is 0 when all the candidates are tabu
+            if (best == 0 || this.rand.nextDouble() < NOISE) {
+                best = randomCandidate;
+            }
+        }
+        flip(best);
+    }
+
+    private boolean isBetter(int v, double score, int best, double bestScore) {
+        boolean tabu = this.nbFlips - this.lastFlip[v] < TABU_TENURE
+                && this.lastFlip[v] > 0 && score <= 0;
+        if (tabu) {
+            return false;
+        }
+        return score > bestScore || score == bestScore
+                && this.lastFlip[v] < this.lastFlip[best];
+    }
+
+    private void increaseWeights() {
+        for (int k = 0; k < this.nbViolated; k++) {
+            this.weights[this.violated[k]]++;
+        }
+        if (objectiveViolation(this.objValue) > 0) {
+            this.objWeight++;
+        }
+    }
+
+    private void checkSolution() {
+        if (this.nbViolated > 0 || objectiveViolation(this.objValue) > 0) {
+            return;
+        }
+        synchronized (this) {
+            if (this.objValue < this.bestValue) {
+                this.bestValue = this.objValue;
+                if (this.bestValues == null) {
+                    this.bestValues = new boolean[this.nbVars + 1];
+                }
+                System.arraycopy(this.values, 0, this.bestValues, 0,
+                        this.values.length);
+            }
+        }
+        this.lastImprovement = this.nbSteps;
+    }
+}
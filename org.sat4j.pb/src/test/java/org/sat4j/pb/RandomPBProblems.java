@@ -0,0 +1,58 @@
+package org.sat4j.pb;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Random pseudo boolean problems shared by the tests.
+ */
+public final class RandomPBProblems {
+
+    private RandomPBProblems() {
+        // no instance
+    }
+
+    /**
+     * adds an at least constraint on size literals of distinct variables,
+     * with coefficients between 1 and 5 and a degree of a third of their sum.
+     */
+    public static void addRandomAtLeast(IPBSolver solver, Random rand,
+            int nbVars, int size) throws ContradictionException {
+        IVecInt lits = new VecInt();
+        IVec<BigInteger> coeffs = new Vec<BigInteger>();
+        BigInteger sum = BigInteger.ZERO;
+        while (lits.size() < size) {
+            int var = 1 + rand.nextInt(nbVars);
+            if (!lits.contains(var) && !lits.contains(-var)) {
+                lits.push(rand.nextBoolean() ? var : -var);
+                BigInteger coeff = BigInteger.valueOf(1 + rand.nextInt(5));
+                coeffs.push(coeff);
+                sum = sum.add(coeff);
+            }
+        }
+        solver.addAtLeast(lits, coeffs, sum.divide(BigInteger.valueOf(3)));
+    }
+
+    /**
+     * 
+     * @return an objective function on a random literal of each variable,
+     *         whose coefficients are chosen between -offset and range -
+     *         offset - 1.
+     */
+    public static ObjectiveFunction randomObjective(Random rand, int nbVars,
+            int range, int offset) {
+        IVecInt vars = new VecInt();
+        IVec<BigInteger> coeffs = new Vec<BigInteger>();
+        for (int i = 1; i <= nbVars; i++) {
+            vars.push(rand.nextBoolean() ? i : -i);
+            coeffs.push(BigInteger.valueOf(rand.nextInt(range) - offset));
+        }
+        return new ObjectiveFunction(vars, coeffs);
+    }
+}
@@ -0,0 +1,247 @@
+package org.sat4j.pb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.sat4j.RandomFormulas.randomClause;
+import static org.sat4j.pb.RandomPBProblems.randomObjective;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+public class TestBoundStrategy {
+
+    private static final BigInteger TEN = BigInteger.TEN;
+
+    @Test
+    public void testBinaryBounds() {
+        assertEquals(BigInteger.valueOf(4),
+                BoundStrategy.BINARY.nextBound(BigInteger.ZERO, TEN, 0));
+        assertEquals(BigInteger.valueOf(9),
+                BoundStrategy.BINARY.nextBound(BigInteger.valueOf(9), TEN, 3));
+        assertEquals(BigInteger.valueOf(-5), BoundStrategy.BINARY.nextBound(
+                BigInteger.valueOf(-10), BigInteger.ONE, 0));
+    }
+
+    @Test
+    public void testProgressionBounds() {
+        assertEquals(BigInteger.ZERO,
+                BoundStrategy.PROGRESSION.nextBound(BigInteger.ZERO, TEN, 0));
+        assertEquals(BigInteger.valueOf(8), BoundStrategy.PROGRESSION
+                .nextBound(BigInteger.ONE, TEN, 3));
+        assertEquals(BigInteger.valueOf(9), BoundStrategy.PROGRESSION
+                .nextBound(BigInteger.ONE, TEN, 4));
+    }
+
+    @Test
+    public void testUnsatisfiableProblem() throws ContradictionException,
+            TimeoutException {
+        for (BoundStrategy strategy : BoundStrategy.values()) {
+            PseudoOptDecorator optimizer = new PseudoOptDecorator(
+                    SolverFactory.newDefault());
+            optimizer.setBoundStrategy(strategy);
+            optimizer.newVar(2);
+            optimizer.addClause(new VecInt(new int[] { 1, 2 }));
+            optimizer.addClause(new VecInt(new int[] { -1 }));
+            optimizer.addClause(new VecInt(new int[] { -2 }));
+            assertFalse(optimizer.admitABetterSolution());
+        }
+    }
+
+    @Test
+    public void testSameOptimumWithAllStrategies()
+            throws ContradictionException, TimeoutException {
+        Random rand = new Random(17);
+        for (int i = 0; i < 30; i++) {
+            long seed = rand.nextLong();
+            BigInteger expected = null;
+            for (BoundStrategy strategy : BoundStrategy.values()) {
+                PseudoOptDecorator optimizer = new PseudoOptDecorator(
+                        SolverFactory.newDefault());
+                optimizer.setBoundStrategy(strategy);
+                fillRandomProblem(optimizer, new Random(seed), 2000, 500);
+                BigInteger optimum = optimize(optimizer);
+                assertTrue(optimizer.isOptimal() || optimum != null);
+                if (expected == null) {
+                    expected = optimum;
+                } else {
+                    assertEquals(strategy.toString(), expected, optimum);
+                }
+            }
+        }
+    }
+
+    /**
+     * the size of the generalized totalizer depends on the number of distinct
+     * sums of weights, so the weights are kept small.
+     */
+    @Test
+    public void testSameOptimumWithGeneralizedTotalizer()
+            throws ContradictionException, TimeoutException {
+        Random rand = new Random(17);
+        for (int i = 0; i < 30; i++) {
+            long seed = rand.nextLong();
+            BigInteger expected = null;
+            for (int k = 0; k < 2 * BoundStrategy.values().length; k++) {
+                BoundStrategy strategy = BoundStrategy.values()[k / 2];
+                PseudoOptDecorator optimizer = new PseudoOptDecorator(
+                        SolverFactory.newDefault());
+                optimizer.setBoundStrategy(strategy);
+                optimizer.setUseGeneralizedTotalizer(k % 2 == 1);
+                fillRandomProblem(optimizer, new Random(seed), 40, 10);
+                BigInteger optimum = optimize(optimizer);
+                assertTrue(optimizer.isOptimal() || optimum != null);
+                if (expected == null) {
+                    expected = optimum;
+                } else {
+                    assertEquals(strategy + (k % 2 == 1 ? " with totalizer" : ""),
+                            expected, optimum);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testExponentialWeights()
+            throws ContradictionException, TimeoutException {
+        PseudoOptDecorator linear = new PseudoOptDecorator(
+                SolverFactory.newDefault());
+        PseudoOptDecorator binary = new PseudoOptDecorator(
+                SolverFactory.newDefault());
+        binary.setBoundStrategy(BoundStrategy.BINARY);
+        for (PseudoOptDecorator optimizer : new PseudoOptDecorator[] {
+                linear, binary }) {
+            // minimize sum 2^i x_i with at least one x_i true
+            optimizer.newVar(20);
+            IVecInt vars = new VecInt();
+            IVec<BigInteger> coeffs = new Vec<BigInteger>();
+            for (int i = 1; i <= 20; i++) {
+                vars.push(i);
+                coeffs.push(BigInteger.ONE.shiftLeft(i));
+            }
+            optimizer.addClause(vars);
+            optimizer.setObjectiveFunction(new ObjectiveFunction(vars, coeffs));
+        }
+        assertEquals(BigInteger.valueOf(2), optimize(linear));
+        assertEquals(BigInteger.valueOf(2), optimize(binary));
+        assertTrue(binary.getBoundStrategy() == BoundStrategy.BINARY);
+    }
+
+    @Test
+    public void testLowerBoundProvedUnderOtherAssumptions()
+            throws ContradictionException, TimeoutException {
+        for (BoundStrategy strategy : new BoundStrategy[] {
+                BoundStrategy.BINARY, BoundStrategy.PROGRESSION }) {
+            PseudoOptDecorator optimizer = new PseudoOptDecorator(
+                    SolverFactory.newDefault());
+            optimizer.setBoundStrategy(strategy);
+            // minimize 4 x1 + x2 + x3 with at least one x_i true
+            optimizer.newVar(3);
+            IVecInt vars = new VecInt(new int[] { 1, 2, 3 });
+            IVec<BigInteger> coeffs = new Vec<BigInteger>(new BigInteger[] {
+                    BigInteger.valueOf(4), BigInteger.ONE, BigInteger.ONE });
+            optimizer.addClause(vars);
+            optimizer.setObjectiveFunction(new ObjectiveFunction(vars, coeffs));
+            IVecInt assumps = new VecInt(new int[] { 1 });
+            while (optimizer.admitABetterSolution(assumps)) {
+                optimizer.discardCurrentSolution();
+            }
+            assertEquals(BigInteger.valueOf(4), optimizer.getObjectiveValue());
+            // 4 is only a lower bound when x1 is satisfied
+            assumps = new VecInt(new int[] { -1 });
+            assertTrue(strategy.toString(),
+                    optimizer.admitABetterSolution(assumps));
+            assertEquals(BigInteger.ONE, optimizer.getObjectiveValue());
+        }
+    }
+
+    @Test
+    public void testNewObjectiveFunction() throws ContradictionException,
+            TimeoutException {
+        for (BoundStrategy strategy : BoundStrategy.values()) {
+            PseudoOptDecorator optimizer = new PseudoOptDecorator(
+                    SolverFactory.newDefault());
+            optimizer.setBoundStrategy(strategy);
+            optimizer.newVar(3);
+            IVecInt vars = new VecInt(new int[] { 1, 2, 3 });
+            optimizer.addClause(vars);
+            optimizer.setObjectiveFunction(new ObjectiveFunction(vars,
+                    coefficients(4, 5, 6)));
+            assertEquals(BigInteger.valueOf(4), optimize(optimizer));
+            // the bounds of the first objective function do not hold anymore
+            optimizer.setObjectiveFunction(new ObjectiveFunction(vars,
+                    coefficients(6, 5, 1)));
+            assertEquals(strategy.toString(), BigInteger.ONE,
+                    optimize(optimizer));
+        }
+    }
+
+    @Test
+    public void testNewObjectiveFunctionWithGeneralizedTotalizer()
+            throws ContradictionException, TimeoutException {
+        for (BoundStrategy strategy : BoundStrategy.values()) {
+            PseudoOptDecorator optimizer = new PseudoOptDecorator(
+                    SolverFactory.newDefault());
+            optimizer.setBoundStrategy(strategy);
+            optimizer.setUseGeneralizedTotalizer(true);
+            optimizer.newVar(3);
+            IVecInt vars = new VecInt(new int[] { 1, 2, 3 });
+            optimizer.addClause(vars);
+            optimizer.setObjectiveFunction(new ObjectiveFunction(vars,
+                    coefficients(4, 5, 6)));
+            assertEquals(BigInteger.valueOf(4), optimize(optimizer));
+            // the totalizer encodes the first objective function
+            optimizer.setObjectiveFunction(new ObjectiveFunction(vars,
+                    coefficients(6, 5, 1)));
+            assertEquals(strategy.toString(), BigInteger.ONE,
+                    optimize(optimizer));
+        }
+    }
+
+    private static IVec<BigInteger> coefficients(int... values) {
+        IVec<BigInteger> coeffs = new Vec<BigInteger>(values.length);
+        for (int value : values) {
+            coeffs.push(BigInteger.valueOf(value));
+        }
+        return coeffs;
+    }
+
+    private static BigInteger optimize(PseudoOptDecorator optimizer)
+            throws TimeoutException {
+        BigInteger optimum = null;
+        try {
+            while (optimizer.admitABetterSolution()) {
+                BigInteger value = (BigInteger) optimizer.getObjectiveValue();
+                assertTrue(optimum == null || value.compareTo(optimum) < 0);
+                optimum = value;
+                optimizer.discardCurrentSolution();
+            }
+        } catch (ContradictionException e) {
+            // optimum found
+        }
+        return optimum;
+    }
+
+    /**
+     * generates random 3-clauses and an objective function whose coefficients
+     * are chosen between -offset and range - offset - 1.
+     */
+    private static void fillRandomProblem(IPBSolver solver, Random rand,
+            int range, int offset) throws ContradictionException {
+        int nbVars = 15 + rand.nextInt(10);
+        solver.newVar(nbVars);
+        for (int i = 0; i < 3 * nbVars; i++) {
+            solver.addClause(randomClause(rand, nbVars, 3));
+        }
+        solver.setObjectiveFunction(randomObjective(rand, nbVars, range,
+                offset));
+    }
+}
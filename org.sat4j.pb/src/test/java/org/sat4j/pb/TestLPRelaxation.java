@@ -0,0 +1,173 @@
+package org.sat4j.pb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.sat4j.pb.RandomPBProblems.addRandomAtLeast;
+import static org.sat4j.pb.RandomPBProblems.randomObjective;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.pb.core.BoundedDualSimplex;
+import org.sat4j.pb.core.PBSolver;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+public class TestLPRelaxation {
+
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    public void testFractionalOptimum() {
+        // min x1 + x2 + x3 s.t. x1 + x2 >= 1, x2 + x3 >= 1, x1 + x3 >= 1
+        double[][] a = { { 1, 1, 0 }, { 0, 1, 1 }, { 1, 0, 1 } };
+        BoundedDualSimplex simplex = new BoundedDualSimplex(a, new double[] {
+                1, 1, 1 }, new double[] { 1, 1, 1 });
+        assertEquals(BoundedDualSimplex.Status.OPTIMAL, simplex.solve(100));
+        assertEquals(1.5, simplex.getObjectiveValue(), EPSILON);
+        for (int j = 0; j < 3; j++) {
+            assertEquals(0.5, simplex.getValue(j), EPSILON);
+        }
+    }
+
+    @Test
+    public void testUpperBounds() {
+        // min -x1 - 2 x2 + 3 x3 s.t. x1 + x2 + x3 >= 2, -x1 - x2 >= -1
+        double[][] a = { { 1, 1, 1 }, { -1, -1, 0 } };
+        BoundedDualSimplex simplex = new BoundedDualSimplex(a, new double[] {
+                2, -1 }, new double[] { -1, -2, 3 });
+        assertEquals(BoundedDualSimplex.Status.OPTIMAL, simplex.solve(100));
+        assertEquals(1.0, simplex.getObjectiveValue(), EPSILON);
+        assertEquals(0.0, simplex.getValue(0), EPSILON);
+        assertEquals(1.0, simplex.getValue(1), EPSILON);
+        assertEquals(1.0, simplex.getValue(2), EPSILON);
+    }
+
+    @Test
+    public void testInfeasible() {
+        double[][] a = { { 1, 1 }, { -1, 0 } };
+        BoundedDualSimplex simplex = new BoundedDualSimplex(a, new double[] {
+                2, -0.5 }, new double[] { 1, 1 });
+        assertEquals(BoundedDualSimplex.Status.INFEASIBLE, simplex.solve(100));
+    }
+
+    @Test
+    public void testLowerBoundOfCardinalityConstraint()
+            throws ContradictionException, TimeoutException {
+        PBSolver solver = SolverFactory.newCuttingPlanes();
+        solver.setUseLPRelaxation(true);
+        PseudoOptDecorator optimizer = new PseudoOptDecorator(solver);
+        optimizer.newVar(10);
+        IVecInt vars = new VecInt();
+        IVec<BigInteger> coeffs = new Vec<BigInteger>();
+        for (int i = 1; i <= 10; i++) {
+            vars.push(i);
+            coeffs.push(BigInteger.valueOf(i % 3 + 1));
+        }
+        optimizer.addAtLeast(vars, new VecInt(new int[] { 1, 1, 1, 1, 1, 1,
+                1, 1, 1, 1 }), 5);
+        optimizer.setObjectiveFunction(new ObjectiveFunction(vars, coeffs));
+        assertEquals(BigInteger.valueOf(7), optimize(optimizer));
+        assertNotNull(solver.getObjectiveLowerBound());
+        assertTrue(solver.getObjectiveLowerBound().compareTo(
+                BigInteger.valueOf(7)) <= 0);
+    }
+
+    @Test
+    public void testNoBetterSolution() throws ContradictionException,
+            TimeoutException {
+        PBSolver solver = SolverFactory.newCuttingPlanes();
+        solver.setUseLPRelaxation(true);
+        PseudoOptDecorator optimizer = new PseudoOptDecorator(solver);
+        optimizer.newVar(3);
+        optimizer.addClause(new VecInt(new int[] { 1, 2 }));
+        optimizer.addClause(new VecInt(new int[] { 2, 3 }));
+        optimizer.addClause(new VecInt(new int[] { 1, 3 }));
+        IVecInt vars = new VecInt(new int[] { 1, 2, 3 });
+        IVec<BigInteger> coeffs = new Vec<BigInteger>();
+        coeffs.push(BigInteger.ONE).push(BigInteger.ONE).push(BigInteger.ONE);
+        optimizer.setObjectiveFunction(new ObjectiveFunction(vars, coeffs));
+        assertTrue(optimizer.admitABetterSolution());
+        optimizer.discardCurrentSolution();
+        if (optimizer.getObjectiveValue().intValue() > 2) {
+            assertTrue(optimizer.admitABetterSolution());
+            optimizer.discardCurrentSolution();
+        }
+        // the relaxation proves that 2 is a lower bound
+        assertFalse(optimizer.admitABetterSolution());
+        assertEquals(BigInteger.valueOf(2), solver.getObjectiveLowerBound());
+    }
+
+    @Test
+    public void testLowerBoundWithCoefficientsNotRepresentableAsDoubles()
+            throws ContradictionException, TimeoutException {
+        PBSolver solver = SolverFactory.newCuttingPlanes();
+        solver.setUseLPRelaxation(true);
+        PseudoOptDecorator optimizer = new PseudoOptDecorator(solver);
+        optimizer.newVar(2);
+        optimizer.addClause(new VecInt(new int[] { 1, 2 }));
+        // 2^53 + 3 is rounded to 2^53 + 4 as a double
+        BigInteger coeff = BigInteger.ONE.shiftLeft(53).add(
+                BigInteger.valueOf(3));
+        IVecInt vars = new VecInt(new int[] { 1, 2 });
+        IVec<BigInteger> coeffs = new Vec<BigInteger>();
+        coeffs.push(coeff).push(coeff);
+        optimizer.setObjectiveFunction(new ObjectiveFunction(vars, coeffs));
+        assertEquals(coeff, optimize(optimizer));
+        assertNotNull(solver.getObjectiveLowerBound());
+        assertTrue(solver.getObjectiveLowerBound().compareTo(coeff) <= 0);
+    }
+
+    @Test
+    public void testSameOptimumWithAndWithoutRelaxation()
+            throws ContradictionException, TimeoutException {
+        Random rand = new Random(19);
+        for (int i = 0; i < 40; i++) {
+            long seed = rand.nextLong();
+            PBSolver withLP = SolverFactory.newCuttingPlanes();
+            withLP.setUseLPRelaxation(true);
+            PseudoOptDecorator optimizer = new PseudoOptDecorator(withLP);
+            fillRandomProblem(optimizer, new Random(seed));
+            BigInteger optimum = optimize(optimizer);
+            PseudoOptDecorator reference = new PseudoOptDecorator(
+                    SolverFactory.newCuttingPlanes());
+            fillRandomProblem(reference, new Random(seed));
+            assertEquals(optimize(reference), optimum);
+            if (optimum != null) {
+                assertTrue(withLP.getObjectiveLowerBound() == null
+                        || withLP.getObjectiveLowerBound().compareTo(optimum) <= 0);
+            }
+        }
+    }
+
+    private static BigInteger optimize(PseudoOptDecorator optimizer)
+            throws TimeoutException {
+        BigInteger optimum = null;
+        try {
+            while (optimizer.admitABetterSolution()) {
+                optimum = (BigInteger) optimizer.getObjectiveValue();
+                optimizer.discardCurrentSolution();
+            }
+        } catch (ContradictionException e) {
+            // optimum found
+        }
+        return optimum;
+    }
+
+    private static void fillRandomProblem(IPBSolver solver, Random rand)
+            throws ContradictionException {
+        int nbVars = 15 + rand.nextInt(10);
+        solver.newVar(nbVars);
+        for (int i = 0; i < 2 * nbVars; i++) {
+            addRandomAtLeast(solver, rand, nbVars, 3 + rand.nextInt(3));
+        }
+        solver.setObjectiveFunction(randomObjective(rand, nbVars, 40, 10));
+    }
+}
@@ -0,0 +1,150 @@
+package org.sat4j.pb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.sat4j.pb.RandomPBProblems.addRandomAtLeast;
+import static org.sat4j.pb.RandomPBProblems.randomObjective;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.pb.tools.PBLocalSearch;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+public class TestLocalSearch {
+
+    @Test
+    public void testLocalSearchImprovesTheSeed() throws ContradictionException,
+            TimeoutException, InterruptedException {
+        // minimize the number of true variables covering a chain
+        IPBSolver solver = SolverFactory.newDefault();
+        int n = 30;
+        solver.newVar(n);
+        for (int i = 1; i < n; i++) {
+            solver.addClause(new VecInt(new int[] { i, i + 1 }));
+        }
+        IVecInt vars = new VecInt();
+        IVec<BigInteger> coeffs = new Vec<BigInteger>();
+        for (int i = 1; i <= n; i++) {
+            vars.push(i);
+            coeffs.push(BigInteger.ONE);
+        }
+        ObjectiveFunction obj = new ObjectiveFunction(vars, coeffs);
+        solver.setObjectiveFunction(obj);
+        PBLocalSearch search = PBLocalSearch.create(solver, obj);
+        assertNotNull(search);
+        int[] seed = new int[n];
+        for (int i = 0; i < n; i++) {
+            seed[i] = i + 1;
+        }
+        search.seed(seed);
+        for (int i = 0; i < 100 && search.getBestValue() > n / 2; i++) {
+            Thread.sleep(50);
+        }
+        search.stop();
+        assertEquals(n / 2, search.getBestValue());
+        int[] model = search.getBestModel();
+        assertTrue(solver.isSatisfiable(new VecInt(model)));
+    }
+
+    @Test
+    public void testNoLocalSearchSolutionAfterNewConstraints()
+            throws ContradictionException, TimeoutException,
+            InterruptedException {
+        PseudoOptDecorator optimizer = new PseudoOptDecorator(
+                SolverFactory.newDefault());
+        optimizer.setUseLocalSearch(true);
+        int n = 30;
+        optimizer.newVar(n);
+        for (int i = 1; i < n; i++) {
+            optimizer.addClause(new VecInt(new int[] { i, i + 1 }));
+        }
+        IVecInt vars = new VecInt();
+        IVec<BigInteger> coeffs = new Vec<BigInteger>();
+        for (int i = 1; i <= n; i++) {
+            vars.push(i);
+            coeffs.push(BigInteger.ONE);
+        }
+        optimizer.setObjectiveFunction(new ObjectiveFunction(vars, coeffs));
+        assertTrue(optimizer.admitABetterSolution());
+        // let the local search find better solutions
+        Thread.sleep(200);
+        for (int i = 1; i <= n; i++) {
+            optimizer.addClause(new VecInt(new int[] { i }));
+        }
+        assertTrue(optimizer.admitABetterSolution());
+        for (int x : optimizer.model()) {
+            assertTrue(x > 0);
+        }
+        assertEquals(BigInteger.valueOf(n), optimizer.getObjectiveValue());
+        optimizer.reset();
+    }
+
+    @Test
+    public void testNotAvailableWithoutObjectiveFunction() {
+        assertNull(PBLocalSearch.create(SolverFactory.newDefault(), null));
+    }
+
+    @Test
+    public void testSameOptimumWithLocalSearch()
+            throws ContradictionException, TimeoutException {
+        Random rand = new Random(23);
+        for (int i = 0; i < 30; i++) {
+            long seed = rand.nextLong();
+            PseudoOptDecorator optimizer = new PseudoOptDecorator(
+                    SolverFactory.newDefault());
+            optimizer.setUseLocalSearch(true);
+            fillRandomProblem(optimizer, new Random(seed));
+            IPBSolver checker = SolverFactory.newDefault();
+            fillRandomProblem(checker, new Random(seed));
+            BigInteger optimum = null;
+            try {
+                while (optimizer.admitABetterSolution()) {
+                    BigInteger value = (BigInteger) optimizer
+                            .getObjectiveValue();
+                    assertTrue(optimum == null || value.compareTo(optimum) < 0);
+                    optimum = value;
+                    // the solution satisfies the constraints
+                    assertTrue(checker.isSatisfiable(new VecInt(optimizer
+                            .model())));
+                    assertEquals(value, checker.getObjectiveFunction()
+                            .calculateDegree(checker));
+                    optimizer.discardCurrentSolution();
+                }
+            } catch (ContradictionException e) {
+                // optimum found
+            }
+            PseudoOptDecorator reference = new PseudoOptDecorator(
+                    SolverFactory.newDefault());
+            fillRandomProblem(reference, new Random(seed));
+            BigInteger expected = null;
+            try {
+                while (reference.admitABetterSolution()) {
+                    expected = (BigInteger) reference.getObjectiveValue();
+                    reference.discardCurrentSolution();
+                }
+            } catch (ContradictionException e) {
+                // optimum found
+            }
+            assertEquals(expected, optimum);
+        }
+    }
+
+    private static void fillRandomProblem(IPBSolver solver, Random rand)
+            throws ContradictionException {
+        int nbVars = 20 + rand.nextInt(10);
+        solver.newVar(nbVars);
+        for (int i = 0; i < 2 * nbVars; i++) {
+            addRandomAtLeast(solver, rand, nbVars, 4);
+        }
+        solver.setObjectiveFunction(randomObjective(rand, nbVars, 40, 10));
+    }
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.pb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.pb.constraints.pb.LongConflictMap;
+import org.sat4j.pb.core.PBSolverCP;
+import org.sat4j.pb.core.PBSolverStats;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+public class TestLongConflictMap {
+
+    private static final int NBVARS = 30;
+
+    private static final int NBCONSTRS = 25;
+
+    private static final int NBINSTANCES = 10;
+
+    /**
+     * generates random pseudo-boolean constraints requiring half of the sum of
+     * their coefficients.
+     */
+    private void fill(IPBSolver solver, long seed, int nbBits) {
+        Random rand = new Random(seed);
+        solver.newVar(NBVARS);
+        IVecInt lits;
+        IVec<BigInteger> coefs;
+        BigInteger sum, coef;
+        for (int c = 0; c < NBCONSTRS; c++) {
+            lits = new VecInt();
+            coefs = new Vec<BigInteger>();
+            sum = BigInteger.ZERO;
+            for (int i = 1; i <= NBVARS; i++) {
+                if (rand.nextInt(3) == 0) {
+                    lits.push(rand.nextBoolean() ? i : -i);
+                    coef = new BigInteger(nbBits, rand).add(BigInteger.ONE);
+                    coefs.push(coef);
+                    sum = sum.add(coef);
+                }
+            }
+            try {
+                solver.addPseudoBoolean(lits, coefs, true,
+                        sum.shiftRight(1));
+            } catch (ContradictionException e) {
+                // the solver will answer unsat
+            }
+        }
+    }
+
+    /**
+     * solves the same instances with BigIntegers and with longs, checking that
+     * exactly the same search is performed.
+     * 
+     * @return the number of overflows to BigIntegers.
+     */
+    private long checkSameSearch(int nbBits) throws TimeoutException {
+        long overflows = 0;
+        for (long seed = 0; seed < NBINSTANCES; seed++) {
+            PBSolverCP bigSolver = SolverFactory.newCuttingPlanes();
+            fill(bigSolver, seed, nbBits);
+            PBSolverCP longSolver = SolverFactory
+                    .newCuttingPlanesLongArithmetic();
+            fill(longSolver, seed, nbBits);
+            assertEquals(bigSolver.isSatisfiable(),
+                    longSolver.isSatisfiable());
+            assertEquals(bigSolver.getStats().getConflicts(),
+                    longSolver.getStats().getConflicts());
+            assertEquals(bigSolver.getStats().getDecisions(),
+                    longSolver.getStats().getDecisions());
+            PBSolverStats bigStats = (PBSolverStats) bigSolver.getStats();
+            PBSolverStats longStats = (PBSolverStats) longSolver.getStats();
+            assertEquals(bigStats.getNumberOfEndingSkipping(),
+                    longStats.getNumberOfEndingSkipping());
+            assertEquals(bigStats.getNumberOfInternalSkipping(),
+                    longStats.getNumberOfInternalSkipping());
+            overflows += longStats.getNumberOfOverflowsToBigInteger();
+        }
+        return overflows;
+    }
+
+    @Test
+    public void testSameSearchWithSmallCoefficients() throws TimeoutException {
+        checkSameSearch(4);
+    }
+
+    @Test
+    public void testSameSearchWhenOverflowing() throws TimeoutException {
+        assertTrue(checkSameSearch(40) > 0);
+    }
+
+    @Test
+    public void testCoefficientsLargerThanLongs()
+            throws ContradictionException, TimeoutException {
+        PBSolverCP solver = SolverFactory.newCuttingPlanes();
+        solver.setConflictFactory(LongConflictMap.factory());
+        BigInteger big = BigInteger.ONE.shiftLeft(70);
+        IVecInt lits = new VecInt(new int[] { 1, 2, 3 });
+        IVec<BigInteger> coefs = new Vec<BigInteger>(new BigInteger[] { big,
+                big.add(BigInteger.ONE), big.add(BigInteger.ONE) });
+        solver.addPseudoBoolean(lits, coefs, true, big.shiftLeft(1));
+        coefs = new Vec<BigInteger>(new BigInteger[] { big,
+                big.add(BigInteger.ONE), big });
+        solver.addPseudoBoolean(new VecInt(new int[] { -1, -2, -3 }), coefs,
+                true, big.shiftLeft(1));
+        assertEquals(Boolean.FALSE, Boolean.valueOf(solver.isSatisfiable()));
+    }
+}
@@ -0,0 +1,79 @@
+package org.sat4j.pb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.pb.tools.PreprocessingDecoratorPB;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+public class TestPreprocessingDecoratorPB {
+
+    private static void addClauses(IPBSolver solver)
+            throws ContradictionException {
+        solver.newVar(4);
+        solver.addClause(new VecInt(new int[] { 1, 2 }));
+        solver.addClause(new VecInt(new int[] { 1, 3 }));
+        solver.addClause(new VecInt(new int[] { -1, 4 }));
+    }
+
+    private static ObjectiveFunction objective() {
+        IVecInt vars = new VecInt(new int[] { 1, 2, 3, 4 });
+        IVec<BigInteger> coeffs = new Vec<BigInteger>();
+        coeffs.push(BigInteger.valueOf(3));
+        coeffs.push(BigInteger.ONE);
+        coeffs.push(BigInteger.ONE);
+        coeffs.push(BigInteger.ONE);
+        return new ObjectiveFunction(vars, coeffs);
+    }
+
+    @Test
+    public void testVariablesAreEliminatedWithoutObjectiveFunction()
+            throws ContradictionException, TimeoutException {
+        PreprocessingDecoratorPB solver = new PreprocessingDecoratorPB(
+                SolverFactory.newDefault());
+        addClauses(solver);
+        assertTrue(solver.isSatisfiable());
+        assertTrue(solver.getNumberOfEliminatedVariables() > 0);
+    }
+
+    @Test
+    public void testObjectiveVariablesAreFrozen()
+            throws ContradictionException, TimeoutException {
+        PreprocessingDecoratorPB solver = new PreprocessingDecoratorPB(
+                SolverFactory.newDefault());
+        addClauses(solver);
+        solver.setObjectiveFunction(objective());
+        assertTrue(solver.isSatisfiable());
+        assertEquals(0, solver.getNumberOfEliminatedVariables());
+    }
+
+    @Test
+    public void testOptimizationOnPreprocessedClauses()
+            throws ContradictionException, TimeoutException {
+        PreprocessingDecoratorPB solver = new PreprocessingDecoratorPB(
+                SolverFactory.newDefault());
+        PseudoOptDecorator optimizer = new PseudoOptDecorator(solver);
+        addClauses(optimizer);
+        optimizer.setObjectiveFunction(objective());
+        BigInteger optimum = null;
+        try {
+            while (optimizer.admitABetterSolution()) {
+                optimum = (BigInteger) optimizer.getObjectiveValue();
+                optimizer.discardCurrentSolution();
+            }
+        } catch (ContradictionException e) {
+            // optimum found
+        }
+        // x2 and x3
+        assertEquals(BigInteger.valueOf(2), optimum);
+        assertEquals(0, solver.getNumberOfEliminatedVariables());
+    }
+}
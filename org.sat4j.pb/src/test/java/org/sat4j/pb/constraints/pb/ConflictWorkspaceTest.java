@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004, 2012 Artois University and CNRS
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ *
+ * Based on the original MiniSat specification from:
+ *
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ *
+ * Contributors:
+ *   CRIL - initial API and implementation
+ *******************************************************************************/
+package org.sat4j.pb.constraints.pb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+
+public class ConflictWorkspaceTest {
+
+    private ConflictWorkspace workspace;
+
+    @Before
+    public void setUp() {
+        this.workspace = new ConflictWorkspace();
+        this.workspace.reset(22);
+    }
+
+    @Test
+    public void testResetOnlyClearsTouchedLiterals() {
+        for (int lit = 0; lit < 22; lit++) {
+            assertEquals(-1, this.workspace.get(lit));
+        }
+        this.workspace.set(4, 0);
+        this.workspace.set(9, 1);
+        this.workspace.set(4, 2);
+        this.workspace.set(9, -1);
+        assertEquals(2, this.workspace.get(4));
+        assertEquals(-1, this.workspace.get(9));
+        this.workspace.reset(22);
+        for (int lit = 0; lit < 22; lit++) {
+            assertEquals(-1, this.workspace.get(lit));
+        }
+    }
+
+    @Test
+    public void testGrowsWithTheVocabulary() {
+        this.workspace.set(21, 0);
+        this.workspace.reset(1000);
+        for (int lit = 0; lit < 1000; lit++) {
+            assertEquals(-1, this.workspace.get(lit));
+        }
+        this.workspace.set(999, 3);
+        assertEquals(3, this.workspace.get(999));
+    }
+
+    @Test
+    public void testLevelsAreReused() {
+        VecInt[] byLevel = this.workspace.byLevel(5);
+        assertTrue(byLevel.length >= 5);
+        byLevel[3] = this.workspace.level(3);
+        byLevel[3].push(12);
+        VecInt level = byLevel[3];
+        byLevel = this.workspace.byLevel(4);
+        for (int i = 0; i < byLevel.length; i++) {
+            assertNull(byLevel[i]);
+        }
+        assertSame(level, this.workspace.level(3));
+        assertTrue(level.isEmpty());
+    }
+}
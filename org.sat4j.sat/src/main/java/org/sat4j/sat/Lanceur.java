@@ -53,6 +53,8 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.cli.CommandLine;
@@ -82,6 +84,7 @@ import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
 import org.sat4j.tools.ConflictDepthTracing;
 import org.sat4j.tools.ConflictLevelTracing;
+import org.sat4j.tools.CubeAndConquer;
 import org.sat4j.tools.DecisionTracing;
 import org.sat4j.tools.DotSearchTracing;
 import org.sat4j.tools.FileBasedVisualizationTool;
@@ -132,7 +135,7 @@ public class Lanceur extends AbstractLauncher implements ILogAble {
      */
     @SuppressWarnings({ "nls", "unchecked" })
     @Override
-    protected ICDCL configureSolver(String[] args) {
+    protected ISolver configureSolver(String[] args) {
         Options options = createCLIOptions();
 
         try {
@@ -161,6 +164,15 @@ public class Lanceur extends AbstractLauncher implements ILogAble {
 
             ICDCL asolver = Solvers.configureSolver(args, this);
 
+            List<ISolver> workers = new ArrayList<ISolver>();
+            workers.add(asolver);
+            if (cmd.hasOption("cc") && !this.isModeOptimization) {
+                int nbThreads = Integer.parseInt(cmd.getOptionValue("cc"));
+                for (int i = 1; i < nbThreads; i++) {
+                    workers.add(Solvers.configureSolver(args, this));
+                }
+            }
+
             this.launchRemoteControl = cmd.hasOption("remote");
 
             this.filename = cmd.getOptionValue("f");
@@ -252,7 +264,9 @@ public class Lanceur extends AbstractLauncher implements ILogAble {
                 assert param.length == 2;
                 log("setting " + param[0] + " to " + param[1]); //$NON-NLS-1$ //$NON-NLS-2$
                 try {
-                    BeanUtils.setProperty(asolver, param[0], param[1]);
+                    for (ISolver worker : workers) {
+                        BeanUtils.setProperty(worker, param[0], param[1]);
+                    }
                 } catch (Exception e) {
                     log("Cannot set parameter : " //$NON-NLS-1$
                             + args[others]);
@@ -261,6 +275,9 @@ public class Lanceur extends AbstractLauncher implements ILogAble {
             }
 
             getLogWriter().println(asolver.toString(COMMENT_PREFIX)); //$NON-NLS-1$
+            if (cmd.hasOption("cc") && !this.isModeOptimization) {
+                return cubeAndConquer(cmd, workers);
+            }
             return asolver;
         } catch (ParseException e1) {
             HelpFormatter helpf = new HelpFormatter();
@@ -270,6 +287,24 @@ public class Lanceur extends AbstractLauncher implements ILogAble {
         return null;
     }
 
+    /**
+     * Solve the problem by cube and conquer, one thread per solver. The
+     * timeout is global to the search, the solvers themselves being limited
+     * in number of conflicts for each cube.
+     */
+    private ISolver cubeAndConquer(CommandLine cmd, List<ISolver> workers) {
+        CubeAndConquer<ISolver> cubes = new CubeAndConquer<ISolver>(
+                workers.toArray(new ISolver[workers.size()]));
+        if (cmd.hasOption("T")) {
+            cubes.setTimeoutMs(Long.parseLong(cmd.getOptionValue("T")));
+        } else if (cmd.hasOption("t") && !cmd.hasOption("C")) {
+            cubes.setTimeout(Integer.parseInt(cmd.getOptionValue("t")));
+        }
+        log("solving by cube and conquer with " + workers.size() //$NON-NLS-1$
+                + " threads"); //$NON-NLS-1$
+        return cubes;
+    }
+
     @Override
     protected Reader createReader(ISolver theSolver, String problemname) {
         if (theSolver instanceof IPBSolver) {
@@ -474,6 +509,8 @@ public class Lanceur extends AbstractLauncher implements ILogAble {
                 "keep the solver hot (do not reset heuristics) when a model is found");
         options.addOption("y", "simplify", false,
                 "simplify the set of clauses is possible");
+        options.addOption("cc", "cubeAndConquer", true,
+                "solves the problem by cube and conquer with the given number of threads");
         Option op = options.getOption("l");
         op.setArgName("libname");
         op = options.getOption("s");
@@ -496,6 +533,8 @@ public class Lanceur extends AbstractLauncher implements ILogAble {
         op.setArgName("searchlistener");
         op = options.getOption("rw");
         op.setArgName(NUMBER);
+        op = options.getOption("cc");
+        op.setArgName(NUMBER);
         return options;
     }
 
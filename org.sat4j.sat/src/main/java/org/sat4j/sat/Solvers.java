@@ -233,6 +233,8 @@ public final class Solvers {
                 "incomplete mode for maxsat");
         options.addOption("n", "no solution line", false,
                 "Do not display a solution line (useful if the solution is large)");
+        options.addOption("cc", "cubeAndConquer", true,
+                "solves the problem by cube and conquer with the given number of threads");
         Option op = options.getOption("l");
         op.setArgName("libname");
         op = options.getOption("s");
@@ -253,6 +255,8 @@ public final class Solvers {
         op.setArgName(FILENAME);
         op = options.getOption("rw");
         op.setArgName(NUMBER);
+        op = options.getOption("cc");
+        op.setArgName(NUMBER);
         return options;
     }
 
@@ -581,7 +585,8 @@ public final class Solvers {
     }
 
     public static void showSimplifiers(ILogAble logger) {
-        logger.log("Available simplifiers ("+Solvers.SIMP+"): [NO_SIMPLIFICATION, SIMPLE_SIMPLIFICATION, EXPENSIVE_SIMPLIFICATION]");
+        logger.log("Available simplifiers ("+Solvers.SIMP+"): "
+                + Arrays.asList(SimplificationType.values()));
     }
 
     public static void showAvailableConstraintsCleaningStrategies(